@@ -0,0 +1,137 @@
+package io.split.client;
+
+import com.google.gson.stream.JsonReader;
+import io.split.client.dtos.SegmentChange;
+import io.split.client.utils.Json;
+import io.split.engine.common.FetchOptions;
+import io.split.engine.segments.AsyncStreamingSegmentChangeFetcher;
+import io.split.engine.segments.StreamingSegmentChangeFetcher;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequests;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Fetches segment changes over a non-blocking client, so that all the segments can be requested at once and share the
+ * same few connections (multiplexed over HTTP/2 when the server supports it) and I/O threads.
+ * <p>
+ * Blocking and streaming fetches go through the wrapped HttpSegmentChangeFetcher, which also builds the requests and checks the
+ * responses for both.
+ * <p>
+ * The non-blocking client pushes the body as it arrives while the json reader pulls it, so the (possibly compressed)
+ * body is buffered before being read. When given a consumer, the added keys are handed to it as they are read from
+ * that buffer instead of being collected into a list.
+ */
+public final class AsyncHttpSegmentChangeFetcher implements AsyncStreamingSegmentChangeFetcher, StreamingSegmentChangeFetcher {
+    private static final Logger _log = LoggerFactory.getLogger(AsyncHttpSegmentChangeFetcher.class);
+
+    private static final String CACHE_CONTROL_HEADER_NAME = "Cache-Control";
+    private static final String CACHE_CONTROL_HEADER_VALUE = "no-cache";
+    private static final String CONTENT_ENCODING_HEADER_NAME = "Content-Encoding";
+
+    private final HttpSegmentChangeFetcher _fetcher;
+    private final CloseableHttpAsyncClient _client;
+
+    public AsyncHttpSegmentChangeFetcher(HttpSegmentChangeFetcher fetcher, CloseableHttpAsyncClient client) {
+        _fetcher = checkNotNull(fetcher);
+        _client = checkNotNull(client);
+    }
+
+    @Override
+    public SegmentChange fetch(String segmentName, long since, FetchOptions options) {
+        return _fetcher.fetch(segmentName, since, options);
+    }
+
+    @Override
+    public SegmentChange fetch(String segmentName, long since, FetchOptions options, Consumer<String> addedConsumer) {
+        return _fetcher.fetch(segmentName, since, options, addedConsumer);
+    }
+
+    @Override
+    public CompletableFuture<SegmentChange> fetchAsync(String segmentName, long since, FetchOptions options) {
+        return fetchAsync(segmentName, since, options, null);
+    }
+
+    @Override
+    public CompletableFuture<SegmentChange> fetchAsync(String segmentName, long since, FetchOptions options,
+                                                       Consumer<String> addedConsumer) {
+        long start = System.nanoTime();
+        CompletableFuture<SegmentChange> result = new CompletableFuture<>();
+        try {
+            URI uri = _fetcher.buildUri(segmentName, since, options);
+            SimpleHttpRequest request = SimpleHttpRequests.get(uri);
+            if (options.cacheControlHeadersEnabled()) {
+                request.setHeader(CACHE_CONTROL_HEADER_NAME, CACHE_CONTROL_HEADER_VALUE);
+            }
+
+            _client.execute(request, new FutureCallback<SimpleHttpResponse>() {
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    _fetcher.recordLatency(start);
+                    if (_log.isDebugEnabled()) {
+                        _log.debug(String.format("[%s] %s. Status code: %s", request.getMethod(), uri, response.getCode()));
+                    }
+                    try {
+                        _fetcher.checkStatus(segmentName, since, response.getCode(), response.getReasonPhrase());
+                        result.complete(read(response, addedConsumer));
+                    } catch (Exception e) {
+                        result.completeExceptionally(HttpSegmentChangeFetcher.syncError(segmentName, since, e));
+                    }
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    _fetcher.recordLatency(start);
+                    result.completeExceptionally(HttpSegmentChangeFetcher.syncError(segmentName, since, e));
+                }
+
+                @Override
+                public void cancelled() {
+                    _fetcher.recordLatency(start);
+                    result.cancel(false);
+                }
+            });
+        } catch (Exception e) {
+            result.completeExceptionally(HttpSegmentChangeFetcher.syncError(segmentName, since, e));
+        }
+        return result;
+    }
+
+    /**
+     * The non-blocking client does not decompress responses, so gzip is undone here.
+     *
+     * @param addedConsumer nullable, when the added keys are to be kept in the change.
+     */
+    private static SegmentChange read(SimpleHttpResponse response, Consumer<String> addedConsumer) throws IOException {
+        byte[] body = response.getBodyBytes();
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        InputStream in = new ByteArrayInputStream(body);
+        Header encoding = response.getFirstHeader(CONTENT_ENCODING_HEADER_NAME);
+        if (encoding != null && "gzip".equalsIgnoreCase(encoding.getValue())) {
+            in = new GZIPInputStream(in);
+        }
+        try (JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return addedConsumer == null
+                    ? Json.fromJson(reader, SegmentChange.class)
+                    : HttpSegmentChangeFetcher.read(reader, addedConsumer);
+        }
+    }
+}
@@ -1,11 +1,12 @@
 package io.split.client;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import io.split.client.dtos.SegmentChange;
-import io.split.client.utils.Json;
 import io.split.client.utils.Utils;
 import io.split.engine.common.FetchOptions;
-import io.split.engine.segments.SegmentChangeFetcher;
+import io.split.engine.segments.StreamingSegmentChangeFetcher;
 import io.split.telemetry.domain.enums.HTTPLatenciesEnum;
 import io.split.telemetry.domain.enums.LastSynchronizationRecordsEnum;
 import io.split.telemetry.domain.enums.ResourceEnum;
@@ -14,25 +15,35 @@ import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.core5.http.HttpStatus;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.net.URIBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Created by adilaijaz on 5/22/15.
  */
-public final class HttpSegmentChangeFetcher implements SegmentChangeFetcher {
+public final class HttpSegmentChangeFetcher implements StreamingSegmentChangeFetcher {
     private static final Logger _log = LoggerFactory.getLogger(HttpSegmentChangeFetcher.class);
 
     private static final String SINCE = "since";
     private static final String TILL = "till";
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String ADDED = "added";
+    private static final String REMOVED = "removed";
     private static final String PREFIX = "segmentChangeFetcher";
     private static final String CACHE_CONTROL_HEADER_NAME = "Cache-Control";
     private static final String CACHE_CONTROL_HEADER_VALUE = "no-cache";
@@ -55,20 +66,26 @@ public final class HttpSegmentChangeFetcher implements SegmentChangeFetcher {
 
     @Override
     public SegmentChange fetch(String segmentName, long since, FetchOptions options) {
-        long start = System.currentTimeMillis();
+        List<String> added = new ArrayList<>();
+        SegmentChange change = fetch(segmentName, since, options, added::add);
+        if (change != null) {
+            change.added = added;
+        }
+        return change;
+    }
+
+    /**
+     * Reads the response as it arrives, so that each added key is handed to the consumer while the rest of the body is
+     * still being transferred.
+     */
+    @Override
+    public SegmentChange fetch(String segmentName, long since, FetchOptions options, Consumer<String> addedConsumer) {
+        long start = System.nanoTime();
 
         CloseableHttpResponse response = null;
 
         try {
-            String path = _target.getPath() + "/" + segmentName;
-            URIBuilder uriBuilder = new URIBuilder(_target)
-                    .setPath(path)
-                    .addParameter(SINCE, "" + since);
-            if (options.hasCustomCN()) {
-                uriBuilder.addParameter(TILL, "" + options.targetCN());
-            }
-
-            URI uri = uriBuilder.build();
+            URI uri = buildUri(segmentName, since, options);
             HttpGet request = new HttpGet(uri);
 
             if(options.cacheControlHeadersEnabled()) {
@@ -83,33 +100,123 @@ public final class HttpSegmentChangeFetcher implements SegmentChangeFetcher {
                 _log.debug(String.format("[%s] %s. Status code: %s", request.getMethod(), uri.toURL(), statusCode));
             }
 
-            if (statusCode < HttpStatus.SC_OK || statusCode >= HttpStatus.SC_MULTIPLE_CHOICES) {
-                _telemetryRuntimeProducer.recordSyncError(ResourceEnum.SEGMENT_SYNC, statusCode);
-                _log.error(String.format("Response status was: %s. Reason: %s", statusCode , response.getReasonPhrase()));
-                if (statusCode == HttpStatus.SC_FORBIDDEN) {
-                    _log.error("factory instantiation: you passed a client side type sdkKey, " +
-                            "please grab an sdk key from the Split user interface that is of type server side");
-                }
-                throw new IllegalStateException(String.format("Could not retrieve segment changes for %s, since %s; http return code %s",
-                        segmentName, since, statusCode));
-            }
-
-            _telemetryRuntimeProducer.recordSuccessfulSync(LastSynchronizationRecordsEnum.SEGMENTS, System.currentTimeMillis());
-
-            String json = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            checkStatus(segmentName, since, statusCode, response.getReasonPhrase());
 
-            return Json.fromJson(json, SegmentChange.class);
+            try (JsonReader reader = new JsonReader(new InputStreamReader(response.getEntity().getContent(), StandardCharsets.UTF_8))) {
+                return read(reader, addedConsumer);
+            }
         } catch (Exception e) {
-            throw new IllegalStateException(String.format("Error occurred when trying to sync segment: %s, since: %s. Details: %s",
-                    segmentName, since, e), e);
+            throw syncError(segmentName, since, e);
         } finally {
-            _telemetryRuntimeProducer.recordSyncLatency(HTTPLatenciesEnum.SEGMENTS, System.currentTimeMillis()-start);
+            recordLatency(start);
             Utils.forceClose(response);
         }
 
 
     }
 
+    /**
+     * Reads a segmentChanges payload, passing every added key to the consumer instead of collecting them.
+     *
+     * @return null if the payload is empty, as Gson does.
+     */
+    @VisibleForTesting
+    /* package private */ static SegmentChange read(JsonReader reader, Consumer<String> addedConsumer) throws IOException {
+        try {
+            reader.peek();
+        } catch (EOFException e) {
+            return null;
+        }
+        SegmentChange change = new SegmentChange();
+        change.added = Collections.emptyList();
+        change.removed = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case ID:
+                    change.id = nextStringOrNull(reader);
+                    break;
+                case NAME:
+                    change.name = nextStringOrNull(reader);
+                    break;
+                case ADDED:
+                    readKeys(reader, addedConsumer);
+                    break;
+                case REMOVED:
+                    readKeys(reader, change.removed::add);
+                    break;
+                case SINCE:
+                    change.since = reader.nextLong();
+                    break;
+                case TILL:
+                    change.till = reader.nextLong();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return change;
+    }
+
+    private static void readKeys(JsonReader reader, Consumer<String> consumer) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            consumer.accept(reader.nextString());
+        }
+        reader.endArray();
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    /* package private */ URI buildUri(String segmentName, long since, FetchOptions options) throws URISyntaxException {
+        String path = _target.getPath() + "/" + segmentName;
+        URIBuilder uriBuilder = new URIBuilder(_target)
+                .setPath(path)
+                .addParameter(SINCE, "" + since);
+        if (options.hasCustomCN()) {
+            uriBuilder.addParameter(TILL, "" + options.targetCN());
+        }
+        return uriBuilder.build();
+    }
+
+    /**
+     * Records the outcome of a request, and throws if its status is not a success.
+     */
+    /* package private */ void checkStatus(String segmentName, long since, int statusCode, String reasonPhrase) {
+        if (statusCode < HttpStatus.SC_OK || statusCode >= HttpStatus.SC_MULTIPLE_CHOICES) {
+            _telemetryRuntimeProducer.recordSyncError(ResourceEnum.SEGMENT_SYNC, statusCode);
+            _log.error(String.format("Response status was: %s. Reason: %s", statusCode , reasonPhrase));
+            if (statusCode == HttpStatus.SC_FORBIDDEN) {
+                _log.error("factory instantiation: you passed a client side type sdkKey, " +
+                        "please grab an sdk key from the Split user interface that is of type server side");
+            }
+            throw new IllegalStateException(String.format("Could not retrieve segment changes for %s, since %s; http return code %s",
+                    segmentName, since, statusCode));
+        }
+
+        _telemetryRuntimeProducer.recordSuccessfulSync(LastSynchronizationRecordsEnum.SEGMENTS, System.currentTimeMillis());
+    }
+
+    /* package private */ void recordLatency(long startNanos) {
+        _telemetryRuntimeProducer.recordSyncLatency(HTTPLatenciesEnum.SEGMENTS, System.nanoTime() - startNanos);
+    }
+
+    /* package private */ static IllegalStateException syncError(String segmentName, long since, Throwable cause) {
+        return new IllegalStateException(String.format("Error occurred when trying to sync segment: %s, since: %s. Details: %s",
+                segmentName, since, cause), cause);
+    }
+
     @VisibleForTesting
     URI getTarget() {
         return _target;
@@ -1,12 +1,15 @@
 package io.split.client;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.split.client.dtos.Split;
 import io.split.client.dtos.SplitChange;
 import io.split.client.exceptions.UriTooLongException;
 import io.split.client.utils.Json;
 import io.split.client.utils.Utils;
 import io.split.engine.common.FetchOptions;
-import io.split.engine.experiments.SplitChangeFetcher;
+import io.split.engine.experiments.StreamingSplitChangeFetcher;
 import io.split.telemetry.domain.enums.HTTPLatenciesEnum;
 import io.split.telemetry.domain.enums.ResourceEnum;
 import io.split.telemetry.storage.TelemetryRuntimeProducer;
@@ -14,26 +17,33 @@ import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.core5.http.HttpStatus;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.net.URIBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Created by adilaijaz on 5/30/15.
  */
-public final class HttpSplitChangeFetcher implements SplitChangeFetcher {
+public final class HttpSplitChangeFetcher implements StreamingSplitChangeFetcher {
     private static final Logger _log = LoggerFactory.getLogger(HttpSplitChangeFetcher.class);
 
     private static final String SINCE = "since";
     private static final String TILL = "till";
     private static final String SETS = "sets";
+    private static final String SPLITS = "splits";
 
     private static final String HEADER_CACHE_CONTROL_NAME = "Cache-Control";
     private static final String HEADER_CACHE_CONTROL_VALUE = "no-cache";
@@ -61,8 +71,22 @@ public final class HttpSplitChangeFetcher implements SplitChangeFetcher {
 
     @Override
     public SplitChange fetch(long since, FetchOptions options) {
+        List<Split> splits = new ArrayList<>();
+        SplitChange change = fetch(since, options, splits::add);
+        if (change != null) {
+            change.splits = splits;
+        }
+        return change;
+    }
+
+    /**
+     * Reads the response as it arrives, so that each feature flag is handed to the consumer while the rest of the
+     * body is still being transferred.
+     */
+    @Override
+    public SplitChange fetch(long since, FetchOptions options, Consumer<Split> consumer) {
 
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
 
         CloseableHttpResponse response = null;
 
@@ -99,17 +123,59 @@ public final class HttpSplitChangeFetcher implements SplitChangeFetcher {
                 throw new IllegalStateException(String.format("Could not retrieve splitChanges since %s; http return code %s", since, statusCode));
             }
 
-            String json = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
-
-            return Json.fromJson(json, SplitChange.class);
+            try (JsonReader reader = new JsonReader(new InputStreamReader(response.getEntity().getContent(), StandardCharsets.UTF_8))) {
+                return read(reader, consumer);
+            }
         } catch (Exception e) {
             throw new IllegalStateException(String.format("Problem fetching splitChanges since %s: %s", since, e), e);
         } finally {
-            _telemetryRuntimeProducer.recordSyncLatency(HTTPLatenciesEnum.SPLITS, System.currentTimeMillis()-start);
+            _telemetryRuntimeProducer.recordSyncLatency(HTTPLatenciesEnum.SPLITS, System.nanoTime() - start);
             Utils.forceClose(response);
         }
     }
 
+    /**
+     * Reads a splitChanges payload, passing every feature flag to the consumer instead of collecting them.
+     *
+     * @return null if the payload is empty, as Gson does.
+     */
+    @VisibleForTesting
+    /* package private */ static SplitChange read(JsonReader reader, Consumer<Split> consumer) throws IOException {
+        try {
+            reader.peek();
+        } catch (EOFException e) {
+            return null;
+        }
+        SplitChange change = new SplitChange();
+        change.splits = Collections.emptyList();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case SPLITS:
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        break;
+                    }
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        consumer.accept(Json.fromJson(reader, Split.class));
+                    }
+                    reader.endArray();
+                    break;
+                case SINCE:
+                    change.since = reader.nextLong();
+                    break;
+                case TILL:
+                    change.till = reader.nextLong();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return change;
+    }
+
     @VisibleForTesting
     URI getTarget() {
         return _target;
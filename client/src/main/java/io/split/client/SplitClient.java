@@ -539,4 +539,20 @@ public interface SplitClient {
      * <p>
      */
     void blockUntilReady() throws TimeoutException, InterruptedException;
+
+    /**
+     * Same as {@link #blockUntilReady()}, but only waits for the given feature flags: their definitions, the
+     * segments they use and the feature flags they depend on. Evaluating them afterwards gives the same result as
+     * once the whole SDK is ready, even while the rest of the data is still being downloaded.
+     * <p>
+     *
+     * If they are not ready in the time period set on
+     * {@link SplitClientConfig.Builder#setBlockUntilReadyTimeout}, a TimeoutException will be thrown.
+     * <p>
+     *
+     * Implementations that do not track readiness per feature flag wait for the whole SDK instead.
+     */
+    default void blockUntilReady(List<String> featureFlagNames) throws TimeoutException, InterruptedException {
+        blockUntilReady();
+    }
 }
\ No newline at end of file
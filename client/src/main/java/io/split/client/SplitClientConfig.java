@@ -1,7 +1,10 @@
 package io.split.client;
 
+import io.split.client.api.EvaluationObserver;
 import io.split.client.impressions.ImpressionListener;
 import io.split.client.impressions.ImpressionsManager;
+import io.split.client.impressions.ImpressionsModeController;
+import io.split.client.impressions.UniqueKeysTrackerImp;
 import io.split.client.utils.FileTypeEnum;
 import io.split.integrations.IntegrationsConfig;
 import io.split.storages.enums.OperationMode;
@@ -10,11 +13,15 @@ import org.apache.hc.core5.http.HttpHost;
 import pluggable.CustomStorageWrapper;
 
 import java.io.IOException;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.io.InputStream;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ThreadFactory;
 
 import static io.split.inputValidation.FlagSetsValidator.cleanup;
@@ -79,6 +86,29 @@ public class SplitClientConfig {
     private final CustomStorageWrapper _customStorageWrapper;
     private final StorageMode _storageMode;
     private final ThreadFactory _threadFactory;
+    private final boolean _payloadCompressionEnabled;
+    private final double _queuePressureFlushRatio;
+    private final int _maxConcurrentFlushes;
+    private final String _spillDirectory;
+    private final long _spillMaxBytes;
+    private final long _spillMaxAgeMillis;
+    private final boolean _asyncImpressionProcessing;
+    private final int _uniqueKeysFilterCapacity;
+    private final double _uniqueKeysFilterErrorRate;
+    private final int _uniqueKeysFilterSlices;
+    private final Map<String, ImpressionsManager.Mode> _flagImpressionsModes;
+    private final Map<String, ImpressionsManager.Mode> _flagSetImpressionsModes;
+    private final boolean _adaptiveImpressionsMode;
+    private final boolean _metricsJmxEnabled;
+    private final int _evaluationProfilerSampleRate;
+    private final int _evaluationProfilerReportIntervalInSeconds;
+    private final EvaluationObserver _evaluationObserver;
+    private final double _evaluationObserverSampleRate;
+    private final int _featureFlagsParallelParsingThreshold;
+    private final boolean _asyncHttpEnabled;
+    private final int _asyncHttpIoThreads;
+    private final int _segmentsMinRefreshRate;
+    private final int _segmentsMaxRefreshRate;
 
     // Proxy configs
     private final HttpHost _proxy;
@@ -145,7 +175,30 @@ public class SplitClientConfig {
                               long lastSeenCacheSize,
                               ThreadFactory threadFactory,
                               HashSet<String> flagSetsFilter,
-                              int invalidSets) {
+                              int invalidSets,
+                              boolean payloadCompressionEnabled,
+                              double queuePressureFlushRatio,
+                              int maxConcurrentFlushes,
+                              String spillDirectory,
+                              long spillMaxBytes,
+                              long spillMaxAgeMillis,
+                              boolean asyncImpressionProcessing,
+                              int uniqueKeysFilterCapacity,
+                              double uniqueKeysFilterErrorRate,
+                              int uniqueKeysFilterSlices,
+                              Map<String, ImpressionsManager.Mode> flagImpressionsModes,
+                              Map<String, ImpressionsManager.Mode> flagSetImpressionsModes,
+                              boolean adaptiveImpressionsMode,
+                              boolean metricsJmxEnabled,
+                              int evaluationProfilerSampleRate,
+                              int evaluationProfilerReportIntervalInSeconds,
+                              EvaluationObserver evaluationObserver,
+                              double evaluationObserverSampleRate,
+                              int featureFlagsParallelParsingThreshold,
+                              boolean asyncHttpEnabled,
+                              int asyncHttpIoThreads,
+                              int segmentsMinRefreshRate,
+                              int segmentsMaxRefreshRate) {
         _endpoint = endpoint;
         _eventsEndpoint = eventsEndpoint;
         _featuresRefreshRate = pollForFeatureChangesEveryNSeconds;
@@ -197,6 +250,29 @@ public class SplitClientConfig {
         _threadFactory = threadFactory;
         _flagSetsFilter = flagSetsFilter;
         _invalidSets = invalidSets;
+        _payloadCompressionEnabled = payloadCompressionEnabled;
+        _queuePressureFlushRatio = queuePressureFlushRatio;
+        _maxConcurrentFlushes = maxConcurrentFlushes;
+        _spillDirectory = spillDirectory;
+        _spillMaxBytes = spillMaxBytes;
+        _spillMaxAgeMillis = spillMaxAgeMillis;
+        _asyncImpressionProcessing = asyncImpressionProcessing;
+        _uniqueKeysFilterCapacity = uniqueKeysFilterCapacity;
+        _uniqueKeysFilterErrorRate = uniqueKeysFilterErrorRate;
+        _uniqueKeysFilterSlices = uniqueKeysFilterSlices;
+        _flagImpressionsModes = flagImpressionsModes;
+        _flagSetImpressionsModes = flagSetImpressionsModes;
+        _adaptiveImpressionsMode = adaptiveImpressionsMode;
+        _metricsJmxEnabled = metricsJmxEnabled;
+        _evaluationProfilerSampleRate = evaluationProfilerSampleRate;
+        _evaluationProfilerReportIntervalInSeconds = evaluationProfilerReportIntervalInSeconds;
+        _evaluationObserver = evaluationObserver;
+        _evaluationObserverSampleRate = evaluationObserverSampleRate;
+        _featureFlagsParallelParsingThreshold = featureFlagsParallelParsingThreshold;
+        _asyncHttpEnabled = asyncHttpEnabled;
+        _asyncHttpIoThreads = asyncHttpIoThreads;
+        _segmentsMinRefreshRate = segmentsMinRefreshRate;
+        _segmentsMaxRefreshRate = segmentsMaxRefreshRate;
 
         Properties props = new Properties();
         try {
@@ -393,6 +469,114 @@ public class SplitClientConfig {
         return _invalidSets;
     }
 
+    public boolean payloadCompressionEnabled() {
+        return _payloadCompressionEnabled;
+    }
+
+    public double queuePressureFlushRatio() {
+        return _queuePressureFlushRatio;
+    }
+
+    public int maxConcurrentFlushes() {
+        return _maxConcurrentFlushes;
+    }
+
+    public String spillDirectory() {
+        return _spillDirectory;
+    }
+
+    public long spillMaxBytes() {
+        return _spillMaxBytes;
+    }
+
+    public long spillMaxAgeMillis() {
+        return _spillMaxAgeMillis;
+    }
+
+    public boolean asyncImpressionProcessing() {
+        return _asyncImpressionProcessing;
+    }
+
+    public int uniqueKeysFilterCapacity() {
+        return _uniqueKeysFilterCapacity;
+    }
+
+    public double uniqueKeysFilterErrorRate() {
+        return _uniqueKeysFilterErrorRate;
+    }
+
+    public int uniqueKeysFilterSlices() {
+        return _uniqueKeysFilterSlices;
+    }
+
+    public Map<String, ImpressionsManager.Mode> flagImpressionsModes() {
+        return _flagImpressionsModes;
+    }
+
+    public Map<String, ImpressionsManager.Mode> flagSetImpressionsModes() {
+        return _flagSetImpressionsModes;
+    }
+
+    /**
+     * @return the default impressions mode plus every mode used by a per flag or per flag set override, and
+     * the modes they can be degraded to when the adaptive impressions mode is enabled.
+     */
+    public Set<ImpressionsManager.Mode> impressionsModesInUse() {
+        Set<ImpressionsManager.Mode> modes = EnumSet.of(_impressionsMode);
+        modes.addAll(_flagImpressionsModes.values());
+        modes.addAll(_flagSetImpressionsModes.values());
+        if (_adaptiveImpressionsMode) {
+            for (ImpressionsManager.Mode mode : EnumSet.copyOf(modes)) {
+                modes.addAll(ImpressionsModeController.reachableFrom(mode));
+            }
+        }
+        return modes;
+    }
+
+    public boolean adaptiveImpressionsMode() {
+        return _adaptiveImpressionsMode;
+    }
+
+    public boolean metricsJmxEnabled() {
+        return _metricsJmxEnabled;
+    }
+
+    public int evaluationProfilerSampleRate() {
+        return _evaluationProfilerSampleRate;
+    }
+
+    public int evaluationProfilerReportIntervalInSeconds() {
+        return _evaluationProfilerReportIntervalInSeconds;
+    }
+
+    public EvaluationObserver evaluationObserver() {
+        return _evaluationObserver;
+    }
+
+    public double evaluationObserverSampleRate() {
+        return _evaluationObserverSampleRate;
+    }
+
+    public int featureFlagsParallelParsingThreshold() {
+        return _featureFlagsParallelParsingThreshold;
+    }
+
+    public boolean asyncHttpEnabled() {
+        return _asyncHttpEnabled;
+    }
+
+    public int asyncHttpIoThreads() {
+        return _asyncHttpIoThreads;
+    }
+
+    public int segmentsMinRefreshRate() {
+        return _segmentsMinRefreshRate;
+    }
+
+    public int segmentsMaxRefreshRate() {
+        return _segmentsMaxRefreshRate;
+    }
+
     public static final class Builder {
 
         private String _endpoint = SDK_ENDPOINT;
@@ -449,6 +633,29 @@ public class SplitClientConfig {
         private ThreadFactory _threadFactory;
         private HashSet<String> _flagSetsFilter = new HashSet<>();
         private int _invalidSetsCount = 0;
+        private boolean _payloadCompressionEnabled = false;
+        private double _queuePressureFlushRatio = 0;
+        private int _maxConcurrentFlushes = 2;
+        private String _spillDirectory = null;
+        private long _spillMaxBytes = 256L * 1024 * 1024;
+        private long _spillMaxAgeMillis = 24L * 60 * 60 * 1000;
+        private boolean _asyncImpressionProcessing = false;
+        private int _uniqueKeysFilterCapacity = UniqueKeysTrackerImp.DEFAULT_FILTER_CAPACITY;
+        private double _uniqueKeysFilterErrorRate = UniqueKeysTrackerImp.DEFAULT_FILTER_ERROR_RATE;
+        private int _uniqueKeysFilterSlices = UniqueKeysTrackerImp.DEFAULT_FILTER_SLICES;
+        private Map<String, ImpressionsManager.Mode> _flagImpressionsModes = new HashMap<>();
+        private Map<String, ImpressionsManager.Mode> _flagSetImpressionsModes = new HashMap<>();
+        private boolean _adaptiveImpressionsMode = false;
+        private boolean _metricsJmxEnabled = false;
+        private int _evaluationProfilerSampleRate = 0;
+        private int _evaluationProfilerReportIntervalInSeconds = 300;
+        private EvaluationObserver _evaluationObserver = null;
+        private double _evaluationObserverSampleRate = 1;
+        private int _featureFlagsParallelParsingThreshold = 1000;
+        private boolean _asyncHttpEnabled = false;
+        private int _asyncHttpIoThreads = 2;
+        private int _segmentsMinRefreshRate = 0;
+        private int _segmentsMaxRefreshRate = 0;
 
         public Builder() {
         }
@@ -943,6 +1150,254 @@ public class SplitClientConfig {
             return this;
         }
 
+        /**
+         * Gzip the bodies of the impressions bulk posts while they are being streamed. Default is false.
+         *
+         * @return this builder
+         */
+        public Builder enablePayloadCompression() {
+            _payloadCompressionEnabled = true;
+            return this;
+        }
+
+        /**
+         * Enables pressure-triggered flushing of the impressions and events queues. As soon as the items queued since
+         * the last flush reach this fraction of the queue size, an immediate asynchronous flush is triggered, and the
+         * periodic flush interval shrinks with the observed arrival rate (never above the configured refresh rates).
+         * <p/>
+         * Independently of this setting, the events queue is always flushed right away once the events queued since
+         * the last flush exceed the max size of a single post.
+         * <p/>
+         * This is an ADVANCED parameter
+         *
+         * @param fillRatio MUST be in (0, 1]. Default is disabled.
+         * @return this builder
+         */
+        public Builder flushOnQueuePressure(double fillRatio) {
+            _queuePressureFlushRatio = fillRatio;
+            return this;
+        }
+
+        /**
+         * Max number of flushes of the same queue that can be posting at the same time when flushes are triggered
+         * by {@link #flushOnQueuePressure(double)}, or by the size of the queued events.
+         *
+         * @param maxConcurrentFlushes MUST be > 0. Default is 2.
+         * @return this builder
+         */
+        public Builder maxConcurrentFlushes(int maxConcurrentFlushes) {
+            _maxConcurrentFlushes = maxConcurrentFlushes;
+            return this;
+        }
+
+        /**
+         * Enables a bounded spill log on local disk where impressions and events that could not be posted because of
+         * a transient failure (or that did not fit in the in-memory queues) are kept and replayed later, instead of
+         * being dropped.
+         *
+         * @param directory where the spill segments are written. The SDK creates it if needed.
+         * @param maxBytes max disk space used by each of the impressions and events logs. MUST be > 0.
+         * @param maxAgeMillis spilled data older than this is discarded without being posted. MUST be > 0.
+         * @return this builder
+         */
+        public Builder enableDiskSpill(String directory, long maxBytes, long maxAgeMillis) {
+            _spillDirectory = directory;
+            _spillMaxBytes = maxBytes;
+            _spillMaxAgeMillis = maxAgeMillis;
+            return this;
+        }
+
+        /**
+         * Moves impression dedupe, counting, unique keys tracking and listener dispatch off the thread calling
+         * getTreatment. Evaluations are appended to a bounded in-memory buffer that a background thread processes
+         * in batches. Default is false.
+         *
+         * @return this builder
+         */
+        public Builder enableAsyncImpressionProcessing() {
+            _asyncImpressionProcessing = true;
+            return this;
+        }
+
+        /**
+         * Sizing of the filter used in NONE impressions mode to avoid reporting the same key for a feature flag more
+         * than once a day. The filter is made of rotating slices; the oldest slice is recycled every 24h / slices, so
+         * keys are forgotten gradually instead of all at once.
+         *
+         * @param capacity keys the filter is expected to hold. MUST be > 0. Default is 10M.
+         * @param errorRate accepted false positive rate, i.e. share of keys that are wrongly not reported.
+         *                  MUST be in (0, 1). Default is 0.01.
+         * @param slices MUST be between 1 and 24. Default is 4.
+         * @return this builder
+         */
+        public Builder uniqueKeysFilter(int capacity, double errorRate, int slices) {
+            _uniqueKeysFilterCapacity = capacity;
+            _uniqueKeysFilterErrorRate = errorRate;
+            _uniqueKeysFilterSlices = slices;
+            return this;
+        }
+
+        /**
+         * Overrides the impressions mode for a single feature flag, e.g. DEBUG for a few experiments while the
+         * rest of the flags use OPTIMIZED or NONE. Takes precedence over flag set overrides.
+         *
+         * @param featureFlagName the feature flag name
+         * @param mode the impressions mode for that flag
+         * @return this builder
+         */
+        public Builder impressionsMode(String featureFlagName, ImpressionsManager.Mode mode) {
+            _flagImpressionsModes.put(featureFlagName, mode);
+            return this;
+        }
+
+        /**
+         * Overrides the impressions mode for the feature flags that belong to a flag set. When a flag belongs to
+         * several overridden sets, the first one found wins.
+         *
+         * @param flagSet the flag set name
+         * @param mode the impressions mode for the flags in that set
+         * @return this builder
+         */
+        public Builder impressionsModeForFlagSet(String flagSet, ImpressionsManager.Mode mode) {
+            _flagSetImpressionsModes.put(flagSet, mode);
+            return this;
+        }
+
+        /**
+         * Lets the SDK degrade the impressions mode (DEBUG to OPTIMIZED to NONE) while the impressions queue is under
+         * sustained pressure, and restore it once the pressure is gone, so that impression counts are kept instead
+         * of dropping raw impressions. Default is false.
+         *
+         * @return this builder
+         */
+        public Builder enableAdaptiveImpressionsMode() {
+            _adaptiveImpressionsMode = true;
+            return this;
+        }
+
+        /**
+         * Publishes the SDK runtime metrics (queue depths, drops, cache sizes, sync lag, streaming state and latency
+         * percentiles) as a JMX MBean. The same values are always available through SplitFactoryImpl.metrics().
+         * Default is false.
+         *
+         * @return this builder
+         */
+        public Builder enableMetricsJmx() {
+            _metricsJmxEnabled = true;
+            return this;
+        }
+
+        /**
+         * Enables the evaluation profiler: every evaluation is counted per feature flag, and one in every
+         * sampleRate evaluations is timed to record per-flag latencies, the condition that matched and the time
+         * spent per matcher type. Default is 0, which disables profiling.
+         *
+         * @param sampleRate one in how many evaluations is timed, 0 to disable the profiler.
+         * @return this builder
+         */
+        public Builder profileEvaluations(int sampleRate) {
+            _evaluationProfilerSampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * How often the evaluation profiler logs its hottest feature flags and starts a new window. Only used when
+         * profileEvaluations is set. Default is 300 seconds, 0 keeps a single window and never logs.
+         *
+         * @param seconds
+         * @return this builder
+         */
+        public Builder evaluationProfilerReportInterval(int seconds) {
+            _evaluationProfilerReportIntervalInSeconds = seconds;
+            return this;
+        }
+
+        /**
+         * Registers an observer that receives the timing breakdown of every evaluation. Same as
+         * evaluationObserver(observer, 1).
+         *
+         * @param observer
+         * @return this builder
+         */
+        public Builder evaluationObserver(EvaluationObserver observer) {
+            return evaluationObserver(observer, 1);
+        }
+
+        /**
+         * Registers an observer that receives the timing breakdown of a sample of the evaluations. The calls that are
+         * not sampled do not take any timestamp nor allocate anything for the observer.
+         *
+         * @param observer
+         * @param sampleRate fraction of the client calls to observe, in (0, 1].
+         * @return this builder
+         */
+        public Builder evaluationObserver(EvaluationObserver observer, double sampleRate) {
+            _evaluationObserver = observer;
+            _evaluationObserverSampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * Number of feature flags in a single change past which the rest are parsed in parallel on the common
+         * fork-join pool, instead of one after the other on the synchronization thread. Default is 1000, 0 disables
+         * parallel parsing.
+         *
+         * @param threshold
+         * @return this builder
+         */
+        public Builder featureFlagsParallelParsingThreshold(int threshold) {
+            _featureFlagsParallelParsingThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Fetches segments over a non-blocking HTTP client, negotiating HTTP/2 when the server supports it, so that all
+         * the segments are requested at once over a few connections and I/O threads instead of one
+         * numThreadsForSegmentFetch thread per request in flight. Default is false.
+         *
+         * @return this builder
+         */
+        public Builder enableAsyncHttp() {
+            _asyncHttpEnabled = true;
+            return this;
+        }
+
+        /**
+         * Number of I/O threads of the non-blocking HTTP client. Only used when enableAsyncHttp is set. Default is 2.
+         *
+         * @param ioThreads
+         * @return this builder
+         */
+        public Builder asyncHttpIoThreads(int ioThreads) {
+            _asyncHttpIoThreads = ioThreads;
+            return this;
+        }
+
+        /**
+         * Lower bound, in seconds, of the adaptive refresh interval of each segment. Segments that keep changing are
+         * polled more often, down to this interval. Together with segmentsMaxRefreshRate this enables per-segment
+         * polling; when neither is set every segment is polled every segmentsRefreshRate seconds.
+         *
+         * @param seconds MUST be >= 30 and <= segmentsRefreshRate. Defaults to segmentsRefreshRate.
+         * @return this builder
+         */
+        public Builder segmentsMinRefreshRate(int seconds) {
+            _segmentsMinRefreshRate = seconds;
+            return this;
+        }
+
+        /**
+         * Upper bound, in seconds, of the adaptive refresh interval of each segment. Segments that do not change are
+         * polled less and less often, up to this interval. See segmentsMinRefreshRate.
+         *
+         * @param seconds MUST be >= segmentsRefreshRate. Defaults to segmentsRefreshRate.
+         * @return this builder
+         */
+        public Builder segmentsMaxRefreshRate(int seconds) {
+            _segmentsMaxRefreshRate = seconds;
+            return this;
+        }
+
         public SplitClientConfig build() {
             if (_featuresRefreshRate < 5 ) {
                 throw new IllegalArgumentException("featuresRefreshRate must be >= 5: " + _featuresRefreshRate);
@@ -952,6 +1407,16 @@ public class SplitClientConfig {
                 throw new IllegalArgumentException("segmentsRefreshRate must be >= 30: " + _segmentsRefreshRate);
             }
 
+            _segmentsMinRefreshRate = (_segmentsMinRefreshRate <= 0) ? _segmentsRefreshRate : _segmentsMinRefreshRate;
+            _segmentsMaxRefreshRate = (_segmentsMaxRefreshRate <= 0) ? _segmentsRefreshRate : _segmentsMaxRefreshRate;
+            if (_segmentsMinRefreshRate < 30 || _segmentsMinRefreshRate > _segmentsRefreshRate) {
+                throw new IllegalArgumentException("segmentsMinRefreshRate must be >= 30 and <= segmentsRefreshRate: "
+                        + _segmentsMinRefreshRate);
+            }
+            if (_segmentsMaxRefreshRate < _segmentsRefreshRate) {
+                throw new IllegalArgumentException("segmentsMaxRefreshRate must be >= segmentsRefreshRate: " + _segmentsMaxRefreshRate);
+            }
+
             switch (_impressionsMode) {
                 case OPTIMIZED:
                     _impressionsRefreshRate = (_impressionsRefreshRate <= 0) ? 300 : Math.max(60, _impressionsRefreshRate);
@@ -1033,6 +1498,56 @@ public class SplitClientConfig {
                 throw new IllegalStateException("_telemetryRefreshRate must be >= 60");
             }
 
+            if (_queuePressureFlushRatio < 0 || _queuePressureFlushRatio > 1) {
+                throw new IllegalArgumentException("queuePressureFlushRatio must be in (0, 1]: " + _queuePressureFlushRatio);
+            }
+
+            if (_maxConcurrentFlushes <= 0) {
+                throw new IllegalArgumentException("maxConcurrentFlushes must be > 0: " + _maxConcurrentFlushes);
+            }
+
+            if (_spillDirectory != null && (_spillMaxBytes <= 0 || _spillMaxAgeMillis <= 0)) {
+                throw new IllegalArgumentException("spillMaxBytes and spillMaxAgeMillis must be > 0");
+            }
+
+            if (_uniqueKeysFilterCapacity <= 0) {
+                throw new IllegalArgumentException("uniqueKeysFilterCapacity must be > 0: " + _uniqueKeysFilterCapacity);
+            }
+
+            if (_uniqueKeysFilterErrorRate <= 0 || _uniqueKeysFilterErrorRate >= 1) {
+                throw new IllegalArgumentException("uniqueKeysFilterErrorRate must be in (0, 1): " + _uniqueKeysFilterErrorRate);
+            }
+
+            if (_uniqueKeysFilterSlices < 1 || _uniqueKeysFilterSlices > 24) {
+                throw new IllegalArgumentException("uniqueKeysFilterSlices must be between 1 and 24: " + _uniqueKeysFilterSlices);
+            }
+
+            if (_flagImpressionsModes.containsValue(null) || _flagSetImpressionsModes.containsValue(null)) {
+                throw new IllegalArgumentException("Impressions mode overrides must not be null");
+            }
+
+            if (_evaluationProfilerSampleRate < 0) {
+                throw new IllegalArgumentException("evaluationProfilerSampleRate must be >= 0: " + _evaluationProfilerSampleRate);
+            }
+
+            if (_evaluationObserverSampleRate <= 0 || _evaluationObserverSampleRate > 1) {
+                throw new IllegalArgumentException("evaluationObserver sampleRate must be in (0, 1]: " + _evaluationObserverSampleRate);
+            }
+
+            if (_evaluationProfilerReportIntervalInSeconds < 0) {
+                throw new IllegalArgumentException("evaluationProfilerReportInterval must be >= 0: "
+                        + _evaluationProfilerReportIntervalInSeconds);
+            }
+
+            if (_featureFlagsParallelParsingThreshold < 0) {
+                throw new IllegalArgumentException("featureFlagsParallelParsingThreshold must be >= 0: "
+                        + _featureFlagsParallelParsingThreshold);
+            }
+
+            if (_asyncHttpIoThreads < 1) {
+                throw new IllegalArgumentException("asyncHttpIoThreads must be >= 1: " + _asyncHttpIoThreads);
+            }
+
             if(OperationMode.CONSUMER.equals(_operationMode)){
                 if(_customStorageWrapper == null) {
                     throw new IllegalStateException("Custom Storage must not be null on Consumer mode.");
@@ -1091,7 +1606,30 @@ public class SplitClientConfig {
                     _lastSeenCacheSize,
                     _threadFactory,
                     _flagSetsFilter,
-                    _invalidSetsCount);
+                    _invalidSetsCount,
+                    _payloadCompressionEnabled,
+                    _queuePressureFlushRatio,
+                    _maxConcurrentFlushes,
+                    _spillDirectory,
+                    _spillMaxBytes,
+                    _spillMaxAgeMillis,
+                    _asyncImpressionProcessing,
+                    _uniqueKeysFilterCapacity,
+                    _uniqueKeysFilterErrorRate,
+                    _uniqueKeysFilterSlices,
+                    new HashMap<>(_flagImpressionsModes),
+                    new HashMap<>(_flagSetImpressionsModes),
+                    _adaptiveImpressionsMode,
+                    _metricsJmxEnabled,
+                    _evaluationProfilerSampleRate,
+                    _evaluationProfilerReportIntervalInSeconds,
+                    _evaluationObserver,
+                    _evaluationObserverSampleRate,
+                    _featureFlagsParallelParsingThreshold,
+                    _asyncHttpEnabled,
+                    _asyncHttpIoThreads,
+                    _segmentsMinRefreshRate,
+                    _segmentsMaxRefreshRate);
         }
     }
 }
\ No newline at end of file
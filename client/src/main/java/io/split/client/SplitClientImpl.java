@@ -1,5 +1,7 @@
 package io.split.client;
 
+import io.split.client.api.EvaluationObserver;
+import io.split.client.api.EvaluationTrace;
 import io.split.client.api.Key;
 import io.split.client.api.SplitResult;
 import io.split.client.dtos.Event;
@@ -15,6 +17,7 @@ import io.split.grammar.Treatments;
 import io.split.inputValidation.EventsValidator;
 import io.split.inputValidation.KeyValidator;
 import io.split.inputValidation.SplitNameValidator;
+import io.split.inputValidation.TrafficTypeMemo;
 import io.split.inputValidation.TrafficTypeValidator;
 import io.split.storages.SplitCacheConsumer;
 import io.split.telemetry.domain.enums.MethodEnum;
@@ -32,6 +35,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -54,6 +58,7 @@ public final class SplitClientImpl implements SplitClient {
 
     private final SplitFactory _container;
     private final SplitCacheConsumer _splitCacheConsumer;
+    private final TrafficTypeMemo _trafficTypeMemo = new TrafficTypeMemo();
     private final ImpressionsManager _impressionManager;
     private final SplitClientConfig _config;
     private final EventsStorageProducer _eventsStorageProducer;
@@ -62,6 +67,8 @@ public final class SplitClientImpl implements SplitClient {
     private final TelemetryEvaluationProducer _telemetryEvaluationProducer;
     private final TelemetryConfigProducer _telemetryConfigProducer;
     private final FlagSetsFilter _flagSetsFilter;
+    private final EvaluationObserver _evaluationObserver;
+    private final double _evaluationObserverSampleRate;
 
     public SplitClientImpl(SplitFactory container,
                            SplitCacheConsumer splitCacheConsumer,
@@ -83,6 +90,8 @@ public final class SplitClientImpl implements SplitClient {
         _telemetryEvaluationProducer = checkNotNull(telemetryEvaluationProducer);
         _telemetryConfigProducer = checkNotNull(telemetryConfigProducer);
         _flagSetsFilter = flagSetsFilter;
+        _evaluationObserver = config.evaluationObserver();
+        _evaluationObserverSampleRate = config.evaluationObserverSampleRate();
     }
 
     @Override
@@ -270,20 +279,33 @@ public final class SplitClientImpl implements SplitClient {
         _log.debug(String.format("Split SDK ready in %d ms", (System.currentTimeMillis() - startTime)));
     }
 
+    @Override
+    public void blockUntilReady(List<String> featureFlagNames) throws TimeoutException, InterruptedException {
+        long startTime = System.currentTimeMillis();
+        if (_config.blockUntilReady() <= 0) {
+            throw new IllegalArgumentException("setBlockUntilReadyTimeout must be positive but in config was: " + _config.blockUntilReady());
+        }
+        if (!_gates.awaitReady(featureFlagNames, _config.blockUntilReady())) {
+            throw new TimeoutException("Feature flags " + featureFlagNames + " were not ready in " + _config.blockUntilReady() + " milliseconds");
+        }
+        _log.debug(String.format("Feature flags %s ready in %d ms", featureFlagNames, (System.currentTimeMillis() - startTime)));
+    }
+
     @Override
     public void destroy() {
         _container.destroy();
     }
 
     private boolean track(Event event) {
-        long initTime = System.currentTimeMillis();
+        long initTime = System.nanoTime();
         if (_container.isDestroyed()) {
             _log.error(CLIENT_DESTROY);
             return false;
         }
 
         // Traffic Type validations
-        Optional<String> trafficTypeResult = TrafficTypeValidator.isValid(event.trafficTypeName, _splitCacheConsumer, "track");
+        Optional<String> trafficTypeResult = TrafficTypeValidator.isValid(event.trafficTypeName, _splitCacheConsumer, "track",
+                _trafficTypeMemo);
         if (!trafficTypeResult.isPresent()) {
             return false;
         }
@@ -306,14 +328,15 @@ public final class SplitClientImpl implements SplitClient {
         }
 
         event.properties = propertiesResult.getValue();
-        _telemetryEvaluationProducer.recordLatency(MethodEnum.TRACK, System.currentTimeMillis() - initTime);
+        _telemetryEvaluationProducer.recordLatency(MethodEnum.TRACK, System.nanoTime() - initTime);
 
         return _eventsStorageProducer.track(event, propertiesResult.getEventSize());
     }
 
     private SplitResult getTreatmentWithConfigInternal(String matchingKey, String bucketingKey, String featureFlag, Map<String,
                                                        Object> attributes, MethodEnum methodEnum) {
-        long initTime = System.currentTimeMillis();
+        long initTime = System.nanoTime();
+        ObservedPhases phases = startObserving(initTime);
         try {
             checkSDKReady(methodEnum, Arrays.asList(featureFlag));
 
@@ -337,13 +360,22 @@ public final class SplitClientImpl implements SplitClient {
             featureFlag = splitNameResult.get();
 
             long start = System.currentTimeMillis();
+            if (phases != null) {
+                phases._validated = System.nanoTime();
+            }
 
             EvaluatorImp.TreatmentLabelAndChangeNumber result = _evaluator.evaluateFeature(matchingKey, bucketingKey, featureFlag, attributes);
+            if (phases != null) {
+                phases._evaluated = System.nanoTime();
+            }
 
             if (result.treatment.equals(Treatments.CONTROL) && result.label.equals(Labels.DEFINITION_NOT_FOUND) && _gates.isSDKReady()) {
                 _log.warn(String.format(
                         "%s: you passed \"%s\" that does not exist in this environment, " +
                                 "please double check what feature flags exist in the Split user interface.", methodEnum.getMethod(), featureFlag));
+                if (phases != null) {
+                    notifyObserver(phases, methodEnum, featureFlag, result, phases._evaluated);
+                }
                 return SPLIT_RESULT_CONTROL;
             }
 
@@ -358,7 +390,10 @@ public final class SplitClientImpl implements SplitClient {
                     result.changeNumber,
                     attributes
             );
-            _telemetryEvaluationProducer.recordLatency(methodEnum, System.currentTimeMillis() - initTime);
+            _telemetryEvaluationProducer.recordLatency(methodEnum, System.nanoTime() - initTime);
+            if (phases != null) {
+                notifyObserver(phases, methodEnum, featureFlag, result, System.nanoTime());
+            }
             return new SplitResult(result.treatment, result.configurations);
         } catch (Exception e) {
             try {
@@ -373,7 +408,8 @@ public final class SplitClientImpl implements SplitClient {
 
     private Map<String, SplitResult> getTreatmentsWithConfigInternal(String matchingKey, String bucketingKey, List<String> featureFlagNames,
                                                                      Map<String, Object> attributes, MethodEnum methodEnum) {
-        long initTime = System.currentTimeMillis();
+        long initTime = System.nanoTime();
+        ObservedPhases phases = startObserving(initTime);
         if (featureFlagNames == null) {
             _log.error(String.format("%s: featureFlagNames must be a non-empty array", methodEnum.getMethod()));
             return new HashMap<>();
@@ -385,9 +421,12 @@ public final class SplitClientImpl implements SplitClient {
                 return result;
             }
             featureFlagNames = SplitNameValidator.areValid(featureFlagNames, methodEnum.getMethod());
+            if (phases != null) {
+                phases._validated = System.nanoTime();
+            }
             Map<String, EvaluatorImp.TreatmentLabelAndChangeNumber> evaluatorResult = _evaluator.evaluateFeatures(matchingKey,
                     bucketingKey, featureFlagNames, attributes);
-            return processEvaluatorResult(evaluatorResult, methodEnum, matchingKey, bucketingKey, attributes, initTime);
+            return processEvaluatorResult(evaluatorResult, methodEnum, matchingKey, bucketingKey, attributes, initTime, phases);
         } catch (Exception e) {
             try {
                 _telemetryEvaluationProducer.recordException(methodEnum);
@@ -402,7 +441,8 @@ public final class SplitClientImpl implements SplitClient {
     private Map<String, SplitResult> getTreatmentsBySetsWithConfigInternal(String matchingKey, String bucketingKey,
                                                                            List<String> sets, Map<String, Object> attributes, MethodEnum methodEnum) {
 
-        long initTime = System.currentTimeMillis();
+        long initTime = System.nanoTime();
+        ObservedPhases phases = startObserving(initTime);
         if (sets == null || sets.isEmpty()) {
             _log.warn(String.format("%s: sets must be a non-empty array", methodEnum.getMethod()));
             return new HashMap<>();
@@ -419,9 +459,12 @@ public final class SplitClientImpl implements SplitClient {
             if(result != null) {
                 return result;
             }
+            if (phases != null) {
+                phases._validated = System.nanoTime();
+            }
             Map<String, EvaluatorImp.TreatmentLabelAndChangeNumber> evaluatorResult = _evaluator.evaluateFeaturesByFlagSets(matchingKey,
                     bucketingKey, new ArrayList<>(cleanFlagSets), attributes);
-            return processEvaluatorResult(evaluatorResult, methodEnum, matchingKey, bucketingKey, attributes, initTime);
+            return processEvaluatorResult(evaluatorResult, methodEnum, matchingKey, bucketingKey, attributes, initTime, phases);
         } catch (Exception e) {
             try {
                 _telemetryEvaluationProducer.recordException(methodEnum);
@@ -434,7 +477,10 @@ public final class SplitClientImpl implements SplitClient {
     }
     private Map<String, SplitResult> processEvaluatorResult(Map<String, EvaluatorImp.TreatmentLabelAndChangeNumber> evaluatorResult,
                                                             MethodEnum methodEnum, String matchingKey, String bucketingKey, Map<String,
-                                                            Object> attributes, long initTime){
+                                                            Object> attributes, long initTime, ObservedPhases phases){
+        if (phases != null) {
+            phases._evaluated = System.nanoTime();
+        }
         List<Impression> impressions = new ArrayList<>();
         Map<String, SplitResult> result = new HashMap<>();
         evaluatorResult.keySet().forEach(t -> {
@@ -449,13 +495,52 @@ public final class SplitClientImpl implements SplitClient {
                         evaluatorResult.get(t).label, evaluatorResult.get(t).changeNumber, attributes));
             }
         });
-        _telemetryEvaluationProducer.recordLatency(methodEnum, System.currentTimeMillis() - initTime);
+        _telemetryEvaluationProducer.recordLatency(methodEnum, System.nanoTime() - initTime);
         if (impressions.size() > 0) {
             _impressionManager.track(impressions);
         }
+        if (phases != null) {
+            long end = System.nanoTime();
+            evaluatorResult.forEach((featureFlag, evaluation) -> notifyObserver(phases, methodEnum, featureFlag, evaluation, end));
+        }
         return result;
     }
 
+    /**
+     * @return the phases to fill in when this call is to be reported to the evaluation observer, null otherwise.
+     */
+    private ObservedPhases startObserving(long initTime) {
+        if (_evaluationObserver == null) {
+            return null;
+        }
+        if (_evaluationObserverSampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= _evaluationObserverSampleRate) {
+            return null;
+        }
+        return new ObservedPhases(initTime);
+    }
+
+    private void notifyObserver(ObservedPhases phases, MethodEnum methodEnum, String featureFlag,
+                                EvaluatorImp.TreatmentLabelAndChangeNumber result, long end) {
+        try {
+            _evaluationObserver.onEvaluation(new EvaluationTrace(methodEnum.getMethod(), featureFlag, result.treatment, result.label,
+                    result.changeNumber, phases._startTimeMillis, phases._start, phases._validated, phases._evaluated, end));
+        } catch (Throwable t) {
+            _log.error("Evaluation observer threw an exception", t);
+        }
+    }
+
+    private static final class ObservedPhases {
+        private final long _startTimeMillis = System.currentTimeMillis();
+        private final long _start;
+        private long _validated;
+        private long _evaluated;
+
+        private ObservedPhases(long start) {
+            _start = start;
+            _validated = start;
+        }
+    }
+
     private Map<String, SplitResult> validateBeforeEvaluateByFlagSets(String matchingKey, MethodEnum methodEnum,
                                                             String bucketingKey) {
         if (_container.isDestroyed()) {
@@ -521,7 +606,8 @@ public final class SplitClientImpl implements SplitClient {
 
     private void checkSDKReady(MethodEnum methodEnum, List<String> featureFlagNames) {
         String toPrint =  featureFlagNames.size() == 1 ? featureFlagNames.get(0): String.join(",", featureFlagNames);
-        if (!_gates.isSDKReady()) {
+        // feature flags loaded along with everything they use evaluate as they will once the SDK is ready.
+        if (!_gates.isSDKReady() && !_gates.isReady(featureFlagNames)) {
             _log.warn(String.format("%s: the SDK is not ready, results may be incorrect for feature flag %s. Make sure to wait for " +
                             "SDK readiness before using this method", methodEnum.getMethod(), toPrint));
             _telemetryConfigProducer.recordNonReadyUsage();
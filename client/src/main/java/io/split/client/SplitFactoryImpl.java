@@ -14,17 +14,20 @@ import io.split.client.impressions.ImpressionListener;
 import io.split.client.impressions.ImpressionObserver;
 import io.split.client.impressions.ImpressionsManager;
 import io.split.client.impressions.ImpressionsManagerImpl;
+import io.split.client.impressions.ImpressionsModeController;
 import io.split.client.impressions.ImpressionsSender;
-import io.split.client.impressions.ImpressionsStorage;
 import io.split.client.impressions.ImpressionsStorageConsumer;
 import io.split.client.impressions.ImpressionsStorageProducer;
 import io.split.client.impressions.InMemoryImpressionsStorage;
 import io.split.client.impressions.PluggableImpressionSender;
+import io.split.client.impressions.RingBufferImpressionListener;
 import io.split.client.impressions.UniqueKeysTracker;
 import io.split.client.impressions.UniqueKeysTrackerImp;
+import io.split.client.impressions.strategy.ImpressionModeResolver;
 import io.split.client.impressions.strategy.ProcessImpressionDebug;
 import io.split.client.impressions.strategy.ProcessImpressionNone;
 import io.split.client.impressions.strategy.ProcessImpressionOptimized;
+import io.split.client.impressions.strategy.ProcessImpressionPerFlag;
 import io.split.client.impressions.strategy.ProcessImpressionStrategy;
 import io.split.client.interceptors.AuthorizationInterceptorFilter;
 import io.split.client.interceptors.ClientKeyInterceptorFilter;
@@ -33,6 +36,9 @@ import io.split.client.interceptors.FlagSetsFilterImpl;
 import io.split.client.interceptors.GzipDecoderResponseInterceptor;
 import io.split.client.interceptors.GzipEncoderRequestInterceptor;
 import io.split.client.interceptors.SdkMetadataInterceptorFilter;
+import io.split.client.jmx.JmxMonitor;
+import io.split.client.jmx.SdkMetricsJmxBean;
+import io.split.client.utils.AdaptiveFlushScheduler;
 import io.split.client.utils.FileInputStreamProvider;
 import io.split.client.utils.FileTypeEnum;
 import io.split.client.utils.InputStreamProvider;
@@ -48,6 +54,7 @@ import io.split.engine.common.SplitTasks;
 import io.split.engine.common.SyncManager;
 import io.split.engine.common.SyncManagerImp;
 import io.split.engine.common.Synchronizer;
+import io.split.engine.evaluator.EvaluationProfiler;
 import io.split.engine.evaluator.Evaluator;
 import io.split.engine.evaluator.EvaluatorImp;
 import io.split.engine.experiments.SplitChangeFetcher;
@@ -64,6 +71,7 @@ import io.split.storages.SegmentCacheProducer;
 import io.split.storages.SplitCache;
 import io.split.storages.SplitCacheConsumer;
 import io.split.storages.SplitCacheProducer;
+import io.split.storages.disk.SpillLog;
 import io.split.storages.enums.OperationMode;
 import io.split.storages.memory.InMemoryCacheImp;
 import io.split.storages.memory.SegmentCacheInMemoryImpl;
@@ -75,6 +83,7 @@ import io.split.storages.pluggable.adapters.UserCustomSplitAdapterConsumer;
 import io.split.storages.pluggable.adapters.UserCustomTelemetryAdapterProducer;
 import io.split.storages.pluggable.domain.UserStorageWrapper;
 import io.split.storages.pluggable.synchronizer.TelemetryConsumerSubmitter;
+import io.split.telemetry.metrics.SdkMetrics;
 import io.split.telemetry.storage.InMemoryTelemetryStorage;
 import io.split.telemetry.storage.NoopTelemetryStorage;
 import io.split.telemetry.storage.TelemetryStorage;
@@ -87,17 +96,26 @@ import org.apache.hc.client5.http.auth.Credentials;
 import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.cookie.StandardCookieSpec;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.impl.routing.DefaultProxyRoutePlanner;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactoryBuilder;
 import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
 import org.apache.hc.core5.http.ssl.TLS;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
 import org.apache.hc.core5.ssl.SSLContexts;
 import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
@@ -105,15 +123,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pluggable.CustomStorageWrapper;
 
+import javax.management.JMException;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static io.split.client.utils.SplitExecutorFactory.buildExecutorService;
@@ -159,6 +184,10 @@ public class SplitFactoryImpl implements SplitFactory {
     private final URI _rootTarget;
     private final URI _eventsRootTarget;
     private final UniqueKeysTracker _uniqueKeysTracker;
+    private final List<RingBufferImpressionListener> _batchImpressionListeners = new ArrayList<>();
+    private final SdkMetrics _metrics;
+    private final EvaluationProfiler _evaluationProfiler;
+    private String _metricsMonitorType;
 
     //Constructor for standalone mode
     public SplitFactoryImpl(String apiToken, SplitClientConfig config) throws URISyntaxException {
@@ -179,9 +208,6 @@ public class SplitFactoryImpl implements SplitFactory {
                     "if no ready config has been set when building factory");
         }
 
-        // SDKReadinessGates
-        _gates = new SDKReadinessGates();
-
         // HttpClient
         _httpclient = buildHttpClient(apiToken, config, _sdkMetadata);
 
@@ -193,18 +219,27 @@ public class SplitFactoryImpl implements SplitFactory {
         SegmentCache segmentCache = new SegmentCacheInMemoryImpl();
         FlagSetsFilter flagSetsFilter = new FlagSetsFilterImpl(config.getSetsFilter());
         SplitCache splitCache = new InMemoryCacheImp(flagSetsFilter);
-        ImpressionsStorage impressionsStorage = new InMemoryImpressionsStorage(config.impressionsQueueSize());
+        SpillLog impressionsSpillLog = buildSpillLog(config, SpillLog.Kind.IMPRESSIONS);
+        InMemoryImpressionsStorage impressionsStorage = new InMemoryImpressionsStorage(config.impressionsQueueSize(), impressionsSpillLog);
         _splitCache = splitCache;
         _segmentCache = segmentCache;
+
+        // SDKReadinessGates. Each feature flag can be ready before the whole SDK is.
+        _gates = new SDKReadinessGates(splitCache);
+
         _telemetrySynchronizer = new TelemetryInMemorySubmitter(_httpclient, URI.create(config.telemetryURL()), telemetryStorage,
                 splitCache, _segmentCache, telemetryStorage, _startTime);
 
         // Segments
-        _segmentSynchronizationTaskImp = buildSegments(config, segmentCache, splitCache);
+        CloseableHttpAsyncClient asyncHttpClient = config.asyncHttpEnabled()
+                ? buildAsyncHttpClient(apiToken, config, _sdkMetadata)
+                : null;
+        _segmentSynchronizationTaskImp = buildSegments(config, segmentCache, splitCache, asyncHttpClient);
 
         SplitParser splitParser = new SplitParser();
         // SplitFetcher
-        _splitFetcher = buildSplitFetcher(splitCache, splitParser, flagSetsFilter);
+        _splitFetcher = buildSplitFetcher(splitCache, splitParser, flagSetsFilter,
+                config.featureFlagsParallelParsingThreshold());
 
         // SplitSynchronizationTask
         _splitSynchronizationTask = new SplitSynchronizationTask(_splitFetcher,
@@ -214,23 +249,31 @@ public class SplitFactoryImpl implements SplitFactory {
 
         //ImpressionSender
         _impressionsSender = HttpImpressionsSender.create(_httpclient, URI.create(config.eventsEndpoint()), config.impressionsMode(),
-                _telemetryStorageProducer);
+                _telemetryStorageProducer, config.payloadCompressionEnabled(), config.getThreadFactory(), impressionsSpillLog);
 
         //UniqueKeysTracker
         _uniqueKeysTracker = createUniqueKeysTracker(config);
 
         // Impressions
-        _impressionsManager = buildImpressionsManager(config, impressionsStorage, impressionsStorage);
+        _impressionsManager = buildImpressionsManager(config, impressionsStorage, impressionsStorage,
+                buildFlushScheduler(config, "Impressions", TimeUnit.SECONDS.toMillis(config.impressionsRefreshRate()),
+                        config.impressionsQueueSize()));
 
         // EventClient
-        EventsStorage eventsStorage = new InMemoryEventsStorage(config.eventsQueueSize(), _telemetryStorageProducer);
-        EventsSender eventsSender = EventsSender.create(_httpclient, _eventsRootTarget, _telemetryStorageProducer);
-        _eventsTask = EventsTask.create(config.eventSendIntervalInMillis(), eventsStorage, eventsSender, config.getThreadFactory());
+        AdaptiveFlushScheduler eventsFlushScheduler = buildFlushScheduler(config, "Events", config.eventSendIntervalInMillis(),
+                config.eventsQueueSize(), EventsTask.MAX_BULK_BYTES);
+        SpillLog eventsSpillLog = buildSpillLog(config, SpillLog.Kind.EVENTS);
+        InMemoryEventsStorage eventsStorage = new InMemoryEventsStorage(config.eventsQueueSize(), _telemetryStorageProducer,
+                eventsFlushScheduler, eventsSpillLog);
+        EventsSender eventsSender = EventsSender.create(_httpclient, _eventsRootTarget, _telemetryStorageProducer, eventsSpillLog);
+        _eventsTask = EventsTask.create(config.eventSendIntervalInMillis(), eventsStorage, eventsSender, config.getThreadFactory(),
+                eventsFlushScheduler);
 
         _telemetrySyncTask = new TelemetrySyncTask(config.get_telemetryRefreshRate(), _telemetrySynchronizer, config.getThreadFactory());
 
         // Evaluator
-        _evaluator = new EvaluatorImp(splitCache, segmentCache);
+        _evaluationProfiler = buildEvaluationProfiler(config);
+        _evaluator = new EvaluatorImp(splitCache, segmentCache, _evaluationProfiler);
 
         // SplitClient
         _client = new SplitClientImpl(this,
@@ -250,12 +293,28 @@ public class SplitFactoryImpl implements SplitFactory {
         // SyncManager
         SplitTasks splitTasks = SplitTasks.build(_splitSynchronizationTask, _segmentSynchronizationTaskImp,
                 _impressionsManager, _eventsTask, _telemetrySyncTask, _uniqueKeysTracker);
-        SplitAPI splitAPI = SplitAPI.build(_httpclient, buildSSEdHttpClient(apiToken, config, _sdkMetadata));
+        SplitAPI splitAPI = SplitAPI.build(_httpclient, buildSSEdHttpClient(apiToken, config, _sdkMetadata), asyncHttpClient);
 
         _syncManager = SyncManagerImp.build(splitTasks, _splitFetcher, splitCache, splitAPI,
                 segmentCache, _gates, _telemetryStorageProducer, _telemetrySynchronizer, config, splitParser, flagSetsFilter);
         _syncManager.start();
 
+        // Metrics
+        _metrics = new SdkMetrics(telemetryStorage, splitCache, segmentCache, impressionsStorage, eventsStorage);
+        if (_uniqueKeysTracker instanceof UniqueKeysTrackerImp) {
+            _metrics.registerGauge(SdkMetrics.UNIQUE_KEYS_FILTER_FILL_RATIO,
+                    ((UniqueKeysTrackerImp) _uniqueKeysTracker)::getFilterFillRatio);
+        }
+        if (!_batchImpressionListeners.isEmpty()) {
+            _metrics.registerGauge(SdkMetrics.IMPRESSION_LISTENER_DROPPED,
+                    () -> _batchImpressionListeners.stream().mapToLong(RingBufferImpressionListener::droppedCount).sum());
+            _metrics.registerGauge(SdkMetrics.IMPRESSION_LISTENER_DELIVERED,
+                    () -> _batchImpressionListeners.stream().mapToLong(RingBufferImpressionListener::deliveredCount).sum());
+        }
+        if (config.metricsJmxEnabled()) {
+            registerMetricsMonitor();
+        }
+
         // DestroyOnShutDown
         if (config.destroyOnShutDown()) {
             Thread shutdown = new Thread(() -> {
@@ -277,6 +336,7 @@ public class SplitFactoryImpl implements SplitFactory {
         _httpclient = null;
         _rootTarget = null;
         _eventsRootTarget = null;
+        _metrics = null;
 
         Metadata metadata = new Metadata(config.ipAddressEnabled(), SplitClientConfig.splitSdkVersion);
         _userStorageWrapper = new UserStorageWrapper(customStorageWrapper);
@@ -309,10 +369,12 @@ public class SplitFactoryImpl implements SplitFactory {
         _gates = new SDKReadinessGates();
 
         _telemetrySynchronizer = new TelemetryConsumerSubmitter(customStorageWrapper, _sdkMetadata);
-        _evaluator = new EvaluatorImp(userCustomSplitAdapterConsumer, userCustomSegmentAdapterConsumer);
+        _evaluationProfiler = buildEvaluationProfiler(config);
+        _evaluator = new EvaluatorImp(userCustomSplitAdapterConsumer, userCustomSegmentAdapterConsumer, _evaluationProfiler);
         _impressionsSender = PluggableImpressionSender.create(customStorageWrapper);
         _uniqueKeysTracker = createUniqueKeysTracker(config);
-        _impressionsManager = buildImpressionsManager(config, userCustomImpressionAdapterConsumer, userCustomImpressionAdapterProducer);
+        _impressionsManager = buildImpressionsManager(config, userCustomImpressionAdapterConsumer, userCustomImpressionAdapterProducer,
+                null);
         _telemetrySyncTask = new TelemetrySyncTask(config.get_telemetryRefreshRate(), _telemetrySynchronizer, config.getThreadFactory());
 
         SplitTasks splitTasks = SplitTasks.build(null, null,
@@ -360,6 +422,7 @@ public class SplitFactoryImpl implements SplitFactory {
         _rootTarget = null;
         _eventsRootTarget = null;
         _uniqueKeysTracker = null;
+        _metrics = null;
         _telemetryStorageProducer = new NoopTelemetryStorage();
 
         SegmentCache segmentCache = new SegmentCacheInMemoryImpl();
@@ -388,7 +451,8 @@ public class SplitFactoryImpl implements SplitFactory {
         SplitChangeFetcher splitChangeFetcher = createSplitChangeFetcher(config);
         SplitParser splitParser = new SplitParser();
 
-        _splitFetcher = new SplitFetcherImp(splitChangeFetcher, splitParser, splitCache, _telemetryStorageProducer, flagSetsFilter);
+        _splitFetcher = new SplitFetcherImp(splitChangeFetcher, splitParser, splitCache, _telemetryStorageProducer, flagSetsFilter,
+                config.featureFlagsParallelParsingThreshold());
 
         // SplitSynchronizationTask
         _splitSynchronizationTask = new SplitSynchronizationTask(_splitFetcher, splitCache, config.featuresRefreshRate(), config.getThreadFactory());
@@ -399,7 +463,8 @@ public class SplitFactoryImpl implements SplitFactory {
                 _impressionsManager, null, null, null);
 
         // Evaluator
-        _evaluator = new EvaluatorImp(splitCache, segmentCache);
+        _evaluationProfiler = buildEvaluationProfiler(config);
+        _evaluator = new EvaluatorImp(splitCache, segmentCache, _evaluationProfiler);
 
         EventsStorage eventsStorage = new NoopEventsStorageImp();
 
@@ -445,11 +510,29 @@ public class SplitFactoryImpl implements SplitFactory {
         return _manager;
     }
 
+    /**
+     * @return a pull-style view over queues, caches, sync state and latencies, null when not running in standalone mode.
+     */
+    public SdkMetrics metrics() {
+        return _metrics;
+    }
+
+    /**
+     * @return the evaluation profiler, null unless profileEvaluations was set on the config.
+     */
+    public EvaluationProfiler evaluationProfiler() {
+        return _evaluationProfiler;
+    }
+
     @Override
     public synchronized void destroy() {
         if (isTerminated) {
             return;
         }
+        unregisterMetricsMonitor();
+        if (_evaluationProfiler != null) {
+            _evaluationProfiler.stop();
+        }
         try {
             _log.info("Shutdown called for split");
             _syncManager.shutdown();
@@ -471,6 +554,40 @@ public class SplitFactoryImpl implements SplitFactory {
         return isTerminated;
     }
 
+    private static EvaluationProfiler buildEvaluationProfiler(SplitClientConfig config) {
+        if (config.evaluationProfilerSampleRate() == 0) {
+            return null;
+        }
+        EvaluationProfiler profiler = new EvaluationProfiler(config.evaluationProfilerSampleRate());
+        if (config.evaluationProfilerReportIntervalInSeconds() > 0) {
+            profiler.start(config.evaluationProfilerReportIntervalInSeconds(), config.getThreadFactory());
+        }
+        return profiler;
+    }
+
+    private void registerMetricsMonitor() {
+        // Several factories may live in the same classloader, each one gets its own bean.
+        String monitorType = "SdkMetrics-" + Integer.toHexString(System.identityHashCode(this));
+        try {
+            JmxMonitor.getInstance().registerMonitor("io.split.client", monitorType, new SdkMetricsJmxBean(_metrics));
+            _metricsMonitorType = monitorType;
+        } catch (JMException e) {
+            _log.warn("Could not register the SDK metrics JMX bean", e);
+        }
+    }
+
+    private void unregisterMetricsMonitor() {
+        if (_metricsMonitorType == null) {
+            return;
+        }
+        try {
+            JmxMonitor.getInstance().unregisterMonitor("io.split.client", _metricsMonitorType);
+        } catch (JMException e) {
+            _log.warn("Could not unregister the SDK metrics JMX bean", e);
+        }
+        _metricsMonitorType = null;
+    }
+
     private static CloseableHttpClient buildHttpClient(String apiToken, SplitClientConfig config, SDKMetadata sdkMetadata) {
         SSLConnectionSocketFactory sslSocketFactory = SSLConnectionSocketFactoryBuilder.create()
                 .setSslContext(SSLContexts.createSystemDefault())
@@ -541,6 +658,68 @@ public class SplitFactoryImpl implements SplitFactory {
         return httpClientbuilder.build();
     }
 
+    private static CloseableHttpAsyncClient buildAsyncHttpClient(String apiToken, SplitClientConfig config, SDKMetadata sdkMetadata) {
+        TlsStrategy tlsStrategy = ClientTlsStrategyBuilder.create()
+                .setSslContext(SSLContexts.createSystemDefault())
+                .setTlsVersions(TLS.V_1_1, TLS.V_1_2)
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(config.connectionTimeout()))
+                .setResponseTimeout(Timeout.ofMilliseconds(config.readTimeout()))
+                .setCookieSpec(StandardCookieSpec.STRICT)
+                .build();
+
+        PoolingAsyncClientConnectionManager cm = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setTlsStrategy(tlsStrategy)
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(config.validateAfterInactivityInMillis()))
+                .setMaxConnTotal(20)
+                .setMaxConnPerRoute(20)
+                .build();
+
+        // Responses are gunzipped by the fetchers, the async client has no decoding interceptor.
+        HttpAsyncClientBuilder httpClientbuilder = HttpAsyncClients.custom()
+                .setConnectionManager(cm)
+                .setVersionPolicy(HttpVersionPolicy.NEGOTIATE)
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(config.asyncHttpIoThreads())
+                        .setSoTimeout(Timeout.ofMilliseconds(config.readTimeout()))
+                        .build())
+                .setDefaultRequestConfig(requestConfig)
+                .addRequestInterceptorLast(AuthorizationInterceptorFilter.instance(apiToken))
+                .addRequestInterceptorLast(SdkMetadataInterceptorFilter.instance(sdkMetadata))
+                .addRequestInterceptorLast(new GzipEncoderRequestInterceptor());
+
+        if (config.getThreadFactory() != null) {
+            httpClientbuilder.setThreadFactory(config.getThreadFactory());
+        }
+
+        // Set up proxy is it exists
+        if (config.proxy() != null) {
+            httpClientbuilder = setupProxy(httpClientbuilder, config);
+        }
+
+        CloseableHttpAsyncClient client = httpClientbuilder.build();
+        client.start();
+        return client;
+    }
+
+    private static HttpAsyncClientBuilder setupProxy(HttpAsyncClientBuilder httpClientbuilder, SplitClientConfig config) {
+        _log.info("Initializing Split SDK async client with proxy settings");
+        httpClientbuilder.setRoutePlanner(new DefaultProxyRoutePlanner(config.proxy()));
+
+        if (config.proxyUsername() != null && config.proxyPassword() != null) {
+            _log.debug("Proxy setup using credentials");
+            BasicCredentialsProvider credsProvider = new BasicCredentialsProvider();
+            AuthScope siteScope = new AuthScope(config.proxy().getHostName(), config.proxy().getPort());
+            Credentials siteCreds = new UsernamePasswordCredentials(config.proxyUsername(), config.proxyPassword().toCharArray());
+            credsProvider.setCredentials(siteScope, siteCreds);
+            httpClientbuilder.setDefaultCredentialsProvider(credsProvider);
+        }
+
+        return httpClientbuilder;
+    }
+
     private static HttpClientBuilder setupProxy(HttpClientBuilder httpClientbuilder, SplitClientConfig config) {
         _log.info("Initializing Split SDK with proxy settings");
         DefaultProxyRoutePlanner routePlanner = new DefaultProxyRoutePlanner(config.proxy());
@@ -559,26 +738,37 @@ public class SplitFactoryImpl implements SplitFactory {
     }
 
     private SegmentSynchronizationTaskImp buildSegments(SplitClientConfig config, SegmentCacheProducer segmentCacheProducer,
-                                                        SplitCacheConsumer splitCacheConsumer) throws URISyntaxException {
-        SegmentChangeFetcher segmentChangeFetcher = HttpSegmentChangeFetcher.create(_httpclient, _rootTarget, _telemetryStorageProducer);
+                                                        SplitCacheConsumer splitCacheConsumer,
+                                                        CloseableHttpAsyncClient asyncHttpClient) throws URISyntaxException {
+        HttpSegmentChangeFetcher httpSegmentChangeFetcher = HttpSegmentChangeFetcher.create(_httpclient, _rootTarget,
+                _telemetryStorageProducer);
+        SegmentChangeFetcher segmentChangeFetcher = asyncHttpClient == null
+                ? httpSegmentChangeFetcher
+                : new AsyncHttpSegmentChangeFetcher(httpSegmentChangeFetcher, asyncHttpClient);
 
         return new SegmentSynchronizationTaskImp(segmentChangeFetcher,
                 config.segmentsRefreshRate(),
+                config.segmentsMinRefreshRate(),
+                config.segmentsMaxRefreshRate(),
                 config.numThreadsForSegmentFetch(),
                 segmentCacheProducer,
                 _telemetryStorageProducer,
                 splitCacheConsumer,
-                config.getThreadFactory());
+                config.getThreadFactory(),
+                _gates::segmentReady);
     }
 
-    private SplitFetcher buildSplitFetcher(SplitCacheProducer splitCacheProducer, SplitParser splitParser, FlagSetsFilter flagSetsFilter) throws
-            URISyntaxException {
+    private SplitFetcher buildSplitFetcher(SplitCacheProducer splitCacheProducer, SplitParser splitParser, FlagSetsFilter flagSetsFilter,
+                                           int parallelParsingThreshold) throws URISyntaxException {
         SplitChangeFetcher splitChangeFetcher = HttpSplitChangeFetcher.create(_httpclient, _rootTarget, _telemetryStorageProducer);
-        return new SplitFetcherImp(splitChangeFetcher, splitParser, splitCacheProducer, _telemetryStorageProducer,flagSetsFilter);
+        // Segments start being fetched as soon as a feature flag referencing them is parsed.
+        return new SplitFetcherImp(splitChangeFetcher, splitParser, splitCacheProducer, _telemetryStorageProducer,flagSetsFilter,
+                parallelParsingThreshold, _segmentSynchronizationTaskImp::onSegmentReferenced);
     }
 
     private ImpressionsManagerImpl buildImpressionsManager(SplitClientConfig config, ImpressionsStorageConsumer impressionsStorageConsumer,
-                                                           ImpressionsStorageProducer impressionsStorageProducer) throws URISyntaxException {
+                                                           ImpressionsStorageProducer impressionsStorageProducer,
+                                                           AdaptiveFlushScheduler flushScheduler) throws URISyntaxException {
         List<ImpressionListener> impressionListeners = new ArrayList<>();
         if (config.integrationsConfig() != null) {
             config.integrationsConfig().getImpressionsListeners(IntegrationsConfig.Execution.ASYNC).stream()
@@ -588,28 +778,86 @@ public class SplitFactoryImpl implements SplitFactory {
             config.integrationsConfig().getImpressionsListeners(IntegrationsConfig.Execution.SYNC).stream()
                     .map(IntegrationsConfig.ImpressionListenerWithMeta::listener)
                     .collect(Collectors.toCollection(() -> impressionListeners));
+
+            config.integrationsConfig().getImpressionsListeners(IntegrationsConfig.Execution.BATCH).stream()
+                    .map(l -> RingBufferImpressionListener.build(l.batchListener(), l.queueSize(), l.batchSize(), l.lingerMillis(),
+                            config.getThreadFactory()))
+                    .peek(_batchImpressionListeners::add)
+                    .collect(Collectors.toCollection(() -> impressionListeners));
         }
         ProcessImpressionStrategy processImpressionStrategy = null;
         ImpressionCounter counter = null;
         ImpressionListener listener = !impressionListeners.isEmpty() ? new ImpressionListener.FederatedImpressionListener(impressionListeners)
                 : null;
-        switch (config.impressionsMode()){
-            case OPTIMIZED:
-                counter = new ImpressionCounter();
-                ImpressionObserver impressionObserver = new ImpressionObserver(config.getLastSeenCacheSize());
-                processImpressionStrategy = new ProcessImpressionOptimized(listener != null, impressionObserver, counter, _telemetryStorageProducer);
-                break;
-            case DEBUG:
-                impressionObserver = new ImpressionObserver(config.getLastSeenCacheSize());
-                processImpressionStrategy = new ProcessImpressionDebug(listener != null, impressionObserver);
-                break;
-            case NONE:
-                counter = new ImpressionCounter();
-                processImpressionStrategy = new ProcessImpressionNone(listener != null, _uniqueKeysTracker, counter);
-                break;
+        Set<ImpressionsManager.Mode> modes = config.impressionsModesInUse();
+        if (modes.contains(ImpressionsManager.Mode.OPTIMIZED) || modes.contains(ImpressionsManager.Mode.NONE)) {
+            counter = new ImpressionCounter();
+        }
+        ImpressionObserver impressionObserver = null;
+        if (modes.contains(ImpressionsManager.Mode.OPTIMIZED) || modes.contains(ImpressionsManager.Mode.DEBUG)) {
+            impressionObserver = new ImpressionObserver(config.getLastSeenCacheSize());
+        }
+        Map<ImpressionsManager.Mode, ProcessImpressionStrategy> strategies = new EnumMap<>(ImpressionsManager.Mode.class);
+        for (ImpressionsManager.Mode mode : modes) {
+            switch (mode) {
+                case OPTIMIZED:
+                    strategies.put(mode, new ProcessImpressionOptimized(listener != null, impressionObserver, counter,
+                            _telemetryStorageProducer));
+                    break;
+                case DEBUG:
+                    strategies.put(mode, new ProcessImpressionDebug(listener != null, impressionObserver));
+                    break;
+                case NONE:
+                    strategies.put(mode, new ProcessImpressionNone(listener != null, _uniqueKeysTracker, counter));
+                    break;
+            }
+        }
+        ImpressionsModeController modeController = null;
+        if (config.adaptiveImpressionsMode()) {
+            Set<ImpressionsManager.Mode> configuredModes = EnumSet.of(config.impressionsMode());
+            configuredModes.addAll(config.flagImpressionsModes().values());
+            configuredModes.addAll(config.flagSetImpressionsModes().values());
+            modeController = new ImpressionsModeController(ImpressionsModeController.mostDetailed(configuredModes),
+                    config.impressionsQueueSize(), _telemetryStorageProducer);
+        }
+        if (strategies.size() == 1) {
+            processImpressionStrategy = strategies.get(config.impressionsMode());
+        } else {
+            ImpressionModeResolver modeResolver = new ImpressionModeResolver(config.impressionsMode(), config.flagImpressionsModes(),
+                    config.flagSetImpressionsModes(), _splitCache);
+            processImpressionStrategy = new ProcessImpressionPerFlag(listener != null, modeResolver, strategies,
+                    _telemetryStorageProducer, modeController);
         }
         return ImpressionsManagerImpl.instance(config, _telemetryStorageProducer, impressionsStorageConsumer, impressionsStorageProducer,
-                _impressionsSender, processImpressionStrategy, counter, listener);
+                _impressionsSender, processImpressionStrategy, counter, listener, flushScheduler, modeController);
+    }
+
+    private AdaptiveFlushScheduler buildFlushScheduler(SplitClientConfig config, String name, long maxIntervalMillis, int queueSize) {
+        return buildFlushScheduler(config, name, maxIntervalMillis, queueSize, 0);
+    }
+
+    private AdaptiveFlushScheduler buildFlushScheduler(SplitClientConfig config, String name, long maxIntervalMillis, int queueSize,
+                                                       long pressureBytes) {
+        // The byte threshold keeps a single flush from going over what the endpoint accepts, so it applies even when
+        // pressure flushing is off.
+        if (config.queuePressureFlushRatio() <= 0 && pressureBytes <= 0) {
+            return null;
+        }
+        return new AdaptiveFlushScheduler(name, maxIntervalMillis, queueSize, config.queuePressureFlushRatio(),
+                config.maxConcurrentFlushes(), pressureBytes, config.getThreadFactory());
+    }
+
+    private SpillLog buildSpillLog(SplitClientConfig config, SpillLog.Kind kind) {
+        if (config.spillDirectory() == null) {
+            return null;
+        }
+        try {
+            return new SpillLog(new File(config.spillDirectory()), kind, config.spillMaxBytes(), config.spillMaxAgeMillis(),
+                    _telemetryStorageProducer, config.getThreadFactory());
+        } catch (IOException e) {
+            _log.warn(String.format("Unable to open the %s spill log, failed posts will be dropped", kind.name().toLowerCase()), e);
+            return null;
+        }
     }
 
     private SDKMetadata createSdkMetadata(boolean ipAddressEnabled, String splitSdkVersion) {
@@ -646,11 +894,12 @@ public class SplitFactoryImpl implements SplitFactory {
     }
 
     private UniqueKeysTracker createUniqueKeysTracker(SplitClientConfig config){
-        if (config.impressionsMode().equals(ImpressionsManager.Mode.NONE)){
+        if (config.impressionsModesInUse().contains(ImpressionsManager.Mode.NONE)){
             int uniqueKeysRefreshRate = config.operationMode().equals(OperationMode.STANDALONE) ? config.uniqueKeysRefreshRateInMemory()
                     : config.uniqueKeysRefreshRateRedis();
             return new UniqueKeysTrackerImp(_telemetrySynchronizer, uniqueKeysRefreshRate, config.filterUniqueKeysRefreshRate(),
-                    config.getThreadFactory());
+                    config.getThreadFactory(), config.uniqueKeysFilterCapacity(), config.uniqueKeysFilterErrorRate(),
+                    config.uniqueKeysFilterSlices());
         }
         return null;
     }
@@ -0,0 +1,17 @@
+package io.split.client.api;
+
+/**
+ * Hook into flag evaluations, meant to feed APM tracing (e.g. one OpenTelemetry span per evaluation).
+ * <p>
+ * Only the sampled calls reach the observer, on the thread that called the client and once per evaluated feature flag,
+ * so implementations must be fast and thread safe, and hand any expensive work off to another thread.
+ */
+public interface EvaluationObserver {
+
+    /**
+     * Called after the impression of the evaluation was tracked. This method MUST NOT throw any exception.
+     *
+     * @param trace
+     */
+    void onEvaluation(EvaluationTrace trace);
+}
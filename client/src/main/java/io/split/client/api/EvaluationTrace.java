@@ -0,0 +1,122 @@
+package io.split.client.api;
+
+/**
+ * Timing breakdown of a single flag evaluation, as seen by an {@link EvaluationObserver}.
+ * <p>
+ * Phases are measured with {@link System#nanoTime()}: validation of the inputs, evaluation (which includes the
+ * feature flag cache lookup) and impression tracking. The evaluations of a getTreatments call share the timings
+ * of the whole call.
+ */
+public final class EvaluationTrace {
+    private final String _method;
+    private final String _featureFlag;
+    private final String _treatment;
+    private final String _label;
+    private final Long _changeNumber;
+    private final long _startTimeMillis;
+    private final long _startNanos;
+    private final long _validatedNanos;
+    private final long _evaluatedNanos;
+    private final long _endNanos;
+
+    public EvaluationTrace(String method, String featureFlag, String treatment, String label, Long changeNumber,
+                           long startTimeMillis, long startNanos, long validatedNanos, long evaluatedNanos, long endNanos) {
+        _method = method;
+        _featureFlag = featureFlag;
+        _treatment = treatment;
+        _label = label;
+        _changeNumber = changeNumber;
+        _startTimeMillis = startTimeMillis;
+        _startNanos = startNanos;
+        _validatedNanos = validatedNanos;
+        _evaluatedNanos = evaluatedNanos;
+        _endNanos = endNanos;
+    }
+
+    /**
+     * @return the client method that was called, e.g. getTreatment.
+     */
+    public String method() {
+        return _method;
+    }
+
+    public String featureFlag() {
+        return _featureFlag;
+    }
+
+    public String treatment() {
+        return _treatment;
+    }
+
+    /**
+     * @return the label of the rule that decided the treatment, even when labels are disabled for impressions.
+     */
+    public String label() {
+        return _label;
+    }
+
+    /**
+     * @return the change number of the evaluated feature flag, null if it was not found.
+     */
+    public Long changeNumber() {
+        return _changeNumber;
+    }
+
+    /**
+     * @return the wall clock time at which the client was called, in epoch millis.
+     */
+    public long startTimeMillis() {
+        return _startTimeMillis;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which the client was called.
+     */
+    public long startNanos() {
+        return _startNanos;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which the inputs were validated and the evaluation started.
+     */
+    public long validatedNanos() {
+        return _validatedNanos;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which the evaluation ended and impression tracking started.
+     */
+    public long evaluatedNanos() {
+        return _evaluatedNanos;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which the impression was tracked.
+     */
+    public long endNanos() {
+        return _endNanos;
+    }
+
+    public long validationNanos() {
+        return _validatedNanos - _startNanos;
+    }
+
+    public long evaluationNanos() {
+        return _evaluatedNanos - _validatedNanos;
+    }
+
+    public long impressionNanos() {
+        return _endNanos - _evaluatedNanos;
+    }
+
+    public long totalNanos() {
+        return _endNanos - _startNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EvaluationTrace{method=%s, featureFlag=%s, treatment=%s, label=%s, changeNumber=%s, validationNanos=%d, " +
+                "evaluationNanos=%d, impressionNanos=%d}", _method, _featureFlag, _treatment, _label, _changeNumber,
+                validationNanos(), evaluationNanos(), impressionNanos());
+    }
+}
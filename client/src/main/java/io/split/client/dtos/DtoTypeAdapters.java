@@ -0,0 +1,838 @@
+package io.split.client.dtos;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written streaming adapters for the DTOs that go over the wire in volume: feature flag and segment changes on
+ * the way in, impressions and events on the way out.
+ * <p>
+ * They read and write the same JSON that the reflective adapters do (same field names and order, nulls written, unknown
+ * fields skipped, missing or null primitives left to their default), without reflection, intermediate JsonElement trees
+ * or boxing of primitive fields.
+ */
+public final class DtoTypeAdapters implements TypeAdapterFactory {
+
+    private static final Map<Class<?>, TypeAdapter<?>> ADAPTERS = new HashMap<>();
+
+    static {
+        ADAPTERS.put(SplitChange.class, new SplitChangeAdapter());
+        ADAPTERS.put(Split.class, SplitAdapter.INSTANCE);
+        ADAPTERS.put(Condition.class, ConditionAdapter.INSTANCE);
+        ADAPTERS.put(MatcherGroup.class, MatcherGroupAdapter.INSTANCE);
+        ADAPTERS.put(Matcher.class, MatcherAdapter.INSTANCE);
+        ADAPTERS.put(KeySelector.class, KeySelectorAdapter.INSTANCE);
+        ADAPTERS.put(Partition.class, PartitionAdapter.INSTANCE);
+        ADAPTERS.put(UserDefinedSegmentMatcherData.class, UserDefinedSegmentMatcherDataAdapter.INSTANCE);
+        ADAPTERS.put(WhitelistMatcherData.class, WhitelistMatcherDataAdapter.INSTANCE);
+        ADAPTERS.put(UnaryNumericMatcherData.class, UnaryNumericMatcherDataAdapter.INSTANCE);
+        ADAPTERS.put(BetweenMatcherData.class, BetweenMatcherDataAdapter.INSTANCE);
+        ADAPTERS.put(DependencyMatcherData.class, DependencyMatcherDataAdapter.INSTANCE);
+        ADAPTERS.put(SegmentChange.class, new SegmentChangeAdapter());
+        ADAPTERS.put(KeyImpression.class, KeyImpressionAdapter.INSTANCE);
+        ADAPTERS.put(TestImpressions.class, new TestImpressionsAdapter());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() == Event.class) {
+            return (TypeAdapter<T>) new EventAdapter(gson);
+        }
+        TypeAdapter<?> adapter = ADAPTERS.get(type.getRawType());
+        return adapter != null ? (TypeAdapter<T>) adapter.nullSafe() : null;
+    }
+
+    private static final class SplitChangeAdapter extends TypeAdapter<SplitChange> {
+        @Override
+        public void write(JsonWriter out, SplitChange value) throws IOException {
+            out.beginObject();
+            out.name("splits");
+            writeList(out, value.splits, SplitAdapter.INSTANCE);
+            out.name("since").value(value.since);
+            out.name("till").value(value.till);
+            out.endObject();
+        }
+
+        @Override
+        public SplitChange read(JsonReader in) throws IOException {
+            SplitChange value = new SplitChange();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "splits": value.splits = readList(in, SplitAdapter.INSTANCE); break;
+                    case "since": value.since = readLong(in, value.since); break;
+                    case "till": value.till = readLong(in, value.till); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class SplitAdapter extends TypeAdapter<Split> {
+        private static final SplitAdapter INSTANCE = new SplitAdapter();
+        private static final EnumReader<Status> STATUS = new EnumReader<>(Status.class);
+
+        @Override
+        public void write(JsonWriter out, Split value) throws IOException {
+            out.beginObject();
+            out.name("name").value(value.name);
+            out.name("seed").value(value.seed);
+            out.name("status").value(value.status == null ? null : value.status.name());
+            out.name("killed").value(value.killed);
+            out.name("defaultTreatment").value(value.defaultTreatment);
+            out.name("conditions");
+            writeList(out, value.conditions, ConditionAdapter.INSTANCE);
+            out.name("trafficTypeName").value(value.trafficTypeName);
+            out.name("changeNumber").value(value.changeNumber);
+            out.name("trafficAllocation").value(value.trafficAllocation);
+            out.name("trafficAllocationSeed").value(value.trafficAllocationSeed);
+            out.name("algo").value(value.algo);
+            out.name("configurations");
+            writeStringMap(out, value.configurations);
+            out.name("sets");
+            writeStrings(out, value.sets);
+            out.endObject();
+        }
+
+        @Override
+        public Split read(JsonReader in) throws IOException {
+            Split value = new Split();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "name": value.name = readString(in); break;
+                    case "seed": value.seed = readInt(in, value.seed); break;
+                    case "status": value.status = STATUS.read(in); break;
+                    case "killed": value.killed = readBoolean(in, value.killed); break;
+                    case "defaultTreatment": value.defaultTreatment = readString(in); break;
+                    case "conditions": value.conditions = readList(in, ConditionAdapter.INSTANCE); break;
+                    case "trafficTypeName": value.trafficTypeName = readString(in); break;
+                    case "changeNumber": value.changeNumber = readLong(in, value.changeNumber); break;
+                    case "trafficAllocation": value.trafficAllocation = readInteger(in); break;
+                    case "trafficAllocationSeed": value.trafficAllocationSeed = readInteger(in); break;
+                    case "algo": value.algo = readInt(in, value.algo); break;
+                    case "configurations": value.configurations = readStringMap(in); break;
+                    case "sets": value.sets = readStrings(in, new HashSet<>()); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class ConditionAdapter extends TypeAdapter<Condition> {
+        private static final ConditionAdapter INSTANCE = new ConditionAdapter();
+        private static final EnumReader<ConditionType> CONDITION_TYPE = new EnumReader<>(ConditionType.class);
+
+        @Override
+        public void write(JsonWriter out, Condition value) throws IOException {
+            out.beginObject();
+            out.name("conditionType").value(value.conditionType == null ? null : value.conditionType.name());
+            out.name("matcherGroup");
+            MatcherGroupAdapter.INSTANCE.nullSafe().write(out, value.matcherGroup);
+            out.name("partitions");
+            writeList(out, value.partitions, PartitionAdapter.INSTANCE);
+            out.name("label").value(value.label);
+            out.endObject();
+        }
+
+        @Override
+        public Condition read(JsonReader in) throws IOException {
+            Condition value = new Condition();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "conditionType": value.conditionType = CONDITION_TYPE.read(in); break;
+                    case "matcherGroup": value.matcherGroup = readObject(in, MatcherGroupAdapter.INSTANCE); break;
+                    case "partitions": value.partitions = readList(in, PartitionAdapter.INSTANCE); break;
+                    case "label": value.label = readString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class MatcherGroupAdapter extends TypeAdapter<MatcherGroup> {
+        private static final MatcherGroupAdapter INSTANCE = new MatcherGroupAdapter();
+        private static final EnumReader<MatcherCombiner> COMBINER = new EnumReader<>(MatcherCombiner.class);
+
+        @Override
+        public void write(JsonWriter out, MatcherGroup value) throws IOException {
+            out.beginObject();
+            out.name("combiner").value(value.combiner == null ? null : value.combiner.name());
+            out.name("matchers");
+            writeList(out, value.matchers, MatcherAdapter.INSTANCE);
+            out.endObject();
+        }
+
+        @Override
+        public MatcherGroup read(JsonReader in) throws IOException {
+            MatcherGroup value = new MatcherGroup();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "combiner": value.combiner = COMBINER.read(in); break;
+                    case "matchers": value.matchers = readList(in, MatcherAdapter.INSTANCE); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class MatcherAdapter extends TypeAdapter<Matcher> {
+        private static final MatcherAdapter INSTANCE = new MatcherAdapter();
+        private static final EnumReader<MatcherType> MATCHER_TYPE = new EnumReader<>(MatcherType.class);
+
+        @Override
+        public void write(JsonWriter out, Matcher value) throws IOException {
+            out.beginObject();
+            out.name("keySelector");
+            KeySelectorAdapter.INSTANCE.nullSafe().write(out, value.keySelector);
+            out.name("matcherType").value(value.matcherType == null ? null : value.matcherType.name());
+            out.name("negate").value(value.negate);
+            out.name("userDefinedSegmentMatcherData");
+            UserDefinedSegmentMatcherDataAdapter.INSTANCE.nullSafe().write(out, value.userDefinedSegmentMatcherData);
+            out.name("whitelistMatcherData");
+            WhitelistMatcherDataAdapter.INSTANCE.nullSafe().write(out, value.whitelistMatcherData);
+            out.name("unaryNumericMatcherData");
+            UnaryNumericMatcherDataAdapter.INSTANCE.nullSafe().write(out, value.unaryNumericMatcherData);
+            out.name("betweenMatcherData");
+            BetweenMatcherDataAdapter.INSTANCE.nullSafe().write(out, value.betweenMatcherData);
+            out.name("dependencyMatcherData");
+            DependencyMatcherDataAdapter.INSTANCE.nullSafe().write(out, value.dependencyMatcherData);
+            out.name("booleanMatcherData").value(value.booleanMatcherData);
+            out.name("stringMatcherData").value(value.stringMatcherData);
+            out.endObject();
+        }
+
+        @Override
+        public Matcher read(JsonReader in) throws IOException {
+            Matcher value = new Matcher();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "keySelector": value.keySelector = readObject(in, KeySelectorAdapter.INSTANCE); break;
+                    case "matcherType": value.matcherType = MATCHER_TYPE.read(in); break;
+                    case "negate": value.negate = readBoolean(in, value.negate); break;
+                    case "userDefinedSegmentMatcherData":
+                        value.userDefinedSegmentMatcherData = readObject(in, UserDefinedSegmentMatcherDataAdapter.INSTANCE);
+                        break;
+                    case "whitelistMatcherData":
+                        value.whitelistMatcherData = readObject(in, WhitelistMatcherDataAdapter.INSTANCE);
+                        break;
+                    case "unaryNumericMatcherData":
+                        value.unaryNumericMatcherData = readObject(in, UnaryNumericMatcherDataAdapter.INSTANCE);
+                        break;
+                    case "betweenMatcherData": value.betweenMatcherData = readObject(in, BetweenMatcherDataAdapter.INSTANCE); break;
+                    case "dependencyMatcherData":
+                        value.dependencyMatcherData = readObject(in, DependencyMatcherDataAdapter.INSTANCE);
+                        break;
+                    case "booleanMatcherData": value.booleanMatcherData = readBooleanObject(in); break;
+                    case "stringMatcherData": value.stringMatcherData = readString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class KeySelectorAdapter extends TypeAdapter<KeySelector> {
+        private static final KeySelectorAdapter INSTANCE = new KeySelectorAdapter();
+
+        @Override
+        public void write(JsonWriter out, KeySelector value) throws IOException {
+            out.beginObject();
+            out.name("trafficType").value(value.trafficType);
+            out.name("attribute").value(value.attribute);
+            out.endObject();
+        }
+
+        @Override
+        public KeySelector read(JsonReader in) throws IOException {
+            KeySelector value = new KeySelector();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "trafficType": value.trafficType = readString(in); break;
+                    case "attribute": value.attribute = readString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class PartitionAdapter extends TypeAdapter<Partition> {
+        private static final PartitionAdapter INSTANCE = new PartitionAdapter();
+
+        @Override
+        public void write(JsonWriter out, Partition value) throws IOException {
+            out.beginObject();
+            out.name("treatment").value(value.treatment);
+            out.name("size").value(value.size);
+            out.endObject();
+        }
+
+        @Override
+        public Partition read(JsonReader in) throws IOException {
+            Partition value = new Partition();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "treatment": value.treatment = readString(in); break;
+                    case "size": value.size = readInt(in, value.size); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class UserDefinedSegmentMatcherDataAdapter extends TypeAdapter<UserDefinedSegmentMatcherData> {
+        private static final UserDefinedSegmentMatcherDataAdapter INSTANCE = new UserDefinedSegmentMatcherDataAdapter();
+
+        @Override
+        public void write(JsonWriter out, UserDefinedSegmentMatcherData value) throws IOException {
+            out.beginObject();
+            out.name("segmentName").value(value.segmentName);
+            out.endObject();
+        }
+
+        @Override
+        public UserDefinedSegmentMatcherData read(JsonReader in) throws IOException {
+            UserDefinedSegmentMatcherData value = new UserDefinedSegmentMatcherData();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("segmentName".equals(in.nextName())) {
+                    value.segmentName = readString(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class WhitelistMatcherDataAdapter extends TypeAdapter<WhitelistMatcherData> {
+        private static final WhitelistMatcherDataAdapter INSTANCE = new WhitelistMatcherDataAdapter();
+
+        @Override
+        public void write(JsonWriter out, WhitelistMatcherData value) throws IOException {
+            out.beginObject();
+            out.name("whitelist");
+            writeStrings(out, value.whitelist);
+            out.endObject();
+        }
+
+        @Override
+        public WhitelistMatcherData read(JsonReader in) throws IOException {
+            WhitelistMatcherData value = new WhitelistMatcherData();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("whitelist".equals(in.nextName())) {
+                    value.whitelist = readStrings(in, new ArrayList<>());
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class UnaryNumericMatcherDataAdapter extends TypeAdapter<UnaryNumericMatcherData> {
+        private static final UnaryNumericMatcherDataAdapter INSTANCE = new UnaryNumericMatcherDataAdapter();
+        private static final EnumReader<DataType> DATA_TYPE = new EnumReader<>(DataType.class);
+
+        @Override
+        public void write(JsonWriter out, UnaryNumericMatcherData value) throws IOException {
+            out.beginObject();
+            out.name("dataType").value(value.dataType == null ? null : value.dataType.name());
+            out.name("value").value(value.value);
+            out.endObject();
+        }
+
+        @Override
+        public UnaryNumericMatcherData read(JsonReader in) throws IOException {
+            UnaryNumericMatcherData value = new UnaryNumericMatcherData();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "dataType": value.dataType = DATA_TYPE.read(in); break;
+                    case "value": value.value = readLong(in, value.value); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class BetweenMatcherDataAdapter extends TypeAdapter<BetweenMatcherData> {
+        private static final BetweenMatcherDataAdapter INSTANCE = new BetweenMatcherDataAdapter();
+
+        @Override
+        public void write(JsonWriter out, BetweenMatcherData value) throws IOException {
+            out.beginObject();
+            out.name("dataType").value(value.dataType == null ? null : value.dataType.name());
+            out.name("start").value(value.start);
+            out.name("end").value(value.end);
+            out.endObject();
+        }
+
+        @Override
+        public BetweenMatcherData read(JsonReader in) throws IOException {
+            BetweenMatcherData value = new BetweenMatcherData();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "dataType": value.dataType = UnaryNumericMatcherDataAdapter.DATA_TYPE.read(in); break;
+                    case "start": value.start = readLong(in, value.start); break;
+                    case "end": value.end = readLong(in, value.end); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class DependencyMatcherDataAdapter extends TypeAdapter<DependencyMatcherData> {
+        private static final DependencyMatcherDataAdapter INSTANCE = new DependencyMatcherDataAdapter();
+
+        @Override
+        public void write(JsonWriter out, DependencyMatcherData value) throws IOException {
+            out.beginObject();
+            out.name("split").value(value.split);
+            out.name("treatments");
+            writeStrings(out, value.treatments);
+            out.endObject();
+        }
+
+        @Override
+        public DependencyMatcherData read(JsonReader in) throws IOException {
+            DependencyMatcherData value = new DependencyMatcherData();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "split": value.split = readString(in); break;
+                    case "treatments": value.treatments = readStrings(in, new ArrayList<>()); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class SegmentChangeAdapter extends TypeAdapter<SegmentChange> {
+        @Override
+        public void write(JsonWriter out, SegmentChange value) throws IOException {
+            out.beginObject();
+            out.name("id").value(value.id);
+            out.name("name").value(value.name);
+            out.name("added");
+            writeStrings(out, value.added);
+            out.name("removed");
+            writeStrings(out, value.removed);
+            out.name("since").value(value.since);
+            out.name("till").value(value.till);
+            out.endObject();
+        }
+
+        @Override
+        public SegmentChange read(JsonReader in) throws IOException {
+            SegmentChange value = new SegmentChange();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id": value.id = readString(in); break;
+                    case "name": value.name = readString(in); break;
+                    case "added": value.added = readStrings(in, new ArrayList<>()); break;
+                    case "removed": value.removed = readStrings(in, new ArrayList<>()); break;
+                    case "since": value.since = readLong(in, value.since); break;
+                    case "till": value.till = readLong(in, value.till); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class KeyImpressionAdapter extends TypeAdapter<KeyImpression> {
+        private static final KeyImpressionAdapter INSTANCE = new KeyImpressionAdapter();
+
+        @Override
+        public void write(JsonWriter out, KeyImpression value) throws IOException {
+            out.beginObject();
+            out.name(KeyImpression.FIELD_KEY_NAME).value(value.keyName);
+            out.name(KeyImpression.FIELD_BUCKETING_KEY).value(value.bucketingKey);
+            out.name(KeyImpression.FIELD_TREATMENT).value(value.treatment);
+            out.name(KeyImpression.FIELD_LABEL).value(value.label);
+            out.name(KeyImpression.FIELD_TIME).value(value.time);
+            out.name(KeyImpression.FIELD_CHANGE_NUMBER).value(value.changeNumber);
+            out.name(KeyImpression.FIELD_PREVIOUS_TIME).value(value.previousTime);
+            out.endObject();
+        }
+
+        @Override
+        public KeyImpression read(JsonReader in) throws IOException {
+            KeyImpression value = new KeyImpression();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case KeyImpression.FIELD_KEY_NAME: value.keyName = readString(in); break;
+                    case KeyImpression.FIELD_BUCKETING_KEY: value.bucketingKey = readString(in); break;
+                    case KeyImpression.FIELD_TREATMENT: value.treatment = readString(in); break;
+                    case KeyImpression.FIELD_LABEL: value.label = readString(in); break;
+                    case KeyImpression.FIELD_TIME: value.time = readLong(in, value.time); break;
+                    case KeyImpression.FIELD_CHANGE_NUMBER: value.changeNumber = readLongObject(in); break;
+                    case KeyImpression.FIELD_PREVIOUS_TIME: value.previousTime = readLongObject(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class TestImpressionsAdapter extends TypeAdapter<TestImpressions> {
+        @Override
+        public void write(JsonWriter out, TestImpressions value) throws IOException {
+            out.beginObject();
+            out.name(TestImpressions.FIELD_TEST_NAME).value(value.testName);
+            out.name(TestImpressions.FIELD_KEY_IMPRESSIONS);
+            writeList(out, value.keyImpressions, KeyImpressionAdapter.INSTANCE);
+            out.endObject();
+        }
+
+        @Override
+        public TestImpressions read(JsonReader in) throws IOException {
+            TestImpressions value = new TestImpressions(null, null);
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case TestImpressions.FIELD_TEST_NAME: value.testName = readString(in); break;
+                    case TestImpressions.FIELD_KEY_IMPRESSIONS: value.keyImpressions = readList(in, KeyImpressionAdapter.INSTANCE); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    /**
+     * Properties are written without reflection for the types that EventsValidator lets through; anything else goes
+     * to the adapter Gson has for it, as the reflective adapter does.
+     */
+    private static final class EventAdapter extends TypeAdapter<Event> {
+        private static final TypeToken<Map<String, Object>> PROPERTIES_TYPE = new TypeToken<Map<String, Object>>() {};
+
+        private final Gson _gson;
+
+        private EventAdapter(Gson gson) {
+            _gson = gson;
+        }
+
+        @Override
+        public void write(JsonWriter out, Event value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name(Event.FIELD_EVENT_TYPE_ID).value(value.eventTypeId);
+            out.name(Event.FIELD_TRAFFIC_TYPE_NAME).value(value.trafficTypeName);
+            out.name(Event.FIELD_KEY).value(value.key);
+            out.name(Event.FIELD_VALUE);
+            writeDouble(out, value.value);
+            out.name(Event.FIELD_PROPERTIES);
+            writeProperties(out, value.properties);
+            out.name(Event.FIELD_TIMESTAMP).value(value.timestamp);
+            out.endObject();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void writeProperties(JsonWriter out, Map<String, Object> properties) throws IOException {
+            if (properties == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            for (Map.Entry<String, Object> entry : properties.entrySet()) {
+                out.name(String.valueOf(entry.getKey()));
+                Object property = entry.getValue();
+                if (property == null) {
+                    out.nullValue();
+                } else if (property instanceof String) {
+                    out.value((String) property);
+                } else if (property instanceof Boolean) {
+                    out.value(((Boolean) property).booleanValue());
+                } else if (property instanceof Double) {
+                    writeDouble(out, (Double) property);
+                } else if (property instanceof Integer || property instanceof Long) {
+                    out.value(((Number) property).longValue());
+                } else {
+                    ((TypeAdapter<Object>) _gson.getAdapter(property.getClass())).write(out, property);
+                }
+            }
+            out.endObject();
+        }
+
+        @Override
+        public Event read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Event value = new Event();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case Event.FIELD_EVENT_TYPE_ID: value.eventTypeId = readString(in); break;
+                    case Event.FIELD_TRAFFIC_TYPE_NAME: value.trafficTypeName = readString(in); break;
+                    case Event.FIELD_KEY: value.key = readString(in); break;
+                    case Event.FIELD_VALUE: value.value = readDouble(in, value.value); break;
+                    case Event.FIELD_PROPERTIES: value.properties = _gson.getAdapter(PROPERTIES_TYPE).read(in); break;
+                    case Event.FIELD_TIMESTAMP: value.timestamp = readLong(in, value.timestamp); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    /**
+     * Reads enum constants by name, unknown names are read as null.
+     */
+    private static final class EnumReader<E extends Enum<E>> {
+        private final Map<String, E> _byName = new HashMap<>();
+
+        private EnumReader(Class<E> type) {
+            for (E constant : type.getEnumConstants()) {
+                _byName.put(constant.name(), constant);
+            }
+        }
+
+        private E read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return _byName.get(in.nextString());
+        }
+    }
+
+    private static <T> void writeList(JsonWriter out, List<T> values, TypeAdapter<T> adapter) throws IOException {
+        if (values == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (T value : values) {
+            if (value == null) {
+                out.nullValue();
+            } else {
+                adapter.write(out, value);
+            }
+        }
+        out.endArray();
+    }
+
+    private static void writeStrings(JsonWriter out, Collection<String> values) throws IOException {
+        if (values == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (String value : values) {
+            out.value(value);
+        }
+        out.endArray();
+    }
+
+    private static void writeStringMap(JsonWriter out, Map<String, String> values) throws IOException {
+        if (values == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            out.name(String.valueOf(entry.getKey())).value(entry.getValue());
+        }
+        out.endObject();
+    }
+
+    /**
+     * Same as the Double serializer registered in Json: integers are sent as such.
+     */
+    private static void writeDouble(JsonWriter out, double value) throws IOException {
+        if (value == (long) value) {
+            out.value((long) value);
+        } else {
+            out.value(value);
+        }
+    }
+
+    private static <T> T readObject(JsonReader in, TypeAdapter<T> adapter) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return adapter.read(in);
+    }
+
+    private static <T> List<T> readList(JsonReader in, TypeAdapter<T> adapter) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<T> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(readObject(in, adapter));
+        }
+        in.endArray();
+        return values;
+    }
+
+    private static <C extends Collection<String>> C readStrings(JsonReader in, C values) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(readString(in));
+        }
+        in.endArray();
+        return values;
+    }
+
+    private static Map<String, String> readStringMap(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String key = in.nextName();
+            if (values.put(key, readString(in)) != null) {
+                throw new JsonSyntaxException("duplicate key: " + key);
+            }
+        }
+        in.endObject();
+        return values;
+    }
+
+    private static String readString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    private static int readInt(JsonReader in, int defaultValue) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return defaultValue;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static Integer readInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return readInt(in, 0);
+    }
+
+    private static long readLong(JsonReader in, long defaultValue) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return defaultValue;
+        }
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static Long readLongObject(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return readLong(in, 0);
+    }
+
+    private static double readDouble(JsonReader in, double defaultValue) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return defaultValue;
+        }
+        return in.nextDouble();
+    }
+
+    private static boolean readBoolean(JsonReader in, boolean defaultValue) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return defaultValue;
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    private static Boolean readBooleanObject(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return readBoolean(in, false);
+    }
+}
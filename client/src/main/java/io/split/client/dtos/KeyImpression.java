@@ -16,6 +16,9 @@ public class KeyImpression {
     /* package private */ static final String FIELD_CHANGE_NUMBER = "c";
     /* package private */ static final String FIELD_PREVIOUS_TIME = "pt";
 
+    // Field names, quotes, separators and the numeric fields of a serialized impression.
+    private static final int SERIALIZED_OVERHEAD_BYTES = 100;
+
     public transient String feature; // Non-serializable
 
     @SerializedName(FIELD_KEY_NAME)
@@ -68,6 +71,18 @@ public class KeyImpression {
         return result;
     }
 
+    /**
+     * Rough upper bound of the bytes this impression takes once serialized, used to bound bulk payloads
+     * without serializing them first.
+     */
+    public long estimatedSize() {
+        return SERIALIZED_OVERHEAD_BYTES + length(keyName) + length(bucketingKey) + length(treatment) + length(label);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
     public static KeyImpression fromImpression(Impression i) {
         KeyImpression ki = new KeyImpression();
         ki.feature = i.split();
@@ -1,6 +1,22 @@
 package io.split.client.dtos;
 
+import com.google.common.base.Objects;
+
 public class Partition {
     public String treatment;
     public int size;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Partition partition = (Partition) o;
+        return size == partition.size &&
+                Objects.equal(treatment, partition.treatment);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(treatment, size);
+    }
 }
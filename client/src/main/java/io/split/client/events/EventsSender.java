@@ -2,14 +2,19 @@ package io.split.client.events;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.split.client.dtos.Event;
+import io.split.client.utils.Json;
 import io.split.client.utils.Utils;
 import io.split.service.HttpPostImp;
+import io.split.storages.disk.SpillLog;
 import io.split.telemetry.domain.enums.HttpParamsWrapper;
 import io.split.telemetry.storage.TelemetryRuntimeProducer;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static com.google.gson.internal.$Gson$Preconditions.checkNotNull;
@@ -21,21 +26,54 @@ public class EventsSender {
     private final CloseableHttpClient _client;
     private final TelemetryRuntimeProducer _telemetryRuntimeProducer;
     private final HttpPostImp _httpPostImp;
+    private final SpillLog _spillLog;
 
     public static EventsSender create(CloseableHttpClient httpclient, URI eventsTarget, TelemetryRuntimeProducer telemetryRuntimeProducer)
             throws URISyntaxException {
-        return new EventsSender(httpclient, Utils.appendPath(eventsTarget, BULK_ENDPOINT_PATH), telemetryRuntimeProducer);
+        return create(httpclient, eventsTarget, telemetryRuntimeProducer, null);
+    }
+
+    public static EventsSender create(CloseableHttpClient httpclient, URI eventsTarget, TelemetryRuntimeProducer telemetryRuntimeProducer,
+                                      SpillLog spillLog) throws URISyntaxException {
+        return new EventsSender(httpclient, Utils.appendPath(eventsTarget, BULK_ENDPOINT_PATH), telemetryRuntimeProducer, spillLog);
     }
 
     EventsSender(CloseableHttpClient httpclient, URI eventsTarget, TelemetryRuntimeProducer telemetryRuntimeProducer) {
+        this(httpclient, eventsTarget, telemetryRuntimeProducer, null);
+    }
+
+    EventsSender(CloseableHttpClient httpclient, URI eventsTarget, TelemetryRuntimeProducer telemetryRuntimeProducer, SpillLog spillLog) {
         _client = checkNotNull(httpclient);
         _bulkEndpoint = checkNotNull(eventsTarget);
         _telemetryRuntimeProducer = checkNotNull(telemetryRuntimeProducer);
         _httpPostImp = new HttpPostImp(httpclient, telemetryRuntimeProducer);
+        _spillLog = spillLog;
+        if (_spillLog != null) {
+            _spillLog.startReplay(this::post);
+        }
     }
 
+    /**
+     * Serializes the events straight into the request body. The payload is only materialized when the post fails
+     * and it has to be spilled.
+     */
     public void sendEvents(List<Event> _data) {
-        _httpPostImp.post(_bulkEndpoint, _data, "Events ", HttpParamsWrapper.EVENTS);
+        boolean posted = _httpPostImp.post(_bulkEndpoint, Utils.toJsonStreamingEntity(_data, false), "Events ",
+                HttpParamsWrapper.EVENTS);
+        if (!posted && _spillLog != null) {
+            _spillLog.append(Json.toJson(_data).getBytes(StandardCharsets.UTF_8), _data.size());
+        }
+    }
+
+    public void close() {
+        if (_spillLog != null) {
+            _spillLog.close();
+        }
+    }
+
+    private boolean post(byte[] payload) {
+        return _httpPostImp.post(_bulkEndpoint, new ByteArrayEntity(payload, ContentType.APPLICATION_JSON), "Events ",
+                HttpParamsWrapper.EVENTS);
     }
 
     @VisibleForTesting
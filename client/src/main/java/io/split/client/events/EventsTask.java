@@ -1,7 +1,9 @@
 package io.split.client.events;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.split.client.dtos.Event;
+import io.split.client.utils.AdaptiveFlushScheduler;
 import io.split.client.utils.SplitExecutorFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +11,10 @@ import org.slf4j.LoggerFactory;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -20,28 +26,50 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public class EventsTask{
 
+    /**
+     * Upper bounds of a single bulk post. Flushes holding more events are split and the chunks posted concurrently.
+     */
+    public static final long MAX_BULK_BYTES = 5L * 1024 * 1024;
+    /* package private */ static final int MAX_BULK_EVENTS = 5000;
+    private static final int MAX_CONCURRENT_BULK_POSTS = 4;
+
     private final EventsStorageConsumer _eventsStorageConsumer;
     private final EventsSender _eventsSender;
     private final long _sendIntervalMillis;
+    private final AdaptiveFlushScheduler _flushScheduler;
 
     private final ScheduledExecutorService _senderScheduledExecutorService;
+    private final ExecutorService _bulkExecutor;
     private static final Logger _log = LoggerFactory.getLogger(EventsTask.class);
 
     public static EventsTask create(long sendIntervalMillis, EventsStorageConsumer eventsStorageConsumer, EventsSender eventsSender,
                                     ThreadFactory threadFactory) throws URISyntaxException {
+        return create(sendIntervalMillis, eventsStorageConsumer, eventsSender, threadFactory, null);
+    }
+
+    public static EventsTask create(long sendIntervalMillis, EventsStorageConsumer eventsStorageConsumer, EventsSender eventsSender,
+                                    ThreadFactory threadFactory, AdaptiveFlushScheduler flushScheduler) throws URISyntaxException {
         return new EventsTask(eventsStorageConsumer,
                 sendIntervalMillis,
                 eventsSender,
-                threadFactory);
+                threadFactory,
+                flushScheduler);
     }
 
     EventsTask(EventsStorageConsumer eventsStorageConsumer,
                long sendIntervalMillis, EventsSender eventsSender, ThreadFactory threadFactory) {
+        this(eventsStorageConsumer, sendIntervalMillis, eventsSender, threadFactory, null);
+    }
+
+    EventsTask(EventsStorageConsumer eventsStorageConsumer,
+               long sendIntervalMillis, EventsSender eventsSender, ThreadFactory threadFactory, AdaptiveFlushScheduler flushScheduler) {
 
         _eventsStorageConsumer = checkNotNull(eventsStorageConsumer);
         _sendIntervalMillis = sendIntervalMillis;
         _eventsSender = checkNotNull(eventsSender);
         _senderScheduledExecutorService = SplitExecutorFactory.buildSingleThreadScheduledExecutor(threadFactory, "Sender-events-%d");
+        _bulkExecutor = SplitExecutorFactory.buildFixedThreadPool(threadFactory, "Sender-events-bulk-%d", MAX_CONCURRENT_BULK_POSTS);
+        _flushScheduler = flushScheduler;
     }
 
     ThreadFactory eventClientThreadFactory(final String name) {
@@ -52,6 +80,10 @@ public class EventsTask{
     }
 
     public void start(){
+        if (_flushScheduler != null) {
+            _flushScheduler.start(this::sendEvents, _sendIntervalMillis);
+            return;
+        }
         _senderScheduledExecutorService.scheduleWithFixedDelay(() -> {
             try {
                 sendEvents();
@@ -63,28 +95,75 @@ public class EventsTask{
 
     public void close() {
         try {
+            if (_flushScheduler != null) {
+                _flushScheduler.stop();
+            }
             sendEvents();
             _senderScheduledExecutorService.shutdown();
+            _bulkExecutor.shutdown();
+            _eventsSender.close();
         } catch (Exception e) {
             _log.warn("Error when shutting down EventClientImpl", e);
         }
     }
 
+    /**
+     * Drains the queue and posts it in chunks bounded by {@link #MAX_BULK_EVENTS} and {@link #MAX_BULK_BYTES}. The first
+     * chunk is posted on the calling thread and the rest concurrently; the call returns once every chunk has been posted.
+     */
     void sendEvents(){
         if (_eventsStorageConsumer.isFull()) {
             _log.warn("Split SDK events queue is full. Events may have been dropped. Consider increasing capacity.");
         }
 
-        List<WrappedEvent> wrappedEventList = _eventsStorageConsumer.popAll();
-        List<Event> eventsToSend = new ArrayList<>();
-        for (WrappedEvent wrappedEvent: wrappedEventList){
-            Event event = wrappedEvent.event();
-            eventsToSend.add(event);
+        List<List<Event>> chunks = chunk(_eventsStorageConsumer.popAll(), MAX_BULK_EVENTS, MAX_BULK_BYTES);
+        if (chunks.isEmpty()){
+            return;
         }
 
-        if (eventsToSend.isEmpty()){
-            return;
+        List<Future<?>> pending = new ArrayList<>(chunks.size() - 1);
+        for (int i = 1; i < chunks.size(); i++) {
+            List<Event> chunk = chunks.get(i);
+            try {
+                pending.add(_bulkExecutor.submit(() -> _eventsSender.sendEvents(chunk)));
+            } catch (RejectedExecutionException e) {
+                // Task closed, post inline.
+                _eventsSender.sendEvents(chunk);
+            }
+        }
+
+        _eventsSender.sendEvents(chunks.get(0));
+
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                _log.warn("Interrupted while posting events");
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                _log.warn("Exception when posting events", e.getCause());
+            }
+        }
+    }
+
+    @VisibleForTesting
+    /* package private */ static List<List<Event>> chunk(List<WrappedEvent> wrappedEvents, int maxEvents, long maxBytes) {
+        List<List<Event>> chunks = new ArrayList<>();
+        List<Event> current = new ArrayList<>();
+        long currentBytes = 0;
+        for (WrappedEvent wrappedEvent : wrappedEvents) {
+            if (!current.isEmpty() && (current.size() >= maxEvents || currentBytes + wrappedEvent.size() > maxBytes)) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                currentBytes = 0;
+            }
+            current.add(wrappedEvent.event());
+            currentBytes += wrappedEvent.size();
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
         }
-        _eventsSender.sendEvents(eventsToSend);
+        return chunks;
     }
-}
\ No newline at end of file
+}
@@ -2,35 +2,63 @@ package io.split.client.events;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.split.client.dtos.Event;
+import io.split.client.utils.AdaptiveFlushScheduler;
+import io.split.client.utils.Json;
+import io.split.storages.disk.SpillLog;
+import io.split.storages.disk.SpillQueue;
+import io.split.telemetry.metrics.QueueStats;
 import io.split.telemetry.domain.enums.EventsDataRecordsEnum;
 import io.split.telemetry.storage.TelemetryRuntimeProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
 
 import static com.google.gson.internal.$Gson$Preconditions.checkNotNull;
 
-public class InMemoryEventsStorage implements EventsStorage{
+public class InMemoryEventsStorage implements EventsStorage, QueueStats {
 
     private static final Logger _log = LoggerFactory.getLogger(InMemoryEventsStorage.class);
     private final BlockingQueue<WrappedEvent> _eventQueue;
     private final int _maxQueueSize;
     private final TelemetryRuntimeProducer _telemetryRuntimeProducer;
+    private final AdaptiveFlushScheduler _flushScheduler;
+    private final SpillQueue<Event> _spillQueue;
+    private final LongAdder _queuedBytes = new LongAdder();
 
     public InMemoryEventsStorage(int maxQueueSize, TelemetryRuntimeProducer telemetryRuntimeProducer) {
+        this(maxQueueSize, telemetryRuntimeProducer, null);
+    }
+
+    public InMemoryEventsStorage(int maxQueueSize, TelemetryRuntimeProducer telemetryRuntimeProducer,
+                                 AdaptiveFlushScheduler flushScheduler) {
+        this(maxQueueSize, telemetryRuntimeProducer, flushScheduler, null);
+    }
+
+    /**
+     * @param spillLog where events that do not fit in the queue are written to instead of being dropped. Nullable.
+     */
+    public InMemoryEventsStorage(int maxQueueSize, TelemetryRuntimeProducer telemetryRuntimeProducer,
+                                 AdaptiveFlushScheduler flushScheduler, SpillLog spillLog) {
         _eventQueue = new LinkedBlockingQueue<>(maxQueueSize);
         _maxQueueSize = maxQueueSize;
         _telemetryRuntimeProducer = checkNotNull(telemetryRuntimeProducer);
+        _flushScheduler = flushScheduler;
+        _spillQueue = spillLog == null ? null : new SpillQueue<>(spillLog, maxQueueSize,
+                batch -> Json.toJson(batch).getBytes(StandardCharsets.UTF_8));
     }
 
     @Override
     public WrappedEvent pop() {
         try {
-            return _eventQueue.take();
+            WrappedEvent event = _eventQueue.take();
+            _queuedBytes.add(-event.size());
+            return event;
         } catch (InterruptedException e) {
             _log.warn("Got interrupted while waiting for an event in the queue.");
         }
@@ -41,6 +69,11 @@ public class InMemoryEventsStorage implements EventsStorage{
     public List<WrappedEvent> popAll() {
         ArrayList<WrappedEvent> popped = new ArrayList<>();
         _eventQueue.drainTo(popped);
+        long bytes = 0;
+        for (WrappedEvent event : popped) {
+            bytes += event.size();
+        }
+        _queuedBytes.add(-bytes);
         return popped;
     }
 
@@ -56,7 +89,15 @@ public class InMemoryEventsStorage implements EventsStorage{
                 return false;
             }
             if(_eventQueue.offer(new WrappedEvent(event, eventSize))) {
+                _queuedBytes.add(eventSize);
                 _telemetryRuntimeProducer.recordEventStats(EventsDataRecordsEnum.EVENTS_QUEUED, 1);
+                if (_flushScheduler != null) {
+                    _flushScheduler.recordQueued(1, eventSize);
+                }
+            }
+            else if (_spillQueue != null) {
+                // Counted as spilled, or as dropped if the spill log cannot keep up, by the spill log itself.
+                return _spillQueue.offer(event);
             }
             else {
                 _log.warn("Event queue is full, dropping event.");
@@ -72,6 +113,16 @@ public class InMemoryEventsStorage implements EventsStorage{
         return true;
     }
 
+    @Override
+    public long queueDepth() {
+        return _eventQueue.size();
+    }
+
+    @Override
+    public long queuedBytes() {
+        return _queuedBytes.sum();
+    }
+
     @VisibleForTesting
     int queueSize() {
         return _maxQueueSize - _eventQueue.remainingCapacity();
@@ -0,0 +1,48 @@
+package io.split.client.impressions;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A listener that receives impressions in batches, delivered from a single background thread.
+ * Register it through {@link io.split.integrations.IntegrationsConfig.Builder#batchImpressionsListener}.
+ */
+public interface BatchImpressionListener {
+
+    /**
+     * Log this batch of impressions to the listener. The list is not reused by the SDK once this call returns.
+     * This method MUST NOT throw any exception
+     *
+     * @param impressions
+     */
+    void logBatch(List<Impression> impressions);
+
+    /**
+     * MUST NOT throw any exceptions
+     */
+    void close();
+
+    /**
+     * Lets a per-impression {@link ImpressionListener} be fed in batches.
+     */
+    final class Adapter implements BatchImpressionListener {
+        private final ImpressionListener _delegate;
+
+        public Adapter(ImpressionListener delegate) {
+            _delegate = checkNotNull(delegate);
+        }
+
+        @Override
+        public void logBatch(List<Impression> impressions) {
+            for (Impression impression : impressions) {
+                _delegate.log(impression);
+            }
+        }
+
+        @Override
+        public void close() {
+            _delegate.close();
+        }
+    }
+}
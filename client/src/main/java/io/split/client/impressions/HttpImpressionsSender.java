@@ -2,26 +2,41 @@ package io.split.client.impressions;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.split.client.dtos.ImpressionCount;
+import io.split.client.dtos.KeyImpression;
 import io.split.client.dtos.TestImpressions;
+import io.split.client.utils.Json;
+import io.split.client.utils.SplitExecutorFactory;
 import io.split.client.utils.Utils;
+import io.split.service.HttpPostImp;
+import io.split.storages.disk.SpillLog;
 
 import io.split.telemetry.domain.enums.HTTPLatenciesEnum;
 import io.split.telemetry.domain.enums.LastSynchronizationRecordsEnum;
 import io.split.telemetry.domain.enums.ResourceEnum;
 import io.split.telemetry.storage.TelemetryRuntimeProducer;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.entity.GzipCompressingEntity;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -33,6 +48,10 @@ public class HttpImpressionsSender implements ImpressionsSender {
     private static final String BULK_ENDPOINT_PATH = "api/testImpressions/bulk";
     private static final String COUNT_ENDPOINT_PATH = "api/testImpressions/count";
     private static final String IMPRESSIONS_MODE_HEADER = "SplitSDKImpressionsMode";
+    /* package private */ static final long MAX_BULK_BYTES = 2L * 1024 * 1024;
+    private static final int MAX_CONCURRENT_BULK_POSTS = 4;
+    // Feature name, quotes and array delimiters of a serialized TestImpressions entry.
+    private static final int TEST_IMPRESSIONS_OVERHEAD_BYTES = 20;
 
     private static final Logger _logger = LoggerFactory.getLogger(HttpImpressionsSender.class);
 
@@ -41,33 +60,120 @@ public class HttpImpressionsSender implements ImpressionsSender {
     private final URI _impressionCountTarget;
     private final ImpressionsManager.Mode _mode;
     private final TelemetryRuntimeProducer _telemetryRuntimeProducer;
+    private final boolean _gzipEnabled;
+    private final long _maxBulkBytes;
+    private final ExecutorService _bulkExecutor;
+    private final SpillLog _spillLog;
 
     public static HttpImpressionsSender create(CloseableHttpClient client, URI eventsRootEndpoint, ImpressionsManager.Mode mode,
                                                TelemetryRuntimeProducer telemetryRuntimeProducer) throws URISyntaxException {
+        return create(client, eventsRootEndpoint, mode, telemetryRuntimeProducer, false, null, null);
+    }
+
+    public static HttpImpressionsSender create(CloseableHttpClient client, URI eventsRootEndpoint, ImpressionsManager.Mode mode,
+                                               TelemetryRuntimeProducer telemetryRuntimeProducer, boolean gzipEnabled,
+                                               ThreadFactory threadFactory, SpillLog spillLog) throws URISyntaxException {
         return new HttpImpressionsSender(client,
                 Utils.appendPath(eventsRootEndpoint, BULK_ENDPOINT_PATH),
                 Utils.appendPath(eventsRootEndpoint, COUNT_ENDPOINT_PATH),
                 mode,
-                telemetryRuntimeProducer);
+                telemetryRuntimeProducer,
+                gzipEnabled,
+                MAX_BULK_BYTES,
+                SplitExecutorFactory.buildFixedThreadPool(threadFactory, "Split-ImpressionsSender-%d", MAX_CONCURRENT_BULK_POSTS),
+                spillLog);
+    }
+
+    @VisibleForTesting
+    /* package private */ static HttpImpressionsSender createForTest(CloseableHttpClient client, URI eventsRootEndpoint,
+                                                                     ImpressionsManager.Mode mode,
+                                                                     TelemetryRuntimeProducer telemetryRuntimeProducer,
+                                                                     boolean gzipEnabled, long maxBulkBytes) throws URISyntaxException {
+        return new HttpImpressionsSender(client,
+                Utils.appendPath(eventsRootEndpoint, BULK_ENDPOINT_PATH),
+                Utils.appendPath(eventsRootEndpoint, COUNT_ENDPOINT_PATH),
+                mode,
+                telemetryRuntimeProducer,
+                gzipEnabled,
+                maxBulkBytes,
+                SplitExecutorFactory.buildFixedThreadPool(null, "Split-ImpressionsSender-%d", MAX_CONCURRENT_BULK_POSTS),
+                null);
     }
 
     private HttpImpressionsSender(CloseableHttpClient client, URI impressionBulkTarget, URI impressionCountTarget, ImpressionsManager.Mode mode,
-                                  TelemetryRuntimeProducer telemetryRuntimeProducer) {
+                                  TelemetryRuntimeProducer telemetryRuntimeProducer, boolean gzipEnabled, long maxBulkBytes,
+                                  ExecutorService bulkExecutor, SpillLog spillLog) {
         _client = client;
         _mode = mode;
         _impressionBulkTarget = impressionBulkTarget;
         _impressionCountTarget = impressionCountTarget;
         _telemetryRuntimeProducer = checkNotNull(telemetryRuntimeProducer);
+        _gzipEnabled = gzipEnabled;
+        _maxBulkBytes = maxBulkBytes;
+        _bulkExecutor = checkNotNull(bulkExecutor);
+        _spillLog = spillLog;
+        if (_spillLog != null) {
+            _spillLog.startReplay(this::replay);
+        }
     }
 
+    /**
+     * Splits the impressions in byte-bounded chunks. The first chunk is posted on the calling thread
+     * and the rest concurrently on the sender pool; the call returns once every chunk has been posted.
+     */
     @Override
     public void postImpressionsBulk(List<TestImpressions> impressions) {
+        List<List<TestImpressions>> chunks = chunk(impressions, _maxBulkBytes);
+        if (chunks.isEmpty()) {
+            return;
+        }
+
+        List<Future<?>> pending = new ArrayList<>(chunks.size() - 1);
+        for (int i = 1; i < chunks.size(); i++) {
+            List<TestImpressions> chunk = chunks.get(i);
+            try {
+                pending.add(_bulkExecutor.submit(() -> postChunk(chunk)));
+            } catch (RejectedExecutionException e) {
+                // Sender pool already shut down, post inline.
+                postChunk(chunk);
+            }
+        }
+
+        postChunk(chunks.get(0));
+
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                _logger.warn("Interrupted while posting impressions");
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                _logger.warn("Exception when posting impressions", e.getCause());
+            }
+        }
+    }
+
+    private void postChunk(List<TestImpressions> impressions) {
+        int count = countImpressions(impressions);
+        if (post(Utils.toJsonStreamingEntity(impressions, _gzipEnabled), count) || _spillLog == null) {
+            return;
+        }
+        _spillLog.append(Json.toJson(impressions).getBytes(StandardCharsets.UTF_8), count);
+    }
 
+    private boolean replay(byte[] payload) {
+        HttpEntity entity = new ByteArrayEntity(payload, ContentType.APPLICATION_JSON);
+        return post(_gzipEnabled ? new GzipCompressingEntity(entity) : entity, -1);
+    }
+
+    /**
+     * @return false when the post failed in a way that is worth retrying later.
+     */
+    private boolean post(HttpEntity entity, int count) {
         CloseableHttpResponse response = null;
-        long initTime = System.currentTimeMillis();
+        long initTime = System.nanoTime();
         try {
-            HttpEntity entity = Utils.toJsonEntity(impressions);
-
             HttpPost request = new HttpPost(_impressionBulkTarget);
             request.addHeader(IMPRESSIONS_MODE_HEADER, _mode.toString());
             request.setEntity(entity);
@@ -79,21 +185,23 @@ public class HttpImpressionsSender implements ImpressionsSender {
             if (status < HttpStatus.SC_OK || status >= HttpStatus.SC_MULTIPLE_CHOICES) {
                 _telemetryRuntimeProducer.recordSyncError(ResourceEnum.IMPRESSION_SYNC, status);
                 _logger.warn(String.format("Response status was: %s. Reason: %s", status , response.getReasonPhrase()));
+                return !HttpPostImp.isRetryable(status);
             }
             _telemetryRuntimeProducer.recordSuccessfulSync(LastSynchronizationRecordsEnum.IMPRESSIONS, System.currentTimeMillis());
-
+            return true;
         } catch (Throwable t) {
-            _logger.warn("Exception when posting impressions" + impressions, t);
+            _logger.warn(count < 0 ? "Exception when replaying spilled impressions"
+                    : String.format("Exception when posting %d impressions", count), t);
+            return false;
         } finally {
-            _telemetryRuntimeProducer.recordSyncLatency(HTTPLatenciesEnum.IMPRESSIONS, System.currentTimeMillis() - initTime);
+            _telemetryRuntimeProducer.recordSyncLatency(HTTPLatenciesEnum.IMPRESSIONS, System.nanoTime() - initTime);
             Utils.forceClose(response);
         }
-
     }
 
     @Override
     public void postCounters(HashMap<ImpressionCounter.Key, Integer> raw) {
-        long initTime = System.currentTimeMillis();
+        long initTime = System.nanoTime();
         if (_mode.equals(ImpressionsManager.Mode.DEBUG)) {
             _logger.warn("Attempted to submit counters in impressions debugging mode. Ignoring");
             return;
@@ -107,13 +215,68 @@ public class HttpImpressionsSender implements ImpressionsSender {
                 _telemetryRuntimeProducer.recordSyncError(ResourceEnum.IMPRESSION_COUNT_SYNC, status);
                 _logger.warn(String.format("Response status was: %s. Reason: %s", status , response.getReasonPhrase()));
             }
-            _telemetryRuntimeProducer.recordSyncLatency(HTTPLatenciesEnum.IMPRESSIONS_COUNT, System.currentTimeMillis() - initTime);
+            _telemetryRuntimeProducer.recordSyncLatency(HTTPLatenciesEnum.IMPRESSIONS_COUNT, System.nanoTime() - initTime);
             _telemetryRuntimeProducer.recordSuccessfulSync(LastSynchronizationRecordsEnum.IMPRESSIONS_COUNT, System.currentTimeMillis());
         } catch (IOException exc) {
             _logger.warn("Exception when posting impression counters: ", exc);
         }
     }
 
+    @Override
+    public void close() {
+        _bulkExecutor.shutdown();
+        if (_spillLog != null) {
+            _spillLog.close();
+        }
+    }
+
+    /**
+     * Groups impressions in chunks whose estimated serialized size does not exceed maxBytes. Features with
+     * more impressions than fit in one chunk are split across several entries.
+     */
+    @VisibleForTesting
+    /* package private */ static List<List<TestImpressions>> chunk(List<TestImpressions> impressions, long maxBytes) {
+        List<List<TestImpressions>> chunks = new ArrayList<>();
+        List<TestImpressions> current = new ArrayList<>();
+        long currentBytes = 0;
+        for (TestImpressions testImpressions : impressions) {
+            long featureOverhead = TEST_IMPRESSIONS_OVERHEAD_BYTES + testImpressions.testName.length();
+            List<KeyImpression> keyImpressions = new ArrayList<>();
+            long featureBytes = featureOverhead;
+            for (KeyImpression keyImpression : testImpressions.keyImpressions) {
+                long size = keyImpression.estimatedSize();
+                if (currentBytes + featureBytes + size > maxBytes && (!keyImpressions.isEmpty() || !current.isEmpty())) {
+                    if (!keyImpressions.isEmpty()) {
+                        current.add(new TestImpressions(testImpressions.testName, keyImpressions));
+                    }
+                    chunks.add(current);
+                    current = new ArrayList<>();
+                    currentBytes = 0;
+                    keyImpressions = new ArrayList<>();
+                    featureBytes = featureOverhead;
+                }
+                keyImpressions.add(keyImpression);
+                featureBytes += size;
+            }
+            if (!keyImpressions.isEmpty()) {
+                current.add(new TestImpressions(testImpressions.testName, keyImpressions));
+                currentBytes += featureBytes;
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private static int countImpressions(List<TestImpressions> impressions) {
+        int count = 0;
+        for (TestImpressions testImpressions : impressions) {
+            count += testImpressions.keyImpressions.size();
+        }
+        return count;
+    }
+
     @VisibleForTesting
     URI getTarget() {
         return _impressionBulkTarget;
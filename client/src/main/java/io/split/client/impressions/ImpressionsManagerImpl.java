@@ -5,6 +5,7 @@ import io.split.client.SplitClientConfig;
 import io.split.client.dtos.KeyImpression;
 import io.split.client.dtos.TestImpressions;
 import io.split.client.impressions.strategy.ProcessImpressionStrategy;
+import io.split.client.utils.AdaptiveFlushScheduler;
 import io.split.client.utils.SplitExecutorFactory;
 import io.split.telemetry.domain.enums.ImpressionsDataTypeEnum;
 import io.split.telemetry.storage.TelemetryRuntimeProducer;
@@ -14,8 +15,11 @@ import org.slf4j.LoggerFactory;
 import java.io.Closeable;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -30,6 +34,7 @@ public class ImpressionsManagerImpl implements ImpressionsManager, Closeable {
     private static final long BULK_INITIAL_DELAY_SECONDS = 10L;
     private static final long COUNT_INITIAL_DELAY_SECONDS = 100L;
     private static final long COUNT_REFRESH_RATE_SECONDS = 30 * 60;
+    private static final long PROCESS_INTERVAL_MILLIS = 100L;
     private final SplitClientConfig _config;
     private final ImpressionsStorageProducer _impressionsStorageProducer;
     private final ImpressionsStorageConsumer _impressionsStorageConsumer;
@@ -41,6 +46,11 @@ public class ImpressionsManagerImpl implements ImpressionsManager, Closeable {
     private ImpressionCounter _counter;
     private ProcessImpressionStrategy _processImpressionStrategy;
     private final int _impressionsRefreshRate;
+    private final AdaptiveFlushScheduler _flushScheduler;
+    private final StripedImpressionBuffer _buffer;
+    private final ScheduledExecutorService _processor;
+    private final AtomicBoolean _processQueued = new AtomicBoolean(false);
+    private final ImpressionsModeController _modeController;
 
     public static ImpressionsManagerImpl instance(SplitClientConfig config,
                                                   TelemetryRuntimeProducer telemetryRuntimeProducer,
@@ -49,9 +59,11 @@ public class ImpressionsManagerImpl implements ImpressionsManager, Closeable {
                                                   ImpressionsSender impressionsSender,
                                                   ProcessImpressionStrategy processImpressionStrategy,
                                                   ImpressionCounter counter,
-                                                  ImpressionListener listener) throws URISyntaxException {
+                                                  ImpressionListener listener,
+                                                  AdaptiveFlushScheduler flushScheduler,
+                                                  ImpressionsModeController modeController) throws URISyntaxException {
         return new ImpressionsManagerImpl(config, impressionsSender, telemetryRuntimeProducer, impressionsStorageConsumer,
-                impressionsStorageProducer, processImpressionStrategy, counter, listener);
+                impressionsStorageProducer, processImpressionStrategy, counter, listener, flushScheduler, modeController);
     }
 
     public static ImpressionsManagerImpl instanceForTest(SplitClientConfig config,
@@ -63,7 +75,21 @@ public class ImpressionsManagerImpl implements ImpressionsManager, Closeable {
                                                          ImpressionCounter counter,
                                                          ImpressionListener listener) {
         return new ImpressionsManagerImpl(config, impressionsSender, telemetryRuntimeProducer, impressionsStorageConsumer,
-                impressionsStorageProducer, processImpressionStrategy, counter, listener);
+                impressionsStorageProducer, processImpressionStrategy, counter, listener, null, null);
+    }
+
+    public static ImpressionsManagerImpl instanceForTest(SplitClientConfig config,
+                                                         ImpressionsSender impressionsSender,
+                                                         TelemetryRuntimeProducer telemetryRuntimeProducer,
+                                                         ImpressionsStorageConsumer impressionsStorageConsumer,
+                                                         ImpressionsStorageProducer impressionsStorageProducer,
+                                                         ProcessImpressionStrategy processImpressionStrategy,
+                                                         ImpressionCounter counter,
+                                                         ImpressionListener listener,
+                                                         AdaptiveFlushScheduler flushScheduler,
+                                                         ImpressionsModeController modeController) {
+        return new ImpressionsManagerImpl(config, impressionsSender, telemetryRuntimeProducer, impressionsStorageConsumer,
+                impressionsStorageProducer, processImpressionStrategy, counter, listener, flushScheduler, modeController);
     }
 
     private ImpressionsManagerImpl(SplitClientConfig config,
@@ -73,7 +99,9 @@ public class ImpressionsManagerImpl implements ImpressionsManager, Closeable {
                                    ImpressionsStorageProducer impressionsStorageProducer,
                                    ProcessImpressionStrategy processImpressionStrategy,
                                    ImpressionCounter impressionCounter,
-                                   ImpressionListener impressionListener) {
+                                   ImpressionListener impressionListener,
+                                   AdaptiveFlushScheduler flushScheduler,
+                                   ImpressionsModeController modeController) {
 
 
         _config = checkNotNull(config);
@@ -89,24 +117,44 @@ public class ImpressionsManagerImpl implements ImpressionsManager, Closeable {
         _listener = impressionListener;
 
         _impressionsRefreshRate = config.impressionsRefreshRate();
+        _flushScheduler = flushScheduler;
+        _modeController = modeController;
+        if (config.asyncImpressionProcessing()) {
+            _buffer = new StripedImpressionBuffer(config.impressionsQueueSize());
+            _processor = SplitExecutorFactory.buildSingleThreadScheduledExecutor(config.getThreadFactory(),
+                    "Split-ImpressionsProcessor-%d");
+        } else {
+            _buffer = null;
+            _processor = null;
+        }
     }
 
     @Override
     public void start(){
-        switch (_impressionsMode){
-            case OPTIMIZED:
-                _scheduler.scheduleAtFixedRate(this::sendImpressionCounters, COUNT_INITIAL_DELAY_SECONDS, COUNT_REFRESH_RATE_SECONDS,
-                        TimeUnit.SECONDS);
-                _scheduler.scheduleAtFixedRate(this::sendImpressions, BULK_INITIAL_DELAY_SECONDS, _impressionsRefreshRate, TimeUnit.SECONDS);
-                break;
-            case DEBUG:
-                _scheduler.scheduleAtFixedRate(this::sendImpressions, BULK_INITIAL_DELAY_SECONDS, _impressionsRefreshRate, TimeUnit.SECONDS);
-                break;
-            case NONE:
-                _scheduler.scheduleAtFixedRate(this::sendImpressionCounters, COUNT_INITIAL_DELAY_SECONDS, COUNT_REFRESH_RATE_SECONDS,
-                        TimeUnit.SECONDS);
-                break;
+        if (_processor != null) {
+            _processor.scheduleWithFixedDelay(this::processBuffered, PROCESS_INTERVAL_MILLIS, PROCESS_INTERVAL_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        }
+        if (_modeController != null) {
+            _scheduler.scheduleAtFixedRate(_modeController::evaluate, ImpressionsModeController.EVALUATION_INTERVAL_SECONDS,
+                    ImpressionsModeController.EVALUATION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+        Set<Mode> modes = _config.impressionsModesInUse();
+        if (modes.contains(Mode.OPTIMIZED) || modes.contains(Mode.NONE)) {
+            _scheduler.scheduleAtFixedRate(this::sendImpressionCounters, COUNT_INITIAL_DELAY_SECONDS, COUNT_REFRESH_RATE_SECONDS,
+                    TimeUnit.SECONDS);
+        }
+        if (modes.contains(Mode.OPTIMIZED) || modes.contains(Mode.DEBUG)) {
+            scheduleImpressionsFlush();
+        }
+    }
+
+    private void scheduleImpressionsFlush() {
+        if (_flushScheduler != null) {
+            _flushScheduler.start(this::sendImpressions, TimeUnit.SECONDS.toMillis(BULK_INITIAL_DELAY_SECONDS));
+            return;
         }
+        _scheduler.scheduleAtFixedRate(this::sendImpressions, BULK_INITIAL_DELAY_SECONDS, _impressionsRefreshRate, TimeUnit.SECONDS);
     }
 
     @Override
@@ -114,17 +162,50 @@ public class ImpressionsManagerImpl implements ImpressionsManager, Closeable {
         if (null == impressions) {
             return;
         }
+        if (_buffer == null) {
+            process(impressions);
+            return;
+        }
 
+        int accepted = _buffer.offer(impressions);
+        if (accepted < impressions.size()) {
+            _telemetryRuntimeProducer.recordImpressionStats(ImpressionsDataTypeEnum.IMPRESSIONS_DROPPED, impressions.size() - accepted);
+            if (_modeController != null) {
+                _modeController.recordQueued(0, impressions.size() - accepted);
+            }
+        }
+        if (_buffer.size() > _buffer.capacity() / 2 && _processQueued.compareAndSet(false, true)) {
+            try {
+                _processor.execute(() -> {
+                    _processQueued.set(false);
+                    processBuffered();
+                });
+            } catch (RejectedExecutionException e) {
+                _processQueued.set(false);
+            }
+        }
+    }
+
+    /**
+     * Runs the impressions strategy (dedupe, counting, unique keys), queues the result and notifies the listener.
+     */
+    private void process(List<Impression> impressions) {
         ImpressionsResult impressionsResult = _processImpressionStrategy.process(impressions);
         List<Impression> impressionsForLogs = impressionsResult.getImpressionsToQueue();
         List<Impression> impressionsToListener = impressionsResult.getImpressionsToListener();
 
         int totalImpressions = impressionsForLogs.size();
         long queued = _impressionsStorageProducer.put(impressionsForLogs.stream().map(KeyImpression::fromImpression).collect(Collectors.toList()));
-        if (queued < totalImpressions) {
+        if (queued < totalImpressions && !_impressionsStorageProducer.accountsForOverflow()) {
             _telemetryRuntimeProducer.recordImpressionStats(ImpressionsDataTypeEnum.IMPRESSIONS_DROPPED, totalImpressions-queued);
         }
         _telemetryRuntimeProducer.recordImpressionStats(ImpressionsDataTypeEnum.IMPRESSIONS_QUEUED, queued);
+        if (_flushScheduler != null) {
+            _flushScheduler.recordQueued(queued);
+        }
+        if (_modeController != null) {
+            _modeController.recordQueued(queued, totalImpressions - queued);
+        }
 
         if (_listener!=null){
             impressionsToListener.forEach(imp -> _listener.log(imp));
@@ -134,21 +215,44 @@ public class ImpressionsManagerImpl implements ImpressionsManager, Closeable {
     @Override
     public void close() {
         try {
+            if (_processor != null) {
+                _processor.shutdown();
+                _processor.awaitTermination(1, TimeUnit.SECONDS);
+                processBuffered();
+            }
             if(_listener!= null){
                 _listener.close();
                 _log.info("Successful shutdown of ImpressionListener");
             }
             _scheduler.shutdown();
+            if (_flushScheduler != null) {
+                _flushScheduler.stop();
+            }
             sendImpressions();
             if(_counter != null) {
                 sendImpressionCounters();
             }
+            if (_impressionsSender != null) {
+                _impressionsSender.close();
+            }
         } catch (Exception e) {
             _log.warn("Unable to close ImpressionsManager properly", e);
         }
 
     }
 
+    @VisibleForTesting
+    /* package private */ void processBuffered() {
+        try {
+            List<Impression> impressions = _buffer.drain();
+            if (!impressions.isEmpty()) {
+                process(impressions);
+            }
+        } catch (Exception e) {
+            _log.warn("Error processing buffered impressions", e);
+        }
+    }
+
     @VisibleForTesting
     /* package private */ void sendImpressions() {
         if (_impressionsStorageConsumer.isFull()) {
@@ -158,10 +262,17 @@ public class ImpressionsManagerImpl implements ImpressionsManager, Closeable {
         long start = System.currentTimeMillis();
         List<KeyImpression> impressions = _impressionsStorageConsumer.pop();
         if (impressions.isEmpty()) {
+            if (_modeController != null) {
+                // Nothing to send is a fast flush, otherwise a slow one would count as pressure forever.
+                _modeController.recordFlush(0);
+            }
             return; // Nothing to send
         }
 
         _impressionsSender.postImpressionsBulk(TestImpressions.fromKeyImpressions(impressions));
+        if (_modeController != null) {
+            _modeController.recordFlush(System.currentTimeMillis() - start);
+        }
         if (_config.debugEnabled()) {
             _log.info(String.format("Posting %d Split impressions took %d millis",
                     impressions.size(), (System.currentTimeMillis() - start)));
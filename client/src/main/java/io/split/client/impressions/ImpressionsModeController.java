@@ -0,0 +1,164 @@
+package io.split.client.impressions;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.split.telemetry.domain.StreamingEvent;
+import io.split.telemetry.domain.enums.StreamEventsEnum;
+import io.split.telemetry.storage.TelemetryRuntimeProducer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Degrades the impressions mode while the impressions queue is under sustained pressure, one step at a time along
+ * DEBUG, OPTIMIZED, NONE, and restores it one step at a time once the pressure is gone. Under NONE only counts and
+ * unique keys are kept, which is preferable to dropping random raw impressions.
+ * <p>
+ * Pressure means impressions were dropped, the impressions queued since the last flush went over
+ * {@link #HIGH_FILL_RATIO} of the queue capacity or the last flush took longer than {@link #SLOW_FLUSH_MILLIS}.
+ * Every transition is recorded as an {@link StreamEventsEnum#IMPRESSIONS_MODE_UPDATE} streaming event.
+ */
+public class ImpressionsModeController {
+
+    private static final Logger _log = LoggerFactory.getLogger(ImpressionsModeController.class);
+
+    public static final long EVALUATION_INTERVAL_SECONDS = 10;
+    /* package private */ static final double HIGH_FILL_RATIO = 0.8;
+    /* package private */ static final double LOW_FILL_RATIO = 0.4;
+    /* package private */ static final long SLOW_FLUSH_MILLIS = 10000;
+    /* package private */ static final int PRESSURED_EVALUATIONS_TO_DEGRADE = 2;
+    /* package private */ static final int RELAXED_EVALUATIONS_TO_RESTORE = 6;
+
+    private static final ImpressionsManager.Mode[] LADDER = {
+            ImpressionsManager.Mode.DEBUG,
+            ImpressionsManager.Mode.OPTIMIZED,
+            ImpressionsManager.Mode.NONE
+    };
+
+    private final ImpressionsManager.Mode _baseMode;
+    private final long _queueCapacity;
+    private final TelemetryRuntimeProducer _telemetryRuntimeProducer;
+    private final AtomicLong _queuedSinceFlush = new AtomicLong();
+    private final LongAdder _dropped = new LongAdder();
+    private volatile long _lastFlushMillis;
+    private volatile int _degradation;
+    private int _pressuredEvaluations;
+    private int _relaxedEvaluations;
+
+    /**
+     * @param baseMode the most detailed mode configured, globally or for any flag. It bounds how far the modes
+     *                 can be degraded: at most until that mode becomes NONE.
+     */
+    public ImpressionsModeController(ImpressionsManager.Mode baseMode, int queueCapacity,
+                                     TelemetryRuntimeProducer telemetryRuntimeProducer) {
+        checkArgument(queueCapacity > 0, "queueCapacity must be > 0: %s", queueCapacity);
+        _baseMode = checkNotNull(baseMode);
+        _queueCapacity = queueCapacity;
+        _telemetryRuntimeProducer = checkNotNull(telemetryRuntimeProducer);
+    }
+
+    /**
+     * @return the mode to apply to a flag whose configured mode is the given one.
+     */
+    public ImpressionsManager.Mode effectiveMode(ImpressionsManager.Mode mode) {
+        int degradation = _degradation;
+        if (degradation == 0) {
+            return mode;
+        }
+        return LADDER[Math.min(LADDER.length - 1, rank(mode) + degradation)];
+    }
+
+    public void recordQueued(long queued, long dropped) {
+        if (queued > 0) {
+            _queuedSinceFlush.addAndGet(queued);
+        }
+        if (dropped > 0) {
+            _dropped.add(dropped);
+        }
+    }
+
+    public void recordFlush(long elapsedMillis) {
+        _queuedSinceFlush.set(0);
+        _lastFlushMillis = elapsedMillis;
+    }
+
+    /**
+     * Called periodically from a single thread.
+     */
+    public void evaluate() {
+        long dropped = _dropped.sumThenReset();
+        double fillRatio = (double) _queuedSinceFlush.get() / _queueCapacity;
+        boolean pressured = dropped > 0 || fillRatio > HIGH_FILL_RATIO || _lastFlushMillis > SLOW_FLUSH_MILLIS;
+        boolean relaxed = !pressured && fillRatio < LOW_FILL_RATIO;
+
+        _pressuredEvaluations = pressured ? _pressuredEvaluations + 1 : 0;
+        _relaxedEvaluations = relaxed ? _relaxedEvaluations + 1 : 0;
+
+        int degradation = _degradation;
+        if (_pressuredEvaluations >= PRESSURED_EVALUATIONS_TO_DEGRADE && rank(_baseMode) + degradation < LADDER.length - 1) {
+            transition(degradation + 1, String.format("dropped=%d, fill=%.2f, lastFlushMillis=%d", dropped, fillRatio,
+                    _lastFlushMillis));
+        } else if (_relaxedEvaluations >= RELAXED_EVALUATIONS_TO_RESTORE && degradation > 0) {
+            transition(degradation - 1, "pressure subsided");
+        }
+    }
+
+    @VisibleForTesting
+    /* package private */ int degradation() {
+        return _degradation;
+    }
+
+    private void transition(int degradation, String reason) {
+        _degradation = degradation;
+        _pressuredEvaluations = 0;
+        _relaxedEvaluations = 0;
+        ImpressionsManager.Mode mode = effectiveMode(_baseMode);
+        _log.info(String.format("Impressions mode degraded %d step(s), %s now runs as %s: %s", degradation, _baseMode, mode, reason));
+        _telemetryRuntimeProducer.recordStreamingEvents(new StreamingEvent(StreamEventsEnum.IMPRESSIONS_MODE_UPDATE.getType(),
+                telemetryValue(mode), System.currentTimeMillis()));
+    }
+
+    /**
+     * @return the modes a flag configured with the given mode may run with, starting with that mode.
+     */
+    public static List<ImpressionsManager.Mode> reachableFrom(ImpressionsManager.Mode mode) {
+        return Arrays.asList(LADDER).subList(rank(mode), LADDER.length);
+    }
+
+    public static ImpressionsManager.Mode mostDetailed(Collection<ImpressionsManager.Mode> modes) {
+        int rank = LADDER.length - 1;
+        for (ImpressionsManager.Mode mode : modes) {
+            rank = Math.min(rank, rank(mode));
+        }
+        return LADDER[rank];
+    }
+
+    private static int rank(ImpressionsManager.Mode mode) {
+        switch (mode) {
+            case DEBUG:
+                return 0;
+            case OPTIMIZED:
+                return 1;
+            default:
+                return 2;
+        }
+    }
+
+    private static long telemetryValue(ImpressionsManager.Mode mode) {
+        switch (mode) {
+            case DEBUG:
+                return StreamEventsEnum.ImpressionsModeUpdateValues.DEBUG_EVENT.getValue();
+            case OPTIMIZED:
+                return StreamEventsEnum.ImpressionsModeUpdateValues.OPTIMIZED_EVENT.getValue();
+            default:
+                return StreamEventsEnum.ImpressionsModeUpdateValues.NONE_EVENT.getValue();
+        }
+    }
+}
@@ -12,4 +12,9 @@ public interface ImpressionsSender {
 
     void postImpressionsBulk(List<TestImpressions> impressions);
     void postCounters(HashMap<ImpressionCounter.Key, Integer> raw);
+
+    /**
+     * Releases the resources used to post, if any.
+     */
+    default void close() {}
 }
@@ -5,5 +5,16 @@ import io.split.client.dtos.KeyImpression;
 import java.util.List;
 
 public interface ImpressionsStorageProducer {
+    /**
+     * @return the number of impressions queued.
+     */
     long put(List<KeyImpression> imps);
+
+    /**
+     * @return true if the impressions that {@link #put(List)} did not queue are accounted for by the storage itself,
+     * either spilled or counted as dropped, false if the caller has to count them as dropped.
+     */
+    default boolean accountsForOverflow() {
+        return false;
+    }
 }
@@ -1,28 +1,47 @@
 package io.split.client.impressions;
 
 import io.split.client.dtos.KeyImpression;
+import io.split.client.dtos.TestImpressions;
+import io.split.client.utils.Json;
+import io.split.storages.disk.SpillLog;
+import io.split.storages.disk.SpillQueue;
+import io.split.telemetry.metrics.QueueStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
 
-public class InMemoryImpressionsStorage implements ImpressionsStorage {
+public class InMemoryImpressionsStorage implements ImpressionsStorage, QueueStats {
 
     private static final Logger _log = LoggerFactory.getLogger(InMemoryImpressionsStorage.class);
 
     private final BlockingQueue<KeyImpression> _queue;
+    private final SpillQueue<KeyImpression> _spillQueue;
+    private final LongAdder _queuedBytes = new LongAdder();
 
     public InMemoryImpressionsStorage(int queueSize) {
+        this(queueSize, null);
+    }
+
+    /**
+     * @param spillLog where impressions that do not fit in the queue are written to instead of being dropped. Nullable.
+     */
+    public InMemoryImpressionsStorage(int queueSize, SpillLog spillLog) {
         _queue = new LinkedBlockingQueue<>(queueSize);
+        _spillQueue = spillLog == null ? null : new SpillQueue<>(spillLog, queueSize,
+                batch -> Json.toJson(TestImpressions.fromKeyImpressions(batch)).getBytes(StandardCharsets.UTF_8));
     }
 
     @Override
     public List<KeyImpression> pop(int count) {
         ArrayList<KeyImpression> popped = new ArrayList<>();
         _queue.drainTo(popped, count);
+        releaseBytes(popped);
         return popped;
     }
 
@@ -30,6 +49,7 @@ public class InMemoryImpressionsStorage implements ImpressionsStorage {
     public List<KeyImpression> pop() {
         ArrayList<KeyImpression> popped = new ArrayList<>();
         _queue.drainTo(popped);
+        releaseBytes(popped);
         return popped;
     }
 
@@ -38,6 +58,24 @@ public class InMemoryImpressionsStorage implements ImpressionsStorage {
         return _queue.remainingCapacity() == 0;
     }
 
+    @Override
+    public long queueDepth() {
+        return _queue.size();
+    }
+
+    @Override
+    public long queuedBytes() {
+        return _queuedBytes.sum();
+    }
+
+    private void releaseBytes(List<KeyImpression> popped) {
+        long bytes = 0;
+        for (KeyImpression imp : popped) {
+            bytes += imp.estimatedSize();
+        }
+        _queuedBytes.add(-bytes);
+    }
+
     private boolean put(KeyImpression imp) {
         try {
             return _queue.offer(imp);
@@ -47,13 +85,28 @@ public class InMemoryImpressionsStorage implements ImpressionsStorage {
         }
     }
 
+    /**
+     * @return the number of impressions queued. Once the queue is full, the rest are handed over to the spill log,
+     * which counts them as spilled, or as dropped when it cannot keep up.
+     */
     @Override
     public long put(List<KeyImpression> imps) {
-        return imps.stream().reduce(0, (accum, current) -> {
-            if(this.put(current)) {
-                return accum + 1;
+        long queued = 0;
+        long queuedBytes = 0;
+        for (KeyImpression imp : imps) {
+            if (this.put(imp)) {
+                queued++;
+                queuedBytes += imp.estimatedSize();
+            } else if (imp != null && _spillQueue != null) {
+                _spillQueue.offer(imp);
             }
-            return accum;
-        }, Integer::sum).longValue();
+        }
+        _queuedBytes.add(queuedBytes);
+        return queued;
+    }
+
+    @Override
+    public boolean accountsForOverflow() {
+        return _spillQueue != null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,194 @@
+package io.split.client.impressions;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.split.client.utils.SplitExecutorFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Feeds a {@link BatchImpressionListener} from a bounded lock-free ring buffer. Callers only claim a slot and
+ * publish the impression; a single dispatcher thread drains the buffer and hands the impressions over in batches
+ * of up to {@code batchSize}, or whatever accumulated once {@code lingerMillis} went by since the first one.
+ * Impressions that find the buffer full are dropped and counted.
+ * <p>
+ * When there is nothing to deliver the dispatcher parks until a producer publishes into the empty buffer and
+ * unparks it, so an idle listener does not keep waking up.
+ */
+public class RingBufferImpressionListener implements ImpressionListener {
+
+    private static final Logger _log = LoggerFactory.getLogger(RingBufferImpressionListener.class);
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    private final BatchImpressionListener _delegate;
+    private final AtomicReferenceArray<Impression> _slots;
+    private final int _mask;
+    private final int _batchSize;
+    private final long _lingerNanos;
+    private final AtomicLong _tail = new AtomicLong();
+    private final LongAdder _dropped = new LongAdder();
+    private final LongAdder _delivered = new LongAdder();
+    private final ExecutorService _dispatcher;
+    private volatile long _head;
+    private volatile boolean _running = true;
+    private volatile boolean _idle;
+    private volatile Thread _dispatcherThread;
+
+    public static RingBufferImpressionListener build(BatchImpressionListener delegate, int capacity, int batchSize, long lingerMillis,
+                                                     ThreadFactory threadFactory) {
+        RingBufferImpressionListener listener = new RingBufferImpressionListener(delegate, capacity, batchSize, lingerMillis,
+                SplitExecutorFactory.buildExecutorService(threadFactory, "impression-listener-dispatcher-%d"));
+        listener.start();
+        return listener;
+    }
+
+    @VisibleForTesting
+    /* package private */ RingBufferImpressionListener(BatchImpressionListener delegate, int capacity, int batchSize, long lingerMillis,
+                                                       ExecutorService dispatcher) {
+        checkArgument(capacity > 0, "capacity must be > 0: %s", capacity);
+        checkArgument(batchSize > 0, "batchSize must be > 0: %s", batchSize);
+        checkArgument(lingerMillis >= 0, "lingerMillis must be >= 0: %s", lingerMillis);
+        int slots = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        _delegate = checkNotNull(delegate);
+        _slots = new AtomicReferenceArray<>(slots);
+        _mask = slots - 1;
+        _batchSize = batchSize;
+        _lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        _dispatcher = checkNotNull(dispatcher);
+    }
+
+    @VisibleForTesting
+    /* package private */ void start() {
+        _dispatcher.execute(this::dispatch);
+    }
+
+    @Override
+    public void log(Impression impression) {
+        long tail;
+        do {
+            tail = _tail.get();
+            if (tail - _head > _mask) {
+                _dropped.increment();
+                return;
+            }
+        } while (!_tail.compareAndSet(tail, tail + 1));
+        // A volatile write, so that it cannot be reordered with the read of _idle below.
+        _slots.set((int) (tail & _mask), impression);
+        if (_idle) {
+            wakeUpDispatcher();
+        }
+    }
+
+    @Override
+    public void close() {
+        _running = false;
+        wakeUpDispatcher();
+        try {
+            _dispatcher.shutdown();
+            if (!_dispatcher.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                _log.warn("Impression listener dispatcher did not finish delivering pending impressions");
+            }
+            _delegate.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            _log.warn("Unable to close RingBufferImpressionListener", e);
+        }
+    }
+
+    /**
+     * @return impressions dropped because the buffer was full.
+     */
+    public long droppedCount() {
+        return _dropped.sum();
+    }
+
+    /**
+     * @return impressions handed over to the delegate.
+     */
+    public long deliveredCount() {
+        return _delivered.sum();
+    }
+
+    private void dispatch() {
+        _dispatcherThread = Thread.currentThread();
+        List<Impression> batch = new ArrayList<>(_batchSize);
+        long firstQueuedAt = 0;
+        while (true) {
+            boolean running = _running;
+            int drained = drainTo(batch);
+            if (drained > 0 && batch.size() == drained) {
+                firstQueuedAt = System.nanoTime();
+            }
+            if (!batch.isEmpty()
+                    && (batch.size() >= _batchSize || !running || System.nanoTime() - firstQueuedAt >= _lingerNanos)) {
+                deliver(batch);
+                batch = new ArrayList<>(_batchSize);
+                continue;
+            }
+            if (!running) {
+                return;
+            }
+            if (drained == 0) {
+                idle(batch.isEmpty() ? MAX_IDLE_PARK_NANOS : _lingerNanos - (System.nanoTime() - firstQueuedAt));
+            }
+        }
+    }
+
+    private void idle(long parkNanos) {
+        _idle = true;
+        // Re-checked after publishing _idle: a producer that published before it saw false and did not wake us up.
+        if (_running && _slots.get((int) (_head & _mask)) == null) {
+            LockSupport.parkNanos(this, Math.min(parkNanos, MAX_IDLE_PARK_NANOS));
+        }
+        _idle = false;
+    }
+
+    private void wakeUpDispatcher() {
+        Thread dispatcherThread = _dispatcherThread;
+        if (dispatcherThread != null) {
+            LockSupport.unpark(dispatcherThread);
+        }
+    }
+
+    private int drainTo(List<Impression> batch) {
+        int drained = 0;
+        long head = _head;
+        while (batch.size() < _batchSize) {
+            int index = (int) (head & _mask);
+            Impression impression = _slots.get(index);
+            if (impression == null) {
+                // Empty, or claimed but not published yet.
+                break;
+            }
+            _slots.lazySet(index, null);
+            batch.add(impression);
+            head++;
+            drained++;
+        }
+        _head = head;
+        return drained;
+    }
+
+    private void deliver(List<Impression> batch) {
+        try {
+            _delegate.logBatch(batch);
+        } catch (Exception e) {
+            _log.warn("Impression listener threw an exception while logging a batch", e);
+        }
+        _delivered.add(batch.size());
+    }
+}
@@ -0,0 +1,138 @@
+package io.split.client.impressions;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Bounded multi-producer buffer of raw impressions. Producers append to one of several lock-free stripes picked by
+ * thread id, so concurrent getTreatment calls do not contend on a single queue tail; a single consumer drains all
+ * stripes at once.
+ * <p>
+ * Capacity is reserved from the shared bound in batches and kept as per-stripe credit, so most offers only touch
+ * their own stripe's counter. At most {@link #CREDIT_BATCH} slots per stripe, and never more than the stripe's share
+ * of the capacity, can sit reserved but unused; an offer that does not fit takes back every stripe's unused credit
+ * before giving up, so credit held by idle stripes never makes the others drop impressions.
+ */
+public class StripedImpressionBuffer {
+
+    private static final int CREDIT_BATCH = 32;
+
+    private final Stripe[] _stripes;
+    private final int _mask;
+    private final int _capacity;
+    private final int _creditBatch;
+    private final AtomicInteger _reserved = new AtomicInteger();
+
+    public StripedImpressionBuffer(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    @VisibleForTesting
+    /* package private */ StripedImpressionBuffer(int capacity, int stripes) {
+        checkArgument(capacity > 0, "capacity must be > 0: %s", capacity);
+        int count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        _stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            _stripes[i] = new Stripe();
+        }
+        _mask = count - 1;
+        _capacity = capacity;
+        _creditBatch = Math.min(CREDIT_BATCH, capacity / count);
+    }
+
+    /**
+     * @return how many of the given impressions were accepted, the rest did not fit.
+     */
+    public int offer(List<Impression> impressions) {
+        Stripe stripe = _stripes[(int) Thread.currentThread().getId() & _mask];
+        int accepted = stripe.takeCredit(impressions.size());
+        if (accepted < impressions.size()) {
+            int missing = impressions.size() - accepted;
+            int reserved = reserve(missing + _creditBatch);
+            if (reserved < missing) {
+                reclaimCredit();
+                reserved += reserve(missing - reserved);
+            }
+            int used = Math.min(reserved, missing);
+            accepted += used;
+            if (reserved > used) {
+                stripe._credit.addAndGet(reserved - used);
+            }
+        }
+        for (int i = 0; i < accepted; i++) {
+            stripe._queue.offer(impressions.get(i));
+        }
+        return accepted;
+    }
+
+    public List<Impression> drain() {
+        List<Impression> drained = new ArrayList<>();
+        for (Stripe stripe : _stripes) {
+            Impression impression;
+            while ((impression = stripe._queue.poll()) != null) {
+                drained.add(impression);
+            }
+        }
+        _reserved.addAndGet(-drained.size());
+        return drained;
+    }
+
+    public int size() {
+        int size = _reserved.get();
+        for (Stripe stripe : _stripes) {
+            size -= stripe._credit.get();
+        }
+        return Math.max(0, size);
+    }
+
+    public int capacity() {
+        return _capacity;
+    }
+
+    private int reserve(int wanted) {
+        int reserved;
+        int current;
+        do {
+            current = _reserved.get();
+            reserved = Math.min(wanted, _capacity - current);
+            if (reserved <= 0) {
+                return 0;
+            }
+        } while (!_reserved.compareAndSet(current, current + reserved));
+        return reserved;
+    }
+
+    private void reclaimCredit() {
+        for (Stripe stripe : _stripes) {
+            int credit = stripe._credit.getAndSet(0);
+            if (credit > 0) {
+                _reserved.addAndGet(-credit);
+            }
+        }
+    }
+
+    private static class Stripe {
+        private final Queue<Impression> _queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger _credit = new AtomicInteger();
+
+        private int takeCredit(int wanted) {
+            int taken;
+            int current;
+            do {
+                current = _credit.get();
+                taken = Math.min(wanted, current);
+                if (taken <= 0) {
+                    return 0;
+                }
+            } while (!_credit.compareAndSet(current, current - taken));
+            return taken;
+        }
+    }
+}
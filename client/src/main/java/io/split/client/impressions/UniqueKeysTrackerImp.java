@@ -1,37 +1,46 @@
 package io.split.client.impressions;
 
 import io.split.client.dtos.UniqueKeys;
-import io.split.client.impressions.filters.BloomFilterImp;
-import io.split.client.impressions.filters.Filter;
 import io.split.client.impressions.filters.FilterAdapter;
 import io.split.client.impressions.filters.FilterAdapterImpl;
+import io.split.client.impressions.filters.RotatingBloomFilter;
 import io.split.client.utils.SplitExecutorFactory;
 import io.split.telemetry.synchronizer.TelemetrySynchronizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class UniqueKeysTrackerImp implements UniqueKeysTracker{
     private static final Logger _log = LoggerFactory.getLogger(UniqueKeysTrackerImp.class);
-    private static final double MARGIN_ERROR = 0.01;
+    public static final double DEFAULT_FILTER_ERROR_RATE = 0.01;
+    public static final int DEFAULT_FILTER_CAPACITY = 10000000;
+    public static final int DEFAULT_FILTER_SLICES = 4;
     private static final int MAX_AMOUNT_OF_TRACKED_UNIQUE_KEYS = 30000;
-    private static final int MAX_AMOUNT_OF_KEYS = 10000000;
+    private static final double FILTER_FILL_RATIO_WARNING = 0.5;
+    private static final int RECENT_KEYS_SLOTS = 256;
     private FilterAdapter filterAdapter;
+    private final RotatingBloomFilter _filter;
     private final TelemetrySynchronizer _telemetrySynchronizer;
     private final ScheduledExecutorService _uniqueKeysSyncScheduledExecutorService;
     private final ScheduledExecutorService _cleanFilterScheduledExecutorService;
-    private final ConcurrentHashMap<String,HashSet<String>> uniqueKeysTracker;
+    private final ConcurrentHashMap<String, KeyBuffer> uniqueKeysTracker;
+    private final AtomicInteger _trackedKeys = new AtomicInteger();
+    private final AtomicInteger _filterGeneration = new AtomicInteger();
+    private final AtomicBoolean _flushSignaled = new AtomicBoolean(false);
+    private final ThreadLocal<RecentKeys> _recentKeys = ThreadLocal.withInitial(RecentKeys::new);
     private final int _uniqueKeysRefreshRate;
     private final int _filterRefreshRate;
     private final AtomicBoolean sendGuard = new AtomicBoolean(false);
@@ -39,8 +48,19 @@ public class UniqueKeysTrackerImp implements UniqueKeysTracker{
 
     public UniqueKeysTrackerImp(TelemetrySynchronizer telemetrySynchronizer, int uniqueKeysRefreshRate, int filterRefreshRate,
                                 ThreadFactory threadFactory) {
-        Filter bloomFilter = new BloomFilterImp(MAX_AMOUNT_OF_KEYS, MARGIN_ERROR);
-        this.filterAdapter = new FilterAdapterImpl(bloomFilter);
+        this(telemetrySynchronizer, uniqueKeysRefreshRate, filterRefreshRate, threadFactory, DEFAULT_FILTER_CAPACITY,
+                DEFAULT_FILTER_ERROR_RATE, DEFAULT_FILTER_SLICES);
+    }
+
+    /**
+     * @param filterRefreshRate seconds after which a tracked key may be reported again. The filter is split in
+     *                          {@code filterSlices} generations and the oldest one is recycled every
+     *                          {@code filterRefreshRate / filterSlices} seconds.
+     */
+    public UniqueKeysTrackerImp(TelemetrySynchronizer telemetrySynchronizer, int uniqueKeysRefreshRate, int filterRefreshRate,
+                                ThreadFactory threadFactory, int filterCapacity, double filterErrorRate, int filterSlices) {
+        _filter = new RotatingBloomFilter(filterCapacity, filterErrorRate, filterSlices);
+        this.filterAdapter = new FilterAdapterImpl(_filter);
         uniqueKeysTracker = new ConcurrentHashMap<>();
         _telemetrySynchronizer = telemetrySynchronizer;
         _uniqueKeysRefreshRate = uniqueKeysRefreshRate;
@@ -51,32 +71,55 @@ public class UniqueKeysTrackerImp implements UniqueKeysTracker{
 
     @Override
     public boolean track(String featureFlagName, String key) {
-        if (!filterAdapter.add(featureFlagName, key)) {
-            _logger.debug("The feature flag " + featureFlagName + " and key " + key + " exist in the UniqueKeysTracker");
+        RecentKeys recentKeys = _recentKeys.get();
+        int generation = _filterGeneration.get();
+        if (recentKeys.contains(generation, featureFlagName, key) || !filterAdapter.add(featureFlagName, key)) {
+            recentKeys.put(generation, featureFlagName, key);
+            if (_logger.isDebugEnabled()) {
+                _logger.debug(String.format("The feature flag %s and key %s exist in the UniqueKeysTracker", featureFlagName, key));
+            }
             return false;
         }
-        uniqueKeysTracker.compute(featureFlagName,
-                (feature, current) -> {
-                    HashSet<String> keysByFeature = Optional.ofNullable(current).orElse(new HashSet<>());
-                    keysByFeature.add(key);
-                    return keysByFeature;
-                });
-        _logger.debug("The feature flag " + featureFlagName + " and key " + key + " was added");
-        if (uniqueKeysTracker.size() >= MAX_AMOUNT_OF_TRACKED_UNIQUE_KEYS){
-            _logger.warn("The UniqueKeysTracker size reached the maximum limit");
-            try {
-                sendUniqueKeys();
-            } catch (Exception e) {
-                _log.error("Error sending unique keys.", e);
-            }
+        recentKeys.put(generation, featureFlagName, key);
+        while (!uniqueKeysTracker.computeIfAbsent(featureFlagName, flag -> new KeyBuffer()).add(key)) {
+            // The buffer was drained concurrently, retry on a fresh one.
+        }
+        if (_logger.isDebugEnabled()) {
+            _logger.debug(String.format("The feature flag %s and key %s was added", featureFlagName, key));
+        }
+        if (_trackedKeys.incrementAndGet() >= MAX_AMOUNT_OF_TRACKED_UNIQUE_KEYS) {
+            signalFlush();
         }
         return true;
     }
 
+    /**
+     * Hands the flush to the sync thread so that the evaluating thread never posts.
+     */
+    private void signalFlush() {
+        if (!_flushSignaled.compareAndSet(false, true)) {
+            return;
+        }
+        _logger.warn("The UniqueKeysTracker size reached the maximum limit");
+        try {
+            _uniqueKeysSyncScheduledExecutorService.execute(() -> {
+                _flushSignaled.set(false);
+                try {
+                    sendUniqueKeys();
+                } catch (Exception e) {
+                    _log.error("Error sending unique keys.", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            _flushSignaled.set(false);
+        }
+    }
+
     @Override
     public void start() {
         scheduleWithFixedDelay(_uniqueKeysSyncScheduledExecutorService, _uniqueKeysRefreshRate, new ExecuteSendUniqueKeys());
-        scheduleWithFixedDelay(_cleanFilterScheduledExecutorService, _filterRefreshRate, new ExecuteCleanFilter());
+        scheduleWithFixedDelay(_cleanFilterScheduledExecutorService, Math.max(1, _filterRefreshRate / _filter.slices()),
+                new ExecuteCleanFilter());
     }
 
     private void scheduleWithFixedDelay(ScheduledExecutorService scheduledExecutorService, int refreshRate,
@@ -104,8 +147,13 @@ public class UniqueKeysTrackerImp implements UniqueKeysTracker{
     public HashMap<String,HashSet<String>> popAll(){
         HashMap<String,HashSet<String>> toReturn = new HashMap<>();
         for (String key : uniqueKeysTracker.keySet()) {
-            HashSet<String> value = uniqueKeysTracker.remove(key);
-            toReturn.put(key, value);
+            KeyBuffer buffer = uniqueKeysTracker.remove(key);
+            if (buffer == null) {
+                continue;
+            }
+            List<String> keys = buffer.drain();
+            _trackedKeys.addAndGet(-keys.size());
+            toReturn.computeIfAbsent(key, k -> new HashSet<>()).addAll(keys);
         }
         return toReturn;
     }
@@ -121,6 +169,9 @@ public class UniqueKeysTrackerImp implements UniqueKeysTracker{
                 return;
             }
             HashMap<String, HashSet<String>> uniqueKeysHashMap = popAll();
+            if (uniqueKeysHashMap.isEmpty()) {
+                return;
+            }
             List<UniqueKeys.UniqueKey> uniqueKeysFromPopAll = new ArrayList<>();
             for (Map.Entry<String, HashSet<String>> uniqueKeyEntry : uniqueKeysHashMap.entrySet()) {
                 UniqueKeys.UniqueKey uniqueKey = new UniqueKeys.UniqueKey(uniqueKeyEntry.getKey(), new ArrayList<>(uniqueKeyEntry.getValue()));
@@ -139,7 +190,12 @@ public class UniqueKeysTrackerImp implements UniqueKeysTracker{
 
         @Override
         public void execute() {
+            double fillRatio = _filter.estimatedFillRatio();
+            if (fillRatio > FILTER_FILL_RATIO_WARNING) {
+                _log.warn(String.format("Unique keys filter slice is %.0f%% full, consider increasing its capacity", fillRatio * 100));
+            }
             filterAdapter.clear();
+            _filterGeneration.incrementAndGet();
         }
     }
 
@@ -151,7 +207,74 @@ public class UniqueKeysTrackerImp implements UniqueKeysTracker{
         }
     }
 
+    /**
+     * Share of the bits set in the filter slice currently receiving keys.
+     */
+    public double getFilterFillRatio() {
+        return _filter.estimatedFillRatio();
+    }
+
     public AtomicBoolean getSendGuard() {
         return sendGuard;
     }
+
+    /**
+     * Append-only array of the keys tracked for a flag. Once drained it rejects further appends so that a
+     * producer racing with the drain retries on a fresh buffer instead of losing its key.
+     */
+    private static final class KeyBuffer {
+        private String[] _keys = new String[8];
+        private int _size;
+        private boolean _drained;
+
+        synchronized boolean add(String key) {
+            if (_drained) {
+                return false;
+            }
+            if (_size == _keys.length) {
+                _keys = Arrays.copyOf(_keys, _size * 2);
+            }
+            _keys[_size++] = key;
+            return true;
+        }
+
+        synchronized List<String> drain() {
+            _drained = true;
+            return Arrays.asList(Arrays.copyOf(_keys, _size));
+        }
+    }
+
+    /**
+     * Small direct-mapped cache of the flag/key pairs this thread tracked lately, checked before the bloom filter
+     * so that hot keys skip hashing and the string concatenation. It is invalidated whenever the filter is cleared.
+     */
+    private static final class RecentKeys {
+        private final String[] _flags = new String[RECENT_KEYS_SLOTS];
+        private final String[] _keys = new String[RECENT_KEYS_SLOTS];
+        private int _generation;
+
+        boolean contains(int generation, String flag, String key) {
+            if (generation != _generation) {
+                return false;
+            }
+            int slot = slot(flag, key);
+            return key.equals(_keys[slot]) && flag.equals(_flags[slot]);
+        }
+
+        void put(int generation, String flag, String key) {
+            if (generation != _generation) {
+                Arrays.fill(_flags, null);
+                Arrays.fill(_keys, null);
+                _generation = generation;
+            }
+            int slot = slot(flag, key);
+            _flags[slot] = flag;
+            _keys[slot] = key;
+        }
+
+        private static int slot(String flag, String key) {
+            int hash = flag.hashCode() * 31 + key.hashCode();
+            return (hash ^ (hash >>> 16)) & (RECENT_KEYS_SLOTS - 1);
+        }
+    }
 }
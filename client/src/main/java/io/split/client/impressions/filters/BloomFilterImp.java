@@ -28,7 +28,7 @@ public class BloomFilterImp implements Filter {
 
     @Override
     public void clear() {
-        bloomFilter = BloomFilter.create(Funnels.stringFunnel(Charsets.UTF_16), size, errorMargin);
+        bloomFilter = BloomFilter.create(Funnels.stringFunnel(Charsets.UTF_8), size, errorMargin);
 
     }
 }
@@ -0,0 +1,151 @@
+package io.split.client.impressions.filters;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Generational bloom filter made of a fixed ring of slices. New entries go to the newest slice and lookups OR all of
+ * them, so an entry is remembered until the slice holding it becomes the oldest one and is recycled.
+ * <p>
+ * {@link #clear()} expires the oldest slice only: its bits are zeroed in place and it becomes the newest slice.
+ * Nothing is allocated after construction and only the entries older than the whole ring are forgotten at once,
+ * instead of every entry as a full reset would.
+ * <p>
+ * Each slice is sized for {@code capacity / slices} entries with an error rate of {@code errorRate / slices}, so the
+ * OR of the whole ring stays close to {@code errorRate} when entries arrive at a steady pace.
+ */
+public class RotatingBloomFilter implements Filter {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final AtomicLongArray[] _slices;
+    private final AtomicLong[] _bitsSet;
+    private final long _bitsPerSlice;
+    private final int _hashFunctions;
+    private final AtomicInteger _current = new AtomicInteger();
+
+    public RotatingBloomFilter(long capacity, double errorRate, int slices) {
+        checkArgument(capacity > 0, "capacity must be > 0: %s", capacity);
+        checkArgument(errorRate > 0 && errorRate < 1, "errorRate must be in (0, 1): %s", errorRate);
+        checkArgument(slices > 0, "slices must be > 0: %s", slices);
+        long entriesPerSlice = Math.max(1, capacity / slices);
+        double sliceErrorRate = errorRate / slices;
+        long bits = (long) Math.ceil(-entriesPerSlice * Math.log(sliceErrorRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (bits + 63) / 64));
+        _bitsPerSlice = (long) words * 64;
+        _hashFunctions = Math.max(1, (int) Math.round((double) _bitsPerSlice / entriesPerSlice * Math.log(2)));
+        _slices = new AtomicLongArray[slices];
+        _bitsSet = new AtomicLong[slices];
+        for (int i = 0; i < slices; i++) {
+            _slices[i] = new AtomicLongArray(words);
+            _bitsSet[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * @return true if the entry was not in any slice and has been added to the newest one.
+     */
+    @Override
+    public boolean add(String data) {
+        byte[] hash = HASH_FUNCTION.hashString(data, StandardCharsets.UTF_8).asBytes();
+        long hash1 = bytesToLong(hash, 0);
+        long hash2 = bytesToLong(hash, 8);
+        if (contains(hash1, hash2)) {
+            return false;
+        }
+        int current = _current.get();
+        AtomicLongArray slice = _slices[current];
+        boolean changed = false;
+        for (int i = 1; i <= _hashFunctions; i++) {
+            if (setBit(slice, index(hash1, hash2, i))) {
+                _bitsSet[current].incrementAndGet();
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean contains(String data) {
+        byte[] hash = HASH_FUNCTION.hashString(data, StandardCharsets.UTF_8).asBytes();
+        return contains(bytesToLong(hash, 0), bytesToLong(hash, 8));
+    }
+
+    /**
+     * Recycles the oldest slice as the newest one.
+     */
+    @Override
+    public void clear() {
+        int next = (_current.get() + 1) % _slices.length;
+        AtomicLongArray slice = _slices[next];
+        for (int i = 0; i < slice.length(); i++) {
+            slice.set(i, 0L);
+        }
+        _bitsSet[next].set(0);
+        _current.set(next);
+    }
+
+    /**
+     * Share of the bits set in the newest slice. Once it goes past 0.5 the slice holds more entries than it was
+     * sized for and the false positive rate grows quickly.
+     */
+    public double estimatedFillRatio() {
+        return (double) _bitsSet[_current.get()].get() / _bitsPerSlice;
+    }
+
+    public int slices() {
+        return _slices.length;
+    }
+
+    private boolean contains(long hash1, long hash2) {
+        for (AtomicLongArray slice : _slices) {
+            if (containsIn(slice, hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean containsIn(AtomicLongArray slice, long hash1, long hash2) {
+        for (int i = 1; i <= _hashFunctions; i++) {
+            long index = index(hash1, hash2, i);
+            if ((slice.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(long hash1, long hash2, int i) {
+        long combined = hash1 + i * hash2;
+        return (combined & Long.MAX_VALUE) % _bitsPerSlice;
+    }
+
+    private static boolean setBit(AtomicLongArray slice, long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = slice.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!slice.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    private static long bytesToLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset + 7; i >= offset; i--) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,81 @@
+package io.split.client.impressions.strategy;
+
+import io.split.client.impressions.ImpressionsManager;
+import io.split.engine.experiments.ParsedSplit;
+import io.split.storages.SplitCacheConsumer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Resolves the impressions mode of a feature flag: an override set for the flag name wins, then an override set for
+ * any of the flag sets the flag belongs to, then the default mode.
+ * <p>
+ * Flag set lookups are cached per flag and change number, so a flag is only looked up again after it changes.
+ */
+public class ImpressionModeResolver {
+
+    private final ImpressionsManager.Mode _defaultMode;
+    private final Map<String, ImpressionsManager.Mode> _flagModes;
+    private final Map<String, ImpressionsManager.Mode> _flagSetModes;
+    private final SplitCacheConsumer _splitCacheConsumer;
+    private final ConcurrentHashMap<String, Resolved> _resolvedBySet = new ConcurrentHashMap<>();
+
+    public ImpressionModeResolver(ImpressionsManager.Mode defaultMode, Map<String, ImpressionsManager.Mode> flagModes,
+                                  Map<String, ImpressionsManager.Mode> flagSetModes, SplitCacheConsumer splitCacheConsumer) {
+        _defaultMode = checkNotNull(defaultMode);
+        _flagModes = flagModes != null ? new HashMap<>(flagModes) : Collections.emptyMap();
+        _flagSetModes = flagSetModes != null ? new HashMap<>(flagSetModes) : Collections.emptyMap();
+        _splitCacheConsumer = splitCacheConsumer;
+    }
+
+    public ImpressionsManager.Mode resolve(String featureFlag, Long changeNumber) {
+        ImpressionsManager.Mode mode = _flagModes.get(featureFlag);
+        if (mode != null) {
+            return mode;
+        }
+        if (_flagSetModes.isEmpty() || _splitCacheConsumer == null) {
+            return _defaultMode;
+        }
+        long version = changeNumber != null ? changeNumber : -1;
+        Resolved resolved = _resolvedBySet.get(featureFlag);
+        if (resolved != null && resolved._changeNumber == version) {
+            return resolved._mode;
+        }
+        mode = resolveByFlagSet(featureFlag);
+        _resolvedBySet.put(featureFlag, new Resolved(version, mode));
+        return mode;
+    }
+
+    public ImpressionsManager.Mode defaultMode() {
+        return _defaultMode;
+    }
+
+    private ImpressionsManager.Mode resolveByFlagSet(String featureFlag) {
+        ParsedSplit parsedSplit = _splitCacheConsumer.get(featureFlag);
+        if (parsedSplit == null || parsedSplit.flagSets() == null) {
+            return _defaultMode;
+        }
+        for (String flagSet : parsedSplit.flagSets()) {
+            ImpressionsManager.Mode mode = _flagSetModes.get(flagSet);
+            if (mode != null) {
+                return mode;
+            }
+        }
+        return _defaultMode;
+    }
+
+    private static final class Resolved {
+        private final long _changeNumber;
+        private final ImpressionsManager.Mode _mode;
+
+        private Resolved(long changeNumber, ImpressionsManager.Mode mode) {
+            _changeNumber = changeNumber;
+            _mode = mode;
+        }
+    }
+}
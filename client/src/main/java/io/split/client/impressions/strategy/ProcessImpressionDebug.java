@@ -19,9 +19,14 @@ public class ProcessImpressionDebug implements ProcessImpressionStrategy{
     @Override
     public ImpressionsResult process(List<Impression> impressions) {
         for(Impression impression : impressions) {
-            impression.withPreviousTime(_impressionObserver.testAndSet(impression));
+            processImpression(impression);
         }
         List<Impression> impressionForListener =  this._listenerEnabled ? impressions : null;
         return new ImpressionsResult(impressions, impressionForListener);
     }
+
+    @Override
+    public Impression processImpression(Impression impression) {
+        return impression.withPreviousTime(_impressionObserver.testAndSet(impression));
+    }
 }
@@ -24,10 +24,16 @@ public class ProcessImpressionNone implements ProcessImpressionStrategy{
     public ImpressionsResult process(List<Impression> impressions) {
 
         for(Impression impression: impressions){
-            _impressionCounter.inc(impression.split(), impression.time(), 1);
-            _uniqueKeysTracker.track(impression.split(),impression.key());
+            processImpression(impression);
         }
         List<Impression> impressionForListener =  this._listenerEnabled ? impressions : null;
         return new ImpressionsResult(new ArrayList<>(), impressionForListener);
     }
+
+    @Override
+    public Impression processImpression(Impression impression) {
+        _impressionCounter.inc(impression.split(), impression.time(), 1);
+        _uniqueKeysTracker.track(impression.split(),impression.key());
+        return null;
+    }
 }
@@ -32,14 +32,10 @@ public class ProcessImpressionOptimized implements ProcessImpressionStrategy{
     public ImpressionsResult process(List<Impression> impressions) {
         List<Impression> impressionsToQueue = new ArrayList<>();
         for(Impression impression : impressions) {
-            impression = impression.withPreviousTime(_impressionObserver.testAndSet(impression));
-            if(!Objects.isNull(impression.pt()) && impression.pt() != 0){
-                _impressionCounter.inc(impression.split(), impression.time(), 1);
+            Impression toQueue = processImpression(impression);
+            if (toQueue != null) {
+                impressionsToQueue.add(toQueue);
             }
-            if(shouldntQueueImpression(impression)) {
-                continue;
-            }
-            impressionsToQueue.add(impression);
         }
         List<Impression> impressionForListener =  this._listenerEnabled ? impressions : null;
 
@@ -49,6 +45,15 @@ public class ProcessImpressionOptimized implements ProcessImpressionStrategy{
         return new ImpressionsResult(impressionsToQueue, impressionForListener);
     }
 
+    @Override
+    public Impression processImpression(Impression impression) {
+        impression = impression.withPreviousTime(_impressionObserver.testAndSet(impression));
+        if(!Objects.isNull(impression.pt()) && impression.pt() != 0){
+            _impressionCounter.inc(impression.split(), impression.time(), 1);
+        }
+        return shouldntQueueImpression(impression) ? null : impression;
+    }
+
     private boolean shouldntQueueImpression(Impression i) {
         return !Objects.isNull(i.pt()) &&
                 ImpressionUtils.truncateTimeframe(i.pt()) == ImpressionUtils.truncateTimeframe(i.time());
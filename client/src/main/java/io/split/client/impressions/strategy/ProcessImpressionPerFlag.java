@@ -0,0 +1,81 @@
+package io.split.client.impressions.strategy;
+
+import io.split.client.impressions.Impression;
+import io.split.client.impressions.ImpressionsManager;
+import io.split.client.impressions.ImpressionsModeController;
+import io.split.client.impressions.ImpressionsResult;
+import io.split.telemetry.domain.enums.ImpressionsDataTypeEnum;
+import io.split.telemetry.storage.TelemetryRuntimeProducer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Routes each impression to the strategy of the impressions mode resolved for its feature flag.
+ */
+public class ProcessImpressionPerFlag implements ProcessImpressionStrategy {
+
+    private final boolean _listenerEnabled;
+    private final ImpressionModeResolver _modeResolver;
+    private final ProcessImpressionStrategy[] _strategies;
+    private final TelemetryRuntimeProducer _telemetryRuntimeProducer;
+    private final ImpressionsModeController _modeController;
+
+    public ProcessImpressionPerFlag(boolean listenerEnabled, ImpressionModeResolver modeResolver,
+                                    Map<ImpressionsManager.Mode, ProcessImpressionStrategy> strategies,
+                                    TelemetryRuntimeProducer telemetryRuntimeProducer) {
+        this(listenerEnabled, modeResolver, strategies, telemetryRuntimeProducer, null);
+    }
+
+    /**
+     * @param strategies MUST hold a strategy for every mode the resolver, and the controller if any, can return.
+     * @param modeController degrades the resolved modes under load. Nullable.
+     */
+    public ProcessImpressionPerFlag(boolean listenerEnabled, ImpressionModeResolver modeResolver,
+                                    Map<ImpressionsManager.Mode, ProcessImpressionStrategy> strategies,
+                                    TelemetryRuntimeProducer telemetryRuntimeProducer, ImpressionsModeController modeController) {
+        _listenerEnabled = listenerEnabled;
+        _modeController = modeController;
+        _modeResolver = checkNotNull(modeResolver);
+        _telemetryRuntimeProducer = checkNotNull(telemetryRuntimeProducer);
+        _strategies = new ProcessImpressionStrategy[ImpressionsManager.Mode.values().length];
+        for (Map.Entry<ImpressionsManager.Mode, ProcessImpressionStrategy> entry : strategies.entrySet()) {
+            _strategies[entry.getKey().ordinal()] = checkNotNull(entry.getValue());
+        }
+        checkArgument(_strategies[modeResolver.defaultMode().ordinal()] != null, "Missing strategy for the default mode");
+    }
+
+    @Override
+    public ImpressionsResult process(List<Impression> impressions) {
+        List<Impression> impressionsToQueue = new ArrayList<>(impressions.size());
+        long deduped = 0;
+        for (Impression impression : impressions) {
+            ImpressionsManager.Mode mode = modeFor(impression);
+            Impression toQueue = _strategies[mode.ordinal()].processImpression(impression);
+            if (toQueue != null) {
+                impressionsToQueue.add(toQueue);
+            } else if (ImpressionsManager.Mode.OPTIMIZED.equals(mode)) {
+                deduped++;
+            }
+        }
+        if (deduped > 0) {
+            _telemetryRuntimeProducer.recordImpressionStats(ImpressionsDataTypeEnum.IMPRESSIONS_DEDUPED, deduped);
+        }
+        List<Impression> impressionForListener = _listenerEnabled ? impressions : null;
+        return new ImpressionsResult(impressionsToQueue, impressionForListener);
+    }
+
+    @Override
+    public Impression processImpression(Impression impression) {
+        return _strategies[modeFor(impression).ordinal()].processImpression(impression);
+    }
+
+    private ImpressionsManager.Mode modeFor(Impression impression) {
+        ImpressionsManager.Mode mode = _modeResolver.resolve(impression.split(), impression.changeNumber());
+        return _modeController != null ? _modeController.effectiveMode(mode) : mode;
+    }
+}
@@ -8,4 +8,11 @@ import java.util.List;
 public interface ProcessImpressionStrategy {
 
     ImpressionsResult process(List<Impression> impressions);
+
+    /**
+     * Applies the strategy to a single impression.
+     *
+     * @return the impression if it has to be queued, null otherwise.
+     */
+    Impression processImpression(Impression impression);
 }
@@ -0,0 +1,178 @@
+package io.split.client.utils;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Drives the flushes of a bounded queue. Besides the periodic flush, whose interval shrinks as the observed
+ * arrival rate grows, an immediate flush is triggered as soon as the items queued since the last drain cross
+ * the configured fill ratio of the queue capacity, or as soon as the bytes queued since the last drain cross the
+ * byte threshold, if one was given. Either threshold can be disabled, but not both. The number of flushes running
+ * at the same time is capped.
+ */
+public class AdaptiveFlushScheduler {
+
+    private static final Logger _log = LoggerFactory.getLogger(AdaptiveFlushScheduler.class);
+    /* package private */ static final long MIN_INTERVAL_MILLIS = 1000;
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final String _name;
+    private final long _maxIntervalMillis;
+    private final long _pressureThreshold;
+    private final long _pressureBytesThreshold;
+    private final Semaphore _inFlight;
+    private final ScheduledExecutorService _executor;
+    private final AtomicLong _pending = new AtomicLong();
+    private final AtomicLong _pendingBytes = new AtomicLong();
+    private final LongAdder _arrivals = new LongAdder();
+    private final AtomicBoolean _pressureFlushQueued = new AtomicBoolean(false);
+    private volatile Runnable _flushAction;
+    private volatile long _lastTickNanos;
+
+    public AdaptiveFlushScheduler(String name, long maxIntervalMillis, int queueCapacity, double fillRatio, int maxInFlight,
+                                  ThreadFactory threadFactory) {
+        this(name, maxIntervalMillis, queueCapacity, fillRatio, maxInFlight, 0, threadFactory);
+    }
+
+    /**
+     * @param fillRatio share of the queue capacity queued since the last drain that triggers an immediate flush, 0 to
+     *                  disable. The periodic flush then always runs every {@code maxIntervalMillis}.
+     * @param pressureBytes bytes queued since the last drain that trigger an immediate flush, 0 to disable.
+     */
+    public AdaptiveFlushScheduler(String name, long maxIntervalMillis, int queueCapacity, double fillRatio, int maxInFlight,
+                                  long pressureBytes, ThreadFactory threadFactory) {
+        checkArgument(fillRatio >= 0 && fillRatio <= 1, "fillRatio must be in [0, 1]: %s", fillRatio);
+        checkArgument(fillRatio > 0 || pressureBytes > 0, "fillRatio and pressureBytes cannot both be disabled");
+        checkArgument(maxInFlight > 0, "maxInFlight must be > 0: %s", maxInFlight);
+        _name = checkNotNull(name);
+        _maxIntervalMillis = Math.max(MIN_INTERVAL_MILLIS, maxIntervalMillis);
+        _pressureThreshold = fillRatio > 0 ? Math.max(1, (long) (queueCapacity * fillRatio)) : Long.MAX_VALUE;
+        _pressureBytesThreshold = pressureBytes > 0 ? pressureBytes : Long.MAX_VALUE;
+        _inFlight = new Semaphore(maxInFlight);
+        _executor = SplitExecutorFactory.buildScheduledExecutorService(threadFactory, "Split-" + name + "-Flush-%d", maxInFlight);
+        if (_executor instanceof ScheduledThreadPoolExecutor) {
+            // Once stopped, the next tick and queued pressure flushes are dropped: the owner flushes one last time.
+            ((ScheduledThreadPoolExecutor) _executor).setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        }
+    }
+
+    public void start(Runnable flushAction, long initialDelayMillis) {
+        _flushAction = checkNotNull(flushAction);
+        _lastTickNanos = System.nanoTime();
+        schedule(this::tick, initialDelayMillis);
+    }
+
+    /**
+     * Called by producers after items were accepted by the queue. Never blocks: when the pressure threshold
+     * is crossed the drain is handed to the flush threads.
+     */
+    public void recordQueued(long count) {
+        recordQueued(count, 0);
+    }
+
+    public void recordQueued(long count, long bytes) {
+        if (count <= 0) {
+            return;
+        }
+        _arrivals.add(count);
+        boolean pressured = _pending.addAndGet(count) >= _pressureThreshold;
+        if (bytes > 0 && _pendingBytes.addAndGet(bytes) >= _pressureBytesThreshold) {
+            pressured = true;
+        }
+        if (pressured && _pressureFlushQueued.compareAndSet(false, true)) {
+            try {
+                _executor.execute(this::pressureFlush);
+            } catch (RejectedExecutionException e) {
+                _pressureFlushQueued.set(false);
+            }
+        }
+    }
+
+    /**
+     * Stops scheduling flushes and waits, for a bounded time, for the ones already running, so that the owner's final
+     * flush does not overlap with them.
+     */
+    public void stop() {
+        _executor.shutdown();
+        try {
+            if (!_executor.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                _log.warn(String.format("%s flushes still running after %d ms", _name, STOP_TIMEOUT_MILLIS));
+            }
+        } catch (InterruptedException e) {
+            _log.warn(String.format("Interrupted while waiting for %s flushes to finish", _name));
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pressureFlush() {
+        _pressureFlushQueued.set(false);
+        flush();
+    }
+
+    private void tick() {
+        flush();
+        schedule(this::tick, nextIntervalMillis());
+    }
+
+    private void flush() {
+        Runnable flushAction = _flushAction;
+        if (flushAction == null || !_inFlight.tryAcquire()) {
+            // Max in-flight flushes reached, the pending count is kept so the next arrival triggers again.
+            return;
+        }
+        try {
+            _pending.set(0);
+            _pendingBytes.set(0);
+            flushAction.run();
+        } catch (Exception e) {
+            _log.warn(String.format("Error flushing %s", _name), e);
+        } finally {
+            _inFlight.release();
+        }
+    }
+
+    private void schedule(Runnable task, long delayMillis) {
+        try {
+            _executor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Scheduler stopped.
+        }
+    }
+
+    /**
+     * Half the time the queue would take to reach the pressure threshold at the rate observed since the last tick,
+     * bounded by [MIN_INTERVAL_MILLIS, maxIntervalMillis].
+     */
+    @VisibleForTesting
+    /* package private */ long nextIntervalMillis() {
+        long now = System.nanoTime();
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(now - _lastTickNanos));
+        _lastTickNanos = now;
+        long arrivals = _arrivals.sumThenReset();
+        return intervalFor(arrivals, elapsedMillis);
+    }
+
+    @VisibleForTesting
+    /* package private */ long intervalFor(long arrivals, long elapsedMillis) {
+        if (arrivals <= 0 || _pressureThreshold == Long.MAX_VALUE) {
+            return _maxIntervalMillis;
+        }
+        double perMillis = (double) arrivals / elapsedMillis;
+        long millisToThreshold = (long) (_pressureThreshold / perMillis);
+        return Math.max(MIN_INTERVAL_MILLIS, Math.min(_maxIntervalMillis, millisToThreshold / 2));
+    }
+}
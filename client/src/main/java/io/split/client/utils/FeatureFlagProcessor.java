@@ -12,32 +12,139 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 public class FeatureFlagProcessor {
     private static final Logger _log = LoggerFactory.getLogger(FeatureFlagProcessor.class);
 
     public static FeatureFlagsToUpdate processFeatureFlagChanges(SplitParser splitParser, List<Split> splits, FlagSetsFilter flagSetsFilter) {
-        List<ParsedSplit> toAdd = new ArrayList<>();
-        List<String> toRemove = new ArrayList<>();
-        Set<String> segments = new HashSet<>();
-        for (Split split : splits) {
+        return processFeatureFlagChanges(splitParser, splits, flagSetsFilter, 0);
+    }
+
+    public static FeatureFlagsToUpdate processFeatureFlagChanges(SplitParser splitParser, List<Split> splits, FlagSetsFilter flagSetsFilter,
+                                                                 int parallelThreshold) {
+        return processFeatureFlagChanges(splitParser, splits, flagSetsFilter, parallelThreshold, null);
+    }
+
+    public static FeatureFlagsToUpdate processFeatureFlagChanges(SplitParser splitParser, List<Split> splits, FlagSetsFilter flagSetsFilter,
+                                                                 int parallelThreshold, Consumer<String> segmentListener) {
+        Accumulator accumulator = new Accumulator(splitParser, flagSetsFilter, parallelThreshold, segmentListener);
+        splits.forEach(accumulator);
+        return accumulator.toUpdate();
+    }
+
+    /**
+     * Parses feature flags one at a time, as they are read, so that only their parsed form is kept until the whole
+     * change is applied.
+     * <p>
+     * With a parallel threshold, the flags received past it are parsed on the common fork-join pool instead, while
+     * the rest are still being read. They are collected in the order they were received.
+     * <p>
+     * Both ways handle failures the same. A flag that cannot be parsed is skipped and keeps its previous definition.
+     * An exception thrown while parsing fails the whole change.
+     * <p>
+     * The segment listener, if any, is given the segments of each flag as soon as it is parsed, on the thread that
+     * parsed it, so that they can be fetched while the rest of the change is still being read.
+     */
+    public static final class Accumulator implements Consumer<Split> {
+        private final SplitParser _splitParser;
+        private final FlagSetsFilter _flagSetsFilter;
+        private final List<ParsedSplit> _toAdd = new ArrayList<>();
+        private final List<String> _toRemove = new ArrayList<>();
+        private final Set<String> _segments = new HashSet<>();
+        private final List<ForkJoinTask<ParsedSplit>> _pending = new ArrayList<>();
+        private final int _parallelThreshold;
+        private final Consumer<String> _segmentListener;
+        private int _count;
+
+        public Accumulator(SplitParser splitParser, FlagSetsFilter flagSetsFilter) {
+            this(splitParser, flagSetsFilter, 0);
+        }
+
+        /**
+         * @param parallelThreshold number of flags parsed on the calling thread before using the fork-join pool, 0
+         *                          to always parse on the calling thread.
+         */
+        public Accumulator(SplitParser splitParser, FlagSetsFilter flagSetsFilter, int parallelThreshold) {
+            this(splitParser, flagSetsFilter, parallelThreshold, null);
+        }
+
+        /**
+         * @param segmentListener called with the segments of every parsed flag, possibly from several threads at once.
+         *                        May be null.
+         */
+        public Accumulator(SplitParser splitParser, FlagSetsFilter flagSetsFilter, int parallelThreshold,
+                           Consumer<String> segmentListener) {
+            checkArgument(parallelThreshold >= 0, "parallelThreshold must be >= 0: %s", parallelThreshold);
+            _splitParser = checkNotNull(splitParser);
+            _flagSetsFilter = flagSetsFilter;
+            _parallelThreshold = parallelThreshold;
+            _segmentListener = segmentListener;
+        }
+
+        @Override
+        public void accept(Split split) {
+            _count++;
             if (split.status != Status.ACTIVE) {
                 // archive.
-                toRemove.add(split.name);
-                continue;
+                _toRemove.add(split.name);
+                return;
             }
-            if (!flagSetsFilter.intersect(split.sets)) {
-                toRemove.add(split.name);
-                continue;
+            if (!_flagSetsFilter.intersect(split.sets)) {
+                _toRemove.add(split.name);
+                return;
             }
-            ParsedSplit parsedSplit = splitParser.parse(split);
+            if (_parallelThreshold > 0 && _count > _parallelThreshold) {
+                _pending.add(ForkJoinPool.commonPool().submit(() -> parse(split)));
+                return;
+            }
+            add(parse(split));
+        }
+
+        private ParsedSplit parse(Split split) {
+            ParsedSplit parsedSplit = _splitParser.parse(split);
             if (parsedSplit == null) {
                 _log.debug(String.format("We could not parse the feature flag definition for: %s", split.name));
-                continue;
+                return null;
+            }
+            if (_segmentListener != null) {
+                parsedSplit.getSegmentsNames().forEach(_segmentListener);
+            }
+            return parsedSplit;
+        }
+
+        private void add(ParsedSplit parsedSplit) {
+            if (parsedSplit == null) {
+                return;
+            }
+            _segments.addAll(parsedSplit.getSegmentsNames());
+            _toAdd.add(parsedSplit);
+        }
+
+        /**
+         * @return how many feature flags were received, including the ones to remove or that could not be parsed.
+         */
+        public int count() {
+            return _count;
+        }
+
+        public FeatureFlagsToUpdate toUpdate() {
+            try {
+                for (ForkJoinTask<ParsedSplit> task : _pending) {
+                    add(task.join());
+                }
+            } catch (RuntimeException e) {
+                _pending.forEach(task -> task.cancel(false));
+                throw e;
+            } finally {
+                _pending.clear();
             }
-            segments.addAll(parsedSplit.getSegmentsNames());
-            toAdd.add(parsedSplit);
+            return new FeatureFlagsToUpdate(_toAdd, _toRemove, _segments);
         }
-        return new FeatureFlagsToUpdate(toAdd, toRemove, segments);
     }
-}
\ No newline at end of file
+}
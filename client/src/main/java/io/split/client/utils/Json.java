@@ -7,6 +7,7 @@ import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
 import com.google.gson.stream.JsonReader;
+import io.split.client.dtos.DtoTypeAdapters;
 
 import java.lang.reflect.Type;
 import java.util.Arrays;
@@ -29,12 +30,17 @@ public class Json {
                     return new JsonPrimitive(src);
                 }
             })
+            .registerTypeAdapterFactory(new DtoTypeAdapters()) // Wire DTOs without reflection
             .create();
 
     public static String toJson(Object obj) {
         return _json.toJson(obj);
     }
 
+    public static void toJson(Object obj, Appendable writer) {
+        _json.toJson(obj, writer);
+    }
+
     public static <T> T fromJson(String json, Class<T> clz) {
         return _json.fromJson(json, clz);
     }
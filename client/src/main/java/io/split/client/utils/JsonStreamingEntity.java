@@ -0,0 +1,118 @@
+package io.split.client.utils;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Http entity that serializes its payload straight into the connection output stream,
+ * optionally deflating it with gzip on the fly, so that the json body is never
+ * materialized as a String.
+ */
+public class JsonStreamingEntity extends AbstractHttpEntity {
+
+    private static final String GZIP_ENCODING = "gzip";
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final Object _payload;
+    private final boolean _gzip;
+
+    public JsonStreamingEntity(Object payload, boolean gzip) {
+        super(ContentType.APPLICATION_JSON, gzip ? GZIP_ENCODING : null, true);
+        _payload = checkNotNull(payload);
+        _gzip = gzip;
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        checkNotNull(outStream);
+        if (_gzip) {
+            GZIPOutputStream gzipStream = new GZIPOutputStream(new NonClosingOutputStream(outStream), BUFFER_SIZE);
+            write(gzipStream);
+            gzipStream.finish();
+            gzipStream.close();
+            return;
+        }
+        write(new NonClosingOutputStream(outStream));
+    }
+
+    /**
+     * Only meant for callers that need to read the body back (e.g. retries or tests).
+     * Regular request execution goes through {@link #writeTo(OutputStream)}.
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(BUFFER_SIZE);
+        writeTo(buffer);
+        return new ByteArrayInputStream(buffer.toByteArray());
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release, the payload is serialized on demand.
+    }
+
+    private void write(OutputStream outStream) throws IOException {
+        Writer writer = new OutputStreamWriter(outStream, StandardCharsets.UTF_8);
+        Json.toJson(_payload, writer);
+        writer.flush();
+    }
+
+    /**
+     * Lets the writer chain flush and close without closing the underlying connection stream,
+     * which is owned by the http client.
+     */
+    private static final class NonClosingOutputStream extends OutputStream {
+        private final OutputStream _delegate;
+
+        private NonClosingOutputStream(OutputStream delegate) {
+            _delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            _delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            _delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            _delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            _delegate.flush();
+        }
+    }
+}
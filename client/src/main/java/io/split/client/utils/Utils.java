@@ -22,6 +22,9 @@ public class Utils {
         return HttpEntities.create(json, ContentType.APPLICATION_JSON);
     }
 
+    public static HttpEntity toJsonStreamingEntity(Object obj, boolean gzip) {
+        return new JsonStreamingEntity(obj, gzip);
+    }
 
     public static void forceClose(CloseableHttpResponse response) {
         try {
@@ -1,9 +1,14 @@
 package io.split.engine;
 
+import io.split.engine.experiments.ParsedSplit;
+import io.split.storages.SplitCacheConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
@@ -15,7 +20,28 @@ import java.util.concurrent.TimeUnit;
 public class SDKReadinessGates {
     private static final Logger _log = LoggerFactory.getLogger(SDKReadinessGates.class);
 
+    // flags loaded meanwhile do not signal, so waiters look again at least this often.
+    private static final long RECHECK_MILLIS = 100;
+
     private final CountDownLatch _internalReady = new CountDownLatch(1);
+    private final SplitCacheConsumer _splitCacheConsumer;
+    private final Set<String> _readySegments = ConcurrentHashMap.newKeySet();
+    private final Object _readinessChanged = new Object();
+
+    /**
+     * Feature flags are only ready once the whole SDK is.
+     */
+    public SDKReadinessGates() {
+        this(null);
+    }
+
+    /**
+     * @param splitCacheConsumer where the feature flags are looked up to tell whether each one is ready before the
+     *                           whole SDK is. See {@link #isReady(String)}.
+     */
+    public SDKReadinessGates(SplitCacheConsumer splitCacheConsumer) {
+        _splitCacheConsumer = splitCacheConsumer;
+    }
 
     /**
      * Returns true if the SDK is ready. The SDK is ready when:
@@ -42,5 +68,74 @@ public class SDKReadinessGates {
 
     public void sdkInternalReady() {
         _internalReady.countDown();
+        signal();
+    }
+
+    /**
+     * Records that the memberships of a segment have been downloaded at least once.
+     */
+    public void segmentReady(String segmentName) {
+        if (_readySegments.add(segmentName)) {
+            signal();
+        }
+    }
+
+    /**
+     * Returns true if the feature flag can be evaluated with the same result it will have once the SDK is ready: its
+     * definition, the segments it uses and the feature flags it depends on, transitively, are all loaded. A feature flag
+     * that is not loaded yet cannot be told apart from one that does not exist, so it is not ready.
+     */
+    public boolean isReady(String featureFlag) {
+        if (isSDKReady()) {
+            return true;
+        }
+        return _splitCacheConsumer != null && isClosureLoaded(featureFlag, new HashSet<>());
+    }
+
+    public boolean isReady(Collection<String> featureFlags) {
+        if (isSDKReady()) {
+            return true;
+        }
+        return featureFlags.stream().allMatch(this::isReady);
+    }
+
+    /**
+     * Blocks until all the feature flags are ready, see {@link #isReady(String)}, or 'milliseconds' have passed.
+     *
+     * @return true if the feature flags are ready, false otherwise.
+     * @throws InterruptedException if this operation was interrupted.
+     */
+    public boolean awaitReady(Collection<String> featureFlags, long milliseconds) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + milliseconds;
+        synchronized (_readinessChanged) {
+            while (!isReady(featureFlags)) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                _readinessChanged.wait(Math.min(remaining, RECHECK_MILLIS));
+            }
+            return true;
+        }
+    }
+
+    private boolean isClosureLoaded(String featureFlag, Set<String> visited) {
+        if (!visited.add(featureFlag)) {
+            return true;
+        }
+        ParsedSplit parsedSplit = _splitCacheConsumer.get(featureFlag);
+        if (parsedSplit == null) {
+            return false;
+        }
+        if (!_readySegments.containsAll(parsedSplit.getSegmentsNames())) {
+            return false;
+        }
+        return parsedSplit.getDependencyNames().stream().allMatch(dependency -> isClosureLoaded(dependency, visited));
+    }
+
+    private void signal() {
+        synchronized (_readinessChanged) {
+            _readinessChanged.notifyAll();
+        }
     }
 }
@@ -0,0 +1,83 @@
+package io.split.engine.common;
+
+import com.google.common.collect.Maps;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller runs the call and the ones arriving while it runs
+ * share its result instead of running their own. Calls arriving after it completed run again.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> _inFlight = Maps.newConcurrentMap();
+
+    /**
+     * Runs the call on this thread, or waits for the one already running with the same key.
+     *
+     * @throws InterruptedException if interrupted while waiting for another caller's call.
+     */
+    public V run(K key, Supplier<V> call) throws InterruptedException {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = _inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(running);
+        }
+        V result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            _inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        // removed before completing, so that nobody joins a call that already finished.
+        _inFlight.remove(key, mine);
+        mine.complete(result);
+        return result;
+    }
+
+    /**
+     * Same as {@link #run(Object, Supplier)}, for calls that complete asynchronously.
+     */
+    public CompletableFuture<V> runAsync(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = _inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<V> started;
+        try {
+            started = call.get();
+        } catch (RuntimeException | Error e) {
+            started = new CompletableFuture<>();
+            started.completeExceptionally(e);
+        }
+        started.whenComplete((result, e) -> {
+            _inFlight.remove(key, mine);
+            if (e != null) {
+                mine.completeExceptionally(e);
+            } else {
+                mine.complete(result);
+            }
+        });
+        return mine;
+    }
+
+    private static <V> V await(CompletableFuture<V> running) throws InterruptedException {
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package io.split.engine.common;
 
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.io.CloseMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,15 +10,25 @@ public class SplitAPI {
 
     private final CloseableHttpClient _httpClient;
     private final CloseableHttpClient _sseHttpClient;
+    private final CloseableHttpAsyncClient _asyncHttpClient;
     private static final Logger _log = LoggerFactory.getLogger(SplitAPI.class);
 
-    private SplitAPI(CloseableHttpClient httpClient, CloseableHttpClient sseHttpClient) {
+    private SplitAPI(CloseableHttpClient httpClient, CloseableHttpClient sseHttpClient, CloseableHttpAsyncClient asyncHttpClient) {
         _httpClient = httpClient;
         _sseHttpClient = sseHttpClient;
+        _asyncHttpClient = asyncHttpClient;
     }
 
     public static SplitAPI build(CloseableHttpClient httpClient, CloseableHttpClient sseHttpClient){
-        return new SplitAPI(httpClient,sseHttpClient);
+        return new SplitAPI(httpClient,sseHttpClient, null);
+    }
+
+    /**
+     * @param asyncHttpClient non-blocking client used by the fetchers when async HTTP is enabled, null otherwise.
+     */
+    public static SplitAPI build(CloseableHttpClient httpClient, CloseableHttpClient sseHttpClient,
+                                 CloseableHttpAsyncClient asyncHttpClient) {
+        return new SplitAPI(httpClient, sseHttpClient, asyncHttpClient);
     }
 
     public CloseableHttpClient getHttpClient() {
@@ -38,5 +50,12 @@ public class SplitAPI {
         } catch (Exception e){
             _log.error("Error trying to close sseHttpClient", e);
         }
+        if (_asyncHttpClient != null) {
+            try {
+                _asyncHttpClient.close(CloseMode.GRACEFUL);
+            } catch (Exception e){
+                _log.error("Error trying to close asyncHttpClient", e);
+            }
+        }
     }
 }
\ No newline at end of file
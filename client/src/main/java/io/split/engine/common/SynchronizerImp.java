@@ -209,6 +209,7 @@ public class SynchronizerImp implements Synchronizer {
 
     @Override
     public void refreshSegment(String segmentName, Long targetChangeNumber) {
+        _segmentSynchronizationTaskImp.resetRefreshInterval(segmentName);
 
         if (targetChangeNumber <= segmentCacheProducer.getChangeNumber(segmentName)) {
             return;
@@ -0,0 +1,344 @@
+package io.split.engine.evaluator;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.split.client.utils.SplitExecutorFactory;
+import io.split.engine.matchers.AttributeMatcher;
+import io.split.engine.matchers.Matcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Opt-in profiler for the evaluator, meant to find which feature flags dominate evaluation time and which matchers
+ * are expensive.
+ * <p>
+ * Every evaluation is counted per flag, and one in every {@code sampleRate} evaluations is timed: its latency goes to
+ * a per-flag power-of-two histogram, the index of the condition that matched is counted, and the time spent in each
+ * matcher is added to its matcher type. Nested evaluations (dependency matchers) are profiled as evaluations of their
+ * own flag as well, so their time also counts towards the flag that depends on them.
+ */
+public class EvaluationProfiler {
+    private static final Logger _log = LoggerFactory.getLogger(EvaluationProfiler.class);
+
+    public static final int DEFAULT_TOP_N = 20;
+    /* package private */ static final int NO_CONDITION = -1;
+    private static final int LATENCY_BUCKETS = 40;
+
+    private final int _sampleRate;
+    private final ConcurrentMap<String, FlagStats> _flags = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, MatcherStats> _matchers = new ConcurrentHashMap<>();
+    private ScheduledExecutorService _reporter;
+
+    public EvaluationProfiler(int sampleRate) {
+        checkArgument(sampleRate > 0, "sampleRate must be > 0: %s", sampleRate);
+        _sampleRate = sampleRate;
+    }
+
+    /**
+     * Counts an evaluation of the given flag.
+     *
+     * @return a sample to complete with {@link #end(Sample)} when this evaluation is to be timed, null otherwise.
+     */
+    public Sample begin(String flag) {
+        FlagStats stats = _flags.computeIfAbsent(flag, f -> new FlagStats());
+        stats._evaluations.increment();
+        if (_sampleRate > 1 && ThreadLocalRandom.current().nextInt(_sampleRate) != 0) {
+            return null;
+        }
+        return new Sample(stats, System.nanoTime());
+    }
+
+    public void end(Sample sample) {
+        sample._stats.record(System.nanoTime() - sample._start, sample._conditionIndex);
+    }
+
+    public void recordMatcher(Matcher matcher, long nanos) {
+        Matcher actual = matcher instanceof AttributeMatcher.NegatableMatcher
+                ? ((AttributeMatcher.NegatableMatcher) matcher).delegate()
+                : matcher;
+        MatcherStats stats = _matchers.computeIfAbsent(actual.getClass(), c -> new MatcherStats());
+        stats._count.increment();
+        stats._nanos.add(nanos);
+    }
+
+    /**
+     * @return the topN flags by estimated evaluation time, and the time spent per matcher type, since the profiler
+     * was created or the last report.
+     */
+    public Snapshot snapshot(int topN) {
+        return collect(topN, false);
+    }
+
+    /**
+     * Same as {@link #snapshot(int)}, and starts a new window.
+     */
+    public Snapshot snapshotAndReset(int topN) {
+        return collect(topN, true);
+    }
+
+    /**
+     * Logs the hottest flags every given number of seconds, each report covering only the preceding interval.
+     */
+    public synchronized void start(int intervalInSeconds, ThreadFactory threadFactory) {
+        checkArgument(intervalInSeconds > 0, "intervalInSeconds must be > 0: %s", intervalInSeconds);
+        if (_reporter != null) {
+            return;
+        }
+        _reporter = SplitExecutorFactory.buildSingleThreadScheduledExecutor(threadFactory, "Split-EvaluationProfiler-%d");
+        _reporter.scheduleWithFixedDelay(this::report, intervalInSeconds, intervalInSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stop() {
+        if (_reporter != null) {
+            _reporter.shutdownNow();
+            _reporter = null;
+        }
+    }
+
+    private void report() {
+        try {
+            Snapshot snapshot = snapshotAndReset(DEFAULT_TOP_N);
+            if (!snapshot.flags().isEmpty()) {
+                _log.info("Evaluation profile: {}", snapshot);
+            }
+        } catch (Exception e) {
+            _log.warn("Could not report the evaluation profile", e);
+        }
+    }
+
+    private Snapshot collect(int topN, boolean reset) {
+        checkArgument(topN > 0, "topN must be > 0: %s", topN);
+        List<FlagProfile> flags = new ArrayList<>();
+        for (Map.Entry<String, FlagStats> entry : _flags.entrySet()) {
+            if (reset) {
+                _flags.remove(entry.getKey(), entry.getValue());
+            }
+            flags.add(entry.getValue().profile(entry.getKey()));
+        }
+        flags.sort(Comparator.comparingLong(FlagProfile::estimatedNanos).reversed());
+
+        Map<String, MatcherProfile> matchers = new HashMap<>();
+        for (Map.Entry<Class<?>, MatcherStats> entry : _matchers.entrySet()) {
+            if (reset) {
+                _matchers.remove(entry.getKey(), entry.getValue());
+            }
+            MatcherStats stats = entry.getValue();
+            matchers.put(entry.getKey().getSimpleName(), new MatcherProfile(stats._count.sum(), stats._nanos.sum()));
+        }
+        return new Snapshot(new ArrayList<>(flags.subList(0, Math.min(topN, flags.size()))), matchers);
+    }
+
+    @VisibleForTesting
+    /* package private */ static int bucketFor(long nanos) {
+        return Math.min(LATENCY_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * A timed evaluation in progress.
+     */
+    public static final class Sample {
+        private final FlagStats _stats;
+        private final long _start;
+        private int _conditionIndex = NO_CONDITION;
+
+        private Sample(FlagStats stats, long start) {
+            _stats = stats;
+            _start = start;
+        }
+
+        public void conditionMatched(int index) {
+            _conditionIndex = index;
+        }
+    }
+
+    private static final class FlagStats {
+        private final LongAdder _evaluations = new LongAdder();
+        private final LongAdder _sampled = new LongAdder();
+        private final LongAdder _sampledNanos = new LongAdder();
+        private final AtomicLong _max = new AtomicLong();
+        private final AtomicLongArray _latencies = new AtomicLongArray(LATENCY_BUCKETS);
+        private final ConcurrentMap<Integer, LongAdder> _conditions = new ConcurrentHashMap<>();
+
+        private void record(long nanos, int conditionIndex) {
+            _sampled.increment();
+            _sampledNanos.add(nanos);
+            _latencies.incrementAndGet(bucketFor(nanos));
+            long max = _max.get();
+            while (nanos > max && !_max.compareAndSet(max, nanos)) {
+                max = _max.get();
+            }
+            _conditions.computeIfAbsent(conditionIndex, i -> new LongAdder()).increment();
+        }
+
+        private FlagProfile profile(String flag) {
+            long[] latencies = new long[LATENCY_BUCKETS];
+            for (int i = 0; i < LATENCY_BUCKETS; i++) {
+                latencies[i] = _latencies.get(i);
+            }
+            Map<Integer, Long> conditions = new HashMap<>();
+            _conditions.forEach((index, count) -> conditions.put(index, count.sum()));
+            return new FlagProfile(flag, _evaluations.sum(), _sampled.sum(), _sampledNanos.sum(), _max.get(), latencies,
+                    conditions);
+        }
+    }
+
+    private static final class MatcherStats {
+        private final LongAdder _count = new LongAdder();
+        private final LongAdder _nanos = new LongAdder();
+    }
+
+    public static final class Snapshot {
+        private final List<FlagProfile> _flags;
+        private final Map<String, MatcherProfile> _matchers;
+
+        private Snapshot(List<FlagProfile> flags, Map<String, MatcherProfile> matchers) {
+            _flags = Collections.unmodifiableList(flags);
+            _matchers = Collections.unmodifiableMap(matchers);
+        }
+
+        /**
+         * @return the hottest flags first.
+         */
+        public List<FlagProfile> flags() {
+            return _flags;
+        }
+
+        /**
+         * @return the time spent per matcher type, keyed by the matcher class simple name.
+         */
+        public Map<String, MatcherProfile> matchers() {
+            return _matchers;
+        }
+
+        @Override
+        public String toString() {
+            return "flags=" + _flags + ", matchers=" + _matchers;
+        }
+    }
+
+    public static final class FlagProfile {
+        private final String _flag;
+        private final long _evaluations;
+        private final long _sampled;
+        private final long _sampledNanos;
+        private final long _maxNanos;
+        private final long[] _latencies;
+        private final Map<Integer, Long> _matchedConditions;
+
+        private FlagProfile(String flag, long evaluations, long sampled, long sampledNanos, long maxNanos, long[] latencies,
+                            Map<Integer, Long> matchedConditions) {
+            _flag = flag;
+            _evaluations = evaluations;
+            _sampled = sampled;
+            _sampledNanos = sampledNanos;
+            _maxNanos = maxNanos;
+            _latencies = latencies;
+            _matchedConditions = Collections.unmodifiableMap(matchedConditions);
+        }
+
+        public String flag() {
+            return _flag;
+        }
+
+        public long evaluations() {
+            return _evaluations;
+        }
+
+        public long sampledEvaluations() {
+            return _sampled;
+        }
+
+        public long meanNanos() {
+            return _sampled > 0 ? _sampledNanos / _sampled : 0;
+        }
+
+        public long maxNanos() {
+            return _maxNanos;
+        }
+
+        /**
+         * @return the total time spent evaluating this flag, extrapolated from the sampled evaluations.
+         */
+        public long estimatedNanos() {
+            return meanNanos() * _evaluations;
+        }
+
+        /**
+         * @return an upper bound, within a factor of two, of the latency under which the given percentage of the sampled
+         * evaluations fall.
+         */
+        public long percentileNanos(double percentile) {
+            checkArgument(percentile >= 0 && percentile <= 100, "percentile must be in [0, 100]: %s", percentile);
+            if (_sampled == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * _sampled));
+            long seen = 0;
+            for (int i = 0; i < _latencies.length; i++) {
+                seen += _latencies[i];
+                if (seen >= rank) {
+                    return Math.min((1L << i) - 1, _maxNanos);
+                }
+            }
+            return _maxNanos;
+        }
+
+        /**
+         * @return how many sampled evaluations ended in each condition index; -1 counts the evaluations that matched
+         * no condition (killed, out of the traffic allocation or default rule).
+         */
+        public Map<Integer, Long> matchedConditions() {
+            return _matchedConditions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{%s: evaluations=%d, sampled=%d, meanNanos=%d, p99Nanos=%d, maxNanos=%d, conditions=%s}",
+                    _flag, _evaluations, _sampled, meanNanos(), percentileNanos(99), _maxNanos, _matchedConditions);
+        }
+    }
+
+    public static final class MatcherProfile {
+        private final long _count;
+        private final long _nanos;
+
+        private MatcherProfile(long count, long nanos) {
+            _count = count;
+            _nanos = nanos;
+        }
+
+        public long count() {
+            return _count;
+        }
+
+        public long totalNanos() {
+            return _nanos;
+        }
+
+        public long meanNanos() {
+            return _count > 0 ? _nanos / _count : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{count=%d, meanNanos=%d}", _count, meanNanos());
+        }
+    }
+}
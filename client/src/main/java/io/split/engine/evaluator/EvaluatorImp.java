@@ -25,11 +25,20 @@ public class EvaluatorImp implements Evaluator {
     private final SegmentCacheConsumer _segmentCacheConsumer;
     private final EvaluationContext _evaluationContext;
     private final SplitCacheConsumer _splitCacheConsumer;
+    private final EvaluationProfiler _profiler;
 
     public EvaluatorImp(SplitCacheConsumer splitCacheConsumer, SegmentCacheConsumer segmentCache) {
+        this(splitCacheConsumer, segmentCache, null);
+    }
+
+    /**
+     * @param profiler nullable, when not profiling evaluations.
+     */
+    public EvaluatorImp(SplitCacheConsumer splitCacheConsumer, SegmentCacheConsumer segmentCache, EvaluationProfiler profiler) {
         _splitCacheConsumer = checkNotNull(splitCacheConsumer);
         _segmentCacheConsumer = checkNotNull(segmentCache);
         _evaluationContext = new EvaluationContext(this, _segmentCacheConsumer);
+        _profiler = profiler;
     }
 
     @Override
@@ -78,11 +87,12 @@ public class EvaluatorImp implements Evaluator {
      * @param bucketingKey
      * @param parsedSplit  MUST NOT be null
      * @param attributes   MUST NOT be null
+     * @param sample       nullable, set when this evaluation is being profiled
      * @return
      * @throws ChangeNumberExceptionWrapper
      */
     private TreatmentLabelAndChangeNumber getTreatment(String matchingKey, String bucketingKey, ParsedSplit parsedSplit, Map<String,
-            Object> attributes) throws ChangeNumberExceptionWrapper {
+            Object> attributes, EvaluationProfiler.Sample sample) throws ChangeNumberExceptionWrapper {
         try {
             if (parsedSplit.killed()) {
                 String config = parsedSplit.configurations() != null ? parsedSplit.configurations().get(parsedSplit.defaultTreatment()) : null;
@@ -99,7 +109,9 @@ public class EvaluatorImp implements Evaluator {
 
             String bk = (bucketingKey == null) ? matchingKey : bucketingKey;
 
+            int conditionIndex = -1;
             for (ParsedCondition parsedCondition : parsedSplit.parsedConditions()) {
+                conditionIndex++;
 
                 if (!inRollout && parsedCondition.conditionType() == ConditionType.ROLLOUT) {
 
@@ -119,7 +131,13 @@ public class EvaluatorImp implements Evaluator {
                     inRollout = true;
                 }
 
-                if (parsedCondition.matcher().match(matchingKey, bucketingKey, attributes, _evaluationContext)) {
+                boolean matched = sample == null
+                        ? parsedCondition.matcher().match(matchingKey, bucketingKey, attributes, _evaluationContext)
+                        : parsedCondition.matcher().match(matchingKey, bucketingKey, attributes, _evaluationContext, _profiler);
+                if (matched) {
+                    if (sample != null) {
+                        sample.conditionMatched(conditionIndex);
+                    }
                     String treatment = Splitter.getTreatment(bk, parsedSplit.seed(), parsedCondition.partitions(), parsedSplit.algo());
                     String config = parsedSplit.configurations() != null ? parsedSplit.configurations().get(treatment) : null;
                     return new TreatmentLabelAndChangeNumber(treatment, parsedCondition.label(), parsedSplit.changeNumber(), config);
@@ -140,7 +158,18 @@ public class EvaluatorImp implements Evaluator {
                 return new TreatmentLabelAndChangeNumber(Treatments.CONTROL, Labels.DEFINITION_NOT_FOUND);
             }
 
-            return getTreatment(matchingKey, bucketingKey, parsedSplit, attributes);
+            if (_profiler == null) {
+                return getTreatment(matchingKey, bucketingKey, parsedSplit, attributes, null);
+            }
+            EvaluationProfiler.Sample sample = _profiler.begin(parsedSplit.feature());
+            if (sample == null) {
+                return getTreatment(matchingKey, bucketingKey, parsedSplit, attributes, null);
+            }
+            try {
+                return getTreatment(matchingKey, bucketingKey, parsedSplit, attributes, sample);
+            } finally {
+                _profiler.end(sample);
+            }
         } catch (ChangeNumberExceptionWrapper e) {
             _log.error("Evaluator Exception", e.wrappedException());
             return new EvaluatorImp.TreatmentLabelAndChangeNumber(Treatments.CONTROL, Labels.EXCEPTION, e.changeNumber());
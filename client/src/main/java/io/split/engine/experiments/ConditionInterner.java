@@ -0,0 +1,158 @@
+package io.split.engine.experiments;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.MapMaker;
+import io.split.client.dtos.Condition;
+import io.split.client.dtos.ConditionType;
+import io.split.client.dtos.Matcher;
+import io.split.client.dtos.MatcherGroup;
+import io.split.client.dtos.Partition;
+import io.split.engine.matchers.AttributeMatcher;
+import io.split.engine.matchers.CombiningMatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Weak pool of the immutable parts of parsed feature flags, so that identical matchers, partition tables and
+ * conditions share a single instance across flags and across versions of the same flag. Entries go away as soon as no
+ * parsed feature flag uses them anymore.
+ * <p>
+ * Matchers and partitions are interned by their value equality. Conditions are keyed by their interned matcher and
+ * partitions, type and label, since ParsedCondition's own equality ignores the last two.
+ * <p>
+ * Conditions and matchers are also looked up by the definition they were parsed from, so that the ones that did not
+ * change since the previous version of a flag are reused without building their matchers (nor compiling regular
+ * expressions) again.
+ */
+/* package private */ final class ConditionInterner {
+
+    private final Interner<AttributeMatcher> _attributeMatchers = Interners.newWeakInterner();
+    private final Interner<CombiningMatcher> _combiningMatchers = Interners.newWeakInterner();
+    private final Interner<List<Partition>> _partitions = Interners.newWeakInterner();
+    private final ConcurrentMap<ConditionKey, ParsedCondition> _conditions = new MapMaker().weakValues().makeMap();
+    private final ConcurrentMap<List<Object>, ParsedCondition> _conditionsByDefinition = new MapMaker().weakValues().makeMap();
+    private final ConcurrentMap<List<Object>, AttributeMatcher> _matchersByDefinition = new MapMaker().weakValues().makeMap();
+
+    AttributeMatcher intern(AttributeMatcher matcher) {
+        return _attributeMatchers.intern(matcher);
+    }
+
+    CombiningMatcher intern(CombiningMatcher matcher) {
+        return _combiningMatchers.intern(matcher);
+    }
+
+    /**
+     * @param toMatcher builds the matcher of the condition, only called if no condition with the same definition is
+     *                  in use.
+     */
+    ParsedCondition condition(Condition definition, Function<MatcherGroup, CombiningMatcher> toMatcher) {
+        List<Object> key = Arrays.asList(definition.conditionType, definition.matcherGroup.combiner,
+                matchersKey(definition.matcherGroup.matchers), copy(definition.partitions), definition.label);
+        ParsedCondition condition = _conditionsByDefinition.get(key);
+        if (condition == null) {
+            condition = condition(definition.conditionType, toMatcher.apply(definition.matcherGroup), definition.partitions,
+                    definition.label);
+            _conditionsByDefinition.put(key, condition);
+        }
+        return condition;
+    }
+
+    /**
+     * @param build builds the matcher, only called if no matcher with the same definition is in use.
+     */
+    AttributeMatcher matcher(Matcher definition, Function<Matcher, AttributeMatcher> build) {
+        List<Object> key = matcherKey(definition);
+        AttributeMatcher matcher = _matchersByDefinition.get(key);
+        if (matcher == null) {
+            matcher = intern(build.apply(definition));
+            _matchersByDefinition.put(key, matcher);
+        }
+        return matcher;
+    }
+
+    ParsedCondition condition(ConditionType conditionType, CombiningMatcher matcher, List<Partition> partitions, String label) {
+        CombiningMatcher internedMatcher = intern(matcher);
+        List<Partition> internedPartitions = partitions == null
+                ? null
+                : _partitions.intern(Collections.unmodifiableList(new ArrayList<>(partitions)));
+        return _conditions.computeIfAbsent(new ConditionKey(conditionType, internedMatcher, internedPartitions, label),
+                k -> new ParsedCondition(conditionType, internedMatcher, internedPartitions, label));
+    }
+
+    private static List<Object> matchersKey(List<Matcher> matchers) {
+        if (matchers == null) {
+            return null;
+        }
+        List<Object> key = new ArrayList<>(matchers.size());
+        for (Matcher matcher : matchers) {
+            key.add(matcherKey(matcher));
+        }
+        return key;
+    }
+
+    /**
+     * Every field the parser reads from the definition. The traffic type of the key selector is not one of them.
+     */
+    private static List<Object> matcherKey(Matcher matcher) {
+        return Arrays.asList(
+                matcher.matcherType,
+                matcher.negate,
+                matcher.keySelector != null ? matcher.keySelector.attribute : null,
+                matcher.userDefinedSegmentMatcherData != null ? matcher.userDefinedSegmentMatcherData.segmentName : null,
+                matcher.whitelistMatcherData != null ? copy(matcher.whitelistMatcherData.whitelist) : null,
+                matcher.unaryNumericMatcherData != null
+                        ? Arrays.asList(matcher.unaryNumericMatcherData.dataType, matcher.unaryNumericMatcherData.value)
+                        : null,
+                matcher.betweenMatcherData != null
+                        ? Arrays.asList(matcher.betweenMatcherData.dataType, matcher.betweenMatcherData.start,
+                                matcher.betweenMatcherData.end)
+                        : null,
+                matcher.dependencyMatcherData != null
+                        ? Arrays.asList(matcher.dependencyMatcherData.split, copy(matcher.dependencyMatcherData.treatments))
+                        : null,
+                matcher.booleanMatcherData,
+                matcher.stringMatcherData);
+    }
+
+    private static <T> List<T> copy(List<T> list) {
+        return list == null ? null : new ArrayList<>(list);
+    }
+
+    private static final class ConditionKey {
+        private final ConditionType _conditionType;
+        private final CombiningMatcher _matcher;
+        private final List<Partition> _partitions;
+        private final String _label;
+
+        private ConditionKey(ConditionType conditionType, CombiningMatcher matcher, List<Partition> partitions, String label) {
+            _conditionType = conditionType;
+            _matcher = matcher;
+            _partitions = partitions;
+            _label = label;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ConditionKey)) return false;
+            ConditionKey other = (ConditionKey) o;
+            // Matcher and partitions are interned.
+            return _conditionType == other._conditionType
+                    && _matcher == other._matcher
+                    && _partitions == other._partitions
+                    && Objects.equals(_label, other._label);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(_conditionType, System.identityHashCode(_matcher), System.identityHashCode(_partitions), _label);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io.split.engine.experiments;
 
 import com.google.common.collect.ImmutableList;
 import io.split.engine.matchers.AttributeMatcher;
+import io.split.engine.matchers.DependencyMatcher;
 import io.split.engine.matchers.UserDefinedSegmentMatcher;
 
 import java.util.HashSet;
@@ -228,6 +229,18 @@ public class ParsedSplit {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * @return the feature flags this one depends on through IN_SPLIT_TREATMENT matchers.
+     */
+    public Set<String> getDependencyNames() {
+        return parsedConditions().stream()
+                .flatMap(parsedCondition -> parsedCondition.matcher().attributeMatchers().stream())
+                .map(attributeMatcher -> ((AttributeMatcher.NegatableMatcher) attributeMatcher.matcher()).delegate())
+                .filter(matcher -> matcher instanceof DependencyMatcher)
+                .map(matcher -> ((DependencyMatcher) matcher).getFeatureFlag())
+                .collect(Collectors.toSet());
+    }
+
     private static boolean isSegmentMatcher(AttributeMatcher attributeMatcher) {
         return ((AttributeMatcher.NegatableMatcher) attributeMatcher.matcher()).delegate() instanceof UserDefinedSegmentMatcher;
     }
@@ -3,17 +3,21 @@ package io.split.engine.experiments;
 import io.split.client.dtos.SplitChange;
 import io.split.client.exceptions.UriTooLongException;
 import io.split.client.interceptors.FlagSetsFilter;
+import io.split.client.utils.FeatureFlagProcessor;
 import io.split.client.utils.FeatureFlagsToUpdate;
 import io.split.storages.SplitCacheProducer;
 import io.split.telemetry.domain.enums.LastSynchronizationRecordsEnum;
 import io.split.telemetry.storage.TelemetryRuntimeProducer;
 import io.split.engine.common.FetchOptions;
+import io.split.engine.common.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Consumer;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.split.client.utils.FeatureFlagProcessor.processFeatureFlagChanges;
 
@@ -28,10 +32,14 @@ public class SplitFetcherImp implements SplitFetcher {
 
     private final SplitParser _parser;
     private final SplitChangeFetcher _splitChangeFetcher;
+    private final StreamingSplitChangeFetcher _streamingSplitChangeFetcher;
     private final SplitCacheProducer _splitCacheProducer;
     private final Object _lock = new Object();
     private final TelemetryRuntimeProducer _telemetryRuntimeProducer;
     private final FlagSetsFilter _flagSetsFilter;
+    private final int _parallelParsingThreshold;
+    private final Consumer<String> _segmentListener;
+    private final SingleFlight<FetchOptions, FetchResult> _inFlight = new SingleFlight<>();
 
     /**
      * Contains all the traffic types that are currently being used by the splits and also the count
@@ -45,15 +53,62 @@ public class SplitFetcherImp implements SplitFetcher {
 
     public SplitFetcherImp(SplitChangeFetcher splitChangeFetcher, SplitParser parser, SplitCacheProducer splitCacheProducer,
                            TelemetryRuntimeProducer telemetryRuntimeProducer, FlagSetsFilter flagSetsFilter) {
+        this(splitChangeFetcher, parser, splitCacheProducer, telemetryRuntimeProducer, flagSetsFilter, 0);
+    }
+
+    /**
+     * @param parallelParsingThreshold number of flags in a change past which the rest are parsed in parallel, 0 to
+     *                                 parse them all on the synchronization thread.
+     */
+    public SplitFetcherImp(SplitChangeFetcher splitChangeFetcher, SplitParser parser, SplitCacheProducer splitCacheProducer,
+                           TelemetryRuntimeProducer telemetryRuntimeProducer, FlagSetsFilter flagSetsFilter,
+                           int parallelParsingThreshold) {
+        this(splitChangeFetcher, parser, splitCacheProducer, telemetryRuntimeProducer, flagSetsFilter, parallelParsingThreshold, null);
+    }
+
+    /**
+     * @param segmentListener given the segments of every feature flag as soon as it is parsed, before the change is
+     *                        applied, so that they can be fetched meanwhile. May be null.
+     */
+    public SplitFetcherImp(SplitChangeFetcher splitChangeFetcher, SplitParser parser, SplitCacheProducer splitCacheProducer,
+                           TelemetryRuntimeProducer telemetryRuntimeProducer, FlagSetsFilter flagSetsFilter,
+                           int parallelParsingThreshold, Consumer<String> segmentListener) {
+        checkArgument(parallelParsingThreshold >= 0, "parallelParsingThreshold must be >= 0: %s", parallelParsingThreshold);
         _splitChangeFetcher = checkNotNull(splitChangeFetcher);
+        _streamingSplitChangeFetcher = splitChangeFetcher instanceof StreamingSplitChangeFetcher
+                ? (StreamingSplitChangeFetcher) splitChangeFetcher
+                : null;
         _parser = checkNotNull(parser);
         _splitCacheProducer = checkNotNull(splitCacheProducer);
         _telemetryRuntimeProducer = checkNotNull(telemetryRuntimeProducer);
         _flagSetsFilter = flagSetsFilter;
+        _parallelParsingThreshold = parallelParsingThreshold;
+        _segmentListener = segmentListener;
     }
 
+    /**
+     * Concurrent refreshes with the same options and a target change number share a single fetch, which goes on until
+     * that change number is loaded. One asking for a change number that is already loaded returns without fetching.
+     * Refreshes without a target always fetch, since one already running may have started before they needed it.
+     */
     @Override
     public FetchResult forceRefresh(FetchOptions options) {
+        if (!options.hasCustomCN()) {
+            return refresh(options);
+        }
+        if (options.targetCN() <= _splitCacheProducer.getChangeNumber()) {
+            return new FetchResult(true, false, new HashSet<>());
+        }
+        try {
+            return _inFlight.run(options, () -> refresh(options));
+        } catch (InterruptedException e) {
+            _log.warn("Interrupted while waiting for an in-flight feature flags fetch");
+            Thread.currentThread().interrupt();
+            return new FetchResult(false, true, new HashSet<>());
+        }
+    }
+
+    private FetchResult refresh(FetchOptions options) {
         _log.debug("Force Refresh feature flags starting ...");
         final long INITIAL_CN = _splitCacheProducer.getChangeNumber();
         Set<String> segments = new HashSet<>();
@@ -95,6 +150,9 @@ public class SplitFetcherImp implements SplitFetcher {
     }
 
     private Set<String> runWithoutExceptionHandling(FetchOptions options) throws InterruptedException, UriTooLongException {
+        if (_streamingSplitChangeFetcher != null) {
+            return runStreaming(options);
+        }
         SplitChange change = _splitChangeFetcher.fetch(_splitCacheProducer.getChangeNumber(), options);
         Set<String> segments = new HashSet<>();
 
@@ -113,6 +171,9 @@ public class SplitFetcherImp implements SplitFetcher {
             return segments;
         }
 
+        // Parsing does not touch the shared state, only applying the result needs the lock.
+        FeatureFlagsToUpdate featureFlagsToUpdate = processFeatureFlagChanges(_parser, change.splits, _flagSetsFilter,
+                _parallelParsingThreshold, _segmentListener);
         synchronized (_lock) {
             // check state one more time.
             if (change.since != _splitCacheProducer.getChangeNumber()
@@ -120,11 +181,42 @@ public class SplitFetcherImp implements SplitFetcher {
                 // some other thread may have updated the shared state. exit
                 return segments;
             }
-            FeatureFlagsToUpdate featureFlagsToUpdate = processFeatureFlagChanges(_parser, change.splits, _flagSetsFilter);
             segments = featureFlagsToUpdate.getSegments();
             _splitCacheProducer.update(featureFlagsToUpdate.getToAdd(), featureFlagsToUpdate.getToRemove(), change.till);
             _telemetryRuntimeProducer.recordSuccessfulSync(LastSynchronizationRecordsEnum.SPLITS, System.currentTimeMillis());
         }
         return segments;
     }
+
+    /**
+     * Parses every feature flag while the response is still being read, and applies them all at once when it is
+     * complete. Only the parsed flags are kept meanwhile, never the raw response or the whole list of DTOs.
+     */
+    private Set<String> runStreaming(FetchOptions options) {
+        FeatureFlagProcessor.Accumulator staged = new FeatureFlagProcessor.Accumulator(_parser, _flagSetsFilter,
+                _parallelParsingThreshold, _segmentListener);
+        SplitChange change = _streamingSplitChangeFetcher.fetch(_splitCacheProducer.getChangeNumber(), options, staged);
+
+        if (change == null) {
+            throw new IllegalStateException("SplitChange was null");
+        }
+
+        FeatureFlagsToUpdate featureFlagsToUpdate = staged.toUpdate();
+        synchronized (_lock) {
+            if (change.since != _splitCacheProducer.getChangeNumber() || change.till < _splitCacheProducer.getChangeNumber()) {
+                // some other thread may have updated the shared state. exit
+                return new HashSet<>();
+            }
+
+            if (staged.count() == 0) {
+                // there are no changes. weird!
+                _splitCacheProducer.setChangeNumber(change.till);
+                return new HashSet<>();
+            }
+
+            _splitCacheProducer.update(featureFlagsToUpdate.getToAdd(), featureFlagsToUpdate.getToRemove(), change.till);
+            _telemetryRuntimeProducer.recordSuccessfulSync(LastSynchronizationRecordsEnum.SPLITS, System.currentTimeMillis());
+            return featureFlagsToUpdate.getSegments();
+        }
+    }
 }
\ No newline at end of file
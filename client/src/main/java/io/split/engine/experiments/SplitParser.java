@@ -4,7 +4,6 @@ import com.google.common.collect.Lists;
 import io.split.client.dtos.Condition;
 import io.split.client.dtos.Matcher;
 import io.split.client.dtos.MatcherGroup;
-import io.split.client.dtos.Partition;
 import io.split.client.dtos.Split;
 import io.split.engine.matchers.AllKeysMatcher;
 import io.split.engine.matchers.AttributeMatcher;
@@ -41,6 +40,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public final class SplitParser {
 
     private static final Logger _log = LoggerFactory.getLogger(SplitParser.class);
+    private static final ConditionInterner INTERNER = new ConditionInterner();
 
     public SplitParser() {
     }
@@ -58,9 +58,7 @@ public final class SplitParser {
         List<ParsedCondition> parsedConditionList = Lists.newArrayList();
 
         for (Condition condition : split.conditions) {
-            List<Partition> partitions = condition.partitions;
-            CombiningMatcher matcher = toMatcher(condition.matcherGroup);
-            parsedConditionList.add(new ParsedCondition(condition.conditionType, matcher, partitions, condition.label));
+            parsedConditionList.add(INTERNER.condition(condition, this::toMatcher));
         }
 
         return new ParsedSplit(split.name, split.seed, split.killed, split.defaultTreatment, parsedConditionList, split.trafficTypeName,
@@ -74,7 +72,7 @@ public final class SplitParser {
         List<AttributeMatcher> toCombine = Lists.newArrayList();
 
         for (io.split.client.dtos.Matcher matcher : matchers) {
-            toCombine.add(toMatcher(matcher));
+            toCombine.add(INTERNER.matcher(matcher, this::toMatcher));
         }
 
         return new CombiningMatcher(matcherGroup.combiner, toCombine);
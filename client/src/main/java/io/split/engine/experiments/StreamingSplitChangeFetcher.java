@@ -0,0 +1,22 @@
+package io.split.engine.experiments;
+
+import io.split.client.dtos.Split;
+import io.split.client.dtos.SplitChange;
+import io.split.engine.common.FetchOptions;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link SplitChangeFetcher} that can hand the feature flags of a change over one at a time, as they are read from
+ * the response, so that neither the raw response nor the whole list of DTOs has to be held in memory.
+ */
+public interface StreamingSplitChangeFetcher extends SplitChangeFetcher {
+
+    /**
+     * Same as {@link #fetch(long, FetchOptions)}, but every feature flag is passed to the consumer as soon as it is read.
+     *
+     * @return the since and till of the change; its splits are not kept and the list is left empty.
+     * @throws java.lang.RuntimeException if there was a problem computing split changes, or if the consumer threw.
+     */
+    SplitChange fetch(long since, FetchOptions options, Consumer<Split> consumer);
+}
@@ -68,6 +68,7 @@ public class BetweenMatcher implements Matcher {
         int result = 17;
         result = 31 * result + (int)(_start ^ (_start >>> 32));
         result = 31 * result + (int)(_end ^ (_end >>> 32));
+        result = 31 * result + (_dataType == null ? 0 : _dataType.hashCode());
         return result;
     }
 
@@ -79,7 +80,7 @@ public class BetweenMatcher implements Matcher {
 
         BetweenMatcher other = (BetweenMatcher) obj;
 
-        return _start == other._start && _end == other._end;
+        return _start == other._start && _end == other._end && _dataType == other._dataType;
     }
 
 }
@@ -5,6 +5,7 @@ import com.google.common.collect.Lists;
 import io.split.client.SplitClientImpl;
 import io.split.client.dtos.MatcherCombiner;
 import io.split.engine.evaluator.EvaluationContext;
+import io.split.engine.evaluator.EvaluationProfiler;
 import io.split.engine.evaluator.Evaluator;
 
 import java.util.List;
@@ -41,23 +42,38 @@ public class CombiningMatcher {
     }
 
     public boolean match(String key, String bucketingKey, Map<String, Object> attributes, EvaluationContext evaluationContext) {
+        return match(key, bucketingKey, attributes, evaluationContext, null);
+    }
+
+    /**
+     * @param profiler nullable, when set the time spent in every delegate is recorded on it.
+     */
+    public boolean match(String key, String bucketingKey, Map<String, Object> attributes, EvaluationContext evaluationContext,
+                         EvaluationProfiler profiler) {
         if (_delegates.isEmpty()) {
             return false;
         }
 
         switch (_combiner) {
             case AND:
-                return and(key, bucketingKey, attributes, evaluationContext);
+                return and(key, bucketingKey, attributes, evaluationContext, profiler);
             default:
                 throw new IllegalArgumentException("Unknown combiner: " + _combiner);
         }
 
     }
 
-    private boolean and(String key, String bucketingKey, Map<String, Object> attributes, EvaluationContext evaluationContext) {
+    private boolean and(String key, String bucketingKey, Map<String, Object> attributes, EvaluationContext evaluationContext,
+                        EvaluationProfiler profiler) {
         boolean result = true;
         for (AttributeMatcher delegate : _delegates) {
+            if (profiler == null) {
+                result &= (delegate.match(key, bucketingKey, attributes, evaluationContext));
+                continue;
+            }
+            long start = System.nanoTime();
             result &= (delegate.match(key, bucketingKey, attributes, evaluationContext));
+            profiler.recordMatcher(delegate.matcher(), System.nanoTime() - start);
         }
         return result;
     }
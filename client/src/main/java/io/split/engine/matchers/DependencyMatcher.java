@@ -60,4 +60,8 @@ public class DependencyMatcher implements Matcher {
         result = 31 * result + (_treatments != null ? _treatments.hashCode() : 0);
         return result;
     }
+
+    public String getFeatureFlag() {
+        return _featureFlag;
+    }
 }
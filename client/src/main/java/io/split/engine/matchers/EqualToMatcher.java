@@ -55,6 +55,7 @@ public class EqualToMatcher implements Matcher {
     public int hashCode() {
         int result = 17;
         result = 31 * result + (int)(_compareTo ^ (_compareTo >>> 32));
+        result = 31 * result + (_dataType == null ? 0 : _dataType.hashCode());
         return result;
     }
 
@@ -66,7 +67,7 @@ public class EqualToMatcher implements Matcher {
 
         EqualToMatcher other = (EqualToMatcher) obj;
 
-        return _compareTo == other._compareTo;
+        return _compareTo == other._compareTo && _dataType == other._dataType;
     }
 
 }
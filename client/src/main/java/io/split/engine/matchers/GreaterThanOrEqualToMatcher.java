@@ -58,6 +58,7 @@ public class GreaterThanOrEqualToMatcher implements Matcher {
     public int hashCode() {
         int result = 17;
         result = 31 * result + (int)(_compareTo ^ (_compareTo >>> 32));
+        result = 31 * result + (_dataType == null ? 0 : _dataType.hashCode());
         return result;
     }
 
@@ -69,7 +70,7 @@ public class GreaterThanOrEqualToMatcher implements Matcher {
 
         GreaterThanOrEqualToMatcher other = (GreaterThanOrEqualToMatcher) obj;
 
-        return _compareTo == other._compareTo;
+        return _compareTo == other._compareTo && _dataType == other._dataType;
     }
 
 }
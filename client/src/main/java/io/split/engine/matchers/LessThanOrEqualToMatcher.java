@@ -57,6 +57,7 @@ public class LessThanOrEqualToMatcher implements Matcher {
     public int hashCode() {
         int result = 17;
         result = 31 * result + (int)(_compareTo ^ (_compareTo >>> 32));
+        result = 31 * result + (_dataType == null ? 0 : _dataType.hashCode());
         return result;
     }
 
@@ -68,7 +69,7 @@ public class LessThanOrEqualToMatcher implements Matcher {
 
         LessThanOrEqualToMatcher other = (LessThanOrEqualToMatcher) obj;
 
-        return _compareTo == other._compareTo;
+        return _compareTo == other._compareTo && _dataType == other._dataType;
     }
 
 }
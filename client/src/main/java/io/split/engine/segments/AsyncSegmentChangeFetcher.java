@@ -0,0 +1,18 @@
+package io.split.engine.segments;
+
+import io.split.client.dtos.SegmentChange;
+import io.split.engine.common.FetchOptions;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A SegmentChangeFetcher that can also fetch without blocking the calling thread, so that all the segments can be
+ * fetched at once over a few connections instead of one thread per request in flight.
+ */
+public interface AsyncSegmentChangeFetcher extends SegmentChangeFetcher {
+    /**
+     * Same as {@link #fetch(String, long, FetchOptions)}; the returned future completes exceptionally where fetch
+     * would throw.
+     */
+    CompletableFuture<SegmentChange> fetchAsync(String segmentName, long changesSinceThisChangeNumber, FetchOptions options);
+}
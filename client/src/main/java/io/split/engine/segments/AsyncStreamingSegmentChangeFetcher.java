@@ -0,0 +1,23 @@
+package io.split.engine.segments;
+
+import io.split.client.dtos.SegmentChange;
+import io.split.engine.common.FetchOptions;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * An {@link AsyncSegmentChangeFetcher} that can also hand the added keys of a change over one at a time, as
+ * {@link StreamingSegmentChangeFetcher} does, so that the first page of a huge segment is not held as a list.
+ */
+public interface AsyncStreamingSegmentChangeFetcher extends AsyncSegmentChangeFetcher {
+
+    /**
+     * Same as {@link #fetchAsync(String, long, FetchOptions)}, but every added key is passed to the consumer as it is
+     * read, before the returned future completes.
+     *
+     * @return the change, with its added keys not kept and the list left empty.
+     */
+    CompletableFuture<SegmentChange> fetchAsync(String segmentName, long changesSinceThisChangeNumber, FetchOptions options,
+                                                Consumer<String> addedConsumer);
+}
@@ -2,6 +2,8 @@ package io.split.engine.segments;
 
 import io.split.engine.common.FetchOptions;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Created by adilaijaz on 5/7/15.
  */
@@ -11,5 +13,10 @@ public interface SegmentFetcher {
      */
     boolean fetch(FetchOptions opts);
 
+    /**
+     * Same as fetch, without blocking the calling thread when the segment changes can be fetched asynchronously.
+     */
+    CompletableFuture<Boolean> fetchAsync(FetchOptions opts);
+
     boolean runWhitCacheHeader();
 }
@@ -1,15 +1,23 @@
 package io.split.engine.segments;
 
 import io.split.client.dtos.SegmentChange;
+import io.split.storages.SegmentCacheBulkProducer;
 import io.split.storages.SegmentCacheProducer;
 import io.split.telemetry.domain.enums.LastSynchronizationRecordsEnum;
 import io.split.telemetry.storage.TelemetryRuntimeProducer;
 import io.split.engine.common.FetchOptions;
+import io.split.engine.common.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -18,25 +26,79 @@ public class SegmentFetcherImp implements SegmentFetcher {
 
     private final String _segmentName;
     private final SegmentChangeFetcher _segmentChangeFetcher;
+    private final AsyncSegmentChangeFetcher _asyncSegmentChangeFetcher;
+    private final StreamingSegmentChangeFetcher _streamingSegmentChangeFetcher;
+    private final AsyncStreamingSegmentChangeFetcher _asyncStreamingSegmentChangeFetcher;
     private final SegmentCacheProducer _segmentCacheProducer;
+    private final SegmentCacheBulkProducer _segmentCacheBulkProducer;
     private final TelemetryRuntimeProducer _telemetryRuntimeProducer;
+    private final Consumer<String> _readyListener;
+    private final AtomicBoolean _ready = new AtomicBoolean(false);
+    private final SingleFlight<FetchOptions, Boolean> _inFlight = new SingleFlight<>();
 
     private final Object _lock = new Object();
 
     public SegmentFetcherImp(String segmentName, SegmentChangeFetcher segmentChangeFetcher, SegmentCacheProducer segmentCacheProducer,
                              TelemetryRuntimeProducer telemetryRuntimeProducer) {
+        this(segmentName, segmentChangeFetcher, segmentCacheProducer, telemetryRuntimeProducer, null);
+    }
+
+    /**
+     * @param readyListener told the segment name once, after the first successful fetch. May be null.
+     */
+    public SegmentFetcherImp(String segmentName, SegmentChangeFetcher segmentChangeFetcher, SegmentCacheProducer segmentCacheProducer,
+                             TelemetryRuntimeProducer telemetryRuntimeProducer, Consumer<String> readyListener) {
         _segmentName = checkNotNull(segmentName);
         _segmentChangeFetcher = checkNotNull(segmentChangeFetcher);
+        _asyncSegmentChangeFetcher = segmentChangeFetcher instanceof AsyncSegmentChangeFetcher
+                ? (AsyncSegmentChangeFetcher) segmentChangeFetcher
+                : null;
+        _streamingSegmentChangeFetcher = segmentChangeFetcher instanceof StreamingSegmentChangeFetcher
+                ? (StreamingSegmentChangeFetcher) segmentChangeFetcher
+                : null;
+        _asyncStreamingSegmentChangeFetcher = segmentChangeFetcher instanceof AsyncStreamingSegmentChangeFetcher
+                ? (AsyncStreamingSegmentChangeFetcher) segmentChangeFetcher
+                : null;
         _segmentCacheProducer = checkNotNull(segmentCacheProducer);
+        _segmentCacheBulkProducer = segmentCacheProducer instanceof SegmentCacheBulkProducer
+                ? (SegmentCacheBulkProducer) segmentCacheProducer
+                : null;
         _telemetryRuntimeProducer = checkNotNull(telemetryRuntimeProducer);
+        _readyListener = readyListener;
 
         _segmentCacheProducer.updateSegment(segmentName, new ArrayList<>(), new ArrayList<>(), -1L);
     }
 
+    /**
+     * Concurrent fetches with the same options and a target change number share a single one. One asking for a change
+     * number that is already loaded returns without fetching. Fetches without a target always fetch, since one already
+     * running may have started before they needed it.
+     */
     @Override
     public boolean fetch(FetchOptions opts){
+        if (!opts.hasCustomCN()) {
+            return fetchNow(opts);
+        }
+        if (isSatisfied(opts)) {
+            return true;
+        }
+        try {
+            return _inFlight.run(opts, () -> fetchNow(opts));
+        } catch (InterruptedException e) {
+            _log.warn(String.format("Interrupted while waiting for an in-flight fetch of segment %s", _segmentName));
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean fetchNow(FetchOptions opts) {
         try {
             final long INITIAL_CN = _segmentCacheProducer.getChangeNumber(_segmentName);
+            if (INITIAL_CN == -1L && _segmentCacheBulkProducer != null) {
+                bulkLoad(opts);
+                notifyReady();
+                return true;
+            }
             while (true) {
                 long start = _segmentCacheProducer.getChangeNumber(_segmentName);
                 runWithoutExceptionHandling(opts);
@@ -48,6 +110,7 @@ public class SegmentFetcherImp implements SegmentFetcher {
                     break;
                 }
             }
+            notifyReady();
             return true;
         } catch (Exception e){
             _log.error("RefreshableSegmentFetcher failed: " + e.getMessage());
@@ -58,12 +121,164 @@ public class SegmentFetcherImp implements SegmentFetcher {
         }
     }
 
+    /**
+     * Same as {@link #fetch(FetchOptions)}, but when the SegmentChangeFetcher is asynchronous no thread waits for the
+     * responses: each one is applied, and the next request sent if the segment is not up to date yet, by the thread
+     * that completes it.
+     */
+    @Override
+    public CompletableFuture<Boolean> fetchAsync(FetchOptions opts) {
+        if (_asyncSegmentChangeFetcher == null) {
+            return CompletableFuture.completedFuture(fetch(opts));
+        }
+        if (!opts.hasCustomCN()) {
+            return fetchAsyncNow(opts);
+        }
+        if (isSatisfied(opts)) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return _inFlight.runAsync(opts, () -> fetchAsyncNow(opts));
+    }
+
+    private CompletableFuture<Boolean> fetchAsyncNow(FetchOptions opts) {
+        long initialChangeNumber = _segmentCacheProducer.getChangeNumber(_segmentName);
+        CompletableFuture<Void> fetch = initialChangeNumber == -1L && _segmentCacheBulkProducer != null
+                ? bulkLoadAsync(opts, -1L, null)
+                : fetchAsync(opts, initialChangeNumber);
+        return fetch
+                .handle((result, e) -> {
+                    if (e == null) {
+                        notifyReady();
+                        return true;
+                    }
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    _log.error("RefreshableSegmentFetcher failed: " + cause.getMessage());
+                    if (_log.isDebugEnabled()) {
+                        _log.debug("Reason:", cause);
+                    }
+                    return false;
+                });
+    }
+
+    private CompletableFuture<Void> fetchAsync(FetchOptions options, long initialChangeNumber) {
+        if (_log.isDebugEnabled()) {
+            _log.debug(String.format("Synchronizing segment %s", _segmentName));
+        }
+        long start = _segmentCacheProducer.getChangeNumber(_segmentName);
+        return _asyncSegmentChangeFetcher.fetchAsync(_segmentName, start, options)
+                .thenCompose(change -> {
+                    apply(change);
+                    if (start >= _segmentCacheProducer.getChangeNumber(_segmentName)) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    FetchOptions next = initialChangeNumber == start
+                            ? new FetchOptions.Builder(options).targetChangeNumber(FetchOptions.DEFAULT_TARGET_CHANGENUMBER).build()
+                            : options;
+                    return fetchAsync(next, initialChangeNumber);
+                });
+    }
+
+    /**
+     * First load of the segment: all the pages are accumulated into a set off to the side, presized when the size is
+     * known, and handed to the cache once up to date, so that no reader sees a partially loaded segment. The added keys
+     * of the first page, the snapshot itself, are streamed into the set when the fetcher supports it.
+     */
+    private void bulkLoad(FetchOptions options) {
+        if (_log.isDebugEnabled()) {
+            _log.debug(String.format("Bulk loading segment %s", _segmentName));
+        }
+        Set<String> keys = null;
+        long since = -1L;
+        while (true) {
+            SegmentChange change;
+            if (keys == null && _streamingSegmentChangeFetcher != null) {
+                Set<String> streamed = ConcurrentHashMap.newKeySet();
+                change = _streamingSegmentChangeFetcher.fetch(_segmentName, since, options, streamed::add);
+                if (!isNextPage(change, since)) {
+                    break;
+                }
+                // The set was empty before this page, so its removals have nothing to remove.
+                keys = streamed;
+            } else {
+                change = _segmentChangeFetcher.fetch(_segmentName, since, options);
+                if (!isNextPage(change, since)) {
+                    break;
+                }
+                keys = accumulate(keys, change);
+            }
+            if (change.till <= since) {
+                break;
+            }
+            since = change.till;
+            options = new FetchOptions.Builder(options).targetChangeNumber(FetchOptions.DEFAULT_TARGET_CHANGENUMBER).build();
+        }
+        publish(keys, since);
+    }
+
+    private CompletableFuture<Void> bulkLoadAsync(FetchOptions options, long since, Set<String> keys) {
+        Set<String> streamed = keys == null && _asyncStreamingSegmentChangeFetcher != null ? ConcurrentHashMap.newKeySet() : null;
+        CompletableFuture<SegmentChange> fetched = streamed != null
+                ? _asyncStreamingSegmentChangeFetcher.fetchAsync(_segmentName, since, options, streamed::add)
+                : _asyncSegmentChangeFetcher.fetchAsync(_segmentName, since, options);
+        return fetched
+                .thenCompose(change -> {
+                    if (!isNextPage(change, since)) {
+                        publish(keys, since);
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    // A streamed page is the first one: the set was empty before it, so its removals have nothing to remove.
+                    Set<String> accumulated = streamed != null ? streamed : accumulate(keys, change);
+                    if (change.till <= since) {
+                        publish(accumulated, since);
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return bulkLoadAsync(new FetchOptions.Builder(options).targetChangeNumber(FetchOptions.DEFAULT_TARGET_CHANGENUMBER).build(),
+                            change.till, accumulated);
+                });
+    }
+
+    /**
+     * @return false when the change does not continue from since, in which case there is nothing more to load.
+     */
+    private boolean isNextPage(SegmentChange change, long since) {
+        if (change == null) {
+            throw new IllegalStateException("SegmentChange was null");
+        }
+        return change.since == since;
+    }
+
+    private static Set<String> accumulate(Set<String> keys, SegmentChange change) {
+        if (keys == null) {
+            keys = ConcurrentHashMap.newKeySet(change.added.size());
+        }
+        keys.removeAll(change.removed);
+        keys.addAll(change.added);
+        return keys;
+    }
+
+    private void publish(Set<String> keys, long changeNumber) {
+        if (keys == null) {
+            return;
+        }
+        synchronized (_lock) {
+            if (_segmentCacheProducer.getChangeNumber(_segmentName) != -1L) {
+                // some other thread loaded the segment meanwhile. keep theirs.
+                return;
+            }
+            _segmentCacheBulkProducer.replaceSegment(_segmentName, keys, changeNumber);
+            _log.info(String.format("%s loaded with %s keys", _segmentName, keys.size()));
+            _telemetryRuntimeProducer.recordSuccessfulSync(LastSynchronizationRecordsEnum.SEGMENTS, System.currentTimeMillis());
+        }
+    }
+
     private void runWithoutExceptionHandling(FetchOptions options) {
         if (_log.isDebugEnabled()) {
             _log.debug(String.format("Synchronizing segment %s", _segmentName));
         }
-        SegmentChange change = _segmentChangeFetcher.fetch(_segmentName, _segmentCacheProducer.getChangeNumber(_segmentName), options);
+        apply(_segmentChangeFetcher.fetch(_segmentName, _segmentCacheProducer.getChangeNumber(_segmentName), options));
+    }
 
+    private void apply(SegmentChange change) {
         if (change == null) {
             throw new IllegalStateException("SegmentChange was null");
         }
@@ -121,6 +336,16 @@ public class SegmentFetcherImp implements SegmentFetcher {
         return bldr.toString();
     }
 
+    private boolean isSatisfied(FetchOptions opts) {
+        return opts.hasCustomCN() && opts.targetCN() <= _segmentCacheProducer.getChangeNumber(_segmentName);
+    }
+
+    private void notifyReady() {
+        if (_readyListener != null && !_ready.get() && _ready.compareAndSet(false, true)) {
+            _readyListener.accept(_segmentName);
+        }
+    }
+
     @Override
     public boolean runWhitCacheHeader(){
        return this.fetch(new FetchOptions.Builder().cacheControlHeaders(true).build());
@@ -1,15 +1,18 @@
 package io.split.engine.segments;
 
-import java.util.Collections;
+import com.google.common.annotations.VisibleForTesting;
+
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class SegmentImp{
+    /* package private */ static final int REBUILD_THRESHOLD = 10000;
+
     private final String _name;
     private final AtomicLong _changeNumber;
-    private Set<String> _concurrentKeySet = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private volatile Set<String> _concurrentKeySet = ConcurrentHashMap.newKeySet();
 
     public SegmentImp(long changeNumber, String name) {
         _name = name;
@@ -33,9 +36,30 @@ public class SegmentImp{
         _changeNumber.set(changeNumber);
     }
 
-    public void update(List<String> toAdd, List<String> toRemove, long changeNumber){
-        _concurrentKeySet.removeAll(toRemove);
-        _concurrentKeySet.addAll(toAdd);
+    /**
+     * Large additions, at least REBUILD_THRESHOLD keys and as many as the segment already has, are applied to a
+     * presized copy that replaces the current keys at once, instead of growing the live set key by key.
+     */
+    public synchronized void update(List<String> toAdd, List<String> toRemove, long changeNumber){
+        Set<String> keys = _concurrentKeySet;
+        if (toAdd.size() >= REBUILD_THRESHOLD && toAdd.size() >= keys.size()) {
+            Set<String> rebuilt = ConcurrentHashMap.newKeySet(keys.size() + toAdd.size());
+            rebuilt.addAll(keys);
+            rebuilt.removeAll(toRemove);
+            rebuilt.addAll(toAdd);
+            replace(rebuilt, changeNumber);
+            return;
+        }
+        keys.removeAll(toRemove);
+        keys.addAll(toAdd);
+        _changeNumber.set(changeNumber);
+    }
+
+    /**
+     * Swaps in a whole new set of keys. The set is kept as is and must be safe for concurrent use.
+     */
+    public synchronized void replace(Set<String> keys, long changeNumber) {
+        _concurrentKeySet = keys;
         _changeNumber.set(changeNumber);
     }
 
@@ -46,4 +70,9 @@ public class SegmentImp{
     public long getKeysSize() {
         return _concurrentKeySet.size();
     }
+
+    @VisibleForTesting
+    /* package private */ Set<String> keys() {
+        return _concurrentKeySet;
+    }
 }
@@ -0,0 +1,85 @@
+package io.split.engine.segments;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Per-segment polling intervals. Every segment starts at the base interval; it is halved each time a fetch brings
+ * changes and grows by half each time it brings none, within [min, max]. Each next fetch time is spread by a random
+ * jitter so that SDKs started together do not keep polling in lockstep.
+ */
+/* package private */ final class SegmentRefreshSchedule {
+    /* package private */ static final double DEFAULT_JITTER = 0.1;
+
+    private final long _minMillis;
+    private final long _baseMillis;
+    private final long _maxMillis;
+    private final double _jitter;
+    private final ConcurrentMap<String, Entry> _entries = Maps.newConcurrentMap();
+
+    SegmentRefreshSchedule(long minMillis, long baseMillis, long maxMillis, double jitter) {
+        checkArgument(minMillis > 0 && minMillis <= baseMillis && baseMillis <= maxMillis,
+                "expected 0 < min <= base <= max: %s, %s, %s", minMillis, baseMillis, maxMillis);
+        checkArgument(jitter >= 0 && jitter < 1, "jitter must be in [0, 1): %s", jitter);
+        _minMillis = minMillis;
+        _baseMillis = baseMillis;
+        _maxMillis = maxMillis;
+        _jitter = jitter;
+    }
+
+    /**
+     * Segments that were never fetched are always due.
+     */
+    boolean isDue(String segmentName, long nowMillis) {
+        Entry entry = _entries.get(segmentName);
+        return entry == null || entry._nextFetchMillis <= nowMillis;
+    }
+
+    /**
+     * Adapts the interval of the segment to the outcome of a fetch and schedules the next one. Failed fetches count as
+     * fetches without changes, so a failing backend is polled less often.
+     */
+    void onFetched(String segmentName, boolean changed, long nowMillis) {
+        _entries.compute(segmentName, (name, entry) -> {
+            long interval = entry == null ? _baseMillis : entry._intervalMillis;
+            interval = changed ? Math.max(_minMillis, interval / 2) : Math.min(_maxMillis, interval + interval / 2);
+            return new Entry(interval, nowMillis + jittered(interval));
+        });
+    }
+
+    /**
+     * Goes back to the base interval, starting now. Used when streaming notifies a change of the segment.
+     */
+    void reset(String segmentName, long nowMillis) {
+        _entries.put(segmentName, new Entry(_baseMillis, nowMillis + jittered(_baseMillis)));
+    }
+
+    @VisibleForTesting
+    long intervalMillis(String segmentName) {
+        Entry entry = _entries.get(segmentName);
+        return entry == null ? _baseMillis : entry._intervalMillis;
+    }
+
+    private long jittered(long intervalMillis) {
+        if (_jitter == 0) {
+            return intervalMillis;
+        }
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-_jitter, _jitter);
+        return (long) (intervalMillis * factor);
+    }
+
+    private static final class Entry {
+        private final long _intervalMillis;
+        private final long _nextFetchMillis;
+
+        private Entry(long intervalMillis, long nextFetchMillis) {
+            _intervalMillis = intervalMillis;
+            _nextFetchMillis = nextFetchMillis;
+        }
+    }
+}
@@ -36,5 +36,13 @@ public interface SegmentSynchronizationTask extends SyncTask {
      * fetch every Segment Synchronous
      */
     boolean fetchAllSynchronous();
+
+    /**
+     * Brings the polling interval of the segment back to its base value, when segments are polled on adaptive
+     * intervals. Called when streaming notifies a change of the segment.
+     * @param segmentName
+     */
+    void resetRefreshInterval(String segmentName);
+
     void close();
 }
@@ -1,5 +1,6 @@
 package io.split.engine.segments;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
 import io.split.client.utils.SplitExecutorFactory;
 import io.split.engine.common.FetchOptions;
@@ -21,6 +22,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -30,30 +32,67 @@ public class SegmentSynchronizationTaskImp implements SegmentSynchronizationTask
     private static final Logger _log = LoggerFactory.getLogger(SegmentSynchronizationTaskImp.class);
 
     private final SegmentChangeFetcher _segmentChangeFetcher;
+    private final boolean _asyncFetches;
     private final AtomicLong _refreshEveryNSeconds;
     private final AtomicBoolean _running;
     private final Object _lock = new Object();
     private final ConcurrentMap<String, SegmentFetcher> _segmentFetchers = Maps.newConcurrentMap();
+    private final ConcurrentMap<String, Future<Boolean>> _startupFetches = Maps.newConcurrentMap();
+    private final AtomicBoolean _initialFetchDone = new AtomicBoolean(false);
     private final SegmentCacheProducer _segmentCacheProducer;
     private final ScheduledExecutorService _scheduledExecutorService;
     private final TelemetryRuntimeProducer _telemetryRuntimeProducer;
     private final SplitCacheConsumer _splitCacheConsumer;
+    private final long _minRefreshSeconds;
+    private final SegmentRefreshSchedule _schedule;
+    private final Consumer<String> _segmentReadyListener;
 
     private ScheduledFuture<?> _scheduledFuture;
 
     public SegmentSynchronizationTaskImp(SegmentChangeFetcher segmentChangeFetcher, long refreshEveryNSeconds, int numThreads,
                                          SegmentCacheProducer segmentCacheProducer, TelemetryRuntimeProducer telemetryRuntimeProducer,
                                          SplitCacheConsumer splitCacheConsumer, ThreadFactory threadFactory) {
+        this(segmentChangeFetcher, refreshEveryNSeconds, refreshEveryNSeconds, refreshEveryNSeconds, numThreads, segmentCacheProducer,
+                telemetryRuntimeProducer, splitCacheConsumer, threadFactory);
+    }
+
+    /**
+     * When minRefreshSeconds < maxRefreshSeconds each segment is polled on its own adaptive interval, starting at
+     * refreshEveryNSeconds, instead of all of them every refreshEveryNSeconds. See {@link SegmentRefreshSchedule}.
+     */
+    public SegmentSynchronizationTaskImp(SegmentChangeFetcher segmentChangeFetcher, long refreshEveryNSeconds, long minRefreshSeconds,
+                                         long maxRefreshSeconds, int numThreads, SegmentCacheProducer segmentCacheProducer,
+                                         TelemetryRuntimeProducer telemetryRuntimeProducer, SplitCacheConsumer splitCacheConsumer,
+                                         ThreadFactory threadFactory) {
+        this(segmentChangeFetcher, refreshEveryNSeconds, minRefreshSeconds, maxRefreshSeconds, numThreads, segmentCacheProducer,
+                telemetryRuntimeProducer, splitCacheConsumer, threadFactory, null);
+    }
+
+    /**
+     * @param segmentReadyListener told the name of each segment once it has been fetched successfully for the first
+     *                             time. May be null.
+     */
+    public SegmentSynchronizationTaskImp(SegmentChangeFetcher segmentChangeFetcher, long refreshEveryNSeconds, long minRefreshSeconds,
+                                         long maxRefreshSeconds, int numThreads, SegmentCacheProducer segmentCacheProducer,
+                                         TelemetryRuntimeProducer telemetryRuntimeProducer, SplitCacheConsumer splitCacheConsumer,
+                                         ThreadFactory threadFactory, Consumer<String> segmentReadyListener) {
         _segmentChangeFetcher = checkNotNull(segmentChangeFetcher);
+        _asyncFetches = segmentChangeFetcher instanceof AsyncSegmentChangeFetcher;
 
         checkArgument(refreshEveryNSeconds >= 0L);
         _refreshEveryNSeconds = new AtomicLong(refreshEveryNSeconds);
+        _minRefreshSeconds = minRefreshSeconds;
+        _schedule = minRefreshSeconds < maxRefreshSeconds
+                ? new SegmentRefreshSchedule(TimeUnit.SECONDS.toMillis(minRefreshSeconds), TimeUnit.SECONDS.toMillis(refreshEveryNSeconds),
+                        TimeUnit.SECONDS.toMillis(maxRefreshSeconds), SegmentRefreshSchedule.DEFAULT_JITTER)
+                : null;
         _scheduledExecutorService = SplitExecutorFactory.buildScheduledExecutorService(threadFactory, "split-segmentFetcher-" + "%d", numThreads);
         _running = new AtomicBoolean(false);
 
         _segmentCacheProducer = checkNotNull(segmentCacheProducer);
         _telemetryRuntimeProducer = checkNotNull(telemetryRuntimeProducer);
         _splitCacheConsumer = checkNotNull(splitCacheConsumer);
+        _segmentReadyListener = segmentReadyListener;
     }
 
     public void initializeSegment(String segmentName) {
@@ -71,16 +110,41 @@ public class SegmentSynchronizationTaskImp implements SegmentSynchronizationTask
                 return;
             }
 
-            SegmentFetcher newSegment = new SegmentFetcherImp(segmentName, _segmentChangeFetcher, _segmentCacheProducer, _telemetryRuntimeProducer);
+            SegmentFetcher newSegment = new SegmentFetcherImp(segmentName, _segmentChangeFetcher, _segmentCacheProducer, _telemetryRuntimeProducer,
+                    _segmentReadyListener);
 
             if (_running.get()) {
-                _scheduledExecutorService.submit(() -> newSegment.fetch(new FetchOptions.Builder().build()));
+                if (_asyncFetches) {
+                    newSegment.fetchAsync(new FetchOptions.Builder().build());
+                } else {
+                    _scheduledExecutorService.submit(() -> newSegment.fetch(new FetchOptions.Builder().build()));
+                }
             }
 
             _segmentFetchers.putIfAbsent(segmentName, newSegment);
         }
     }
 
+    /**
+     * Called as feature flags are parsed, so that unknown segments start being fetched right away instead of after the
+     * whole feature flags change. Only until the first fetchAllSynchronous completes, which waits for these fetches
+     * instead of issuing its own; afterwards the synchronizer fetches the segments of updated feature flags itself.
+     */
+    public void onSegmentReferenced(String segmentName) {
+        if (_initialFetchDone.get() || _segmentFetchers.containsKey(segmentName)) {
+            return;
+        }
+        synchronized (_lock) {
+            if (_initialFetchDone.get() || _segmentFetchers.containsKey(segmentName)) {
+                return;
+            }
+            SegmentFetcher newSegment = new SegmentFetcherImp(segmentName, _segmentChangeFetcher, _segmentCacheProducer, _telemetryRuntimeProducer,
+                    _segmentReadyListener);
+            _startupFetches.put(segmentName, fetchWithCacheHeader(newSegment));
+            _segmentFetchers.putIfAbsent(segmentName, newSegment);
+        }
+    }
+
     public SegmentFetcher getFetcher(String segmentName) {
         initializeSegment(segmentName);
 
@@ -95,11 +159,23 @@ public class SegmentSynchronizationTaskImp implements SegmentSynchronizationTask
         }
 
         _log.debug("Starting PeriodicFetching Segments ...");
+        if (_schedule != null) {
+            // Ticks at the shortest interval a segment can have, and only fetches the segments that are due.
+            _scheduledFuture = _scheduledExecutorService.scheduleWithFixedDelay(this::fetchDue, 0L, _minRefreshSeconds, TimeUnit.SECONDS);
+            return;
+        }
         _scheduledFuture = _scheduledExecutorService.scheduleWithFixedDelay(() -> {
                 fetchAll(false);
             }, 0L, _refreshEveryNSeconds.get(), TimeUnit.SECONDS);
     }
 
+    @Override
+    public void resetRefreshInterval(String segmentName) {
+        if (_schedule != null) {
+            _schedule.reset(segmentName, System.currentTimeMillis());
+        }
+    }
+
     @Override
     public void stop() {
         if (!_running.getAndSet(false) || _scheduledFuture == null) {
@@ -144,6 +220,11 @@ public class SegmentSynchronizationTaskImp implements SegmentSynchronizationTask
                 continue;
             }
 
+            if (_asyncFetches) {
+                fetcher.fetchAsync(new FetchOptions.Builder().cacheControlHeaders(addCacheHeader).build());
+                continue;
+            }
+
             if(addCacheHeader) {
                 _scheduledExecutorService.submit(fetcher::runWhitCacheHeader);
                 continue;
@@ -153,10 +234,50 @@ public class SegmentSynchronizationTaskImp implements SegmentSynchronizationTask
         }
     }
 
+    @VisibleForTesting
+    /* package private */ void fetchDue() {
+        _splitCacheConsumer.getSegments().forEach(this::initialize);
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, SegmentFetcher> entry : _segmentFetchers.entrySet()) {
+            String segmentName = entry.getKey();
+            SegmentFetcher fetcher = entry.getValue();
+            if (fetcher == null || !_schedule.isDue(segmentName, now)) {
+                continue;
+            }
+
+            long changeNumber = _segmentCacheProducer.getChangeNumber(segmentName);
+            if (_asyncFetches) {
+                fetcher.fetchAsync(new FetchOptions.Builder().build())
+                        .thenAccept(success -> onFetched(segmentName, changeNumber, success));
+                continue;
+            }
+
+            _scheduledExecutorService.submit(() ->
+                    onFetched(segmentName, changeNumber, fetcher.fetch(new FetchOptions.Builder().build())));
+        }
+    }
+
+    private void onFetched(String segmentName, long previousChangeNumber, boolean success) {
+        boolean changed = success && _segmentCacheProducer.getChangeNumber(segmentName) != previousChangeNumber;
+        _schedule.onFetched(segmentName, changed, System.currentTimeMillis());
+    }
+
+    @VisibleForTesting
+    /* package private */ SegmentRefreshSchedule getSchedule() {
+        return _schedule;
+    }
+
     public boolean fetchAllSynchronous() {
+        synchronized (_lock) {
+            // no fetch started by onSegmentReferenced can be left behind once this is set.
+            _initialFetchDone.set(true);
+        }
         _splitCacheConsumer.getSegments().forEach(this::initialize);
         List<Future<Boolean>> segmentFetchExecutions = _segmentFetchers.entrySet()
-                .stream().map(e -> _scheduledExecutorService.submit(e.getValue()::runWhitCacheHeader))
+                .stream().map(e -> {
+                    Future<Boolean> started = _startupFetches.remove(e.getKey());
+                    return started != null ? started : fetchWithCacheHeader(e.getValue());
+                })
                 .collect(Collectors.toList());
         int failures = segmentFetchExecutions.stream()
                 .mapToInt(f -> {
@@ -173,6 +294,13 @@ public class SegmentSynchronizationTaskImp implements SegmentSynchronizationTask
         return failures == 0;
     }
 
+    private Future<Boolean> fetchWithCacheHeader(SegmentFetcher fetcher) {
+        if (_asyncFetches) {
+            return fetcher.fetchAsync(new FetchOptions.Builder().cacheControlHeaders(true).build());
+        }
+        return _scheduledExecutorService.submit(fetcher::runWhitCacheHeader);
+    }
+
     private void initialize(String segmentName) {
         SegmentFetcher segment = _segmentFetchers.get(segmentName);
         if (segment != null) {
@@ -187,7 +315,8 @@ public class SegmentSynchronizationTaskImp implements SegmentSynchronizationTask
                 return;
             }
 
-            segment = new SegmentFetcherImp(segmentName, _segmentChangeFetcher, _segmentCacheProducer, _telemetryRuntimeProducer);
+            segment = new SegmentFetcherImp(segmentName, _segmentChangeFetcher, _segmentCacheProducer, _telemetryRuntimeProducer,
+                    _segmentReadyListener);
 
             _segmentFetchers.putIfAbsent(segmentName, segment);
         }
@@ -0,0 +1,22 @@
+package io.split.engine.segments;
+
+import io.split.client.dtos.SegmentChange;
+import io.split.engine.common.FetchOptions;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link SegmentChangeFetcher} that can hand the added keys of a change over one at a time, as they are read from the
+ * response, so that huge snapshots never have to be held as a list.
+ */
+public interface StreamingSegmentChangeFetcher extends SegmentChangeFetcher {
+
+    /**
+     * Same as {@link #fetch(String, long, FetchOptions)}, but every added key is passed to the consumer as soon as it
+     * is read.
+     *
+     * @return the change, with its added keys not kept and the list left empty.
+     * @throws java.lang.RuntimeException if there was a problem fetching segment changes, or if the consumer threw.
+     */
+    SegmentChange fetch(String segmentName, long changesSinceThisChangeNumber, FetchOptions options, Consumer<String> addedConsumer);
+}
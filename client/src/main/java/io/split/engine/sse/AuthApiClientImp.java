@@ -37,7 +37,7 @@ public class AuthApiClientImp implements AuthApiClient {
     @Override
     public AuthenticationResponse Authenticate() {
         try {
-            long initTime = System.currentTimeMillis();
+            long initTime = System.nanoTime();
             URI uri = new URIBuilder(_target).build();
             HttpGet request = new HttpGet(uri);
 
@@ -54,7 +54,7 @@ public class AuthApiClientImp implements AuthApiClient {
                 String jsonContent = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
                 _telemetryRuntimeProducer.recordTokenRefreshes();
                 _telemetryRuntimeProducer.recordSuccessfulSync(LastSynchronizationRecordsEnum.TOKEN, System.currentTimeMillis());
-                _telemetryRuntimeProducer.recordSyncLatency(HTTPLatenciesEnum.TOKEN, System.currentTimeMillis()-initTime);
+                _telemetryRuntimeProducer.recordSyncLatency(HTTPLatenciesEnum.TOKEN, System.nanoTime() - initTime);
                 return getSuccessResponse(jsonContent);
             }
 
@@ -6,12 +6,21 @@ import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 public class EventsValidator {
     private static final Logger _log = LoggerFactory.getLogger(EventsValidator.class);
     public static final Pattern EVENT_TYPE_MATCHER = Pattern.compile("^[a-zA-Z0-9][-_.:a-zA-Z0-9]{0,79}$");
-
+    /* package private */ static final int MAX_MEMOIZED_EVENT_TYPES = 1000;
+    // Event types already matched against EVENT_TYPE_MATCHER. Applications track a handful of them.
+    private static final Set<String> VALID_EVENT_TYPES = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Computes the size of the properties and, only when some of them have to be dropped or nulled out, copies them.
+     * Otherwise the map passed in is returned as is.
+     */
     public static EventValidatorResult propertiesAreValid(Map<String, Object> properties) {
         int size = 1024; // We assume 1kb events without properties (750 bytes avg measured)
 
@@ -23,22 +32,20 @@ public class EventsValidator {
             _log.warn("Event has more than 300 properties. Some of them will be trimmed when processed");
         }
 
-        Map<String, Object> result = new HashMap<>();
+        boolean needsRewrite = false;
         for (Map.Entry<String, Object> entry : properties.entrySet()) {
             if (entry.getKey() == null || entry.getKey().isEmpty()) {
-              continue;
+                needsRewrite = true;
+                continue;
             }
 
             size += entry.getKey().length();
             Object value = entry.getValue();
 
-            if (!(value instanceof Number) && !(value instanceof Boolean) && !(value instanceof String)) {
-                _log.warn(String.format("Property %s is of invalid type. Setting value to null", entry.getKey()));
-                value = null;
-            }
-
             if (value instanceof String) {
                 size += ((String) value).length();
+            } else if (value != null && !(value instanceof Number) && !(value instanceof Boolean)) {
+                needsRewrite = true;
             }
 
             if (size > Event.MAX_PROPERTIES_LENGTH_BYTES) {
@@ -47,14 +54,34 @@ public class EventsValidator {
 
                 return new EventValidatorResult(false);
             }
+        }
+
+        return new EventValidatorResult(true, size, needsRewrite ? rewrite(properties) : properties);
+    }
+
+    private static Map<String, Object> rewrite(Map<String, Object> properties) {
+        Map<String, Object> result = new HashMap<>();
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            if (entry.getKey() == null || entry.getKey().isEmpty()) {
+              continue;
+            }
+
+            Object value = entry.getValue();
+            if (value != null && !(value instanceof Number) && !(value instanceof Boolean) && !(value instanceof String)) {
+                _log.warn(String.format("Property %s is of invalid type. Setting value to null", entry.getKey()));
+                value = null;
+            }
 
             result.put(entry.getKey(), value);
         }
-
-        return new EventValidatorResult(true, size, result);
+        return result;
     }
 
     public static boolean typeIsValid(String eventTypeId, String method) {
+        if (eventTypeId != null && VALID_EVENT_TYPES.contains(eventTypeId)) {
+            return true;
+        }
+
         if (eventTypeId == null) {
             _log.error(String.format("%s: you passed a null eventTypeId, eventTypeId must be a non-empty string", method));
             return false;
@@ -73,6 +100,9 @@ public class EventsValidator {
             return false;
         }
 
+        if (VALID_EVENT_TYPES.size() < MAX_MEMOIZED_EVENT_TYPES) {
+            VALID_EVENT_TYPES.add(eventTypeId);
+        }
         return true;
     }
 
@@ -0,0 +1,45 @@
+package io.split.inputValidation;
+
+import io.split.storages.SplitCacheConsumer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers whether traffic types exist in the feature flags cache. Entries are only valid for the change number
+ * they were looked up at: the whole memo is discarded as soon as the cache moves to another change number.
+ */
+public class TrafficTypeMemo {
+
+    /* package private */ static final int MAX_ENTRIES = 1000;
+
+    private volatile Generation _generation = new Generation(Long.MIN_VALUE);
+
+    private static final class Generation {
+        private final long _changeNumber;
+        private final ConcurrentMap<String, Boolean> _exists = new ConcurrentHashMap<>();
+
+        private Generation(long changeNumber) {
+            _changeNumber = changeNumber;
+        }
+    }
+
+    public boolean exists(String trafficTypeName, SplitCacheConsumer splitCacheConsumer) {
+        long changeNumber = splitCacheConsumer.getChangeNumber();
+        Generation generation = _generation;
+        if (generation._changeNumber != changeNumber) {
+            generation = new Generation(changeNumber);
+            _generation = generation;
+        }
+        Boolean exists = generation._exists.get(trafficTypeName);
+        if (exists == null) {
+            // The cache updates its contents before its change number, so a result looked up after reading the change
+            // number is never older than it.
+            exists = splitCacheConsumer.trafficTypeExists(trafficTypeName);
+            if (generation._exists.size() < MAX_ENTRIES) {
+                generation._exists.put(trafficTypeName, exists);
+            }
+        }
+        return exists;
+    }
+}
@@ -10,6 +10,14 @@ public class TrafficTypeValidator {
     private static final Logger _log = LoggerFactory.getLogger(TrafficTypeValidator.class);
 
     public static Optional<String> isValid(String trafficTypeName, SplitCacheConsumer splitCacheConsumer, String method) {
+        return isValid(trafficTypeName, splitCacheConsumer, method, null);
+    }
+
+    /**
+     * @param memo where traffic type lookups are remembered for the current change number. Nullable.
+     */
+    public static Optional<String> isValid(String trafficTypeName, SplitCacheConsumer splitCacheConsumer, String method,
+                                           TrafficTypeMemo memo) {
         if (trafficTypeName == null) {
             _log.error(String.format("%s: you passed a null trafficTypeName, trafficTypeName must be a non-empty string", method));
             return Optional.empty();
@@ -20,16 +28,28 @@ public class TrafficTypeValidator {
             return Optional.empty();
         }
 
-        if (!trafficTypeName.equals(trafficTypeName.toLowerCase())) {
+        if (hasUpperCase(trafficTypeName)) {
             _log.warn(String.format("%s: trafficTypeName should be all lowercase - converting string to lowercase", method));
             trafficTypeName = trafficTypeName.toLowerCase();
         }
 
-        if (!splitCacheConsumer.trafficTypeExists(trafficTypeName)) {
+        boolean exists = memo != null ? memo.exists(trafficTypeName, splitCacheConsumer)
+                : splitCacheConsumer.trafficTypeExists(trafficTypeName);
+        if (!exists) {
             _log.warn(String.format("%s: Traffic Type %s does not have any corresponding Feature flags in this environment, " +
                     "make sure you’re tracking your events to a valid traffic type defined in the Split user interface.", method, trafficTypeName));
         }
 
         return Optional.of(trafficTypeName);
     }
+
+    private static boolean hasUpperCase(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.toLowerCase(c) != c) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
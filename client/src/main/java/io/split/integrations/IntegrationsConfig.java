@@ -1,5 +1,6 @@
 package io.split.integrations;
 
+import io.split.client.impressions.BatchImpressionListener;
 import io.split.client.impressions.ImpressionListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +63,38 @@ public class IntegrationsConfig {
             return this;
         }
 
+        /**
+         * Registers a listener that receives impressions in batches. Impressions are handed over through a lock-free
+         * ring buffer of {@code queueSize} slots drained by a single dispatcher thread.
+         *
+         * @param listener the listener
+         * @param queueSize ring buffer capacity, impressions that do not fit are dropped. MUST be > 0.
+         * @param batchSize max impressions per batch. MUST be > 0.
+         * @param lingerMillis max time the first impression of a batch waits for the batch to fill up. MUST be >= 0.
+         * @return this builder
+         */
+        public Builder batchImpressionsListener(BatchImpressionListener listener, int queueSize, int batchSize, long lingerMillis) {
+            if (queueSize <= 0) {
+                throw new IllegalArgumentException("An ImpressionListener was provided, but its capacity was non-positive: " + queueSize);
+            }
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("An ImpressionListener was provided, but its batch size was non-positive: " + batchSize);
+            }
+            if (lingerMillis < 0) {
+                throw new IllegalArgumentException("An ImpressionListener was provided, but its linger was negative: " + lingerMillis);
+            }
+            _listeners.add(new ImpressionListenerWithMeta(listener, queueSize, batchSize, lingerMillis));
+            return this;
+        }
+
+        /**
+         * Same as {@link #batchImpressionsListener(BatchImpressionListener, int, int, long)} for a listener that takes
+         * one impression at a time. It is still called from the single dispatcher thread.
+         */
+        public Builder batchImpressionsListener(ImpressionListener listener, int queueSize, int batchSize, long lingerMillis) {
+            return batchImpressionsListener(new BatchImpressionListener.Adapter(listener), queueSize, batchSize, lingerMillis);
+        }
+
         public Builder newRelicImpressionListener() {
             if (_newRelicEnabled) {
                 _log.warn("You can only add one new relic integration instance. Ignoring");
@@ -87,24 +120,52 @@ public class IntegrationsConfig {
 
     public enum Execution {
         SYNC,
-        ASYNC
+        ASYNC,
+        BATCH
     }
 
     public static class ImpressionListenerWithMeta {
         private final ImpressionListener _listener;
+        private final BatchImpressionListener _batchListener;
         private final Execution _execution;
         private final int _queueSize;
+        private final int _batchSize;
+        private final long _lingerMillis;
 
         ImpressionListenerWithMeta(ImpressionListener listener, Execution execution, int queueSize) {
             _listener = listener;
+            _batchListener = null;
             _execution = execution;
             _queueSize = queueSize;
+            _batchSize = 0;
+            _lingerMillis = 0;
+        }
+
+        ImpressionListenerWithMeta(BatchImpressionListener batchListener, int queueSize, int batchSize, long lingerMillis) {
+            _listener = null;
+            _batchListener = batchListener;
+            _execution = Execution.BATCH;
+            _queueSize = queueSize;
+            _batchSize = batchSize;
+            _lingerMillis = lingerMillis;
         }
 
         public ImpressionListener listener() {
             return _listener;
         }
 
+        public BatchImpressionListener batchListener() {
+            return _batchListener;
+        }
+
+        public int batchSize() {
+            return _batchSize;
+        }
+
+        public long lingerMillis() {
+            return _lingerMillis;
+        }
+
         Execution execution() {
             return _execution;
         }
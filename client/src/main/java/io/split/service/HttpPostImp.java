@@ -25,9 +25,16 @@ public class HttpPostImp {
         _telemetryRuntimeProducer = checkNotNull(telemetryRuntimeProducer);
     }
 
-    public void post(URI uri, Object object, String posted, HttpParamsWrapper httpParamsWrapper) {
-        long initTime = System.currentTimeMillis();
-        HttpEntity entity = Utils.toJsonEntity(object);
+    public boolean post(URI uri, Object object, String posted, HttpParamsWrapper httpParamsWrapper) {
+        return post(uri, Utils.toJsonEntity(object), posted, httpParamsWrapper);
+    }
+
+    /**
+     * @return false when the post failed in a way that is worth retrying later (network error, 5xx, 408 or 429),
+     * true when the payload was accepted or rejected for good.
+     */
+    public boolean post(URI uri, HttpEntity entity, String posted, HttpParamsWrapper httpParamsWrapper) {
+        long initTime = System.nanoTime();
         HttpPost request = new HttpPost(uri);
         request.setEntity(entity);
 
@@ -41,12 +48,18 @@ public class HttpPostImp {
             if (status < HttpStatus.SC_OK || status >= HttpStatus.SC_MULTIPLE_CHOICES) {
                 _telemetryRuntimeProducer.recordSyncError(httpParamsWrapper.getResourceEnum(), status);
                 _logger.warn(String.format("Response status was: %s. Reason: %s", status , response.getReasonPhrase()));
-                return;
+                return !isRetryable(status);
             }
-            _telemetryRuntimeProducer.recordSyncLatency(httpParamsWrapper.getHttpLatenciesEnum(), System.currentTimeMillis() - initTime);
+            _telemetryRuntimeProducer.recordSyncLatency(httpParamsWrapper.getHttpLatenciesEnum(), System.nanoTime() - initTime);
             _telemetryRuntimeProducer.recordSuccessfulSync(httpParamsWrapper.getLastSynchronizationRecordsEnum(), System.currentTimeMillis());
+            return true;
         } catch (Throwable t) {
-            _logger.warn("Exception when posting " + posted + object, t);
+            _logger.warn("Exception when posting " + posted, t);
+            return false;
         }
     }
+
+    public static boolean isRetryable(int status) {
+        return status >= HttpStatus.SC_SERVER_ERROR || status == HttpStatus.SC_REQUEST_TIMEOUT || status == HttpStatus.SC_TOO_MANY_REQUESTS;
+    }
 }
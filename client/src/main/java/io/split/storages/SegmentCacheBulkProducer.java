@@ -0,0 +1,17 @@
+package io.split.storages;
+
+import java.util.Set;
+
+/**
+ * A {@link SegmentCacheProducer} that can take a whole segment at once, so that a snapshot can be built off to the side
+ * and published atomically instead of being applied key by key.
+ */
+public interface SegmentCacheBulkProducer extends SegmentCacheProducer {
+    /**
+     * Replaces every key of the segment and its change number.
+     *
+     * @param keys the new keys. The cache keeps this very set, which must be safe for concurrent use and must not be
+     *             modified by the caller afterwards.
+     */
+    void replaceSegment(String segmentName, Set<String> keys, long changeNumber);
+}
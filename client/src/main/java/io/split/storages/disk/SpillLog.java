@@ -0,0 +1,362 @@
+package io.split.storages.disk;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.split.client.utils.SplitExecutorFactory;
+import io.split.engine.common.Backoff;
+import io.split.telemetry.domain.enums.EventsDataRecordsEnum;
+import io.split.telemetry.domain.enums.ImpressionsDataTypeEnum;
+import io.split.telemetry.storage.TelemetryRuntimeProducer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Bounded, segmented, append-only log on local disk where batches that could not be posted, or that did not fit
+ * in the in-memory queues, are kept until the endpoint recovers.
+ * <p>
+ * Records are opaque payloads (the json body to post) tagged with the number of items they hold. When the log
+ * exceeds its size cap the oldest segments are discarded; records appended longer than the age cap ago are discarded
+ * as well. Replay posts the oldest records first and backs off while posting fails.
+ * <p>
+ * Segments are forced to disk once sealed and on close. Records in the segment being written survive a crash of the
+ * process, but may be lost if the machine goes down before it is sealed.
+ */
+public class SpillLog implements Closeable {
+
+    private static final Logger _log = LoggerFactory.getLogger(SpillLog.class);
+
+    /* package private */ static final int DEFAULT_SEGMENT_BYTES = 4 * 1024 * 1024;
+    private static final long REPLAY_INTERVAL_SECONDS = 30;
+    private static final long REPLAY_BACKOFF_BASE_SECONDS = 1;
+    private static final long REPLAY_BACKOFF_MAX_SECONDS = 300;
+    private static final int MAX_RECORDS_PER_REPLAY = 100;
+    private static final long CLOSE_TIMEOUT_SECONDS = 1;
+
+    public enum Kind {
+        IMPRESSIONS,
+        EVENTS
+    }
+
+    private final File _directory;
+    private final Kind _kind;
+    private final long _maxBytes;
+    private final long _maxAgeMillis;
+    private final int _segmentBytes;
+    private final TelemetryRuntimeProducer _telemetryRuntimeProducer;
+    private final Deque<SpillSegment> _segments = new ArrayDeque<>();
+    private final Object _lock = new Object();
+    private final ScheduledExecutorService _replayExecutor;
+    private final Backoff _backoff;
+    private long _totalBytes;
+    private long _nextSequence;
+    private SpillSegment _writeSegment;
+    private volatile Predicate<byte[]> _poster;
+    private ScheduledFuture<?> _nextReplay;
+    private boolean _closed;
+
+    public SpillLog(File directory, Kind kind, long maxBytes, long maxAgeMillis, TelemetryRuntimeProducer telemetryRuntimeProducer,
+                    ThreadFactory threadFactory) throws IOException {
+        this(directory, kind, maxBytes, maxAgeMillis, (int) Math.min(DEFAULT_SEGMENT_BYTES, Math.max(1, maxBytes / 4)),
+                telemetryRuntimeProducer, threadFactory);
+    }
+
+    @VisibleForTesting
+    /* package private */ SpillLog(File directory, Kind kind, long maxBytes, long maxAgeMillis, int segmentBytes,
+                                   TelemetryRuntimeProducer telemetryRuntimeProducer, ThreadFactory threadFactory) throws IOException {
+        checkArgument(maxBytes > 0, "maxBytes must be > 0: %s", maxBytes);
+        checkArgument(maxAgeMillis > 0, "maxAgeMillis must be > 0: %s", maxAgeMillis);
+        _directory = new File(checkNotNull(directory), kind.name().toLowerCase());
+        _kind = kind;
+        _maxBytes = maxBytes;
+        _maxAgeMillis = maxAgeMillis;
+        _segmentBytes = segmentBytes;
+        _telemetryRuntimeProducer = checkNotNull(telemetryRuntimeProducer);
+        _backoff = new Backoff(REPLAY_BACKOFF_BASE_SECONDS, REPLAY_BACKOFF_MAX_SECONDS);
+        if (!_directory.isDirectory() && !_directory.mkdirs()) {
+            throw new IOException("Unable to create spill directory " + _directory.getAbsolutePath());
+        }
+        recover();
+        _replayExecutor = SplitExecutorFactory.buildSingleThreadScheduledExecutor(threadFactory, "Split-Spill-" + kind + "-%d");
+    }
+
+    /**
+     * Starts replaying spilled records through the given poster, which must return true once the payload was accepted.
+     */
+    public void startReplay(Predicate<byte[]> poster) {
+        _poster = checkNotNull(poster);
+        schedule(REPLAY_INTERVAL_SECONDS);
+    }
+
+    /**
+     * @return true if the payload was written to disk, false if it had to be discarded.
+     */
+    public boolean append(byte[] payload, int items) {
+        long discarded = 0;
+        synchronized (_lock) {
+            try {
+                if (_writeSegment == null || !_writeSegment.fits(payload.length)) {
+                    int capacity = Math.max(_segmentBytes, SpillSegment.FRAME_HEADER_BYTES + payload.length);
+                    if (capacity > _maxBytes) {
+                        recordDiscarded(items);
+                        return false;
+                    }
+                    if (_writeSegment != null) {
+                        _writeSegment.force();
+                    }
+                    while (!_segments.isEmpty() && _totalBytes + capacity > _maxBytes) {
+                        discarded += dropOldest();
+                    }
+                    _writeSegment = SpillSegment.create(_directory, _nextSequence++, capacity);
+                    _segments.addLast(_writeSegment);
+                    _totalBytes += capacity;
+                }
+                _writeSegment.append(payload, items);
+            } catch (IOException e) {
+                _log.warn(String.format("Unable to spill %s to disk", _kind.name().toLowerCase()), e);
+                recordDiscarded(items + discarded);
+                return false;
+            }
+        }
+        recordDiscarded(discarded);
+        recordSpilled(items);
+        return true;
+    }
+
+    @VisibleForTesting
+    /* package private */ int replay() {
+        Predicate<byte[]> poster = _poster;
+        if (poster == null) {
+            return 0;
+        }
+        pruneExpired();
+        int replayed = 0;
+        while (replayed < MAX_RECORDS_PER_REPLAY) {
+            SpillSegment.Record record = peek();
+            if (record == null) {
+                break;
+            }
+            boolean posted;
+            try {
+                posted = poster.test(record.payload());
+            } catch (Exception e) {
+                _log.debug("Exception when replaying spilled records", e);
+                posted = false;
+            }
+            if (!posted) {
+                return -1;
+            }
+            consume(record);
+            replayed++;
+        }
+        return replayed;
+    }
+
+    @Override
+    public void close() {
+        synchronized (_lock) {
+            // The next replay is dropped, spilled records that are being written get to finish.
+            _closed = true;
+            if (_nextReplay != null) {
+                _nextReplay.cancel(false);
+            }
+        }
+        _replayExecutor.shutdown();
+        try {
+            _replayExecutor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (_lock) {
+            for (SpillSegment segment : _segments) {
+                segment.force();
+            }
+        }
+    }
+
+    /**
+     * Runs the task on the replay thread, so writes handed over by a {@link SpillQueue} stay off the caller thread.
+     *
+     * @return false if the log is closed.
+     */
+    /* package private */ boolean execute(Runnable task) {
+        try {
+            _replayExecutor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /* package private */ void recordDropped(long items) {
+        if (Kind.IMPRESSIONS.equals(_kind)) {
+            _telemetryRuntimeProducer.recordImpressionStats(ImpressionsDataTypeEnum.IMPRESSIONS_DROPPED, items);
+        } else {
+            _telemetryRuntimeProducer.recordEventStats(EventsDataRecordsEnum.EVENTS_DROPPED, items);
+        }
+    }
+
+    @VisibleForTesting
+    /* package private */ long pendingItems() {
+        synchronized (_lock) {
+            long items = 0;
+            for (SpillSegment segment : _segments) {
+                items += segment.liveItems();
+            }
+            return items;
+        }
+    }
+
+    private void schedule(long delaySeconds) {
+        synchronized (_lock) {
+            if (_closed) {
+                return;
+            }
+            try {
+                _nextReplay = _replayExecutor.schedule(this::runReplay, delaySeconds, TimeUnit.SECONDS);
+            } catch (RejectedExecutionException e) {
+                // Log closed.
+            }
+        }
+    }
+
+    private void runReplay() {
+        int result = replay();
+        if (result < 0) {
+            schedule(_backoff.interval());
+            return;
+        }
+        _backoff.reset();
+        schedule(result == MAX_RECORDS_PER_REPLAY ? 0 : REPLAY_INTERVAL_SECONDS);
+    }
+
+    private SpillSegment.Record peek() {
+        synchronized (_lock) {
+            for (SpillSegment segment : _segments) {
+                SpillSegment.Record record = segment.peek();
+                if (record != null) {
+                    return record;
+                }
+            }
+            return null;
+        }
+    }
+
+    private void consume(SpillSegment.Record record) {
+        synchronized (_lock) {
+            SpillSegment segment = record.segment();
+            if (!_segments.contains(segment)) {
+                // Discarded while the record was being posted, it was already accounted for.
+                return;
+            }
+            segment.markConsumed(record);
+            if (segment.isEmpty() && segment != _writeSegment) {
+                _segments.remove(segment);
+                _totalBytes -= segment.capacity();
+                segment.delete();
+            }
+        }
+        recordReplayed(record.items());
+    }
+
+    private void pruneExpired() {
+        long discarded = 0;
+        long oldestAllowed = System.currentTimeMillis() - _maxAgeMillis;
+        synchronized (_lock) {
+            Iterator<SpillSegment> iterator = _segments.iterator();
+            while (iterator.hasNext()) {
+                SpillSegment segment = iterator.next();
+                discarded += segment.discardOlderThan(oldestAllowed);
+                if (!segment.isEmpty()) {
+                    // Records are appended in time order, the ones after this are newer.
+                    break;
+                }
+                if (segment == _writeSegment) {
+                    continue;
+                }
+                iterator.remove();
+                _totalBytes -= segment.capacity();
+                segment.delete();
+            }
+        }
+        recordDiscarded(discarded);
+    }
+
+    private long dropOldest() {
+        SpillSegment oldest = _segments.pollFirst();
+        _totalBytes -= oldest.capacity();
+        oldest.delete();
+        if (oldest == _writeSegment) {
+            _writeSegment = null;
+        }
+        return oldest.liveItems();
+    }
+
+    private void recover() throws IOException {
+        File[] files = _directory.listFiles((dir, name) -> name.endsWith(SpillSegment.FILE_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            long sequence;
+            try {
+                sequence = Long.parseLong(file.getName().substring(0, file.getName().length() - SpillSegment.FILE_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            SpillSegment segment = SpillSegment.recover(file, sequence);
+            _nextSequence = Math.max(_nextSequence, sequence + 1);
+            if (segment.isEmpty()) {
+                segment.delete();
+                continue;
+            }
+            _segments.addLast(segment);
+            _totalBytes += segment.capacity();
+        }
+        // Recovered segments are only replayed, new records always go to a fresh segment.
+        _writeSegment = null;
+    }
+
+    private void recordSpilled(long items) {
+        if (Kind.IMPRESSIONS.equals(_kind)) {
+            _telemetryRuntimeProducer.recordImpressionStats(ImpressionsDataTypeEnum.IMPRESSIONS_SPILLED, items);
+        } else {
+            _telemetryRuntimeProducer.recordEventStats(EventsDataRecordsEnum.EVENTS_SPILLED, items);
+        }
+    }
+
+    private void recordReplayed(long items) {
+        if (Kind.IMPRESSIONS.equals(_kind)) {
+            _telemetryRuntimeProducer.recordImpressionStats(ImpressionsDataTypeEnum.IMPRESSIONS_REPLAYED, items);
+        } else {
+            _telemetryRuntimeProducer.recordEventStats(EventsDataRecordsEnum.EVENTS_REPLAYED, items);
+        }
+    }
+
+    private void recordDiscarded(long items) {
+        if (items <= 0) {
+            return;
+        }
+        if (Kind.IMPRESSIONS.equals(_kind)) {
+            _telemetryRuntimeProducer.recordImpressionStats(ImpressionsDataTypeEnum.IMPRESSIONS_SPILL_DISCARDED, items);
+        } else {
+            _telemetryRuntimeProducer.recordEventStats(EventsDataRecordsEnum.EVENTS_SPILL_DISCARDED, items);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.split.storages.disk;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Bounded hand-off between the threads filling the in-memory queues and a {@link SpillLog}: items that did not fit in
+ * the queue are only enqueued here, serialization and the disk write happen in batches on the spill log's thread.
+ */
+public class SpillQueue<T> {
+
+    private static final Logger _log = LoggerFactory.getLogger(SpillQueue.class);
+
+    private static final int MAX_ITEMS_PER_RECORD = 500;
+
+    private final SpillLog _spillLog;
+    private final BlockingQueue<T> _pending;
+    private final Function<List<T>, byte[]> _serializer;
+    private final AtomicBoolean _drainScheduled = new AtomicBoolean(false);
+
+    /**
+     * @param serializer turns a batch of items into the payload to post, it runs on the spill log's thread.
+     */
+    public SpillQueue(SpillLog spillLog, int capacity, Function<List<T>, byte[]> serializer) {
+        checkArgument(capacity > 0, "capacity must be > 0: %s", capacity);
+        _spillLog = checkNotNull(spillLog);
+        _pending = new LinkedBlockingQueue<>(capacity);
+        _serializer = checkNotNull(serializer);
+    }
+
+    /**
+     * @return true if the item will be spilled, false if the hand-off is full and the item was dropped instead.
+     */
+    public boolean offer(T item) {
+        if (!_pending.offer(item)) {
+            _spillLog.recordDropped(1);
+            return false;
+        }
+        if (_drainScheduled.compareAndSet(false, true) && !_spillLog.execute(this::drain)) {
+            _drainScheduled.set(false);
+        }
+        return true;
+    }
+
+    @VisibleForTesting
+    /* package private */ void drain() {
+        List<T> batch = new ArrayList<>();
+        while (true) {
+            _pending.drainTo(batch, MAX_ITEMS_PER_RECORD);
+            if (batch.isEmpty()) {
+                _drainScheduled.set(false);
+                // An item offered after the last drainTo but before the flag was cleared did not schedule a drain.
+                if (_pending.isEmpty() || !_drainScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            byte[] payload;
+            try {
+                payload = _serializer.apply(batch);
+            } catch (RuntimeException e) {
+                _log.warn("Unable to serialize items to spill", e);
+                _spillLog.recordDropped(batch.size());
+                batch.clear();
+                continue;
+            }
+            _spillLog.append(payload, batch.size());
+            batch.clear();
+        }
+    }
+
+    @VisibleForTesting
+    /* package private */ int pending() {
+        return _pending.size();
+    }
+}
@@ -0,0 +1,252 @@
+package io.split.storages.disk;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only memory-mapped file holding framed records.
+ * <p>
+ * Each frame is {@code [int length][int items][long appendMillis][int crc][payload]}. The length is written last so
+ * that a torn write reads as the end of the segment, a negative length marks a record already replayed or discarded
+ * and a zero length marks the end. The crc covers the item count, the append time and the payload.
+ */
+class SpillSegment {
+
+    private static final Logger _log = LoggerFactory.getLogger(SpillSegment.class);
+
+    /* package private */ static final int FRAME_HEADER_BYTES = 20;
+    /* package private */ static final String FILE_SUFFIX = ".spill";
+
+    private final File _file;
+    private final long _sequence;
+    private final int _capacity;
+    private final MappedByteBuffer _buffer;
+    private int _writePosition;
+    private int _readPosition;
+    private int _liveRecords;
+    private long _liveItems;
+
+    static final class Record {
+        private final SpillSegment _segment;
+        private final int _position;
+        private final int _items;
+        private final byte[] _payload;
+
+        private Record(SpillSegment segment, int position, int items, byte[] payload) {
+            _segment = segment;
+            _position = position;
+            _items = items;
+            _payload = payload;
+        }
+
+        SpillSegment segment() {
+            return _segment;
+        }
+
+        int items() {
+            return _items;
+        }
+
+        byte[] payload() {
+            return _payload;
+        }
+    }
+
+    private SpillSegment(File file, long sequence, int capacity, MappedByteBuffer buffer) {
+        _file = file;
+        _sequence = sequence;
+        _capacity = capacity;
+        _buffer = buffer;
+    }
+
+    static File fileFor(File directory, long sequence) {
+        return new File(directory, String.format("%020d%s", sequence, FILE_SUFFIX));
+    }
+
+    static SpillSegment create(File directory, long sequence, int capacity) throws IOException {
+        File file = fileFor(directory, sequence);
+        return new SpillSegment(file, sequence, capacity, map(file, capacity));
+    }
+
+    /**
+     * Maps an existing segment and scans it, stopping at the end marker or at the first frame that does not
+     * validate, which is what a crash in the middle of an append leaves behind.
+     */
+    static SpillSegment recover(File file, long sequence) throws IOException {
+        int capacity = (int) file.length();
+        SpillSegment segment = new SpillSegment(file, sequence, capacity, map(file, capacity));
+        segment.scan();
+        return segment;
+    }
+
+    private static MappedByteBuffer map(File file, int capacity) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+    }
+
+    private void scan() {
+        int position = 0;
+        boolean firstLiveFound = false;
+        while (position + FRAME_HEADER_BYTES <= _capacity) {
+            int length = _buffer.getInt(position);
+            int payloadLength = Math.abs(length);
+            if (length == 0 || length == Integer.MIN_VALUE || position + FRAME_HEADER_BYTES + payloadLength > _capacity) {
+                break;
+            }
+            if (length > 0) {
+                int items = _buffer.getInt(position + 4);
+                long appendMillis = _buffer.getLong(position + 8);
+                if (_buffer.getInt(position + 16) != crc(items, appendMillis, read(position + FRAME_HEADER_BYTES, payloadLength))) {
+                    _log.warn(String.format("Corrupted record found in spill segment %s, ignoring the rest of it", _file.getName()));
+                    break;
+                }
+                if (!firstLiveFound) {
+                    _readPosition = position;
+                    firstLiveFound = true;
+                }
+                _liveRecords++;
+                _liveItems += items;
+            }
+            position += FRAME_HEADER_BYTES + payloadLength;
+        }
+        _writePosition = position;
+        if (!firstLiveFound) {
+            _readPosition = position;
+        }
+    }
+
+    boolean fits(int payloadLength) {
+        return _writePosition + FRAME_HEADER_BYTES + payloadLength <= _capacity;
+    }
+
+    void append(byte[] payload, int items) {
+        int position = _writePosition;
+        long appendMillis = System.currentTimeMillis();
+        ByteBuffer view = _buffer.duplicate();
+        view.position(position + FRAME_HEADER_BYTES);
+        view.put(payload);
+        _buffer.putInt(position + 4, items);
+        _buffer.putLong(position + 8, appendMillis);
+        _buffer.putInt(position + 16, crc(items, appendMillis, payload));
+        _buffer.putInt(position, payload.length);
+        _writePosition = position + FRAME_HEADER_BYTES + payload.length;
+        _liveRecords++;
+        _liveItems += items;
+    }
+
+    /**
+     * @return the oldest record not yet replayed, or null if there is none.
+     */
+    Record peek() {
+        while (_readPosition + FRAME_HEADER_BYTES <= _writePosition) {
+            int length = _buffer.getInt(_readPosition);
+            if (length > 0) {
+                int items = _buffer.getInt(_readPosition + 4);
+                return new Record(this, _readPosition, items, read(_readPosition + FRAME_HEADER_BYTES, length));
+            }
+            _readPosition += FRAME_HEADER_BYTES + Math.abs(length);
+        }
+        return null;
+    }
+
+    void markConsumed(Record record) {
+        int length = _buffer.getInt(record._position);
+        if (length <= 0) {
+            return;
+        }
+        _buffer.putInt(record._position, -length);
+        _liveRecords--;
+        _liveItems -= record._items;
+        if (record._position == _readPosition) {
+            _readPosition += FRAME_HEADER_BYTES + length;
+        }
+    }
+
+    /**
+     * Discards the records appended before the given time, oldest first.
+     *
+     * @return how many items they held.
+     */
+    long discardOlderThan(long oldestAllowedMillis) {
+        long discarded = 0;
+        while (_readPosition + FRAME_HEADER_BYTES <= _writePosition) {
+            int length = _buffer.getInt(_readPosition);
+            if (length > 0) {
+                if (_buffer.getLong(_readPosition + 8) >= oldestAllowedMillis) {
+                    break;
+                }
+                int items = _buffer.getInt(_readPosition + 4);
+                _buffer.putInt(_readPosition, -length);
+                _liveRecords--;
+                _liveItems -= items;
+                discarded += items;
+            }
+            _readPosition += FRAME_HEADER_BYTES + Math.abs(length);
+        }
+        return discarded;
+    }
+
+    /**
+     * Writes the mapped pages back to the file, so that the records survive a crash of the machine and not only of
+     * the process.
+     */
+    void force() {
+        _buffer.force();
+    }
+
+    boolean isEmpty() {
+        return _liveRecords == 0;
+    }
+
+    long liveItems() {
+        return _liveItems;
+    }
+
+    int capacity() {
+        return _capacity;
+    }
+
+    long sequence() {
+        return _sequence;
+    }
+
+    /**
+     * The mapping is released once the buffer is garbage collected. Deleting a mapped file is fine on posix systems;
+     * elsewhere the file lingers until the next recovery finds it empty.
+     */
+    void delete() {
+        if (!_file.delete() && _file.exists()) {
+            _log.debug(String.format("Unable to delete spill segment %s", _file.getName()));
+        }
+    }
+
+    private byte[] read(int position, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = _buffer.duplicate();
+        view.position(position);
+        view.get(bytes);
+        return bytes;
+    }
+
+    private static int crc(int items, long appendMillis, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(items >>> 24);
+        crc.update(items >>> 16);
+        crc.update(items >>> 8);
+        crc.update(items);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (appendMillis >>> shift));
+        }
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+}
@@ -3,7 +3,6 @@ package io.split.storages.memory;
 import com.google.common.collect.ConcurrentHashMultiset;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multiset;
-import com.google.common.collect.Sets;
 import io.split.client.interceptors.FlagSetsFilter;
 import io.split.engine.experiments.ParsedSplit;
 import io.split.storages.SplitCache;
@@ -91,9 +90,8 @@ public class InMemoryCacheImp implements SplitCache {
 
     @Override
     public boolean trafficTypeExists(String trafficTypeName) {
-        // If the multiset has [{"user",2}.{"account",0}], elementSet only returns
-        // ["user"] (it ignores "account")
-        return Sets.newHashSet(_concurrentTrafficTypeNameSet.elementSet()).contains(trafficTypeName);
+        // Only traffic types with a count above zero are contained. The lookup is a lock-free read of the backing map.
+        return _concurrentTrafficTypeNameSet.contains(trafficTypeName);
     }
 
     @Override
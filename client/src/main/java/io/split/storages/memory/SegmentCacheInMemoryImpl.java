@@ -4,25 +4,33 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
 import io.split.engine.segments.SegmentImp;
 import io.split.storages.SegmentCache;
+import io.split.storages.SegmentCacheBulkProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * InMemoryCache Implementation
  * @author lucasecheverz
  */
-public class SegmentCacheInMemoryImpl implements SegmentCache {
+public class SegmentCacheInMemoryImpl implements SegmentCache, SegmentCacheBulkProducer {
     private static final Logger _log = LoggerFactory.getLogger(SegmentCacheInMemoryImpl.class);
     private static final long DEFAULT_CHANGE_NUMBER = -1l;
     private final ConcurrentMap<String, SegmentImp> _segments = Maps.newConcurrentMap();
 
     @Override
     public void updateSegment(String segmentName, List<String> toAdd, List<String> toRemove, long changeNumber) {
-        _segments.putIfAbsent(segmentName, new SegmentImp(changeNumber, segmentName,toAdd));
-        _segments.get(segmentName).update(toAdd,toRemove, changeNumber);
+        _segments.computeIfAbsent(segmentName, name -> new SegmentImp(changeNumber, name))
+                .update(toAdd, toRemove, changeNumber);
+    }
+
+    @Override
+    public void replaceSegment(String segmentName, Set<String> keys, long changeNumber) {
+        _segments.computeIfAbsent(segmentName, name -> new SegmentImp(changeNumber, name))
+                .replace(keys, changeNumber);
     }
 
     @Override
@@ -2,5 +2,8 @@ package io.split.telemetry.domain.enums;
 
 public enum EventsDataRecordsEnum {
     EVENTS_QUEUED,
-    EVENTS_DROPPED
+    EVENTS_DROPPED,
+    EVENTS_SPILLED,
+    EVENTS_REPLAYED,
+    EVENTS_SPILL_DISCARDED
 }
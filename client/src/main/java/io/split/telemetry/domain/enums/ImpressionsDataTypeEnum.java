@@ -3,5 +3,8 @@ package io.split.telemetry.domain.enums;
 public enum ImpressionsDataTypeEnum {
     IMPRESSIONS_QUEUED,
     IMPRESSIONS_DROPPED,
-    IMPRESSIONS_DEDUPED
+    IMPRESSIONS_DEDUPED,
+    IMPRESSIONS_SPILLED,
+    IMPRESSIONS_REPLAYED,
+    IMPRESSIONS_SPILL_DISCARDED
 }
@@ -8,7 +8,8 @@ public enum StreamEventsEnum {
     SSE_CONNECTION_ERROR(40),
     TOKEN_REFRESH(50),
     ABLY_ERROR(60),
-    SYNC_MODE_UPDATE(70);
+    SYNC_MODE_UPDATE(70),
+    IMPRESSIONS_MODE_UPDATE(80);
 
 
     private int _type;
@@ -66,4 +67,20 @@ public enum StreamEventsEnum {
             return _value;
         }
     }
+
+    public enum ImpressionsModeUpdateValues {
+        OPTIMIZED_EVENT(0),
+        DEBUG_EVENT(1),
+        NONE_EVENT(2);
+
+        private long _value;
+
+        ImpressionsModeUpdateValues(long value) {
+            _value = value;
+        }
+
+        public long getValue() {
+            return _value;
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package io.split.telemetry.metrics;
+
+/**
+ * Implemented by the in-memory queues whose occupancy is exported by {@link SdkMetrics}.
+ */
+public interface QueueStats {
+    /**
+     * @return items currently queued.
+     */
+    long queueDepth();
+
+    /**
+     * @return estimated serialized size of the items currently queued.
+     */
+    long queuedBytes();
+}
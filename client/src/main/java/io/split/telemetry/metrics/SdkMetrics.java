@@ -0,0 +1,157 @@
+package io.split.telemetry.metrics;
+
+import io.split.storages.SegmentCacheConsumer;
+import io.split.storages.SplitCacheConsumer;
+import io.split.telemetry.domain.LastSynchronization;
+import io.split.telemetry.domain.StreamingEvent;
+import io.split.telemetry.domain.enums.EventsDataRecordsEnum;
+import io.split.telemetry.domain.enums.HTTPLatenciesEnum;
+import io.split.telemetry.domain.enums.ImpressionsDataTypeEnum;
+import io.split.telemetry.domain.enums.MethodEnum;
+import io.split.telemetry.domain.enums.StreamEventsEnum;
+import io.split.telemetry.storage.TelemetryStorageConsumer;
+import io.split.telemetry.utils.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Pull-style view over the SDK internals, meant to be polled by JMX or by Micrometer/Prometheus bridges.
+ * <p>
+ * Values are read from the telemetry storage, the caches and the queues when {@link #snapshot()} is called; nothing
+ * is recorded for them on the evaluation or track paths besides what telemetry and the queues already keep. Counters
+ * are cumulative since startup, gauges are the current value, and -1 stands for a value that is not known yet.
+ */
+public class SdkMetrics {
+
+    public static final String IMPRESSIONS_QUEUE_DEPTH = "impressions.queue.depth";
+    public static final String IMPRESSIONS_QUEUE_BYTES = "impressions.queue.bytes";
+    public static final String IMPRESSIONS_QUEUED = "impressions.queued";
+    public static final String IMPRESSIONS_DROPPED = "impressions.dropped";
+    public static final String IMPRESSIONS_DEDUPED = "impressions.deduped";
+    public static final String IMPRESSIONS_DEDUPE_RATIO = "impressions.dedupe.ratio";
+    public static final String EVENTS_QUEUE_DEPTH = "events.queue.depth";
+    public static final String EVENTS_QUEUE_BYTES = "events.queue.bytes";
+    public static final String EVENTS_QUEUED = "events.queued";
+    public static final String EVENTS_DROPPED = "events.dropped";
+    public static final String SPLITS_COUNT = "splits.count";
+    public static final String SPLITS_CHANGE_NUMBER = "splits.change_number";
+    public static final String SPLITS_CHANGE_NUMBER_LAG_MILLIS = "splits.change_number.lag_millis";
+    public static final String SPLITS_SYNC_AGE_MILLIS = "splits.sync.age_millis";
+    public static final String SEGMENTS_COUNT = "segments.count";
+    public static final String SEGMENTS_KEYS = "segments.keys";
+    public static final String SEGMENTS_SYNC_AGE_MILLIS = "segments.sync.age_millis";
+    public static final String SSE_SYNC_MODE = "sse.sync_mode";
+    public static final String SSE_STREAMING_STATUS = "sse.streaming_status";
+    public static final String SSE_CONNECTED_AT = "sse.connected_at";
+    public static final String SSE_LAST_ERROR_AT = "sse.last_error_at";
+    public static final String IMPRESSION_LISTENER_DROPPED = "impression_listener.dropped";
+    public static final String IMPRESSION_LISTENER_DELIVERED = "impression_listener.delivered";
+    public static final String UNIQUE_KEYS_FILTER_FILL_RATIO = "unique_keys.filter.fill_ratio";
+
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p99", "p999"};
+
+    private final TelemetryStorageConsumer _telemetry;
+    private final SplitCacheConsumer _splitCache;
+    private final SegmentCacheConsumer _segmentCache;
+    private final QueueStats _impressionsQueue;
+    private final QueueStats _eventsQueue;
+    private final Map<String, Supplier<? extends Number>> _gauges = new ConcurrentHashMap<>();
+
+    /**
+     * @param impressionsQueue nullable, when impressions are not queued in memory.
+     * @param eventsQueue nullable, when events are not queued in memory.
+     */
+    public SdkMetrics(TelemetryStorageConsumer telemetry, SplitCacheConsumer splitCache, SegmentCacheConsumer segmentCache,
+                      QueueStats impressionsQueue, QueueStats eventsQueue) {
+        _telemetry = checkNotNull(telemetry);
+        _splitCache = checkNotNull(splitCache);
+        _segmentCache = checkNotNull(segmentCache);
+        _impressionsQueue = impressionsQueue;
+        _eventsQueue = eventsQueue;
+    }
+
+    /**
+     * Adds a gauge read on every snapshot, for components that are only built in some configurations.
+     */
+    public void registerGauge(String name, Supplier<? extends Number> gauge) {
+        _gauges.put(checkNotNull(name), checkNotNull(gauge));
+    }
+
+    public SdkMetricsSnapshot snapshot() {
+        long now = System.currentTimeMillis();
+        Map<String, Number> values = new LinkedHashMap<>();
+
+        values.put(IMPRESSIONS_QUEUE_DEPTH, _impressionsQueue != null ? _impressionsQueue.queueDepth() : -1);
+        values.put(IMPRESSIONS_QUEUE_BYTES, _impressionsQueue != null ? _impressionsQueue.queuedBytes() : -1);
+        long queued = _telemetry.getImpressionsStats(ImpressionsDataTypeEnum.IMPRESSIONS_QUEUED);
+        long deduped = _telemetry.getImpressionsStats(ImpressionsDataTypeEnum.IMPRESSIONS_DEDUPED);
+        values.put(IMPRESSIONS_QUEUED, queued);
+        values.put(IMPRESSIONS_DROPPED, _telemetry.getImpressionsStats(ImpressionsDataTypeEnum.IMPRESSIONS_DROPPED));
+        values.put(IMPRESSIONS_DEDUPED, deduped);
+        values.put(IMPRESSIONS_DEDUPE_RATIO, queued + deduped > 0 ? (double) deduped / (queued + deduped) : 0d);
+
+        values.put(EVENTS_QUEUE_DEPTH, _eventsQueue != null ? _eventsQueue.queueDepth() : -1);
+        values.put(EVENTS_QUEUE_BYTES, _eventsQueue != null ? _eventsQueue.queuedBytes() : -1);
+        values.put(EVENTS_QUEUED, _telemetry.getEventStats(EventsDataRecordsEnum.EVENTS_QUEUED));
+        values.put(EVENTS_DROPPED, _telemetry.getEventStats(EventsDataRecordsEnum.EVENTS_DROPPED));
+
+        // Change numbers are the epoch millis of the latest change, how old it is bounds how stale the cache can be.
+        long changeNumber = _splitCache.getChangeNumber();
+        LastSynchronization lastSynchronization = _telemetry.getLastSynchronization();
+        values.put(SPLITS_COUNT, _splitCache.splitNames().size());
+        values.put(SPLITS_CHANGE_NUMBER, changeNumber);
+        values.put(SPLITS_CHANGE_NUMBER_LAG_MILLIS, changeNumber > 0 ? now - changeNumber : -1);
+        values.put(SPLITS_SYNC_AGE_MILLIS, age(now, lastSynchronization != null ? lastSynchronization.get_splits() : 0));
+        values.put(SEGMENTS_COUNT, _segmentCache.getSegmentCount());
+        values.put(SEGMENTS_KEYS, _segmentCache.getKeyCount());
+        values.put(SEGMENTS_SYNC_AGE_MILLIS, age(now, lastSynchronization != null ? lastSynchronization.get_segments() : 0));
+
+        values.put(SSE_SYNC_MODE, lastData(StreamEventsEnum.SYNC_MODE_UPDATE));
+        values.put(SSE_STREAMING_STATUS, lastData(StreamEventsEnum.STREAMING_STATUS));
+        values.put(SSE_CONNECTED_AT, lastTimestamp(StreamEventsEnum.CONNECTION_ESTABLISHED));
+        values.put(SSE_LAST_ERROR_AT, lastTimestamp(StreamEventsEnum.SSE_CONNECTION_ERROR));
+
+        for (MethodEnum method : MethodEnum.values()) {
+            putLatencies(values, "latency." + method.getMethod(), _telemetry.getLatencyHistogram(method));
+        }
+        for (HTTPLatenciesEnum resource : HTTPLatenciesEnum.values()) {
+            putLatencies(values, "http." + resource.name().toLowerCase() + ".latency",
+                    _telemetry.getHTTPLatencyHistogram(resource));
+        }
+        for (Map.Entry<String, Supplier<? extends Number>> gauge : _gauges.entrySet()) {
+            values.put(gauge.getKey(), gauge.getValue().get());
+        }
+        return new SdkMetricsSnapshot(now, values);
+    }
+
+    private static void putLatencies(Map<String, Number> values, String prefix, LatencyHistogram.Snapshot histogram) {
+        if (histogram == null) {
+            return;
+        }
+        values.put(prefix + ".count", histogram.count());
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            values.put(prefix + "." + PERCENTILE_NAMES[i] + "_nanos", histogram.percentileNanos(PERCENTILES[i]));
+        }
+        values.put(prefix + ".max_nanos", histogram.maxNanos());
+    }
+
+    private long lastData(StreamEventsEnum type) {
+        StreamingEvent event = _telemetry.getLastStreamingEvent(type);
+        return event != null ? event.get_data() : -1;
+    }
+
+    private long lastTimestamp(StreamEventsEnum type) {
+        StreamingEvent event = _telemetry.getLastStreamingEvent(type);
+        return event != null ? event.getTimestamp() : -1;
+    }
+
+    private static long age(long now, long timestamp) {
+        return timestamp > 0 ? now - timestamp : -1;
+    }
+}
@@ -0,0 +1,39 @@
+package io.split.telemetry.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Values read by a single {@link SdkMetrics#snapshot()} call, keyed by the metric names declared in {@link SdkMetrics}
+ * and in a stable order.
+ */
+public class SdkMetricsSnapshot {
+
+    private final long _timestamp;
+    private final Map<String, Number> _values;
+
+    /* package private */ SdkMetricsSnapshot(long timestamp, Map<String, Number> values) {
+        _timestamp = timestamp;
+        _values = Collections.unmodifiableMap(values);
+    }
+
+    public long timestamp() {
+        return _timestamp;
+    }
+
+    public Map<String, Number> values() {
+        return _values;
+    }
+
+    /**
+     * @return the value of the given metric, null if there is no such metric.
+     */
+    public Number get(String name) {
+        return _values.get(name);
+    }
+
+    @Override
+    public String toString() {
+        return _values.toString();
+    }
+}
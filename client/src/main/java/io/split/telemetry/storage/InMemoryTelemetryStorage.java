@@ -18,9 +18,11 @@ import io.split.telemetry.domain.enums.MethodEnum;
 import io.split.telemetry.domain.enums.PushCountersEnum;
 import io.split.telemetry.domain.enums.ResourceEnum;
 import io.split.telemetry.domain.enums.SdkRecordsEnum;
+import io.split.telemetry.domain.enums.StreamEventsEnum;
 import io.split.telemetry.domain.enums.UpdatesFromSSEEnum;
 import io.split.telemetry.utils.AtomicLongArray;
 import io.split.telemetry.utils.BucketCalculator;
+import io.split.telemetry.utils.LatencyHistogram;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -37,6 +39,11 @@ public class InMemoryTelemetryStorage implements TelemetryStorage{
     //Latencies
     private final ConcurrentMap<MethodEnum, AtomicLongArray> _methodLatencies = Maps.newConcurrentMap();
     private final ConcurrentMap<HTTPLatenciesEnum, AtomicLongArray> _httpLatencies = Maps.newConcurrentMap();
+    private final ConcurrentMap<MethodEnum, LatencyHistogram> _methodLatencyHistograms = Maps.newConcurrentMap();
+    private final ConcurrentMap<HTTPLatenciesEnum, LatencyHistogram> _httpLatencyHistograms = Maps.newConcurrentMap();
+
+    //Latest streaming event of each type, kept regardless of the pops
+    private final ConcurrentMap<Integer, StreamingEvent> _lastStreamingEvents = Maps.newConcurrentMap();
 
     //Counters
     private final ConcurrentMap<MethodEnum, AtomicLong> _exceptionsCounters = Maps.newConcurrentMap();
@@ -132,6 +139,12 @@ public class InMemoryTelemetryStorage implements TelemetryStorage{
     public void recordLatency(MethodEnum method, long latency) {
         int bucket = BucketCalculator.getBucketForLatency(latency);
         _methodLatencies.get(method).increment(bucket);
+        _methodLatencyHistograms.get(method).record(latency);
+    }
+
+    @Override
+    public LatencyHistogram.Snapshot getLatencyHistogram(MethodEnum method) {
+        return _methodLatencyHistograms.get(method).snapshot();
     }
 
     @Override
@@ -277,6 +290,12 @@ public class InMemoryTelemetryStorage implements TelemetryStorage{
     public void recordSyncLatency(HTTPLatenciesEnum resource, long latency) {
         int bucket = BucketCalculator.getBucketForLatency(latency);
         _httpLatencies.get(resource).increment(bucket);
+        _httpLatencyHistograms.get(resource).record(latency);
+    }
+
+    @Override
+    public LatencyHistogram.Snapshot getHTTPLatencyHistogram(HTTPLatenciesEnum resource) {
+        return _httpLatencyHistograms.get(resource).snapshot();
 
     }
 
@@ -290,8 +309,14 @@ public class InMemoryTelemetryStorage implements TelemetryStorage{
         _pushCounters.get(PushCountersEnum.TOKEN_REFRESHES).incrementAndGet();
     }
 
+    @Override
+    public StreamingEvent getLastStreamingEvent(StreamEventsEnum type) {
+        return _lastStreamingEvents.get(type.getType());
+    }
+
     @Override
     public void recordStreamingEvents(StreamingEvent streamingEvent) {
+        _lastStreamingEvents.put(streamingEvent.get_type(), streamingEvent);
         synchronized (_streamingEventsLock) {
             if(_streamingEvents.size() < MAX_STREAMING_EVENTS) {
                 _streamingEvents.add(streamingEvent);
@@ -319,6 +344,7 @@ public class InMemoryTelemetryStorage implements TelemetryStorage{
         _methodLatencies.put(MethodEnum.TREATMENTS_WITH_CONFIG_BY_FLAG_SET, new AtomicLongArray(MAX_LATENCY_BUCKET_COUNT));
         _methodLatencies.put(MethodEnum.TREATMENTS_WITH_CONFIG_BY_FLAG_SETS, new AtomicLongArray(MAX_LATENCY_BUCKET_COUNT));
         _methodLatencies.put(MethodEnum.TRACK, new AtomicLongArray(MAX_LATENCY_BUCKET_COUNT));
+        _methodLatencies.keySet().forEach(method -> _methodLatencyHistograms.put(method, new LatencyHistogram()));
     }
 
     private void initHttpLatencies() {
@@ -329,6 +355,7 @@ public class InMemoryTelemetryStorage implements TelemetryStorage{
         _httpLatencies.put(HTTPLatenciesEnum.EVENTS, new AtomicLongArray(MAX_LATENCY_BUCKET_COUNT));
         _httpLatencies.put(HTTPLatenciesEnum.TELEMETRY, new AtomicLongArray(MAX_LATENCY_BUCKET_COUNT));
         _httpLatencies.put(HTTPLatenciesEnum.TOKEN, new AtomicLongArray(MAX_LATENCY_BUCKET_COUNT));
+        _httpLatencies.keySet().forEach(resource -> _httpLatencyHistograms.put(resource, new LatencyHistogram()));
     }
 
     private void initHttpErrors() {
@@ -362,6 +389,9 @@ public class InMemoryTelemetryStorage implements TelemetryStorage{
         _impressionsDataRecords.put(ImpressionsDataTypeEnum.IMPRESSIONS_DEDUPED, new AtomicLong());
         _impressionsDataRecords.put(ImpressionsDataTypeEnum.IMPRESSIONS_DROPPED, new AtomicLong());
         _impressionsDataRecords.put(ImpressionsDataTypeEnum.IMPRESSIONS_QUEUED, new AtomicLong());
+        _impressionsDataRecords.put(ImpressionsDataTypeEnum.IMPRESSIONS_SPILLED, new AtomicLong());
+        _impressionsDataRecords.put(ImpressionsDataTypeEnum.IMPRESSIONS_REPLAYED, new AtomicLong());
+        _impressionsDataRecords.put(ImpressionsDataTypeEnum.IMPRESSIONS_SPILL_DISCARDED, new AtomicLong());
     }
 
     private void initPushCounters() {
@@ -386,6 +416,9 @@ public class InMemoryTelemetryStorage implements TelemetryStorage{
     private void initEventDataRecords() {
         _eventsDataRecords.put(EventsDataRecordsEnum.EVENTS_DROPPED, new AtomicLong());
         _eventsDataRecords.put(EventsDataRecordsEnum.EVENTS_QUEUED, new AtomicLong());
+        _eventsDataRecords.put(EventsDataRecordsEnum.EVENTS_SPILLED, new AtomicLong());
+        _eventsDataRecords.put(EventsDataRecordsEnum.EVENTS_REPLAYED, new AtomicLong());
+        _eventsDataRecords.put(EventsDataRecordsEnum.EVENTS_SPILL_DISCARDED, new AtomicLong());
     }
 
     private void initUpdatesFromSEE() {
@@ -13,7 +13,9 @@ import io.split.telemetry.domain.enums.ImpressionsDataTypeEnum;
 import io.split.telemetry.domain.enums.LastSynchronizationRecordsEnum;
 import io.split.telemetry.domain.enums.MethodEnum;
 import io.split.telemetry.domain.enums.ResourceEnum;
+import io.split.telemetry.domain.enums.StreamEventsEnum;
 import io.split.telemetry.domain.enums.UpdatesFromSSEEnum;
+import io.split.telemetry.utils.LatencyHistogram;
 
 import java.util.List;
 
@@ -114,6 +116,11 @@ public class NoopTelemetryStorage implements TelemetryStorage{
         return null;
     }
 
+    @Override
+    public LatencyHistogram.Snapshot getLatencyHistogram(MethodEnum method) {
+        return LatencyHistogram.Snapshot.empty();
+    }
+
     @Override
     public long getImpressionsStats(ImpressionsDataTypeEnum data) {
         return 0;
@@ -139,6 +146,16 @@ public class NoopTelemetryStorage implements TelemetryStorage{
         return null;
     }
 
+    @Override
+    public StreamingEvent getLastStreamingEvent(StreamEventsEnum type) {
+        return null;
+    }
+
+    @Override
+    public LatencyHistogram.Snapshot getHTTPLatencyHistogram(HTTPLatenciesEnum resource) {
+        return LatencyHistogram.Snapshot.empty();
+    }
+
     @Override
     public long popAuthRejections() {
         return 0;
@@ -2,8 +2,16 @@ package io.split.telemetry.storage;
 
 import io.split.telemetry.domain.MethodExceptions;
 import io.split.telemetry.domain.MethodLatencies;
+import io.split.telemetry.domain.enums.MethodEnum;
+import io.split.telemetry.utils.LatencyHistogram;
 
 public interface TelemetryEvaluationConsumer {
     MethodExceptions popExceptions() throws Exception;
     MethodLatencies popLatencies() throws Exception;
+
+    /**
+     * @return the nanosecond latencies of the given method recorded since startup. Unlike {@link #popLatencies()}
+     * it does not reset them.
+     */
+    LatencyHistogram.Snapshot getLatencyHistogram(MethodEnum method);
 }
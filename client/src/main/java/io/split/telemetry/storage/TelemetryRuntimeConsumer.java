@@ -6,7 +6,11 @@ import io.split.telemetry.domain.LastSynchronization;
 import io.split.telemetry.domain.StreamingEvent;
 import io.split.telemetry.domain.UpdatesFromSSE;
 import io.split.telemetry.domain.enums.EventsDataRecordsEnum;
+import io.split.telemetry.domain.enums.HTTPLatenciesEnum;
 import io.split.telemetry.domain.enums.ImpressionsDataTypeEnum;
+import io.split.telemetry.domain.enums.StreamEventsEnum;
+
+import io.split.telemetry.utils.LatencyHistogram;
 
 import java.util.List;
 
@@ -16,9 +20,15 @@ public interface TelemetryRuntimeConsumer {
     LastSynchronization getLastSynchronization();
     HTTPErrors popHTTPErrors();
     HTTPLatencies popHTTPLatencies();
+    LatencyHistogram.Snapshot getHTTPLatencyHistogram(HTTPLatenciesEnum resource);
     long popAuthRejections();
     long popTokenRefreshes();
     List<StreamingEvent> popStreamingEvents();
+
+    /**
+     * @return the latest streaming event of the given type, whether or not it was popped already. Null if none.
+     */
+    StreamingEvent getLastStreamingEvent(StreamEventsEnum type);
     List<String> popTags();
     long getSessionLength();
     UpdatesFromSSE popUpdatesFromSSE();
@@ -10,6 +10,9 @@ public interface TelemetryRuntimeProducer {
     void recordEventStats(EventsDataRecordsEnum dataType, long count);
     void recordSuccessfulSync(LastSynchronizationRecordsEnum resource, long time);
     void recordSyncError(ResourceEnum resource, int status);
+    /**
+     * @param latency in nanoseconds
+     */
     void recordSyncLatency(HTTPLatenciesEnum resource, long latency);
     void recordAuthRejections();
     void recordTokenRefreshes();
@@ -5,11 +5,15 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.IntStream;
 
+/**
+ * Fixed set of counters backed by {@link LongAdder}s, so that concurrent increments are striped instead of
+ * contending on a single value.
+ */
 public class AtomicLongArray {
-    private AtomicLong[] array;
+    private final LongAdder[] array;
     private static final int MAX_LENGTH = 23;
 
     private static final Logger _log = LoggerFactory.getLogger(AtomicLongArray.class);
@@ -19,8 +23,8 @@ public class AtomicLongArray {
             _log.error("Invalid array size. Using default size: " + MAX_LENGTH);
             size = MAX_LENGTH;
         }
-        array = new AtomicLong[size];
-        IntStream.range(0, array.length).forEach(x -> array[x] = new AtomicLong());
+        array = new LongAdder[size];
+        IntStream.range(0, array.length).forEach(x -> array[x] = new LongAdder());
     }
 
     public void increment(int index) {
@@ -28,17 +32,17 @@ public class AtomicLongArray {
            _log.error("Index is out of bounds. Did not incremented.");
            return;
         }
-        array[index].getAndIncrement();
+        array[index].increment();
     }
 
+    /**
+     * Increments that race with this call are either returned or kept for the next one, never lost.
+     */
     public List<Long> fetchAndClearAll() {
-        List<Long> listValues = new ArrayList<>();
-        for (AtomicLong a: array) {
-            listValues.add(a.longValue());
+        List<Long> listValues = new ArrayList<>(array.length);
+        for (LongAdder a: array) {
+            listValues.add(a.sumThenReset());
         }
-
-        IntStream.range(0, array.length).forEach(x -> array[x] = new AtomicLong());
-
         return listValues;
     }
 }
@@ -0,0 +1,167 @@
+package io.split.telemetry.utils;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Log-linear latency histogram in nanoseconds, in the spirit of HdrHistogram, meant to be queried in process.
+ * <p>
+ * Values below {@link #SUB_BUCKETS} are counted exactly; above that every power of two is split in
+ * {@link #SUB_BUCKETS}/2 linear buckets, so a reported value is within ~3% of the recorded one. Values above
+ * {@link #MAX_TRACKABLE_NANOS} are counted in the last bucket. Counts are striped by thread so that recording
+ * threads do not contend on the same cache lines.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    /* package private */ static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final int MAX_MAGNITUDE = 41;
+    public static final long MAX_TRACKABLE_NANOS = (1L << MAX_MAGNITUDE) - 1;
+    /* package private */ static final int BUCKETS = bucketFor(MAX_TRACKABLE_NANOS) + 1;
+    private static final int MAX_STRIPES = 4;
+
+    private final AtomicLongArray[] _stripes;
+    private final AtomicLong _max = new AtomicLong();
+
+    public LatencyHistogram() {
+        this(Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @VisibleForTesting
+    /* package private */ LatencyHistogram(int stripes) {
+        checkArgument(stripes > 0, "stripes must be > 0: %s", stripes);
+        _stripes = new AtomicLongArray[Integer.highestOneBit(stripes)];
+        for (int i = 0; i < _stripes.length; i++) {
+            _stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        int stripe = (int) Thread.currentThread().getId() & (_stripes.length - 1);
+        _stripes[stripe].incrementAndGet(bucketFor(Math.min(nanos, MAX_TRACKABLE_NANOS)));
+        long max = _max.get();
+        while (nanos > max && !_max.compareAndSet(max, nanos)) {
+            max = _max.get();
+        }
+    }
+
+    /**
+     * @return the counts recorded since the histogram was created or last reset.
+     */
+    public Snapshot snapshot() {
+        return collect(false);
+    }
+
+    /**
+     * @return the counts recorded since the histogram was created or last reset, and resets them. Values recorded
+     * concurrently end up either in this snapshot or in the next one.
+     */
+    public Snapshot snapshotAndReset() {
+        return collect(true);
+    }
+
+    private Snapshot collect(boolean reset) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (AtomicLongArray stripe : _stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                long count = reset ? stripe.getAndSet(i, 0) : stripe.get(i);
+                counts[i] += count;
+                total += count;
+            }
+        }
+        return new Snapshot(counts, total, reset ? _max.getAndSet(0) : _max.get());
+    }
+
+    @VisibleForTesting
+    /* package private */ static int bucketFor(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(nanos)) - (SUB_BUCKET_BITS - 1);
+        int top = (int) (nanos >>> shift);
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (top - HALF_SUB_BUCKETS);
+    }
+
+    /**
+     * @return the highest value counted in the given bucket.
+     */
+    @VisibleForTesting
+    /* package private */ static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int offset = bucket - SUB_BUCKETS;
+        int shift = offset / HALF_SUB_BUCKETS + 1;
+        long top = offset % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+
+    public static class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new long[BUCKETS], 0, 0);
+
+        private final long[] _counts;
+        private final long _count;
+        private final long _max;
+
+        private Snapshot(long[] counts, long count, long max) {
+            _counts = counts;
+            _count = count;
+            _max = max;
+        }
+
+        public static Snapshot empty() {
+            return EMPTY;
+        }
+
+        public long count() {
+            return _count;
+        }
+
+        public long maxNanos() {
+            return _max;
+        }
+
+        /**
+         * @param percentile in [0, 100], e.g. 99.9
+         * @return the latency in nanoseconds at or below which the given percentage of the values fall, 0 if nothing
+         * was recorded.
+         */
+        public long percentileNanos(double percentile) {
+            checkArgument(percentile >= 0 && percentile <= 100, "percentile must be in [0, 100]: %s", percentile);
+            if (_count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * _count));
+            long seen = 0;
+            for (int i = 0; i < _counts.length; i++) {
+                seen += _counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueIn(i), _max);
+                }
+            }
+            return _max;
+        }
+
+        public long meanNanos() {
+            if (_count == 0) {
+                return 0;
+            }
+            double sum = 0;
+            for (int i = 0; i < _counts.length; i++) {
+                if (_counts[i] > 0) {
+                    sum += (double) _counts[i] * Math.min(highestValueIn(i), _max);
+                }
+            }
+            return (long) (sum / _count);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package io.split.client;
+
+import io.split.client.dtos.SegmentChange;
+import io.split.engine.common.FetchOptions;
+import io.split.telemetry.storage.InMemoryTelemetryStorage;
+import io.split.telemetry.storage.TelemetryStorage;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.io.CloseMode;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+public class AsyncHttpSegmentChangeFetcherTest {
+    private static final TelemetryStorage TELEMETRY_STORAGE = Mockito.mock(InMemoryTelemetryStorage.class);
+    private static final String BODY = "{\"name\":\"employees\",\"added\":[\"pato\",\"adil\"],\"removed\":[\"sarah\"],\"since\":-1,\"till\":1234}";
+
+    private MockWebServer _server;
+    private CloseableHttpAsyncClient _client;
+    private AsyncHttpSegmentChangeFetcher _fetcher;
+
+    @Before
+    public void setUp() throws IOException, URISyntaxException {
+        _server = new MockWebServer();
+        _server.start();
+        _client = HttpAsyncClients.createDefault();
+        _client.start();
+        URI root = URI.create(String.format("http://%s:%s", _server.getHostName(), _server.getPort()));
+        _fetcher = new AsyncHttpSegmentChangeFetcher(HttpSegmentChangeFetcher.create(HttpClients.createDefault(), root,
+                TELEMETRY_STORAGE), _client);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        _client.close(CloseMode.IMMEDIATE);
+        _server.shutdown();
+    }
+
+    @Test
+    public void fetchAsyncParsesTheResponse() throws Exception {
+        _server.enqueue(new MockResponse().setBody(BODY));
+
+        SegmentChange change = _fetcher.fetchAsync("employees", -1, new FetchOptions.Builder().cacheControlHeaders(true).build())
+                .get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals("employees", change.name);
+        Assert.assertEquals(2, change.added.size());
+        Assert.assertEquals("sarah", change.removed.get(0));
+        Assert.assertEquals(1234, change.till);
+
+        RecordedRequest request = _server.takeRequest(5, TimeUnit.SECONDS);
+        Assert.assertEquals("/api/segmentChanges/employees?since=-1", request.getPath());
+        Assert.assertEquals("no-cache", request.getHeader("Cache-Control"));
+    }
+
+    @Test
+    public void fetchAsyncDecompressesGzip() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(BODY.getBytes(StandardCharsets.UTF_8));
+        }
+        _server.enqueue(new MockResponse()
+                .setHeader("Content-Encoding", "gzip")
+                .setBody(new Buffer().write(bytes.toByteArray())));
+
+        SegmentChange change = _fetcher.fetchAsync("employees", -1, new FetchOptions.Builder().build())
+                .get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1234, change.till);
+        Assert.assertNull(_server.takeRequest(5, TimeUnit.SECONDS).getHeader("Cache-Control"));
+    }
+
+    @Test
+    public void fetchAsyncStreamsAddedKeysToTheConsumer() throws Exception {
+        _server.enqueue(new MockResponse().setBody(BODY));
+
+        List<String> added = new ArrayList<>();
+        SegmentChange change = _fetcher.fetchAsync("employees", -1, new FetchOptions.Builder().build(), added::add)
+                .get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(Arrays.asList("pato", "adil"), added);
+        Assert.assertTrue(change.added.isEmpty());
+        Assert.assertEquals("sarah", change.removed.get(0));
+        Assert.assertEquals(1234, change.till);
+    }
+
+    @Test
+    public void fetchAsyncFailsOnErrorStatus() throws Exception {
+        _server.enqueue(new MockResponse().setResponseCode(500));
+
+        try {
+            _fetcher.fetchAsync("employees", -1, new FetchOptions.Builder().build()).get(5, TimeUnit.SECONDS);
+            Assert.fail("expected the future to fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+            Assert.assertTrue(e.getCause().getMessage().contains("employees"));
+        }
+    }
+}
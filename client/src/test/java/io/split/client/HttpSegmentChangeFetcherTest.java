@@ -1,5 +1,6 @@
 package io.split.client;
 
+import com.google.gson.stream.JsonReader;
 import io.split.TestHelper;
 import io.split.client.dtos.SegmentChange;
 import io.split.engine.common.FetchOptions;
@@ -17,9 +18,13 @@ import org.mockito.Mockito;
 
 import java.io.IOException;
 import java.io.StringBufferInputStream;
+import java.io.StringReader;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.Mockito.when;
@@ -107,4 +112,29 @@ public class HttpSegmentChangeFetcherTest {
         Assert.assertFalse(captured.get(1).getUri().toString().contains("till="));
     }
 
+    @Test
+    public void testReadStreamsAddedKeys() throws IOException {
+        String json = "{\"name\":\"employees\",\"added\":[\"a\",\"b\"],\"removed\":[\"c\"],\"since\":-1,\"till\":10,\"extra\":{}}";
+        List<String> streamed = new ArrayList<>();
+
+        SegmentChange change = HttpSegmentChangeFetcher.read(new JsonReader(new StringReader(json)), streamed::add);
+
+        Assert.assertEquals(Arrays.asList("a", "b"), streamed);
+        Assert.assertTrue(change.added.isEmpty());
+        Assert.assertEquals(Collections.singletonList("c"), change.removed);
+        Assert.assertEquals("employees", change.name);
+        Assert.assertEquals(-1, change.since);
+        Assert.assertEquals(10, change.till);
+    }
+
+    @Test
+    public void testReadEmptyPayloadAndNullLists() throws IOException {
+        Assert.assertNull(HttpSegmentChangeFetcher.read(new JsonReader(new StringReader("")), key -> Assert.fail()));
+
+        SegmentChange change = HttpSegmentChangeFetcher.read(new JsonReader(new StringReader(
+                "{\"name\":null,\"added\":null,\"removed\":null,\"since\":1,\"till\":1}")), key -> Assert.fail());
+        Assert.assertNull(change.name);
+        Assert.assertTrue(change.removed.isEmpty());
+        Assert.assertEquals(1, change.till);
+    }
 }
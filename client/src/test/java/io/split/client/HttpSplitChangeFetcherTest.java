@@ -1,5 +1,6 @@
 package io.split.client;
 
+import com.google.gson.stream.JsonReader;
 import io.split.TestHelper;
 import io.split.client.dtos.Split;
 import io.split.client.dtos.SplitChange;
@@ -22,10 +23,12 @@ import org.mockito.Mockito;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringReader;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -132,4 +135,29 @@ public class HttpSplitChangeFetcherTest {
 
         Assert.assertTrue(seen.size() >= (total * 0.9999));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStreamingFetch() throws Exception {
+        CloseableHttpClient httpClientMock = TestHelper.mockHttpClient("split-change-special-characters.json", HttpStatus.SC_OK);
+        HttpSplitChangeFetcher fetcher = HttpSplitChangeFetcher.create(httpClientMock, URI.create("https://api.split.io"), TELEMETRY_STORAGE);
+
+        List<Split> received = new ArrayList<>();
+        SplitChange change = fetcher.fetch(1234567, new FetchOptions.Builder().build(), received::add);
+
+        Assert.assertTrue(change.splits.isEmpty());
+        Assert.assertEquals(1491244291288L, change.since);
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(2, received.get(0).configurations.size());
+    }
+
+    @Test
+    public void testReadSkipsUnknownFieldsAndNullSplits() throws IOException {
+        List<Split> received = new ArrayList<>();
+        SplitChange change = HttpSplitChangeFetcher.read(new JsonReader(new StringReader(
+                "{\"ff\":{\"d\":[1,2]},\"till\":5,\"splits\":null,\"since\":3}")), received::add);
+
+        Assert.assertEquals(3, change.since);
+        Assert.assertEquals(5, change.till);
+        Assert.assertTrue(received.isEmpty());
+    }
+}
@@ -89,6 +89,13 @@ public class SplitClientConfigTest {
         Assert.assertEquals(65, config.impressionsRefreshRate());
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotSetQueuePressureFlushRatioAboveOne() {
+        SplitClientConfig.builder()
+                .flushOnQueuePressure(1.5)
+                .build();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void cannotSetEventsFlushRateToEqualTo1000() {
         SplitClientConfig.builder()
@@ -235,4 +242,56 @@ public class SplitClientConfigTest {
         Assert.assertEquals(0, config.integrationsConfig().getImpressionsListeners(IntegrationsConfig.Execution.SYNC).size());
         Assert.assertEquals(1, config.integrationsConfig().getImpressionsListeners(IntegrationsConfig.Execution.ASYNC).size());
     }
-}
\ No newline at end of file
+
+    @Test(expected = IllegalArgumentException.class)
+    public void evaluationObserverSampleRateMustBePositive() {
+        SplitClientConfig.builder()
+                .evaluationObserver(trace -> {}, 0)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void featureFlagsParallelParsingThresholdMustNotBeNegative() {
+        SplitClientConfig.builder()
+                .featureFlagsParallelParsingThreshold(-1)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void asyncHttpIoThreadsMustBePositive() {
+        SplitClientConfig.builder()
+                .enableAsyncHttp()
+                .asyncHttpIoThreads(0)
+                .build();
+    }
+
+    @Test
+    public void segmentsRefreshRateBoundsDefaultToTheRefreshRate() {
+        SplitClientConfig config = SplitClientConfig.builder()
+                .segmentsRefreshRate(120)
+                .build();
+        Assert.assertEquals(120, config.segmentsMinRefreshRate());
+        Assert.assertEquals(120, config.segmentsMaxRefreshRate());
+
+        config = SplitClientConfig.builder()
+                .segmentsMinRefreshRate(30)
+                .segmentsMaxRefreshRate(600)
+                .build();
+        Assert.assertEquals(30, config.segmentsMinRefreshRate());
+        Assert.assertEquals(600, config.segmentsMaxRefreshRate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void segmentsMinRefreshRateMustNotExceedTheRefreshRate() {
+        SplitClientConfig.builder()
+                .segmentsMinRefreshRate(90)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void segmentsMaxRefreshRateMustNotBeBelowTheRefreshRate() {
+        SplitClientConfig.builder()
+                .segmentsMaxRefreshRate(45)
+                .build();
+    }
+}
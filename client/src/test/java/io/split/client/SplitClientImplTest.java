@@ -2,6 +2,7 @@ package io.split.client;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import io.split.client.api.EvaluationTrace;
 import io.split.client.api.Key;
 import io.split.client.api.SplitResult;
 import io.split.client.dtos.ConditionType;
@@ -25,6 +26,7 @@ import io.split.engine.matchers.CombiningMatcher;
 import io.split.engine.matchers.DependencyMatcher;
 import io.split.engine.matchers.EqualToMatcher;
 import io.split.engine.matchers.GreaterThanOrEqualToMatcher;
+import io.split.engine.matchers.UserDefinedSegmentMatcher;
 import io.split.engine.matchers.collections.ContainsAnyOfSetMatcher;
 import io.split.engine.matchers.strings.WhitelistMatcher;
 import io.split.grammar.Treatments;
@@ -53,9 +55,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -375,6 +379,51 @@ public class SplitClientImplTest {
         verify(TELEMETRY_STORAGE, times(3)).recordNonReadyUsage();
     }
 
+    @Test
+    public void flagsReadyBeforeTheSdkAreServedWithoutWarnings() throws InterruptedException, TimeoutException {
+        ParsedCondition whitelisted = ParsedCondition.createParsedConditionForTests(CombiningMatcher.of(
+                new WhitelistMatcher(Lists.newArrayList("adil@codigo.com"))), Lists.newArrayList(partition("on", 100)));
+        ParsedCondition inSegment = ParsedCondition.createParsedConditionForTests(CombiningMatcher.of(
+                new UserDefinedSegmentMatcher("employees")), Lists.newArrayList(partition("on", 100)));
+        ParsedSplit ready = ParsedSplit.createParsedSplitForTests("ready", 123, false, Treatments.OFF,
+                Lists.newArrayList(whitelisted), null, 1, 1, new HashSet<>());
+        ParsedSplit waitingForSegment = ParsedSplit.createParsedSplitForTests("waiting", 123, false, Treatments.OFF,
+                Lists.newArrayList(inSegment), null, 1, 1, new HashSet<>());
+
+        SplitCacheConsumer splitCacheConsumer = mock(SplitCacheConsumer.class);
+        SegmentCacheConsumer segmentCacheConsumer = mock(SegmentCacheConsumer.class);
+        when(splitCacheConsumer.get("ready")).thenReturn(ready);
+        when(splitCacheConsumer.get("waiting")).thenReturn(waitingForSegment);
+        SDKReadinessGates gates = new SDKReadinessGates(splitCacheConsumer);
+
+        SplitClientImpl client = new SplitClientImpl(
+                mock(SplitFactory.class),
+                splitCacheConsumer,
+                new ImpressionsManager.NoOpImpressionsManager(),
+                NoopEventsStorageImp.create(),
+                config,
+                gates,
+                new EvaluatorImp(splitCacheConsumer, segmentCacheConsumer), TELEMETRY_STORAGE, TELEMETRY_STORAGE,
+                flagSetsFilter
+        );
+
+        client.blockUntilReady(Lists.newArrayList("ready"));
+        assertEquals("on", client.getTreatment("adil@codigo.com", "ready"));
+        verify(TELEMETRY_STORAGE, never()).recordNonReadyUsage();
+
+        try {
+            client.blockUntilReady(Lists.newArrayList("ready", "waiting"));
+            fail("expected the feature flag waiting for its segment not to be ready");
+        } catch (TimeoutException e) {
+            // expected
+        }
+        client.getTreatment("adil@codigo.com", "waiting");
+        verify(TELEMETRY_STORAGE, times(1)).recordNonReadyUsage();
+
+        gates.segmentReady("employees");
+        client.blockUntilReady(Lists.newArrayList("ready", "waiting"));
+    }
+
 
     @Test
     public void killedTestAlwaysGoesToDefault() {
@@ -2084,4 +2133,62 @@ public class SplitClientImplTest {
 
         verify(splitCacheConsumer, times(1)).fetchMany(anyList());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void evaluationObserverReceivesPhases() {
+        String test = "test1";
+        ParsedCondition rollOutToEveryone = ParsedCondition.createParsedConditionForTests(CombiningMatcher.of(new AllKeysMatcher()),
+                Lists.newArrayList(partition("on", 100)));
+        ParsedSplit parsedSplit = ParsedSplit.createParsedSplitForTests(test, 123, false, Treatments.OFF,
+                Lists.newArrayList(rollOutToEveryone), null, 1, 1, new HashSet<>());
+        Map<String, ParsedSplit> splits = new HashMap<>();
+        splits.put(test, parsedSplit);
+        SplitCacheConsumer splitCacheConsumer = mock(SplitCacheConsumer.class);
+        when(splitCacheConsumer.get(test)).thenReturn(parsedSplit);
+        when(splitCacheConsumer.fetchMany(anyList())).thenReturn(splits);
+        SDKReadinessGates gates = mock(SDKReadinessGates.class);
+        when(gates.isSDKReady()).thenReturn(true);
+
+        List<EvaluationTrace> traces = new ArrayList<>();
+        SplitClientConfig observedConfig = SplitClientConfig.builder().setBlockUntilReadyTimeout(100)
+                .evaluationObserver(traces::add).build();
+        SplitClientImpl client = new SplitClientImpl(
+                mock(SplitFactory.class),
+                splitCacheConsumer,
+                new ImpressionsManager.NoOpImpressionsManager(),
+                NoopEventsStorageImp.create(),
+                observedConfig,
+                gates,
+                new EvaluatorImp(splitCacheConsumer, mock(SegmentCacheConsumer.class)), TELEMETRY_STORAGE, TELEMETRY_STORAGE,
+                flagSetsFilter
+        );
+
+        assertEquals("on", client.getTreatment("key", test));
+        assertEquals(1, traces.size());
+        EvaluationTrace trace = traces.get(0);
+        assertEquals("getTreatment", trace.method());
+        assertEquals(test, trace.featureFlag());
+        assertEquals("on", trace.treatment());
+        assertEquals(rollOutToEveryone.label(), trace.label());
+        assertEquals(Long.valueOf(1), trace.changeNumber());
+        assertTrue(trace.startNanos() <= trace.validatedNanos());
+        assertTrue(trace.validatedNanos() <= trace.evaluatedNanos());
+        assertTrue(trace.evaluatedNanos() <= trace.endNanos());
+
+        client.getTreatments("key", Arrays.asList(test, "missing"));
+        assertEquals(3, traces.size());
+        assertEquals("getTreatments", traces.get(1).method());
+        assertEquals(traces.get(1).endNanos(), traces.get(2).endNanos());
+
+        // An observer that throws does not change the result.
+        SplitClientConfig throwingConfig = SplitClientConfig.builder().setBlockUntilReadyTimeout(100)
+                .evaluationObserver(t -> {
+                    throw new IllegalStateException();
+                }).build();
+        client = new SplitClientImpl(mock(SplitFactory.class), splitCacheConsumer, new ImpressionsManager.NoOpImpressionsManager(),
+                NoopEventsStorageImp.create(), throwingConfig, gates,
+                new EvaluatorImp(splitCacheConsumer, mock(SegmentCacheConsumer.class)), TELEMETRY_STORAGE, TELEMETRY_STORAGE,
+                flagSetsFilter);
+        assertEquals("on", client.getTreatment("key", test));
+    }
+}
@@ -0,0 +1,121 @@
+package io.split.client.dtos;
+
+import com.google.common.collect.Lists;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import io.split.client.utils.Json;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class DtoTypeAdaptersTest {
+
+    // Configured as Json, without the adapters.
+    private static final Gson REFLECTIVE = new GsonBuilder()
+            .serializeNulls()
+            .registerTypeAdapter(Double.class, (JsonSerializer<Double>) (src, type, context) ->
+                    src == src.longValue() ? new JsonPrimitive(src.longValue()) : new JsonPrimitive(src))
+            .create();
+
+    @Test
+    public void testSplitChangesMatchReflection() throws IOException {
+        for (String resource : new String[] {"split_init.json", "split-change-special-characters.json", "splits.json"}) {
+            String json = read(resource);
+            SplitChange reflective = REFLECTIVE.fromJson(json, SplitChange.class);
+            SplitChange streamed = Json.fromJson(json, SplitChange.class);
+
+            Assert.assertEquals(resource, REFLECTIVE.toJson(reflective), REFLECTIVE.toJson(streamed));
+            Assert.assertEquals(resource, REFLECTIVE.toJson(reflective), Json.toJson(reflective));
+        }
+    }
+
+    @Test
+    public void testLenientReadsMatchReflection() {
+        String json = "{\"splits\":[{\"name\":true,\"seed\":null,\"status\":\"UNKNOWN_STATUS\",\"killed\":\"true\","
+                + "\"algo\":\"2\",\"extra\":{\"a\":[1,{}]},\"conditions\":[null,{\"matcherGroup\":{\"matchers\":[{"
+                + "\"matcherType\":\"SOMETHING_NEW\",\"negate\":null,\"booleanMatcherData\":\"false\"}]}}]}],\"till\":7}";
+
+        SplitChange reflective = REFLECTIVE.fromJson(json, SplitChange.class);
+        SplitChange streamed = Json.fromJson(json, SplitChange.class);
+
+        Assert.assertEquals(REFLECTIVE.toJson(reflective), REFLECTIVE.toJson(streamed));
+        Split split = streamed.splits.get(0);
+        Assert.assertEquals("true", split.name);
+        Assert.assertNull(split.status);
+        Assert.assertTrue(split.killed);
+        Assert.assertEquals(2, split.algo);
+        Assert.assertEquals(7, streamed.till);
+    }
+
+    @Test
+    public void testSegmentChangeMatchesReflection() throws IOException {
+        String json = read("segment-change-special-chatacters.json");
+
+        Assert.assertEquals(REFLECTIVE.toJson(REFLECTIVE.fromJson(json, SegmentChange.class)),
+                REFLECTIVE.toJson(Json.fromJson(json, SegmentChange.class)));
+    }
+
+    @Test
+    public void testImpressionsMatchReflection() {
+        KeyImpression impression = new KeyImpression();
+        impression.feature = "not sent";
+        impression.keyName = "key";
+        impression.treatment = "on";
+        impression.label = "in segment \"all\"";
+        impression.time = 123;
+        impression.changeNumber = 456L;
+        TestImpressions impressions = new TestImpressions("flag", Lists.newArrayList(impression, new KeyImpression()));
+
+        String json = Json.toJson(Lists.newArrayList(impressions));
+        Assert.assertEquals(REFLECTIVE.toJson(Lists.newArrayList(impressions)), json);
+        Assert.assertFalse(json.contains("not sent"));
+        Assert.assertEquals(REFLECTIVE.toJson(impressions), REFLECTIVE.toJson(Json.fromJson(json.substring(1, json.length() - 1),
+                TestImpressions.class)));
+    }
+
+    @Test
+    public void testEventsMatchReflection() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("string", "value");
+        properties.put("integral", 2.0);
+        properties.put("decimal", 2.5);
+        properties.put("int", 3);
+        properties.put("long", 4L);
+        properties.put("bool", true);
+        properties.put("null", null);
+        properties.put("other", 'c');
+        Event event = new Event();
+        event.eventTypeId = "checkout";
+        event.trafficTypeName = "user";
+        event.key = "key";
+        event.value = 1;
+        event.timestamp = 789;
+        event.properties = properties;
+
+        Assert.assertEquals(REFLECTIVE.toJson(event), Json.toJson(event));
+        Assert.assertEquals(REFLECTIVE.toJson(new Event()), Json.toJson(new Event()));
+
+        Event read = Json.fromJson(Json.toJson(event), Event.class);
+        Assert.assertEquals(REFLECTIVE.toJson(REFLECTIVE.fromJson(Json.toJson(event), Event.class)), REFLECTIVE.toJson(read));
+    }
+
+    @Test
+    public void testNullDtosInCollections() {
+        Map<String, Split> splits = new HashMap<>();
+        splits.put("a", null);
+        Assert.assertEquals("{\"a\":null}", Json.toJson(splits));
+    }
+
+    private static String read(String resource) throws IOException {
+        return new String(Files.readAllBytes(Paths.get("src/test/resources", resource)), StandardCharsets.UTF_8);
+    }
+}
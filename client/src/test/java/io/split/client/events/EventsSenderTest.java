@@ -1,13 +1,20 @@
 package io.split.client.events;
 
+import io.split.TestHelper;
+import io.split.client.dtos.Event;
+import io.split.storages.disk.SpillLog;
 import io.split.telemetry.storage.TelemetryRuntimeProducer;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.HttpStatus;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
 
 public class EventsSenderTest {
 
@@ -41,4 +48,28 @@ public class EventsSenderTest {
         EventsSender fetcher = EventsSender.create(CLOSEABLE_HTTP_CLIENT, rootTarget, TELEMETRY_RUNTIME_CONSUMER);
         Assert.assertEquals("https://kubernetesturl.com/split/api/events/bulk", fetcher.getBulkEndpoint().toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRetryableFailureIsSpilled() throws IOException, URISyntaxException, InvocationTargetException, NoSuchMethodException,
+            IllegalAccessException {
+        SpillLog spillLog = Mockito.mock(SpillLog.class);
+        CloseableHttpClient httpClient = TestHelper.mockHttpClient("", HttpStatus.SC_SERVICE_UNAVAILABLE);
+        EventsSender sender = EventsSender.create(httpClient, URI.create("https://kubernetesturl.com/split"),
+                TELEMETRY_RUNTIME_CONSUMER, spillLog);
+
+        sender.sendEvents(Collections.singletonList(new Event()));
+        Mockito.verify(spillLog, Mockito.times(1)).append(Mockito.any(byte[].class), Mockito.eq(1));
+    }
+
+    @Test
+    public void testClientErrorIsNotSpilled() throws IOException, URISyntaxException, InvocationTargetException, NoSuchMethodException,
+            IllegalAccessException {
+        SpillLog spillLog = Mockito.mock(SpillLog.class);
+        CloseableHttpClient httpClient = TestHelper.mockHttpClient("", HttpStatus.SC_BAD_REQUEST);
+        EventsSender sender = EventsSender.create(httpClient, URI.create("https://kubernetesturl.com/split"),
+                TELEMETRY_RUNTIME_CONSUMER, spillLog);
+
+        sender.sendEvents(Collections.singletonList(new Event()));
+        Mockito.verify(spillLog, Mockito.never()).append(Mockito.any(byte[].class), Mockito.anyInt());
+    }
+}
@@ -6,6 +6,10 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class EventsTaskTest {
     private static final EventsSender EVENTS_SENDER = Mockito.mock(EventsSender.class);
 
@@ -99,4 +103,43 @@ public class EventsTaskTest {
         Thread.sleep(1000);
         Mockito.verify(eventsSender, Mockito.times(2)).sendEvents(Mockito.anyObject());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testChunksAreBoundedByCountAndBytes() {
+        List<WrappedEvent> wrappedEvents = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            wrappedEvents.add(new WrappedEvent(new Event(), 100));
+        }
+        List<List<Event>> chunks = EventsTask.chunk(wrappedEvents, 4, 10000);
+        Assert.assertEquals(3, chunks.size());
+        Assert.assertEquals(4, chunks.get(0).size());
+        Assert.assertEquals(2, chunks.get(2).size());
+
+        chunks = EventsTask.chunk(wrappedEvents, 100, 350);
+        Assert.assertEquals(4, chunks.size());
+        Assert.assertEquals(3, chunks.get(0).size());
+
+        // An event larger than the byte bound still goes out, alone.
+        chunks = EventsTask.chunk(Arrays.asList(new WrappedEvent(new Event(), 1000), new WrappedEvent(new Event(), 10)), 100, 500);
+        Assert.assertEquals(2, chunks.size());
+        Assert.assertTrue(EventsTask.chunk(new ArrayList<>(), 100, 500).isEmpty());
+    }
+
+    @Test
+    public void testLargeFlushIsPostedInChunks() {
+        TelemetryRuntimeProducer telemetryRuntimeProducer = Mockito.mock(TelemetryRuntimeProducer.class);
+        EventsSender eventsSender = Mockito.mock(EventsSender.class);
+        EventsStorage eventsStorage = new InMemoryEventsStorage(20000, telemetryRuntimeProducer);
+        EventsTask eventClient = new EventsTask(eventsStorage,
+                2000,
+                eventsSender,
+                null);
+
+        for (int i = 0; i < 2 * EventsTask.MAX_BULK_EVENTS + 1; ++i) {
+            eventsStorage.track(new Event(), 1024);
+        }
+        eventClient.sendEvents();
+        Mockito.verify(eventsSender, Mockito.times(3)).sendEvents(Mockito.anyObject());
+        eventClient.close();
+    }
+}
@@ -82,4 +82,20 @@ public class InMemoryEventsStorageTest{
         EventsStorage eventsStorage = new InMemoryEventsStorage(2, telemetryRuntimeProducer);
         Assert.assertEquals(false, eventsStorage.track(null, 1));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testQueuedBytes() {
+        TelemetryRuntimeProducer telemetryRuntimeProducer = Mockito.mock(TelemetryRuntimeProducer.class);
+        InMemoryEventsStorage eventsStorage = new InMemoryEventsStorage(10, telemetryRuntimeProducer);
+        for (int i = 0; i < 3; ++i) {
+            eventsStorage.track(new Event(), 100);
+        }
+
+        Assert.assertEquals(3, eventsStorage.queueDepth());
+        Assert.assertEquals(300, eventsStorage.queuedBytes());
+        eventsStorage.pop();
+        Assert.assertEquals(200, eventsStorage.queuedBytes());
+        eventsStorage.popAll();
+        Assert.assertEquals(0, eventsStorage.queuedBytes());
+    }
+}
@@ -12,6 +12,7 @@ import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequest;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpStatus;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
@@ -19,14 +20,18 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
@@ -164,4 +169,80 @@ public class HttpImpressionsSenderTest {
         assertThat(request.getHeaders().length, is(1));
         assertThat(request.getFirstHeader("SplitSDKImpressionsMode").getValue(), is(equalTo("DEBUG")));
     }
+
+    @Test
+    public void testChunkSplitsByEstimatedSize() {
+        List<KeyImpression> t1 = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            t1.add(KeyImpression.fromImpression(new Impression("k" + i, null, "t1", "on", 123L, "r1", 456L, null)));
+        }
+        List<KeyImpression> t2 = Arrays.asList(
+                KeyImpression.fromImpression(new Impression("k1", null, "t2", "on", 123L, "r1", 456L, null)));
+        List<TestImpressions> toSend = Arrays.asList(new TestImpressions("t1", t1), new TestImpressions("t2", t2));
+
+        long perImpression = t1.get(0).estimatedSize();
+        List<List<TestImpressions>> chunks = HttpImpressionsSender.chunk(toSend, perImpression * 4);
+        assertThat(chunks.size(), is(equalTo(4)));
+        int total = 0;
+        for (List<TestImpressions> chunk : chunks) {
+            for (TestImpressions testImpressions : chunk) {
+                total += testImpressions.keyImpressions.size();
+            }
+        }
+        assertThat(total, is(equalTo(11)));
+        assertThat(chunks.get(0).get(0).testName, is(equalTo("t1")));
+        assertThat(chunks.get(3).get(chunks.get(3).size() - 1).testName, is(equalTo("t2")));
+
+        assertThat(HttpImpressionsSender.chunk(toSend, HttpImpressionsSender.MAX_BULK_BYTES).size(), is(equalTo(1)));
+        assertThat(HttpImpressionsSender.chunk(new ArrayList<>(), 10).size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testImpressionBulksPostedInChunks() throws URISyntaxException, IOException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
+        URI rootTarget = URI.create("https://kubernetesturl.com/split");
+        CloseableHttpClient httpClient = TestHelper.mockHttpClient("", HttpStatus.SC_OK);
+
+        List<KeyImpression> keyImpressions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            keyImpressions.add(KeyImpression.fromImpression(new Impression("k" + i, null, "t1", "on", 123L, "r1", 456L, null)));
+        }
+        long perImpression = keyImpressions.get(0).estimatedSize();
+        HttpImpressionsSender sender = HttpImpressionsSender.createForTest(httpClient, rootTarget, ImpressionsManager.Mode.DEBUG,
+                TELEMETRY_STORAGE, false, perImpression * 5);
+        sender.postImpressionsBulk(Arrays.asList(new TestImpressions("t1", keyImpressions)));
+        sender.close();
+
+        ArgumentCaptor<HttpUriRequest> captor = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(httpClient, Mockito.times(5)).execute(captor.capture());
+        int total = 0;
+        for (HttpUriRequest request : captor.getAllValues()) {
+            InputStreamReader reader = new InputStreamReader(((HttpPost) request).getEntity().getContent());
+            List<TestImpressions> payload = new Gson().fromJson(reader, new TypeToken<List<TestImpressions>>() { }.getType());
+            total += payload.get(0).keyImpressions.size();
+        }
+        assertThat(total, is(equalTo(20)));
+    }
+
+    @Test
+    public void testImpressionBulksGzipped() throws URISyntaxException, IOException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
+        URI rootTarget = URI.create("https://kubernetesturl.com/split");
+        CloseableHttpClient httpClient = TestHelper.mockHttpClient("", HttpStatus.SC_OK);
+
+        HttpImpressionsSender sender = HttpImpressionsSender.create(httpClient, rootTarget, ImpressionsManager.Mode.OPTIMIZED,
+                TELEMETRY_STORAGE, true, null, null);
+        sender.postImpressionsBulk(Arrays.asList(new TestImpressions("t1", Arrays.asList(
+                KeyImpression.fromImpression(new Impression("k1", null, "t1", "on", 123L, "r1", 456L, null))))));
+        sender.close();
+
+        ArgumentCaptor<HttpUriRequest> captor = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(httpClient).execute(captor.capture());
+        HttpEntity entity = ((HttpPost) captor.getValue()).getEntity();
+        assertThat(entity.getContentEncoding(), is(equalTo("gzip")));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        entity.writeTo(body);
+        InputStreamReader reader = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(body.toByteArray())));
+        List<TestImpressions> payload = new Gson().fromJson(reader, new TypeToken<List<TestImpressions>>() { }.getType());
+        assertThat(payload.size(), is(equalTo(1)));
+        assertThat(payload.get(0).keyImpressions.get(0).keyName, is(equalTo("k1")));
+    }
 }
@@ -103,6 +103,43 @@ public class ImpressionsManagerImplTest {
         Assert.assertEquals(2, captured.size());
     }
 
+    @Test
+    public void testAsyncProcessing() throws URISyntaxException {
+        SplitClientConfig config = SplitClientConfig.builder()
+                .impressionsQueueSize(4)
+                .endpoint("nowhere.com", "nowhere.com")
+                .impressionsMode(ImpressionsManager.Mode.DEBUG)
+                .enableAsyncImpressionProcessing()
+                .build();
+        ImpressionsStorage storage = new InMemoryImpressionsStorage(config.impressionsQueueSize());
+
+        ImpressionsSender senderMock = Mockito.mock(ImpressionsSender.class);
+        ImpressionListener impressionListener = Mockito.mock(AsynchronousImpressionListener.class);
+        ProcessImpressionStrategy processImpressionStrategy = new ProcessImpressionDebug(true, new ImpressionObserver(200));
+
+        ImpressionsManagerImpl treatmentLog = ImpressionsManagerImpl.instanceForTest(config, senderMock, TELEMETRY_STORAGE, storage, storage,
+                processImpressionStrategy, null, impressionListener);
+
+        KeyImpression ki1 = keyImpression("test1", "adil", "on", 1L, null);
+        KeyImpression ki2 = keyImpression("test1", "pato", "on", 2L, 1L);
+        List<Impression> impressionList = new ArrayList<>();
+        impressionList.add(new Impression(ki1.keyName, null, ki1.feature, ki1.treatment, ki1.time, null, ki1.changeNumber, null));
+        impressionList.add(new Impression(ki2.keyName, null, ki2.feature, ki2.treatment, ki2.time, null, ki2.changeNumber, null));
+
+        treatmentLog.track(impressionList);
+
+        // Nothing is processed on the calling thread.
+        verify(impressionListener, never()).log(Mockito.anyObject());
+        Assert.assertTrue(storage.pop().isEmpty());
+
+        // Do what the processor thread would do.
+        treatmentLog.processBuffered();
+        verify(impressionListener, times(2)).log(Mockito.anyObject());
+        treatmentLog.sendImpressions();
+        verify(senderMock).postImpressionsBulk(impressionsCaptor.capture());
+        Assert.assertEquals(2, impressionsCaptor.getValue().get(0).keyImpressions.size());
+    }
+
     @Test
     public void testImpressionListenerOptimize() {
         SplitClientConfig config = SplitClientConfig.builder()
@@ -833,4 +870,33 @@ public class ImpressionsManagerImplTest {
         manager.start();
         Assert.assertNotNull(manager.getCounter());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSlowFlushPressureClearsOnceFlushesAreEmpty() {
+        SplitClientConfig config = SplitClientConfig.builder()
+                .impressionsQueueSize(10)
+                .endpoint("nowhere.com", "nowhere.com")
+                .impressionsMode(ImpressionsManager.Mode.OPTIMIZED)
+                .build();
+        ImpressionsStorage storage = new InMemoryImpressionsStorage(config.impressionsQueueSize());
+        ImpressionsSender senderMock = Mockito.mock(ImpressionsSender.class);
+        ImpressionsModeController modeController = new ImpressionsModeController(ImpressionsManager.Mode.OPTIMIZED,
+                config.impressionsQueueSize(), TELEMETRY_STORAGE);
+        ImpressionsManagerImpl manager = ImpressionsManagerImpl.instanceForTest(config, senderMock, TELEMETRY_STORAGE, storage, storage,
+                new ProcessImpressionDebug(false, new ImpressionObserver(200)), null, null, null, modeController);
+
+        modeController.recordFlush(ImpressionsModeController.SLOW_FLUSH_MILLIS + 1);
+        for (int i = 0; i < ImpressionsModeController.PRESSURED_EVALUATIONS_TO_DEGRADE; i++) {
+            modeController.evaluate();
+        }
+        Assert.assertEquals(ImpressionsManager.Mode.NONE, modeController.effectiveMode(ImpressionsManager.Mode.OPTIMIZED));
+
+        // Under NONE nothing is queued, the empty flushes must still clear the slow flush signal.
+        manager.sendImpressions();
+        verify(senderMock, never()).postImpressionsBulk(Mockito.anyList());
+        for (int i = 0; i < ImpressionsModeController.RELAXED_EVALUATIONS_TO_RESTORE; i++) {
+            modeController.evaluate();
+        }
+        Assert.assertEquals(ImpressionsManager.Mode.OPTIMIZED, modeController.effectiveMode(ImpressionsManager.Mode.OPTIMIZED));
+    }
+}
@@ -0,0 +1,105 @@
+package io.split.client.impressions;
+
+import io.split.telemetry.domain.StreamingEvent;
+import io.split.telemetry.domain.enums.StreamEventsEnum;
+import io.split.telemetry.storage.TelemetryRuntimeProducer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ImpressionsModeControllerTest {
+
+    @Test
+    public void degradesAfterSustainedDropsAndRestoresOnceRelieved() {
+        TelemetryRuntimeProducer telemetry = Mockito.mock(TelemetryRuntimeProducer.class);
+        ImpressionsModeController controller = new ImpressionsModeController(ImpressionsManager.Mode.DEBUG, 100, telemetry);
+
+        controller.recordQueued(100, 5);
+        controller.evaluate();
+        Assert.assertEquals(0, controller.degradation());
+
+        controller.recordQueued(0, 5);
+        controller.evaluate();
+        Assert.assertEquals(1, controller.degradation());
+        Assert.assertEquals(ImpressionsManager.Mode.OPTIMIZED, controller.effectiveMode(ImpressionsManager.Mode.DEBUG));
+        Assert.assertEquals(ImpressionsManager.Mode.NONE, controller.effectiveMode(ImpressionsManager.Mode.OPTIMIZED));
+
+        controller.recordFlush(10);
+        for (int i = 0; i < ImpressionsModeController.RELAXED_EVALUATIONS_TO_RESTORE - 1; i++) {
+            controller.evaluate();
+            Assert.assertEquals(1, controller.degradation());
+        }
+        controller.evaluate();
+        Assert.assertEquals(0, controller.degradation());
+        Assert.assertEquals(ImpressionsManager.Mode.DEBUG, controller.effectiveMode(ImpressionsManager.Mode.DEBUG));
+
+        ArgumentCaptor<StreamingEvent> captor = ArgumentCaptor.forClass(StreamingEvent.class);
+        Mockito.verify(telemetry, Mockito.times(2)).recordStreamingEvents(captor.capture());
+        List<StreamingEvent> events = captor.getAllValues();
+        Assert.assertEquals(StreamEventsEnum.IMPRESSIONS_MODE_UPDATE.getType(), events.get(0).get_type());
+        Assert.assertEquals(StreamEventsEnum.ImpressionsModeUpdateValues.OPTIMIZED_EVENT.getValue(), events.get(0).get_data());
+        Assert.assertEquals(StreamEventsEnum.ImpressionsModeUpdateValues.DEBUG_EVENT.getValue(), events.get(1).get_data());
+    }
+
+    @Test
+    public void highFillAndSlowFlushesCountAsPressure() {
+        TelemetryRuntimeProducer telemetry = Mockito.mock(TelemetryRuntimeProducer.class);
+        ImpressionsModeController controller = new ImpressionsModeController(ImpressionsManager.Mode.OPTIMIZED, 100, telemetry);
+
+        controller.recordQueued(90, 0);
+        controller.evaluate();
+        controller.evaluate();
+        Assert.assertEquals(1, controller.degradation());
+
+        controller = new ImpressionsModeController(ImpressionsManager.Mode.OPTIMIZED, 100, telemetry);
+        controller.recordFlush(ImpressionsModeController.SLOW_FLUSH_MILLIS + 1);
+        controller.evaluate();
+        controller.evaluate();
+        Assert.assertEquals(1, controller.degradation());
+    }
+
+    @Test
+    public void neverDegradesPastNone() {
+        TelemetryRuntimeProducer telemetry = Mockito.mock(TelemetryRuntimeProducer.class);
+        ImpressionsModeController controller = new ImpressionsModeController(ImpressionsManager.Mode.OPTIMIZED, 100, telemetry);
+
+        for (int i = 0; i < 10; i++) {
+            controller.recordQueued(0, 1);
+            controller.evaluate();
+        }
+        Assert.assertEquals(1, controller.degradation());
+        Assert.assertEquals(ImpressionsManager.Mode.NONE, controller.effectiveMode(ImpressionsManager.Mode.OPTIMIZED));
+        Mockito.verify(telemetry, Mockito.times(1)).recordStreamingEvents(Mockito.any());
+    }
+
+    @Test
+    public void moderateFillNeitherDegradesNorRestores() {
+        TelemetryRuntimeProducer telemetry = Mockito.mock(TelemetryRuntimeProducer.class);
+        ImpressionsModeController controller = new ImpressionsModeController(ImpressionsManager.Mode.DEBUG, 100, telemetry);
+        controller.recordQueued(0, 1);
+        controller.evaluate();
+        controller.recordQueued(0, 1);
+        controller.evaluate();
+        Assert.assertEquals(1, controller.degradation());
+
+        controller.recordQueued(60, 0);
+        for (int i = 0; i < 2 * ImpressionsModeController.RELAXED_EVALUATIONS_TO_RESTORE; i++) {
+            controller.evaluate();
+        }
+        Assert.assertEquals(1, controller.degradation());
+    }
+
+    @Test
+    public void reachableAndMostDetailedModes() {
+        Assert.assertEquals(Arrays.asList(ImpressionsManager.Mode.DEBUG, ImpressionsManager.Mode.OPTIMIZED, ImpressionsManager.Mode.NONE),
+                ImpressionsModeController.reachableFrom(ImpressionsManager.Mode.DEBUG));
+        Assert.assertEquals(Arrays.asList(ImpressionsManager.Mode.NONE),
+                ImpressionsModeController.reachableFrom(ImpressionsManager.Mode.NONE));
+        Assert.assertEquals(ImpressionsManager.Mode.OPTIMIZED, ImpressionsModeController.mostDetailed(
+                Arrays.asList(ImpressionsManager.Mode.NONE, ImpressionsManager.Mode.OPTIMIZED)));
+    }
+}
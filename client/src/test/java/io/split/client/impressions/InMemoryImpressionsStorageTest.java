@@ -29,4 +29,21 @@ public class InMemoryImpressionsStorageTest {
         assertThat(res.size(), is(equalTo(10)));
         assertThat(storage.isFull(), is(false));
     }
+
+    @Test
+    public void testQueuedBytesFollowPutAndPop() {
+        InMemoryImpressionsStorage storage = new InMemoryImpressionsStorage(2);
+        KeyImpression impression = new KeyImpression();
+        impression.feature = "feature";
+        impression.keyName = "key";
+        impression.treatment = "on";
+        storage.put(Stream.of(impression, impression, impression).collect(Collectors.toList()));
+
+        assertThat(storage.queueDepth(), is(2L));
+        assertThat(storage.queuedBytes(), is(2L * impression.estimatedSize()));
+        storage.pop(1);
+        assertThat(storage.queuedBytes(), is(impression.estimatedSize()));
+        storage.pop();
+        assertThat(storage.queuedBytes(), is(0L));
+    }
 }
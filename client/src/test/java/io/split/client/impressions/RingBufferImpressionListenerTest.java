@@ -0,0 +1,134 @@
+package io.split.client.impressions;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class RingBufferImpressionListenerTest {
+
+    private static Impression impression(String key) {
+        return new Impression(key, null, "feature", "on", 1L, null, 1L, null);
+    }
+
+    private static class CollectingListener implements BatchImpressionListener {
+        final List<List<Impression>> batches = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean closed;
+
+        @Override
+        public void logBatch(List<Impression> impressions) {
+            batches.add(impressions);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void testBatchesAreCappedBySize() {
+        CollectingListener delegate = new CollectingListener();
+        RingBufferImpressionListener listener = new RingBufferImpressionListener(delegate, 16, 4, 60000,
+                Executors.newSingleThreadExecutor());
+        for (int i = 0; i < 10; i++) {
+            listener.log(impression("key" + i));
+        }
+        listener.start();
+        listener.close();
+
+        Assert.assertEquals(3, delegate.batches.size());
+        Assert.assertEquals(4, delegate.batches.get(0).size());
+        Assert.assertEquals(4, delegate.batches.get(1).size());
+        Assert.assertEquals(2, delegate.batches.get(2).size());
+        Assert.assertEquals("key0", delegate.batches.get(0).get(0).key());
+        Assert.assertEquals(10, listener.deliveredCount());
+        Assert.assertTrue(delegate.closed);
+    }
+
+    @Test
+    public void testDropsWhenFull() {
+        CollectingListener delegate = new CollectingListener();
+        ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+        RingBufferImpressionListener listener = new RingBufferImpressionListener(delegate, 8, 100, 0, dispatcher);
+        for (int i = 0; i < 12; i++) {
+            listener.log(impression("key" + i));
+        }
+        Assert.assertEquals(4, listener.droppedCount());
+
+        listener.start();
+        listener.close();
+        Assert.assertEquals(8, listener.deliveredCount());
+    }
+
+    @Test
+    public void testLingerFlushesPartialBatches() throws InterruptedException {
+        CollectingListener delegate = new CollectingListener();
+        RingBufferImpressionListener listener = RingBufferImpressionListener.build(delegate, 1024, 100, 10, null);
+        listener.log(impression("key1"));
+        listener.log(impression("key2"));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (delegate.batches.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(1, delegate.batches.size());
+        Assert.assertEquals(2, delegate.batches.get(0).size());
+        listener.close();
+    }
+
+    @Test
+    public void testIdleDispatcherIsWokenUpByProducers() throws InterruptedException {
+        CollectingListener delegate = new CollectingListener();
+        RingBufferImpressionListener listener = RingBufferImpressionListener.build(delegate, 1024, 100, 0, null);
+        for (int i = 0; i < 3; i++) {
+            // Let the dispatcher go idle before each impression.
+            Thread.sleep(20);
+            listener.log(impression("key" + i));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (listener.deliveredCount() <= i && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            Assert.assertEquals(i + 1, listener.deliveredCount());
+        }
+        listener.close();
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        CollectingListener delegate = new CollectingListener();
+        RingBufferImpressionListener listener = RingBufferImpressionListener.build(delegate, 1 << 16, 64, 5, null);
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            producers.execute(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    listener.log(impression("key" + i));
+                }
+            });
+        }
+        producers.shutdown();
+        producers.awaitTermination(10, TimeUnit.SECONDS);
+        listener.close();
+
+        Assert.assertEquals(20000, listener.deliveredCount() + listener.droppedCount());
+        Assert.assertEquals(20000, delegate.batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    public void testAdapterFeedsImpressionListener() {
+        ImpressionListener impressionListener = Mockito.mock(ImpressionListener.class);
+        BatchImpressionListener adapter = new BatchImpressionListener.Adapter(impressionListener);
+        adapter.logBatch(Arrays.asList(impression("key1"), impression("key2")));
+        adapter.close();
+
+        Mockito.verify(impressionListener, Mockito.times(2)).log(Mockito.any(Impression.class));
+        Mockito.verify(impressionListener).close();
+    }
+}
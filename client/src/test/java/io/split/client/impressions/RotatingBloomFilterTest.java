@@ -0,0 +1,62 @@
+package io.split.client.impressions;
+
+import io.split.client.impressions.filters.RotatingBloomFilter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RotatingBloomFilterTest {
+
+    @Test
+    public void addSomeElements() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(1000, 0.01, 4);
+        Assert.assertTrue(filter.add("feature key-1"));
+        Assert.assertTrue(filter.add("feature key-2"));
+        Assert.assertFalse(filter.add("feature key-1"));
+
+        Assert.assertTrue(filter.contains("feature key-1"));
+        Assert.assertTrue(filter.contains("feature key-2"));
+        Assert.assertFalse(filter.contains("feature key-3"));
+    }
+
+    @Test
+    public void elementsExpireWhenTheirSliceIsRecycled() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(1000, 0.01, 3);
+        filter.add("feature key-1");
+        filter.clear();
+        filter.add("feature key-2");
+        filter.clear();
+
+        // Both still live in older slices.
+        Assert.assertTrue(filter.contains("feature key-1"));
+        Assert.assertTrue(filter.contains("feature key-2"));
+
+        filter.clear();
+        Assert.assertFalse(filter.contains("feature key-1"));
+        Assert.assertTrue(filter.contains("feature key-2"));
+
+        filter.clear();
+        Assert.assertFalse(filter.contains("feature key-2"));
+    }
+
+    @Test
+    public void falsePositiveRateAndFillRatio() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(10000, 0.01, 2);
+        Assert.assertEquals(0, filter.estimatedFillRatio(), 0);
+        for (int i = 0; i < 5000; i++) {
+            filter.add("feature key-" + i);
+        }
+        double fillRatio = filter.estimatedFillRatio();
+        Assert.assertTrue(fillRatio > 0.3 && fillRatio < 0.6);
+
+        int falsePositives = 0;
+        for (int i = 5000; i < 15000; i++) {
+            if (filter.contains("feature key-" + i)) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue("false positives: " + falsePositives, falsePositives < 200);
+
+        filter.clear();
+        Assert.assertEquals(0, filter.estimatedFillRatio(), 0);
+    }
+}
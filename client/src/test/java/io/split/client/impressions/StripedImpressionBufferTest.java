@@ -0,0 +1,95 @@
+package io.split.client.impressions;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class StripedImpressionBufferTest {
+
+    private static Impression impression(String key) {
+        return new Impression(key, null, "feature", "on", 1L, null, 1L, null);
+    }
+
+    @Test
+    public void testOfferIsBoundedByCapacity() {
+        StripedImpressionBuffer buffer = new StripedImpressionBuffer(3, 4);
+        List<Impression> impressions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            impressions.add(impression("key" + i));
+        }
+
+        Assert.assertEquals(3, buffer.offer(impressions));
+        Assert.assertEquals(0, buffer.offer(Collections.singletonList(impression("other"))));
+        Assert.assertEquals(3, buffer.drain().size());
+        Assert.assertEquals(0, buffer.size());
+        Assert.assertEquals(1, buffer.offer(Collections.singletonList(impression("other"))));
+    }
+
+    @Test
+    public void testDrainCollectsEveryStripe() throws InterruptedException {
+        StripedImpressionBuffer buffer = new StripedImpressionBuffer(10000, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                for (int i = 0; i < 100; i++) {
+                    buffer.offer(Collections.singletonList(impression(thread + "-" + i)));
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Assert.assertEquals(800, buffer.size());
+        Assert.assertEquals(800, buffer.drain().size());
+        Assert.assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testReservedCreditIsNotCountedAsBuffered() {
+        StripedImpressionBuffer buffer = new StripedImpressionBuffer(40, 4);
+        Assert.assertEquals(1, buffer.offer(Collections.singletonList(impression("first"))));
+        Assert.assertEquals(1, buffer.size());
+
+        List<Impression> impressions = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            impressions.add(impression("key" + i));
+        }
+        Assert.assertEquals(39, buffer.offer(impressions));
+        Assert.assertEquals(40, buffer.size());
+        Assert.assertEquals(0, buffer.offer(Collections.singletonList(impression("other"))));
+        Assert.assertEquals(40, buffer.drain().size());
+        Assert.assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testCreditHeldByAnotherStripeDoesNotDropImpressions() throws Exception {
+        StripedImpressionBuffer buffer = new StripedImpressionBuffer(4, 2);
+        CompletableFuture<Integer> first = new CompletableFuture<>();
+        Thread firstThread = new Thread(() -> first.complete(buffer.offer(Collections.singletonList(impression("first")))));
+        CompletableFuture<Integer> second = new CompletableFuture<>();
+        List<Impression> impressions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            impressions.add(impression("key" + i));
+        }
+        Thread secondThread;
+        do {
+            // stripes are picked by thread id, the second thread has to land on the other one.
+            secondThread = new Thread(() -> second.complete(buffer.offer(impressions)));
+        } while ((secondThread.getId() & 1) == (firstThread.getId() & 1));
+
+        firstThread.start();
+        Assert.assertEquals(Integer.valueOf(1), first.get(5, TimeUnit.SECONDS));
+        secondThread.start();
+        Assert.assertEquals(Integer.valueOf(3), second.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(4, buffer.size());
+        Assert.assertEquals(4, buffer.drain().size());
+    }
+}
@@ -8,6 +8,7 @@ import org.mockito.Mockito;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class UniqueKeysTrackerImpTest {
     private static TelemetrySynchronizer _telemetrySynchronizer = Mockito.mock(TelemetryInMemorySubmitter.class);
@@ -100,4 +101,21 @@ public class UniqueKeysTrackerImpTest {
         uniqueKeysTrackerImp.stop();
         Mockito.verify(telemetrySynchronizer, Mockito.times(1)).synchronizeUniqueKeys(Mockito.anyObject());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFlushOnMaxKeysDoesNotBlockCaller() {
+        TelemetrySynchronizer telemetrySynchronizer = Mockito.mock(TelemetryInMemorySubmitter.class);
+        AtomicReference<Thread> postingThread = new AtomicReference<>();
+        Mockito.doAnswer(invocation -> {
+            postingThread.set(Thread.currentThread());
+            return null;
+        }).when(telemetrySynchronizer).synchronizeUniqueKeys(Mockito.anyObject());
+        UniqueKeysTrackerImp uniqueKeysTrackerImp = new UniqueKeysTrackerImp(telemetrySynchronizer, 10000, 10000, null);
+        for (int i = 0; i < 30000; i++) {
+            Assert.assertTrue(uniqueKeysTrackerImp.track("feature" + (i % 10), "key" + i));
+        }
+        Mockito.verify(telemetrySynchronizer, Mockito.timeout(5000).times(1)).synchronizeUniqueKeys(Mockito.anyObject());
+        Assert.assertNotSame(Thread.currentThread(), postingThread.get());
+        Assert.assertEquals(0, uniqueKeysTrackerImp.popAll().size());
+    }
+}
@@ -0,0 +1,84 @@
+package io.split.client.impressions.strategy;
+
+import io.split.client.impressions.Impression;
+import io.split.client.impressions.ImpressionCounter;
+import io.split.client.impressions.ImpressionObserver;
+import io.split.client.impressions.ImpressionsManager;
+import io.split.client.impressions.ImpressionsResult;
+import io.split.client.impressions.UniqueKeysTrackerImp;
+import io.split.engine.experiments.ParsedSplit;
+import io.split.storages.SplitCacheConsumer;
+import io.split.telemetry.storage.InMemoryTelemetryStorage;
+import io.split.telemetry.storage.TelemetryStorage;
+import io.split.telemetry.synchronizer.TelemetryInMemorySubmitter;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+public class ProcessImpressionPerFlagTest {
+
+    private static final TelemetryStorage TELEMETRY_STORAGE = Mockito.mock(InMemoryTelemetryStorage.class);
+
+    @Test
+    public void resolvesFlagThenFlagSetThenDefault() {
+        SplitCacheConsumer splitCache = Mockito.mock(SplitCacheConsumer.class);
+        ParsedSplit inSet = Mockito.mock(ParsedSplit.class);
+        Mockito.when(inSet.flagSets()).thenReturn(new HashSet<>(Collections.singletonList("experiments")));
+        Mockito.when(splitCache.get("setFlag")).thenReturn(inSet);
+
+        ImpressionModeResolver resolver = new ImpressionModeResolver(ImpressionsManager.Mode.OPTIMIZED,
+                Collections.singletonMap("debugFlag", ImpressionsManager.Mode.DEBUG),
+                Collections.singletonMap("experiments", ImpressionsManager.Mode.NONE), splitCache);
+
+        Assert.assertEquals(ImpressionsManager.Mode.DEBUG, resolver.resolve("debugFlag", 1L));
+        Assert.assertEquals(ImpressionsManager.Mode.NONE, resolver.resolve("setFlag", 1L));
+        Assert.assertEquals(ImpressionsManager.Mode.OPTIMIZED, resolver.resolve("otherFlag", 1L));
+
+        // Cached until the flag changes.
+        resolver.resolve("setFlag", 1L);
+        Mockito.verify(splitCache, Mockito.times(1)).get("setFlag");
+        Mockito.when(inSet.flagSets()).thenReturn(new HashSet<>());
+        Assert.assertEquals(ImpressionsManager.Mode.OPTIMIZED, resolver.resolve("setFlag", 2L));
+    }
+
+    @Test
+    public void routesEachImpressionToItsMode() {
+        ImpressionCounter counter = new ImpressionCounter();
+        ImpressionObserver observer = new ImpressionObserver(200);
+        UniqueKeysTrackerImp uniqueKeysTracker = new UniqueKeysTrackerImp(Mockito.mock(TelemetryInMemorySubmitter.class),
+                10000, 10000, null);
+        Map<ImpressionsManager.Mode, ProcessImpressionStrategy> strategies = new EnumMap<>(ImpressionsManager.Mode.class);
+        strategies.put(ImpressionsManager.Mode.DEBUG, new ProcessImpressionDebug(true, observer));
+        strategies.put(ImpressionsManager.Mode.OPTIMIZED, new ProcessImpressionOptimized(true, observer, counter, TELEMETRY_STORAGE));
+        strategies.put(ImpressionsManager.Mode.NONE, new ProcessImpressionNone(true, uniqueKeysTracker, counter));
+
+        Map<String, ImpressionsManager.Mode> flagModes = new HashMap<>();
+        flagModes.put("debugFlag", ImpressionsManager.Mode.DEBUG);
+        flagModes.put("noneFlag", ImpressionsManager.Mode.NONE);
+        ImpressionModeResolver resolver = new ImpressionModeResolver(ImpressionsManager.Mode.OPTIMIZED, flagModes, null, null);
+        ProcessImpressionPerFlag processImpression = new ProcessImpressionPerFlag(true, resolver, strategies, TELEMETRY_STORAGE);
+
+        long now = System.currentTimeMillis();
+        List<Impression> impressions = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            impressions.add(new Impression("adil", null, "debugFlag", "on", now, null, 1L, null));
+            impressions.add(new Impression("adil", null, "optimizedFlag", "on", now, null, 1L, null));
+            impressions.add(new Impression("adil", null, "noneFlag", "on", now, null, 1L, null));
+        }
+
+        ImpressionsResult result = processImpression.process(impressions);
+        // Both debug impressions, only the first optimized one and no none impression.
+        Assert.assertEquals(3, result.getImpressionsToQueue().size());
+        Assert.assertEquals(6, result.getImpressionsToListener().size());
+        Assert.assertEquals(1, uniqueKeysTracker.popAll().size());
+        Assert.assertEquals(2, counter.popAll().size());
+    }
+}
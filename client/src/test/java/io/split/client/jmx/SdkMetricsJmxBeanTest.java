@@ -0,0 +1,51 @@
+package io.split.client.jmx;
+
+import io.split.storages.SegmentCacheConsumer;
+import io.split.storages.SplitCacheConsumer;
+import io.split.telemetry.domain.enums.EventsDataRecordsEnum;
+import io.split.telemetry.metrics.SdkMetrics;
+import io.split.telemetry.storage.InMemoryTelemetryStorage;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.management.Attribute;
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanAttributeInfo;
+
+public class SdkMetricsJmxBeanTest {
+
+    @Test
+    public void testAttributesFollowTheMetrics() throws Exception {
+        InMemoryTelemetryStorage telemetry = new InMemoryTelemetryStorage();
+        SdkMetrics metrics = new SdkMetrics(telemetry, Mockito.mock(SplitCacheConsumer.class),
+                Mockito.mock(SegmentCacheConsumer.class), null, null);
+        SdkMetricsJmxBean bean = new SdkMetricsJmxBean(metrics);
+
+        MBeanAttributeInfo[] attributes = bean.getMBeanInfo().getAttributes();
+        Assert.assertEquals(metrics.snapshot().values().size(), attributes.length);
+        for (MBeanAttributeInfo attribute : attributes) {
+            Assert.assertTrue(attribute.isReadable());
+            Assert.assertFalse(attribute.isWritable());
+        }
+
+        Assert.assertEquals(0L, bean.getAttribute(SdkMetrics.EVENTS_QUEUED));
+        telemetry.recordEventStats(EventsDataRecordsEnum.EVENTS_QUEUED, 5);
+        Assert.assertEquals(5L, bean.getAttribute(SdkMetrics.EVENTS_QUEUED));
+        Assert.assertEquals(1, bean.getAttributes(new String[]{SdkMetrics.EVENTS_QUEUED, "unknown"}).size());
+    }
+
+    @Test(expected = AttributeNotFoundException.class)
+    public void testUnknownAttribute() throws Exception {
+        SdkMetrics metrics = new SdkMetrics(new InMemoryTelemetryStorage(), Mockito.mock(SplitCacheConsumer.class),
+                Mockito.mock(SegmentCacheConsumer.class), null, null);
+        new SdkMetricsJmxBean(metrics).getAttribute("unknown");
+    }
+
+    @Test(expected = AttributeNotFoundException.class)
+    public void testReadOnly() throws Exception {
+        SdkMetrics metrics = new SdkMetrics(new InMemoryTelemetryStorage(), Mockito.mock(SplitCacheConsumer.class),
+                Mockito.mock(SegmentCacheConsumer.class), null, null);
+        new SdkMetricsJmxBean(metrics).setAttribute(new Attribute(SdkMetrics.EVENTS_QUEUED, 1L));
+    }
+}
@@ -0,0 +1,122 @@
+package io.split.client.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AdaptiveFlushSchedulerTest {
+
+    @Test
+    public void testIntervalAdaptsToArrivalRate() {
+        AdaptiveFlushScheduler scheduler = new AdaptiveFlushScheduler("Test", 60000, 1000, 0.5, 1, null);
+        // No traffic, max interval
+        Assert.assertEquals(60000, scheduler.intervalFor(0, 60000));
+        // 500 items to threshold at 1 item/ms, bounded by the min interval
+        Assert.assertEquals(AdaptiveFlushScheduler.MIN_INTERVAL_MILLIS, scheduler.intervalFor(60000, 60000));
+        // 500 items to threshold at 0.01 item/ms, half of 50s
+        Assert.assertEquals(25000, scheduler.intervalFor(600, 60000));
+        // Slow traffic never goes above the max interval
+        Assert.assertEquals(60000, scheduler.intervalFor(1, 60000));
+        scheduler.stop();
+    }
+
+    @Test
+    public void testPressureTriggersImmediateFlush() throws InterruptedException {
+        AdaptiveFlushScheduler scheduler = new AdaptiveFlushScheduler("Test", 60000, 100, 0.5, 1, null);
+        CountDownLatch flushed = new CountDownLatch(1);
+        scheduler.start(flushed::countDown, 60000);
+
+        scheduler.recordQueued(49);
+        Assert.assertFalse(flushed.await(200, TimeUnit.MILLISECONDS));
+        scheduler.recordQueued(1);
+        Assert.assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        scheduler.stop();
+    }
+
+    @Test
+    public void testBytePressureTriggersImmediateFlush() throws InterruptedException {
+        AdaptiveFlushScheduler scheduler = new AdaptiveFlushScheduler("Test", 60000, 100, 0.5, 1, 1024, null);
+        CountDownLatch flushed = new CountDownLatch(1);
+        scheduler.start(flushed::countDown, 60000);
+
+        scheduler.recordQueued(1, 1000);
+        Assert.assertFalse(flushed.await(200, TimeUnit.MILLISECONDS));
+        scheduler.recordQueued(1, 24);
+        Assert.assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        scheduler.stop();
+    }
+
+    @Test
+    public void testBytePressureWithoutFillRatio() throws InterruptedException {
+        AdaptiveFlushScheduler scheduler = new AdaptiveFlushScheduler("Test", 60000, 100, 0, 1, 1024, null);
+        CountDownLatch flushed = new CountDownLatch(1);
+        scheduler.start(flushed::countDown, 60000);
+
+        scheduler.recordQueued(100, 100);
+        Assert.assertFalse(flushed.await(200, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(60000, scheduler.intervalFor(100, 1));
+        scheduler.recordQueued(1, 1000);
+        Assert.assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        scheduler.stop();
+    }
+
+    @Test
+    public void testConcurrentFlushesAreCapped() throws InterruptedException {
+        AdaptiveFlushScheduler scheduler = new AdaptiveFlushScheduler("Test", 60000, 10, 0.1, 1, null);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger flushes = new AtomicInteger();
+        scheduler.start(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            flushes.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        }, 60000);
+
+        for (int i = 0; i < 20; i++) {
+            scheduler.recordQueued(1);
+            Thread.sleep(5);
+        }
+        release.countDown();
+        Thread.sleep(200);
+        Assert.assertEquals(1, maxRunning.get());
+        Assert.assertTrue(flushes.get() >= 1);
+        scheduler.stop();
+    }
+
+    @Test
+    public void testStopWaitsForRunningFlushes() throws Exception {
+        AdaptiveFlushScheduler scheduler = new AdaptiveFlushScheduler("Test", 60000, 10, 0.1, 1, null);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+        scheduler.start(() -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.incrementAndGet();
+        }, 60000);
+
+        scheduler.recordQueued(1);
+        Assert.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> stopped = CompletableFuture.runAsync(scheduler::stop);
+        Thread.sleep(200);
+        Assert.assertFalse(stopped.isDone());
+
+        release.countDown();
+        stopped.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(1, finished.get());
+    }
+}
@@ -1,5 +1,6 @@
 package io.split.client.utils;
 
+import com.google.common.base.Throwables;
 import io.split.client.dtos.Split;
 import io.split.client.interceptors.FlagSetsFilter;
 import io.split.client.interceptors.FlagSetsFilterImpl;
@@ -9,6 +10,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 
@@ -78,4 +80,73 @@ public class FeatureFlagProcessorTest {
         Assert.assertEquals(2, featureFlagsToUpdate.toRemove.size());
         Assert.assertEquals(0, featureFlagsToUpdate.segments.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParallelParsingKeepsOrderAndSkipsFlagsThatFailToParse() {
+        List<Split> featureFlags = segmentedFlags(200);
+        featureFlags.get(150).conditions = null;
+        featureFlags.get(5).conditions = null;
+
+        for (int parallelThreshold : new int[]{0, 10}) {
+            FeatureFlagsToUpdate featureFlagsToUpdate = processFeatureFlagChanges(new SplitParser(), featureFlags,
+                    new FlagSetsFilterImpl(new HashSet<>()), parallelThreshold);
+
+            Assert.assertEquals(198, featureFlagsToUpdate.toAdd.size());
+            Assert.assertEquals(198, featureFlagsToUpdate.segments.size());
+            // like on the serial path, a flag that fails to parse keeps its previous definition.
+            Assert.assertTrue(featureFlagsToUpdate.toRemove.isEmpty());
+            for (int i = 0, flag = 0; i < 198; i++, flag++) {
+                if (flag == 5 || flag == 150) {
+                    flag++;
+                }
+                Assert.assertEquals("flag_" + flag, featureFlagsToUpdate.toAdd.get(i).feature());
+            }
+        }
+    }
+
+    @Test
+    public void testExceptionsFailTheChangeOnBothPaths() {
+        List<Split> featureFlags = segmentedFlags(50);
+        for (int parallelThreshold : new int[]{0, 10}) {
+            try {
+                processFeatureFlagChanges(new SplitParser(), featureFlags, new FlagSetsFilterImpl(new HashSet<>()), parallelThreshold,
+                        segment -> {
+                            if ("segment_40".equals(segment)) {
+                                throw new IllegalStateException("boom");
+                            }
+                        });
+                Assert.fail("expected the change to fail");
+            } catch (IllegalStateException e) {
+                // Rethrown from the fork-join pool, it wraps the original exception.
+                Assert.assertEquals("boom", Throwables.getRootCause(e).getMessage());
+            }
+        }
+    }
+
+    private static List<Split> segmentedFlags(int count) {
+        String definition = "{\"trafficTypeName\":\"user\",\"name\":\"%s\",\"status\":\"ACTIVE\",\"defaultTreatment\":\"off\",\"trafficAllocation\":100,\"trafficAllocationSeed\":1,"
+                + "\"conditions\":[{\"conditionType\":\"ROLLOUT\",\"matcherGroup\":{\"combiner\":\"AND\",\"matchers\":[{"
+                + "\"matcherType\":\"IN_SEGMENT\",\"userDefinedSegmentMatcherData\":{\"segmentName\":\"segment_%s\"}}]},"
+                + "\"partitions\":[{\"treatment\":\"on\",\"size\":100}]}]}";
+        List<Split> featureFlags = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            featureFlags.add(Json.fromJson(String.format(definition, "flag_" + i, i), Split.class));
+        }
+        return featureFlags;
+    }
+
+    @Test
+    public void testSegmentListenerIsToldAsFlagsAreParsed() {
+        SplitParser splitParser = new SplitParser();
+        String definition1 = "{\"trafficTypeName\":\"user\",\"id\":\"d431cdd0-b0be-11ea-8a80-1660ada9ce39\",\"name\":\"mauro_java\",\"trafficAllocation\":100,\"trafficAllocationSeed\":-92391491,\"seed\":-1769377604,\"status\":\"ACTIVE\",\"killed\":false,\"defaultTreatment\":\"off\",\"changeNumber\":1684329854385,\"algo\":2,\"configurations\":{},\"conditions\":[{\"conditionType\":\"WHITELIST\",\"matcherGroup\":{\"combiner\":\"AND\",\"matchers\":[{\"matcherType\":\"WHITELIST\",\"negate\":false,\"whitelistMatcherData\":{\"whitelist\":[\"admin\",\"mauro\",\"nico\"]}}]},\"partitions\":[{\"treatment\":\"off\",\"size\":100}],\"label\":\"whitelisted\"},{\"conditionType\":\"ROLLOUT\",\"matcherGroup\":{\"combiner\":\"AND\",\"matchers\":[{\"keySelector\":{\"trafficType\":\"user\"},\"matcherType\":\"IN_SEGMENT\",\"negate\":false,\"userDefinedSegmentMatcherData\":{\"segmentName\":\"maur-2\"}}]},\"partitions\":[{\"treatment\":\"on\",\"size\":0},{\"treatment\":\"off\",\"size\":100},{\"treatment\":\"V4\",\"size\":0},{\"treatment\":\"v5\",\"size\":0}],\"label\":\"in segment maur-2\"},{\"conditionType\":\"ROLLOUT\",\"matcherGroup\":{\"combiner\":\"AND\",\"matchers\":[{\"keySelector\":{\"trafficType\":\"user\"},\"matcherType\":\"ALL_KEYS\",\"negate\":false}]},\"partitions\":[{\"treatment\":\"on\",\"size\":0},{\"treatment\":\"off\",\"size\":100},{\"treatment\":\"V4\",\"size\":0},{\"treatment\":\"v5\",\"size\":0}],\"label\":\"default rule\"}]}";
+        List<String> referenced = Collections.synchronizedList(new ArrayList<>());
+        FlagSetsFilter flagSetsFilter = new FlagSetsFilterImpl(new HashSet<>());
+        FeatureFlagProcessor.Accumulator accumulator = new FeatureFlagProcessor.Accumulator(splitParser, flagSetsFilter, 0, referenced::add);
+
+        accumulator.accept(Json.fromJson(definition1, Split.class));
+
+        // Before the change is complete.
+        Assert.assertEquals(Collections.singletonList("maur-2"), referenced);
+        Assert.assertEquals(1, accumulator.toUpdate().segments.size());
+    }
+}
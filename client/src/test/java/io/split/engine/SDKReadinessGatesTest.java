@@ -0,0 +1,93 @@
+package io.split.engine;
+
+import com.google.common.collect.Lists;
+import io.split.engine.experiments.ParsedCondition;
+import io.split.engine.experiments.ParsedSplit;
+import io.split.engine.matchers.AllKeysMatcher;
+import io.split.engine.matchers.CombiningMatcher;
+import io.split.engine.matchers.DependencyMatcher;
+import io.split.engine.matchers.Matcher;
+import io.split.engine.matchers.UserDefinedSegmentMatcher;
+import io.split.grammar.Treatments;
+import io.split.storages.SplitCacheConsumer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.split.engine.ConditionsTestUtil.partition;
+
+public class SDKReadinessGatesTest {
+
+    @Test
+    public void flagIsReadyOnceItsSegmentsAndDependenciesAre() {
+        SplitCacheConsumer splitCacheConsumer = Mockito.mock(SplitCacheConsumer.class);
+        Mockito.when(splitCacheConsumer.get("plain")).thenReturn(split("plain", new AllKeysMatcher()));
+        Mockito.when(splitCacheConsumer.get("segmented")).thenReturn(split("segmented", new UserDefinedSegmentMatcher("employees")));
+        Mockito.when(splitCacheConsumer.get("dependent")).thenReturn(split("dependent",
+                new DependencyMatcher("segmented", Lists.newArrayList("on"))));
+        SDKReadinessGates gates = new SDKReadinessGates(splitCacheConsumer);
+
+        Assert.assertTrue(gates.isReady("plain"));
+        Assert.assertFalse(gates.isReady("segmented"));
+        Assert.assertFalse(gates.isReady("dependent"));
+        Assert.assertFalse(gates.isReady("missing"));
+        Assert.assertFalse(gates.isSDKReady());
+
+        gates.segmentReady("employees");
+        Assert.assertTrue(gates.isReady("segmented"));
+        Assert.assertTrue(gates.isReady("dependent"));
+        Assert.assertFalse(gates.isReady(Lists.newArrayList("plain", "missing")));
+
+        gates.sdkInternalReady();
+        Assert.assertTrue(gates.isReady("missing"));
+    }
+
+    @Test
+    public void dependencyCyclesDoNotLoop() {
+        SplitCacheConsumer splitCacheConsumer = Mockito.mock(SplitCacheConsumer.class);
+        Mockito.when(splitCacheConsumer.get("a")).thenReturn(split("a", new DependencyMatcher("b", Lists.newArrayList("on"))));
+        Mockito.when(splitCacheConsumer.get("b")).thenReturn(split("b", new DependencyMatcher("a", Lists.newArrayList("on"))));
+
+        Assert.assertTrue(new SDKReadinessGates(splitCacheConsumer).isReady("a"));
+    }
+
+    @Test
+    public void withoutSplitCacheFlagsWaitForTheSdk() {
+        SDKReadinessGates gates = new SDKReadinessGates();
+        Assert.assertFalse(gates.isReady("anything"));
+        gates.sdkInternalReady();
+        Assert.assertTrue(gates.isReady("anything"));
+    }
+
+    @Test
+    public void awaitReadyWakesUpWhenTheSegmentIsReady() throws Exception {
+        SplitCacheConsumer splitCacheConsumer = Mockito.mock(SplitCacheConsumer.class);
+        Mockito.when(splitCacheConsumer.get("segmented")).thenReturn(split("segmented", new UserDefinedSegmentMatcher("employees")));
+        SDKReadinessGates gates = new SDKReadinessGates(splitCacheConsumer);
+
+        Assert.assertFalse(gates.awaitReady(Collections.singletonList("segmented"), 50));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> ready = executor.submit(() -> gates.awaitReady(Collections.singletonList("segmented"), 10000));
+            gates.segmentReady("employees");
+            Assert.assertTrue(ready.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ParsedSplit split(String name, Matcher matcher) {
+        ParsedCondition condition = ParsedCondition.createParsedConditionForTests(CombiningMatcher.of(matcher),
+                Lists.newArrayList(partition("on", 100)));
+        return ParsedSplit.createParsedSplitForTests(name, 123, false, Treatments.OFF, Lists.newArrayList(condition), null, 1, 1,
+                new HashSet<>());
+    }
+}
@@ -0,0 +1,108 @@
+package io.split.engine.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class SingleFlightTest {
+
+    @Test
+    public void concurrentCallersShareTheRunningCall() throws Exception {
+        SingleFlight<Long, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> leaderResult = new CompletableFuture<>();
+        Thread leader = new Thread(() -> leaderResult.complete(runQuietly(singleFlight, () -> {
+            entered.countDown();
+            awaitQuietly(release);
+            return calls.incrementAndGet();
+        })));
+        leader.start();
+        Assert.assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Integer> joinerResult = new CompletableFuture<>();
+        Thread joiner = new Thread(() -> joinerResult.complete(runQuietly(singleFlight, calls::incrementAndGet)));
+        joiner.start();
+        awaitWaiting(joiner);
+
+        // a different key does not wait.
+        Assert.assertEquals(Integer.valueOf(1), singleFlight.run(2L, () -> 1));
+
+        release.countDown();
+        Assert.assertEquals(Integer.valueOf(1), leaderResult.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Integer.valueOf(1), joinerResult.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, calls.get());
+
+        // once done, the next call runs again.
+        Assert.assertEquals(Integer.valueOf(2), singleFlight.run(1L, calls::incrementAndGet));
+    }
+
+    @Test
+    public void asyncCallersShareTheSameFuture() {
+        SingleFlight<Long, Boolean> singleFlight = new SingleFlight<>();
+        CompletableFuture<Boolean> response = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<Boolean> first = singleFlight.runAsync(-1L, () -> {
+            calls.incrementAndGet();
+            return response;
+        });
+        CompletableFuture<Boolean> second = singleFlight.runAsync(-1L, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(false);
+        });
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, calls.get());
+
+        response.complete(true);
+        Assert.assertTrue(second.join());
+
+        Assert.assertFalse(singleFlight.runAsync(-1L, () -> CompletableFuture.completedFuture(false)).join());
+    }
+
+    @Test
+    public void failuresAreNotCached() throws InterruptedException {
+        SingleFlight<Long, Boolean> singleFlight = new SingleFlight<>();
+        try {
+            singleFlight.run(-1L, () -> {
+                throw new IllegalStateException("boom");
+            });
+            Assert.fail("expected the failure to be thrown");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("boom", e.getMessage());
+        }
+        Assert.assertTrue(singleFlight.run(-1L, () -> true));
+    }
+
+    private static Integer runQuietly(SingleFlight<Long, Integer> singleFlight, Supplier<Integer> call) {
+        try {
+            return singleFlight.run(1L, call);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(Thread.State.WAITING, thread.getState());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package io.split.engine.evaluator;
+
+import com.google.common.collect.Lists;
+import io.split.client.dtos.ConditionType;
+import io.split.client.dtos.MatcherCombiner;
+import io.split.client.dtos.Partition;
+import io.split.client.interceptors.FlagSetsFilterImpl;
+import io.split.engine.experiments.ParsedCondition;
+import io.split.engine.experiments.ParsedSplit;
+import io.split.engine.matchers.AttributeMatcher;
+import io.split.engine.matchers.CombiningMatcher;
+import io.split.engine.matchers.strings.EndsWithAnyOfMatcher;
+import io.split.engine.matchers.strings.WhitelistMatcher;
+import io.split.storages.SplitCache;
+import io.split.storages.memory.InMemoryCacheImp;
+import io.split.storages.memory.SegmentCacheInMemoryImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+public class EvaluationProfilerTest {
+
+    @Test
+    public void testProfilesFlagsConditionsAndMatchers() {
+        EvaluationProfiler profiler = new EvaluationProfiler(1);
+        Evaluator evaluator = buildEvaluator(profiler);
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("on", evaluator.evaluateFeature("admin", null, "hot", null).treatment);
+        }
+        evaluator.evaluateFeature("someone@test.io", null, "hot", null);
+        evaluator.evaluateFeature("nobody", null, "hot", null);
+        evaluator.evaluateFeature("admin", null, "cold", null);
+        evaluator.evaluateFeature("admin", null, "missing", null);
+
+        EvaluationProfiler.Snapshot snapshot = profiler.snapshot(1);
+        Assert.assertEquals(1, snapshot.flags().size());
+        EvaluationProfiler.FlagProfile hot = snapshot.flags().get(0);
+        Assert.assertEquals("hot", hot.flag());
+        Assert.assertEquals(12, hot.evaluations());
+        Assert.assertEquals(12, hot.sampledEvaluations());
+        Assert.assertEquals(Long.valueOf(10), hot.matchedConditions().get(0));
+        Assert.assertEquals(Long.valueOf(1), hot.matchedConditions().get(1));
+        Assert.assertEquals(Long.valueOf(1), hot.matchedConditions().get(EvaluationProfiler.NO_CONDITION));
+        Assert.assertTrue(hot.percentileNanos(99) <= hot.maxNanos());
+
+        Assert.assertEquals(13, snapshot.matchers().get("WhitelistMatcher").count());
+        Assert.assertEquals(2, snapshot.matchers().get("EndsWithAnyOfMatcher").count());
+        Assert.assertEquals(2, profiler.snapshotAndReset(10).flags().size());
+        Assert.assertTrue(profiler.snapshot(10).flags().isEmpty());
+        Assert.assertTrue(profiler.snapshot(10).matchers().isEmpty());
+    }
+
+    @Test
+    public void testOnlySampledEvaluationsAreTimed() {
+        EvaluationProfiler profiler = new EvaluationProfiler(1000);
+        Evaluator evaluator = buildEvaluator(profiler);
+
+        for (int i = 0; i < 100; i++) {
+            evaluator.evaluateFeature("admin", null, "hot", null);
+        }
+
+        EvaluationProfiler.FlagProfile hot = profiler.snapshot(1).flags().get(0);
+        Assert.assertEquals(100, hot.evaluations());
+        Assert.assertTrue(hot.sampledEvaluations() < 100);
+    }
+
+    @Test
+    public void testLatencyBuckets() {
+        Assert.assertEquals(0, EvaluationProfiler.bucketFor(0));
+        Assert.assertEquals(1, EvaluationProfiler.bucketFor(1));
+        Assert.assertEquals(10, EvaluationProfiler.bucketFor(1023));
+        Assert.assertEquals(11, EvaluationProfiler.bucketFor(1024));
+        Assert.assertEquals(39, EvaluationProfiler.bucketFor(Long.MAX_VALUE));
+    }
+
+    private static Evaluator buildEvaluator(EvaluationProfiler profiler) {
+        SplitCache splitCache = new InMemoryCacheImp(new FlagSetsFilterImpl(new HashSet<>()));
+        Partition partition = new Partition();
+        partition.treatment = "on";
+        partition.size = 100;
+        List<Partition> partitions = Lists.newArrayList(partition);
+
+        CombiningMatcher whitelist = new CombiningMatcher(MatcherCombiner.AND,
+                Lists.newArrayList(AttributeMatcher.vanilla(new WhitelistMatcher(Lists.newArrayList("admin")))));
+        CombiningMatcher endsWith = new CombiningMatcher(MatcherCombiner.AND,
+                Lists.newArrayList(AttributeMatcher.vanilla(new EndsWithAnyOfMatcher(Lists.newArrayList("@test.io")))));
+        List<ParsedCondition> conditions = Lists.newArrayList(
+                new ParsedCondition(ConditionType.WHITELIST, whitelist, partitions, "whitelisted"),
+                new ParsedCondition(ConditionType.ROLLOUT, endsWith, partitions, "in segment all"));
+
+        splitCache.putMany(Lists.newArrayList(
+                new ParsedSplit("hot", 0, false, "off", conditions, "user", 1L, 100, 0, 2, null, new HashSet<>()),
+                new ParsedSplit("cold", 0, false, "off", conditions, "user", 1L, 100, 0, 2, null, new HashSet<>())));
+        return new EvaluatorImp(splitCache, new SegmentCacheInMemoryImpl(), profiler);
+    }
+}
@@ -1,5 +1,8 @@
 package io.split.engine.experiments;
 
+import io.split.TestHelper;
+import io.split.client.dtos.SplitChange;
+import io.split.client.HttpSplitChangeFetcher;
 import io.split.client.JsonLocalhostSplitChangeFetcher;
 import io.split.client.interceptors.FlagSetsFilter;
 import io.split.client.interceptors.FlagSetsFilterImpl;
@@ -10,6 +13,10 @@ import io.split.storages.SplitCacheProducer;
 import io.split.storages.memory.InMemoryCacheImp;
 import io.split.telemetry.storage.NoopTelemetryStorage;
 import io.split.telemetry.storage.TelemetryStorage;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpStatus;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -18,8 +25,13 @@ import org.mockito.Mockito;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class SplitFetcherImpTest {
 
@@ -86,4 +98,75 @@ public class SplitFetcherImpTest {
 
         Assert.assertEquals(0, fetchResult.getSegments().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStreamingFetcherAppliesTheWholeChangeAtOnce() throws Exception {
+        HttpEntity entity = Mockito.mock(HttpEntity.class);
+        Mockito.when(entity.getContent()).thenAnswer(invocation ->
+                getClass().getClassLoader().getResourceAsStream("split_init.json"));
+        ClassicHttpResponse response = Mockito.mock(ClassicHttpResponse.class);
+        Mockito.when(response.getEntity()).thenReturn(entity);
+        Mockito.when(response.getCode()).thenReturn(HttpStatus.SC_OK);
+        CloseableHttpClient httpClient = Mockito.mock(CloseableHttpClient.class);
+        Mockito.when(httpClient.execute(Mockito.anyObject())).thenReturn(TestHelper.classicResponseToCloseableMock(response));
+
+        FlagSetsFilter flagSetsFilter = new FlagSetsFilterImpl(new HashSet<>());
+        SplitCacheProducer splitCacheProducer = Mockito.spy(new InMemoryCacheImp(flagSetsFilter));
+        SplitChangeFetcher splitChangeFetcher = HttpSplitChangeFetcher.create(httpClient, URI.create("https://api.split.io"),
+                TELEMETRY_STORAGE_NOOP);
+        SplitFetcher splitFetcher = new SplitFetcherImp(splitChangeFetcher, new SplitParser(), splitCacheProducer,
+                TELEMETRY_STORAGE_NOOP, flagSetsFilter);
+
+        FetchResult fetchResult = splitFetcher.forceRefresh(new FetchOptions.Builder().build());
+
+        Assert.assertTrue(fetchResult.isSuccess());
+        Assert.assertEquals(1, fetchResult.getSegments().size());
+        Assert.assertTrue(splitCacheProducer.getChangeNumber() > 0);
+        Mockito.verify(splitCacheProducer, Mockito.times(1)).update(Mockito.anyList(), Mockito.anyList(), Mockito.anyLong());
+    }
+
+    @Test
+    public void testConcurrentRefreshesShareOneFetch() throws Exception {
+        FlagSetsFilter flagSetsFilter = new FlagSetsFilterImpl(new HashSet<>());
+        SplitCacheProducer splitCacheProducer = new InMemoryCacheImp(flagSetsFilter);
+        splitCacheProducer.setChangeNumber(10L);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SplitChangeFetcher splitChangeFetcher = Mockito.mock(SplitChangeFetcher.class);
+        Mockito.when(splitChangeFetcher.fetch(Mockito.anyLong(), Mockito.any())).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            SplitChange change = new SplitChange();
+            change.splits = new ArrayList<>();
+            change.since = 10L;
+            change.till = 10L;
+            return change;
+        });
+        SplitFetcher splitFetcher = new SplitFetcherImp(splitChangeFetcher, new SplitParser(), splitCacheProducer,
+                TELEMETRY_STORAGE_NOOP, flagSetsFilter);
+
+        FetchOptions target = new FetchOptions.Builder().targetChangeNumber(11L).build();
+        CompletableFuture<FetchResult> first = CompletableFuture.supplyAsync(() -> splitFetcher.forceRefresh(target));
+        Assert.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<FetchResult> second = new CompletableFuture<>();
+        Thread joiner = new Thread(() -> second.complete(splitFetcher.forceRefresh(new FetchOptions.Builder(target).build())));
+        joiner.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (joiner.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(Thread.State.WAITING, joiner.getState());
+
+        // a change number already loaded needs no request at all.
+        Assert.assertTrue(splitFetcher.forceRefresh(new FetchOptions.Builder().targetChangeNumber(10L).build()).isSuccess());
+
+        // without a target, the running fetch may have started too early: it fetches on its own.
+        CompletableFuture<FetchResult> untargeted = CompletableFuture.supplyAsync(() -> splitFetcher.forceRefresh(new FetchOptions.Builder().build()));
+
+        release.countDown();
+        Assert.assertTrue(first.get(5, TimeUnit.SECONDS).isSuccess());
+        Assert.assertTrue(second.get(5, TimeUnit.SECONDS).isSuccess());
+        Assert.assertTrue(untargeted.get(5, TimeUnit.SECONDS).isSuccess());
+        Mockito.verify(splitChangeFetcher, Mockito.times(2)).fetch(Mockito.anyLong(), Mockito.any());
+    }
+}
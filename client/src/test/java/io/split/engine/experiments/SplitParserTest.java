@@ -563,6 +563,72 @@ public class SplitParserTest {
         assertThat(actual, is(equalTo(expected)));
     }
 
+    @Test
+    public void identicalConditionsAreShared() {
+        SplitParser parser = new SplitParser();
+        Matcher age = ConditionsTestUtil.numericMatcher("user", "age", MatcherType.GREATER_THAN_OR_EQUAL_TO, DataType.NUMBER, 18L, false);
+        Matcher employees = ConditionsTestUtil.userDefinedSegmentMatcher(EMPLOYEES, false);
+
+        ParsedSplit first = parser.parse(makeSplit("first", 1, Lists.newArrayList(
+                ConditionsTestUtil.and(age, employees, Lists.newArrayList(ConditionsTestUtil.partition("on", 100)))), 1));
+        ParsedSplit second = new SplitParser().parse(makeSplit("second", 2, Lists.newArrayList(
+                ConditionsTestUtil.and(employees, Lists.newArrayList(ConditionsTestUtil.partition("on", 100))),
+                ConditionsTestUtil.and(age, employees, Lists.newArrayList(ConditionsTestUtil.partition("on", 100)))), 2));
+
+        Assert.assertSame(first.parsedConditions().get(0), second.parsedConditions().get(1));
+        Assert.assertSame(first.parsedConditions().get(0).matcher().attributeMatchers().get(1),
+                second.parsedConditions().get(0).matcher().attributeMatchers().get(0));
+        Assert.assertSame(first.parsedConditions().get(0).partitions(), second.parsedConditions().get(0).partitions());
+    }
+
+    @Test
+    public void conditionsDifferingOnlyInDataTypeOrLabelAreNotShared() {
+        SplitParser parser = new SplitParser();
+        List<Partition> partitions = Lists.newArrayList(ConditionsTestUtil.partition("on", 100));
+        Condition number = ConditionsTestUtil.and(ConditionsTestUtil.numericMatcher("user", "since", MatcherType.EQUAL_TO,
+                DataType.NUMBER, 1457386741L, false), partitions);
+        Condition datetime = ConditionsTestUtil.and(ConditionsTestUtil.numericMatcher("user", "since", MatcherType.EQUAL_TO,
+                DataType.DATETIME, 1457386741L, false), partitions);
+        Condition labeled = ConditionsTestUtil.and(ConditionsTestUtil.numericMatcher("user", "since", MatcherType.EQUAL_TO,
+                DataType.NUMBER, 1457386741L, false), partitions);
+        labeled.label = "labeled";
+
+        ParsedSplit split = parser.parse(makeSplit("split", 1, Lists.newArrayList(number, datetime, labeled), 1));
+
+        Assert.assertNotSame(split.parsedConditions().get(0).matcher(), split.parsedConditions().get(1).matcher());
+        Assert.assertSame(split.parsedConditions().get(0).matcher(), split.parsedConditions().get(2).matcher());
+        Assert.assertNotSame(split.parsedConditions().get(0), split.parsedConditions().get(2));
+        Assert.assertEquals("labeled", split.parsedConditions().get(2).label());
+    }
+
+    @Test
+    public void unchangedDefinitionsReuseTheirParsedConditionAndMatchers() {
+        SplitParser parser = new SplitParser();
+        Matcher regex = new Matcher();
+        regex.matcherType = MatcherType.MATCHES_STRING;
+        regex.stringMatcherData = "^[a-z]+@split\\.io$";
+        regex.keySelector = new KeySelector();
+        regex.keySelector.attribute = "email";
+        Condition condition = ConditionsTestUtil.and(regex, Lists.newArrayList(ConditionsTestUtil.partition("on", 100)));
+        ParsedSplit first = parser.parse(makeSplit("regex", 1, Lists.newArrayList(condition), 1));
+
+        // A new version of the flag, deserialized again: only the partitions changed.
+        Matcher sameRegex = new Matcher();
+        sameRegex.matcherType = MatcherType.MATCHES_STRING;
+        sameRegex.stringMatcherData = regex.stringMatcherData;
+        sameRegex.keySelector = new KeySelector();
+        sameRegex.keySelector.attribute = "email";
+        Condition unchanged = ConditionsTestUtil.and(sameRegex, Lists.newArrayList(ConditionsTestUtil.partition("on", 100)));
+        Condition resized = ConditionsTestUtil.and(sameRegex, Lists.newArrayList(ConditionsTestUtil.partition("on", 50),
+                ConditionsTestUtil.partition("off", 50)));
+        ParsedSplit second = parser.parse(makeSplit("regex", 1, Lists.newArrayList(unchanged, resized), 2));
+
+        Assert.assertSame(first.parsedConditions().get(0), second.parsedConditions().get(0));
+        Assert.assertNotSame(first.parsedConditions().get(0), second.parsedConditions().get(1));
+        Assert.assertSame(first.parsedConditions().get(0).matcher().attributeMatchers().get(0),
+                second.parsedConditions().get(1).matcher().attributeMatchers().get(0));
+    }
+
     private Split makeSplit(String name, int seed, List<Condition> conditions, long changeNumber) {
         return makeSplit(name, seed, conditions, changeNumber, null);
     }
@@ -17,9 +17,11 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertEquals;
@@ -167,6 +169,154 @@ public class SegmentFetcherImpTest {
         Assert.assertEquals(originalOptions.targetCN(), 123);
     }
 
+    @Test
+    public void fetchAsyncFollowsChangesUntilUpToDate() {
+        AsyncSegmentChangeFetcher mockFetcher = Mockito.mock(AsyncSegmentChangeFetcher.class);
+        SegmentCache segmentCache = new SegmentCacheInMemoryImpl();
+        SegmentFetcher fetcher = new SegmentFetcherImp(SEGMENT_NAME, mockFetcher, segmentCache, TELEMETRY_STORAGE);
+
+        SegmentChange response1 = getSegmentChange(-1L, 10L);
+        response1.added.add("key1");
+        SegmentChange response2 = getSegmentChange(10L, 10L);
+        ArgumentCaptor<FetchOptions> optionsCaptor = ArgumentCaptor.forClass(FetchOptions.class);
+        ArgumentCaptor<Long> cnCaptor = ArgumentCaptor.forClass(Long.class);
+        when(mockFetcher.fetchAsync(Mockito.eq(SEGMENT_NAME), cnCaptor.capture(), optionsCaptor.capture()))
+                .thenReturn(CompletableFuture.completedFuture(response1), CompletableFuture.completedFuture(response2));
+
+        Assert.assertTrue(fetcher.fetchAsync(new FetchOptions.Builder().targetChangeNumber(123).build()).join());
+
+        assertEquals(10L, segmentCache.getChangeNumber(SEGMENT_NAME));
+        Assert.assertTrue(segmentCache.isInSegment(SEGMENT_NAME, "key1"));
+        Mockito.verify(mockFetcher, Mockito.never()).fetch(Mockito.anyString(), Mockito.anyLong(), Mockito.any());
+        assertEquals(2, cnCaptor.getAllValues().size());
+        assertEquals(Long.valueOf(-1), cnCaptor.getAllValues().get(0));
+        assertEquals(Long.valueOf(10), cnCaptor.getAllValues().get(1));
+        assertEquals(123, optionsCaptor.getAllValues().get(0).targetCN());
+        assertEquals(-1, optionsCaptor.getAllValues().get(1).targetCN());
+    }
+
+    @Test
+    public void concurrentFetchesShareOneRequest() {
+        AsyncSegmentChangeFetcher mockFetcher = Mockito.mock(AsyncSegmentChangeFetcher.class);
+        SegmentCache segmentCache = new SegmentCacheInMemoryImpl();
+        SegmentFetcher fetcher = new SegmentFetcherImp(SEGMENT_NAME, mockFetcher, segmentCache, TELEMETRY_STORAGE);
+        segmentCache.setChangeNumber(SEGMENT_NAME, 10L);
+
+        CompletableFuture<SegmentChange> response = new CompletableFuture<>();
+        when(mockFetcher.fetchAsync(Mockito.eq(SEGMENT_NAME), Mockito.eq(10L), Mockito.any())).thenReturn(response);
+
+        CompletableFuture<Boolean> first = fetcher.fetchAsync(new FetchOptions.Builder().targetChangeNumber(11L).build());
+        CompletableFuture<Boolean> second = fetcher.fetchAsync(new FetchOptions.Builder().targetChangeNumber(11L).build());
+        Mockito.verify(mockFetcher, Mockito.times(1)).fetchAsync(Mockito.eq(SEGMENT_NAME), Mockito.anyLong(), Mockito.any());
+
+        // without a target, the running fetch may have started too early: it fetches on its own.
+        CompletableFuture<Boolean> untargeted = fetcher.fetchAsync(new FetchOptions.Builder().build());
+        response.complete(getSegmentChange(10L, 10L));
+
+        Assert.assertTrue(first.join());
+        Assert.assertTrue(second.join());
+        Assert.assertTrue(untargeted.join());
+        Mockito.verify(mockFetcher, Mockito.times(2)).fetchAsync(Mockito.eq(SEGMENT_NAME), Mockito.anyLong(), Mockito.any());
+
+        // a change number already loaded needs no request at all.
+        Assert.assertTrue(fetcher.fetch(new FetchOptions.Builder().targetChangeNumber(10L).build()));
+        Assert.assertTrue(fetcher.fetchAsync(new FetchOptions.Builder().targetChangeNumber(5L).build()).join());
+        Mockito.verify(mockFetcher, Mockito.times(2)).fetchAsync(Mockito.eq(SEGMENT_NAME), Mockito.anyLong(), Mockito.any());
+        Mockito.verify(mockFetcher, Mockito.never()).fetch(Mockito.anyString(), Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    public void fetchAsyncReturnsFalseOnFailure() {
+        AsyncSegmentChangeFetcher mockFetcher = Mockito.mock(AsyncSegmentChangeFetcher.class);
+        SegmentCache segmentCache = new SegmentCacheInMemoryImpl();
+        SegmentFetcher fetcher = new SegmentFetcherImp(SEGMENT_NAME, mockFetcher, segmentCache, TELEMETRY_STORAGE);
+
+        CompletableFuture<SegmentChange> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("boom"));
+        when(mockFetcher.fetchAsync(Mockito.anyString(), Mockito.anyLong(), Mockito.any())).thenReturn(failed);
+
+        Assert.assertFalse(fetcher.fetchAsync(new FetchOptions.Builder().build()).join());
+        assertEquals(-1L, segmentCache.getChangeNumber(SEGMENT_NAME));
+    }
+
+    @Test
+    public void firstLoadIsPublishedOnceUpToDate() {
+        SegmentCache segmentCache = new SegmentCacheInMemoryImpl();
+        StreamingSegmentChangeFetcher mockFetcher = Mockito.mock(StreamingSegmentChangeFetcher.class);
+        when(mockFetcher.fetch(Mockito.eq(SEGMENT_NAME), Mockito.eq(-1L), Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            Consumer<String> consumer = (Consumer<String>) invocation.getArguments()[3];
+            consumer.accept("a");
+            consumer.accept("b");
+            Assert.assertFalse(segmentCache.isInSegment(SEGMENT_NAME, "a"));
+            return getSegmentChange(-1L, 5L);
+        });
+        SegmentChange delta = getSegmentChange(5L, 6L);
+        delta.added.add("c");
+        delta.removed.add("b");
+        when(mockFetcher.fetch(Mockito.eq(SEGMENT_NAME), Mockito.eq(5L), Mockito.any())).thenAnswer(invocation -> {
+            Assert.assertEquals(-1L, segmentCache.getChangeNumber(SEGMENT_NAME));
+            return delta;
+        });
+        when(mockFetcher.fetch(Mockito.eq(SEGMENT_NAME), Mockito.eq(6L), Mockito.any())).thenReturn(getSegmentChange(6L, 6L));
+
+        SegmentFetcher fetcher = new SegmentFetcherImp(SEGMENT_NAME, mockFetcher, segmentCache, TELEMETRY_STORAGE);
+        Assert.assertTrue(fetcher.fetch(new FetchOptions.Builder().build()));
+
+        assertEquals(6L, segmentCache.getChangeNumber(SEGMENT_NAME));
+        Assert.assertTrue(segmentCache.isInSegment(SEGMENT_NAME, "a"));
+        Assert.assertFalse(segmentCache.isInSegment(SEGMENT_NAME, "b"));
+        Assert.assertTrue(segmentCache.isInSegment(SEGMENT_NAME, "c"));
+        Mockito.verify(mockFetcher, Mockito.never()).fetch(Mockito.eq(SEGMENT_NAME), Mockito.eq(-1L), Mockito.any());
+    }
+
+    @Test
+    public void firstAsyncLoadStreamsTheSnapshot() {
+        SegmentCache segmentCache = new SegmentCacheInMemoryImpl();
+        AsyncStreamingSegmentChangeFetcher mockFetcher = Mockito.mock(AsyncStreamingSegmentChangeFetcher.class);
+        when(mockFetcher.fetchAsync(Mockito.eq(SEGMENT_NAME), Mockito.eq(-1L), Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            Consumer<String> consumer = (Consumer<String>) invocation.getArguments()[3];
+            consumer.accept("a");
+            consumer.accept("b");
+            return CompletableFuture.completedFuture(getSegmentChange(-1L, 5L));
+        });
+        SegmentChange delta = getSegmentChange(5L, 6L);
+        delta.added.add("c");
+        delta.removed.add("b");
+        when(mockFetcher.fetchAsync(Mockito.eq(SEGMENT_NAME), Mockito.eq(5L), Mockito.any()))
+                .thenReturn(CompletableFuture.completedFuture(delta));
+        when(mockFetcher.fetchAsync(Mockito.eq(SEGMENT_NAME), Mockito.eq(6L), Mockito.any()))
+                .thenReturn(CompletableFuture.completedFuture(getSegmentChange(6L, 6L)));
+
+        SegmentFetcher fetcher = new SegmentFetcherImp(SEGMENT_NAME, mockFetcher, segmentCache, TELEMETRY_STORAGE);
+        Assert.assertTrue(fetcher.fetchAsync(new FetchOptions.Builder().build()).join());
+
+        assertEquals(6L, segmentCache.getChangeNumber(SEGMENT_NAME));
+        Assert.assertTrue(segmentCache.isInSegment(SEGMENT_NAME, "a"));
+        Assert.assertFalse(segmentCache.isInSegment(SEGMENT_NAME, "b"));
+        Assert.assertTrue(segmentCache.isInSegment(SEGMENT_NAME, "c"));
+        Mockito.verify(mockFetcher, Mockito.never()).fetchAsync(Mockito.eq(SEGMENT_NAME), Mockito.eq(-1L), Mockito.any());
+    }
+
+    @Test
+    public void readyListenerIsToldOnceAfterTheFirstSuccessfulFetch() {
+        SegmentChangeFetcher segmentChangeFetcher = Mockito.mock(SegmentChangeFetcher.class);
+        Mockito.when(segmentChangeFetcher.fetch(Mockito.eq(SEGMENT_NAME), Mockito.anyLong(), Mockito.any()))
+                .thenThrow(new IllegalStateException("boom"))
+                .thenReturn(getSegmentChange(-1L, -1L));
+        List<String> ready = new ArrayList<>();
+        SegmentFetcherImp fetcher = new SegmentFetcherImp(SEGMENT_NAME, segmentChangeFetcher, new SegmentCacheInMemoryImpl(),
+                TELEMETRY_STORAGE, ready::add);
+
+        Assert.assertFalse(fetcher.fetch(new FetchOptions.Builder().build()));
+        Assert.assertTrue(ready.isEmpty());
+
+        // a segment without keys is ready too, even though its change number stays at -1.
+        Assert.assertTrue(fetcher.fetch(new FetchOptions.Builder().build()));
+        Assert.assertTrue(fetcher.fetch(new FetchOptions.Builder().build()));
+        assertEquals(1, ready.size());
+        assertEquals(SEGMENT_NAME, ready.get(0));
+    }
+
     private SegmentChange getSegmentChange(long since, long till){
         SegmentChange segmentChange = new SegmentChange();
         segmentChange.name = SEGMENT_NAME;
@@ -4,7 +4,11 @@ import junit.framework.TestCase;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class SegmentImpTest extends TestCase {
@@ -52,4 +56,32 @@ public class SegmentImpTest extends TestCase {
         assertTrue(segmentImp.contains(KEY));
     }
 
+    @Test
+    public void testLargeUpdateIsAppliedToANewSet() {
+        SegmentImp segmentImp = new SegmentImp(CHANGE_NUMBER, SEGMENT_NAME, Stream.of(KEY, FAKE_KEY).collect(Collectors.toList()));
+        Set<String> before = segmentImp.keys();
+        List<String> toAdd = IntStream.range(0, SegmentImp.REBUILD_THRESHOLD).mapToObj(i -> "key" + i).collect(Collectors.toList());
+
+        segmentImp.update(toAdd, Stream.of(FAKE_KEY).collect(Collectors.toList()), NEW_CHANGE_NUMBER);
+
+        assertNotSame(before, segmentImp.keys());
+        assertEquals(SegmentImp.REBUILD_THRESHOLD + 1, segmentImp.getKeysSize());
+        assertTrue(segmentImp.contains(KEY));
+        assertFalse(segmentImp.contains(FAKE_KEY));
+        assertEquals(NEW_CHANGE_NUMBER, segmentImp.getChangeNumber());
+    }
+
+    @Test
+    public void testReplace() {
+        SegmentImp segmentImp = new SegmentImp(CHANGE_NUMBER, SEGMENT_NAME, Stream.of(KEY).collect(Collectors.toList()));
+        Set<String> keys = ConcurrentHashMap.newKeySet();
+        keys.add(FAKE_KEY);
+
+        segmentImp.replace(keys, NEW_CHANGE_NUMBER);
+
+        assertSame(keys, segmentImp.keys());
+        assertFalse(segmentImp.contains(KEY));
+        assertTrue(segmentImp.contains(FAKE_KEY));
+        assertEquals(NEW_CHANGE_NUMBER, segmentImp.getChangeNumber());
+    }
 }
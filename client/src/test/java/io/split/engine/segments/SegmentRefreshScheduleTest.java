@@ -0,0 +1,70 @@
+package io.split.engine.segments;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentRefreshScheduleTest {
+
+    @Test
+    public void newSegmentsAreDue() {
+        SegmentRefreshSchedule schedule = new SegmentRefreshSchedule(30000, 60000, 600000, 0);
+        Assert.assertTrue(schedule.isDue("segment", 0));
+        Assert.assertEquals(60000, schedule.intervalMillis("segment"));
+    }
+
+    @Test
+    public void intervalStretchesUpToMaxWhileUnchanged() {
+        SegmentRefreshSchedule schedule = new SegmentRefreshSchedule(30000, 60000, 120000, 0);
+
+        schedule.onFetched("segment", false, 0);
+        Assert.assertEquals(90000, schedule.intervalMillis("segment"));
+        Assert.assertFalse(schedule.isDue("segment", 89999));
+        Assert.assertTrue(schedule.isDue("segment", 90000));
+
+        schedule.onFetched("segment", false, 90000);
+        Assert.assertEquals(120000, schedule.intervalMillis("segment"));
+        schedule.onFetched("segment", false, 210000);
+        Assert.assertEquals(120000, schedule.intervalMillis("segment"));
+        Assert.assertTrue(schedule.isDue("segment", 330000));
+    }
+
+    @Test
+    public void intervalShrinksDownToMinOnChanges() {
+        SegmentRefreshSchedule schedule = new SegmentRefreshSchedule(30000, 100000, 600000, 0);
+
+        schedule.onFetched("segment", true, 0);
+        Assert.assertEquals(50000, schedule.intervalMillis("segment"));
+        schedule.onFetched("segment", true, 50000);
+        Assert.assertEquals(30000, schedule.intervalMillis("segment"));
+        Assert.assertTrue(schedule.isDue("segment", 80000));
+        Assert.assertEquals(100000, schedule.intervalMillis("other"));
+    }
+
+    @Test
+    public void resetGoesBackToBase() {
+        SegmentRefreshSchedule schedule = new SegmentRefreshSchedule(30000, 60000, 600000, 0);
+        schedule.onFetched("segment", false, 0);
+        schedule.onFetched("segment", false, 0);
+        Assert.assertEquals(135000, schedule.intervalMillis("segment"));
+
+        schedule.reset("segment", 1000);
+        Assert.assertEquals(60000, schedule.intervalMillis("segment"));
+        Assert.assertFalse(schedule.isDue("segment", 60999));
+        Assert.assertTrue(schedule.isDue("segment", 61000));
+    }
+
+    @Test
+    public void nextFetchIsJittered() {
+        SegmentRefreshSchedule schedule = new SegmentRefreshSchedule(30000, 60000, 600000, 0.1);
+        for (int i = 0; i < 100; i++) {
+            schedule.reset("segment", 0);
+            Assert.assertFalse(schedule.isDue("segment", 53999));
+            Assert.assertTrue(schedule.isDue("segment", 66000));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void baseMustBeWithinBounds() {
+        new SegmentRefreshSchedule(60000, 30000, 600000, 0);
+    }
+}
@@ -1,10 +1,12 @@
 package io.split.engine.segments;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import io.split.client.LocalhostSegmentChangeFetcher;
 import io.split.client.JsonLocalhostSplitChangeFetcher;
 import io.split.client.interceptors.FlagSetsFilter;
 import io.split.client.interceptors.FlagSetsFilterImpl;
+import io.split.client.dtos.SegmentChange;
 import io.split.client.utils.InputStreamProvider;
 import io.split.client.utils.StaticContentInputStreamProvider;
 import io.split.engine.common.FetchOptions;
@@ -33,8 +35,10 @@ import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -182,4 +186,84 @@ public class SegmentSynchronizationTaskImpTest {
 
         Mockito.verify(segmentChangeFetcher, Mockito.times(1)).fetch("segment_1",-1, fetchOptions);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fetchDueOnlyFetchesSegmentsWhoseIntervalElapsed() {
+        SegmentCacheProducer segmentCacheProducer = new SegmentCacheInMemoryImpl();
+        SplitCacheConsumer splitCacheConsumer = Mockito.mock(SplitCacheConsumer.class);
+        Mockito.when(splitCacheConsumer.getSegments()).thenReturn(Sets.newHashSet("changing", "stable"));
+
+        AsyncSegmentChangeFetcher segmentChangeFetcher = Mockito.mock(AsyncSegmentChangeFetcher.class);
+        Mockito.when(segmentChangeFetcher.fetchAsync(Mockito.eq("changing"), Mockito.anyLong(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    long since = (Long) invocation.getArguments()[1];
+                    return CompletableFuture.completedFuture(segmentChange("changing", since, since == -1L ? 1L : since));
+                });
+        Mockito.when(segmentChangeFetcher.fetchAsync(Mockito.eq("stable"), Mockito.anyLong(), Mockito.any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(segmentChange("stable", -1L, -1L)));
+
+        SegmentSynchronizationTaskImp task = new SegmentSynchronizationTaskImp(segmentChangeFetcher, 60L, 30L, 600L, 1,
+                segmentCacheProducer, TELEMETRY_STORAGE, splitCacheConsumer, null);
+
+        task.fetchDue();
+        SegmentRefreshSchedule schedule = task.getSchedule();
+        assertEquals(30000L, schedule.intervalMillis("changing"));
+        assertEquals(90000L, schedule.intervalMillis("stable"));
+
+        // Neither is due right after being fetched.
+        task.fetchDue();
+        Mockito.verify(segmentChangeFetcher, Mockito.times(1)).fetchAsync(Mockito.eq("stable"), Mockito.anyLong(), Mockito.any());
+
+        task.resetRefreshInterval("stable");
+        assertEquals(60000L, schedule.intervalMillis("stable"));
+        task.close();
+    }
+
+    @Test
+    public void segmentsReferencedDuringStartupAreFetchedOnce() {
+        SegmentCacheProducer segmentCacheProducer = new SegmentCacheInMemoryImpl();
+        SplitCacheConsumer splitCacheConsumer = Mockito.mock(SplitCacheConsumer.class);
+        Mockito.when(splitCacheConsumer.getSegments()).thenReturn(Sets.newHashSet("early", "late"));
+
+        AsyncSegmentChangeFetcher segmentChangeFetcher = Mockito.mock(AsyncSegmentChangeFetcher.class);
+        CompletableFuture<SegmentChange> earlyResponse = new CompletableFuture<>();
+        Mockito.when(segmentChangeFetcher.fetchAsync(Mockito.eq("early"), Mockito.anyLong(), Mockito.any())).thenReturn(earlyResponse);
+        Mockito.when(segmentChangeFetcher.fetchAsync(Mockito.eq("early"), Mockito.eq(3L), Mockito.any()))
+                .thenReturn(CompletableFuture.completedFuture(segmentChange("early", 3L, 3L)));
+        Mockito.when(segmentChangeFetcher.fetchAsync(Mockito.eq("late"), Mockito.anyLong(), Mockito.any()))
+                .thenReturn(CompletableFuture.completedFuture(segmentChange("late", -1L, -1L)));
+
+        SegmentSynchronizationTaskImp task = new SegmentSynchronizationTaskImp(segmentChangeFetcher, 60L, 1, segmentCacheProducer,
+                TELEMETRY_STORAGE, splitCacheConsumer, null);
+
+        task.onSegmentReferenced("early");
+        task.onSegmentReferenced("early");
+        Mockito.verify(segmentChangeFetcher, Mockito.times(1)).fetchAsync(Mockito.eq("early"), Mockito.eq(-1L), Mockito.any());
+
+        earlyResponse.complete(segmentChange("early", -1L, 3L));
+        Assert.assertTrue(task.fetchAllSynchronous());
+
+        // The fetch started while parsing was reused, not issued again.
+        Mockito.verify(segmentChangeFetcher, Mockito.times(1)).fetchAsync(Mockito.eq("early"), Mockito.eq(-1L), Mockito.any());
+        Mockito.verify(segmentChangeFetcher, Mockito.times(1)).fetchAsync(Mockito.eq("late"), Mockito.eq(-1L), Mockito.any());
+        assertEquals(3L, segmentCacheProducer.getChangeNumber("early"));
+
+        // Once started up, the synchronizer fetches the segments of updated feature flags on its own.
+        task.onSegmentReferenced("updated");
+        Mockito.verify(segmentChangeFetcher, Mockito.never()).fetchAsync(Mockito.eq("updated"), Mockito.anyLong(), Mockito.any());
+        task.close();
+    }
+
+    private static SegmentChange segmentChange(String name, long since, long till) {
+        SegmentChange change = new SegmentChange();
+        change.name = name;
+        change.since = since;
+        change.till = till;
+        change.added = new ArrayList<>();
+        change.removed = new ArrayList<>();
+        if (since != till) {
+            change.added.add("key" + till);
+        }
+        return change;
+    }
+}
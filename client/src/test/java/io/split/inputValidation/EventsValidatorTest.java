@@ -33,6 +33,25 @@ public class EventsValidatorTest {
         Assert.assertFalse(result.getSuccess());
     }
 
+    @Test
+    public void validPropertiesAreNotCopied() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("prop1", 1);
+        properties.put("prop2", "something");
+        properties.put("prop3", null);
+
+        EventsValidator.EventValidatorResult result = EventsValidator.propertiesAreValid(properties);
+        Assert.assertTrue(result.getSuccess());
+        Assert.assertEquals(1024 + 15 + 9, result.getEventSize());
+        Assert.assertSame(properties, result.getValue());
+
+        properties.put("prop4", new Object());
+        result = EventsValidator.propertiesAreValid(properties);
+        Assert.assertNotSame(properties, result.getValue());
+        Assert.assertEquals(4, result.getValue().size());
+        Assert.assertNull(result.getValue().get("prop4"));
+    }
+
     @Test
     public void typeIsValidWorks() {
         boolean result = EventsValidator.typeIsValid("event_type_id", "test");
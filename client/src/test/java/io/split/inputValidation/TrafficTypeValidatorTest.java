@@ -33,4 +33,24 @@ public class TrafficTypeValidatorTest {
 
         Assert.assertFalse(result.isPresent());
     }
+
+    @Test
+    public void memoIsKeyedToTheChangeNumber() {
+        SplitCacheConsumer splitCacheConsumer = Mockito.mock(SplitCacheConsumer.class);
+        Mockito.when(splitCacheConsumer.getChangeNumber()).thenReturn(1L);
+        Mockito.when(splitCacheConsumer.trafficTypeExists("user")).thenReturn(false);
+        TrafficTypeMemo memo = new TrafficTypeMemo();
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(Optional.of("user"), TrafficTypeValidator.isValid("user", splitCacheConsumer, "test", memo));
+        }
+        Mockito.verify(splitCacheConsumer, Mockito.times(1)).trafficTypeExists("user");
+        Assert.assertFalse(memo.exists("user", splitCacheConsumer));
+
+        Mockito.when(splitCacheConsumer.getChangeNumber()).thenReturn(2L);
+        Mockito.when(splitCacheConsumer.trafficTypeExists("user")).thenReturn(true);
+        Assert.assertTrue(memo.exists("user", splitCacheConsumer));
+        Assert.assertTrue(memo.exists("user", splitCacheConsumer));
+        Mockito.verify(splitCacheConsumer, Mockito.times(2)).trafficTypeExists("user");
+    }
 }
@@ -0,0 +1,169 @@
+package io.split.storages.disk;
+
+import io.split.telemetry.domain.enums.EventsDataRecordsEnum;
+import io.split.telemetry.domain.enums.ImpressionsDataTypeEnum;
+import io.split.telemetry.storage.InMemoryTelemetryStorage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SpillLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private InMemoryTelemetryStorage _telemetryStorage;
+
+    @Before
+    public void setUp() {
+        _telemetryStorage = new InMemoryTelemetryStorage();
+    }
+
+    @Test
+    public void testAppendAndReplayInOrder() throws IOException {
+        SpillLog spillLog = new SpillLog(folder.getRoot(), SpillLog.Kind.IMPRESSIONS, 1024 * 1024, 60000, 256, _telemetryStorage, null);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(spillLog.append(("payload-" + i).getBytes(StandardCharsets.UTF_8), 2));
+        }
+        Assert.assertEquals(20, spillLog.pendingItems());
+        Assert.assertEquals(20, _telemetryStorage.getImpressionsStats(ImpressionsDataTypeEnum.IMPRESSIONS_SPILLED));
+
+        List<String> posted = new ArrayList<>();
+        spillLog.startReplay(payload -> posted.add(new String(payload, StandardCharsets.UTF_8)));
+        Assert.assertEquals(10, spillLog.replay());
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("payload-" + i, posted.get(i));
+        }
+        Assert.assertEquals(0, spillLog.pendingItems());
+        Assert.assertEquals(20, _telemetryStorage.getImpressionsStats(ImpressionsDataTypeEnum.IMPRESSIONS_REPLAYED));
+        spillLog.close();
+    }
+
+    @Test
+    public void testFailedReplayKeepsRecords() throws IOException {
+        SpillLog spillLog = new SpillLog(folder.getRoot(), SpillLog.Kind.EVENTS, 1024 * 1024, 60000, 256, _telemetryStorage, null);
+        spillLog.append("first".getBytes(StandardCharsets.UTF_8), 1);
+        spillLog.append("second".getBytes(StandardCharsets.UTF_8), 1);
+
+        spillLog.startReplay(payload -> false);
+        Assert.assertEquals(-1, spillLog.replay());
+        Assert.assertEquals(2, spillLog.pendingItems());
+        Assert.assertEquals(0, _telemetryStorage.getEventStats(EventsDataRecordsEnum.EVENTS_REPLAYED));
+        spillLog.close();
+    }
+
+    @Test
+    public void testRecoveryAcrossInstances() throws IOException {
+        SpillLog spillLog = new SpillLog(folder.getRoot(), SpillLog.Kind.EVENTS, 1024 * 1024, 60000, 256, _telemetryStorage, null);
+        for (int i = 0; i < 5; i++) {
+            spillLog.append(("event-" + i).getBytes(StandardCharsets.UTF_8), 1);
+        }
+        spillLog.startReplay(payload -> true);
+        spillLog.replay();
+        spillLog.append("event-5".getBytes(StandardCharsets.UTF_8), 1);
+        spillLog.append("event-6".getBytes(StandardCharsets.UTF_8), 1);
+        spillLog.close();
+
+        SpillLog recovered = new SpillLog(folder.getRoot(), SpillLog.Kind.EVENTS, 1024 * 1024, 60000, 256, _telemetryStorage, null);
+        Assert.assertEquals(2, recovered.pendingItems());
+        List<String> posted = new ArrayList<>();
+        recovered.startReplay(payload -> posted.add(new String(payload, StandardCharsets.UTF_8)));
+        Assert.assertEquals(2, recovered.replay());
+        Assert.assertEquals("event-5", posted.get(0));
+        Assert.assertEquals("event-6", posted.get(1));
+        recovered.close();
+    }
+
+    @Test
+    public void testRecoveryStopsAtCorruptedRecord() throws IOException {
+        SpillLog spillLog = new SpillLog(folder.getRoot(), SpillLog.Kind.EVENTS, 1024 * 1024, 60000, 256, _telemetryStorage, null);
+        spillLog.append("good".getBytes(StandardCharsets.UTF_8), 1);
+        spillLog.append("bad".getBytes(StandardCharsets.UTF_8), 1);
+        spillLog.close();
+
+        File segment = SpillSegment.fileFor(new File(folder.getRoot(), "events"), 0);
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            // Flip a byte in the payload of the second record.
+            raf.seek(SpillSegment.FRAME_HEADER_BYTES + 4 + SpillSegment.FRAME_HEADER_BYTES);
+            raf.write('X');
+        }
+
+        SpillLog recovered = new SpillLog(folder.getRoot(), SpillLog.Kind.EVENTS, 1024 * 1024, 60000, 256, _telemetryStorage, null);
+        Assert.assertEquals(1, recovered.pendingItems());
+        recovered.close();
+    }
+
+    @Test
+    public void testOldestSegmentsDiscardedWhenFull() throws IOException {
+        SpillLog spillLog = new SpillLog(folder.getRoot(), SpillLog.Kind.IMPRESSIONS, 1024, 60000, 256, _telemetryStorage, null);
+        byte[] payload = new byte[100];
+        for (int i = 0; i < 20; i++) {
+            spillLog.append(payload, 1);
+        }
+        // 2 records per 256 bytes segment, 4 segments fit in 1024 bytes.
+        Assert.assertEquals(8, spillLog.pendingItems());
+        Assert.assertEquals(20, _telemetryStorage.getImpressionsStats(ImpressionsDataTypeEnum.IMPRESSIONS_SPILLED));
+        Assert.assertEquals(12, _telemetryStorage.getImpressionsStats(ImpressionsDataTypeEnum.IMPRESSIONS_SPILL_DISCARDED));
+        Assert.assertFalse(spillLog.append(new byte[2048], 3));
+        Assert.assertEquals(15, _telemetryStorage.getImpressionsStats(ImpressionsDataTypeEnum.IMPRESSIONS_SPILL_DISCARDED));
+        spillLog.close();
+    }
+
+    @Test
+    public void testExpiredSegmentsArePruned() throws IOException, InterruptedException {
+        SpillLog spillLog = new SpillLog(folder.getRoot(), SpillLog.Kind.EVENTS, 1024 * 1024, 50, 256, _telemetryStorage, null);
+        spillLog.append("old".getBytes(StandardCharsets.UTF_8), 4);
+        Thread.sleep(100);
+
+        List<String> posted = new ArrayList<>();
+        spillLog.startReplay(payload -> posted.add(new String(payload, StandardCharsets.UTF_8)));
+        Assert.assertEquals(0, spillLog.replay());
+        Assert.assertTrue(posted.isEmpty());
+        Assert.assertEquals(4, _telemetryStorage.getEventStats(EventsDataRecordsEnum.EVENTS_SPILL_DISCARDED));
+        spillLog.close();
+    }
+
+    @Test
+    public void testOldRecordsExpireWhileTheirSegmentKeepsGrowing() throws IOException, InterruptedException {
+        SpillLog spillLog = new SpillLog(folder.getRoot(), SpillLog.Kind.EVENTS, 1024 * 1024, 100, 1024, _telemetryStorage, null);
+        spillLog.append("old".getBytes(StandardCharsets.UTF_8), 4);
+        Thread.sleep(150);
+        spillLog.append("new".getBytes(StandardCharsets.UTF_8), 1);
+
+        List<String> posted = new ArrayList<>();
+        spillLog.startReplay(payload -> posted.add(new String(payload, StandardCharsets.UTF_8)));
+        Assert.assertEquals(1, spillLog.replay());
+        Assert.assertEquals(1, posted.size());
+        Assert.assertEquals("new", posted.get(0));
+        Assert.assertEquals(4, _telemetryStorage.getEventStats(EventsDataRecordsEnum.EVENTS_SPILL_DISCARDED));
+        spillLog.close();
+    }
+
+    @Test
+    public void testRecoveredRecordsKeepTheirAge() throws IOException, InterruptedException {
+        SpillLog spillLog = new SpillLog(folder.getRoot(), SpillLog.Kind.EVENTS, 1024 * 1024, 100, 256, _telemetryStorage, null);
+        spillLog.append("old".getBytes(StandardCharsets.UTF_8), 2);
+        spillLog.close();
+        Thread.sleep(150);
+
+        File segment = SpillSegment.fileFor(new File(folder.getRoot(), "events"), 0);
+        Assert.assertTrue(segment.setLastModified(System.currentTimeMillis()));
+        SpillLog recovered = new SpillLog(folder.getRoot(), SpillLog.Kind.EVENTS, 1024 * 1024, 100, 256, _telemetryStorage, null);
+        Assert.assertEquals(2, recovered.pendingItems());
+        recovered.startReplay(payload -> true);
+        Assert.assertEquals(0, recovered.replay());
+        Assert.assertEquals(0, recovered.pendingItems());
+        Assert.assertEquals(2, _telemetryStorage.getEventStats(EventsDataRecordsEnum.EVENTS_SPILL_DISCARDED));
+        recovered.close();
+    }
+}
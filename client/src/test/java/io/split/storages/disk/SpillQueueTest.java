@@ -0,0 +1,71 @@
+package io.split.storages.disk;
+
+import io.split.telemetry.domain.enums.EventsDataRecordsEnum;
+import io.split.telemetry.domain.enums.ImpressionsDataTypeEnum;
+import io.split.telemetry.storage.InMemoryTelemetryStorage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SpillQueueTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private InMemoryTelemetryStorage _telemetryStorage;
+
+    @Before
+    public void setUp() {
+        _telemetryStorage = new InMemoryTelemetryStorage();
+    }
+
+    @Test
+    public void offeredItemsAreWrittenInBatchesOffTheCallerThread() throws IOException, InterruptedException {
+        SpillLog spillLog = new SpillLog(folder.getRoot(), SpillLog.Kind.IMPRESSIONS, 1024 * 1024, 60000, 4096, _telemetryStorage, null);
+        List<String> serializedOn = new ArrayList<>();
+        SpillQueue<String> spillQueue = new SpillQueue<>(spillLog, 10, batch -> {
+            serializedOn.add(Thread.currentThread().getName());
+            return String.join(",", batch).getBytes(StandardCharsets.UTF_8);
+        });
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(spillQueue.offer("item-" + i));
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        // the spilled count is recorded once the records are written.
+        while (_telemetryStorage.getImpressionsStats(ImpressionsDataTypeEnum.IMPRESSIONS_SPILLED) < 5
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assert.assertEquals(5, spillLog.pendingItems());
+        Assert.assertEquals(0, spillQueue.pending());
+        Assert.assertEquals(5, _telemetryStorage.getImpressionsStats(ImpressionsDataTypeEnum.IMPRESSIONS_SPILLED));
+        Assert.assertFalse(serializedOn.contains(Thread.currentThread().getName()));
+        spillLog.close();
+    }
+
+    @Test
+    public void itemsAreDroppedWhenTheHandOffIsFull() throws IOException {
+        SpillLog spillLog = new SpillLog(folder.getRoot(), SpillLog.Kind.EVENTS, 1024 * 1024, 60000, 4096, _telemetryStorage, null);
+        // Once closed nothing drains the hand-off.
+        spillLog.close();
+        SpillQueue<String> spillQueue = new SpillQueue<>(spillLog, 2, batch -> new byte[0]);
+
+        Assert.assertTrue(spillQueue.offer("first"));
+        Assert.assertTrue(spillQueue.offer("second"));
+        Assert.assertFalse(spillQueue.offer("third"));
+        Assert.assertEquals(1, _telemetryStorage.getEventStats(EventsDataRecordsEnum.EVENTS_DROPPED));
+
+        spillQueue.drain();
+        Assert.assertEquals(2, spillLog.pendingItems());
+        Assert.assertEquals(2, _telemetryStorage.getEventStats(EventsDataRecordsEnum.EVENTS_SPILLED));
+    }
+}
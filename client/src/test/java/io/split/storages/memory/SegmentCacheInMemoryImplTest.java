@@ -5,6 +5,8 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -75,4 +77,19 @@ public class SegmentCacheInMemoryImplTest extends TestCase {
         segmentCacheInMemory.updateSegment(FAKE_SEGMENT_NAME,Stream.of("KEY3", "KEY2").collect(Collectors.toList()), new ArrayList<>(), 1L);
         Assert.assertEquals(4, segmentCacheInMemory.getKeyCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReplaceSegment() {
+        SegmentCacheInMemoryImpl segmentCacheInMemory = new SegmentCacheInMemoryImpl();
+        segmentCacheInMemory.updateSegment(SEGMENT_NAME, Stream.of("old").collect(Collectors.toList()), new ArrayList<>(), 1L);
+        Set<String> keys = ConcurrentHashMap.newKeySet();
+        keys.add(KEY);
+
+        segmentCacheInMemory.replaceSegment(SEGMENT_NAME, keys, CHANGE_NUMBER);
+
+        assertTrue(segmentCacheInMemory.isInSegment(SEGMENT_NAME, KEY));
+        assertFalse(segmentCacheInMemory.isInSegment(SEGMENT_NAME, "old"));
+        assertEquals(CHANGE_NUMBER, segmentCacheInMemory.getChangeNumber(SEGMENT_NAME));
+        assertEquals(1L, segmentCacheInMemory.getKeyCount());
+    }
+}
@@ -0,0 +1,102 @@
+package io.split.telemetry.metrics;
+
+import com.google.common.collect.Lists;
+import io.split.storages.SegmentCacheConsumer;
+import io.split.storages.SplitCacheConsumer;
+import io.split.telemetry.domain.StreamingEvent;
+import io.split.telemetry.domain.enums.HTTPLatenciesEnum;
+import io.split.telemetry.domain.enums.ImpressionsDataTypeEnum;
+import io.split.telemetry.domain.enums.LastSynchronizationRecordsEnum;
+import io.split.telemetry.domain.enums.MethodEnum;
+import io.split.telemetry.domain.enums.StreamEventsEnum;
+import io.split.telemetry.storage.InMemoryTelemetryStorage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SdkMetricsTest {
+
+    private InMemoryTelemetryStorage _telemetry;
+    private SplitCacheConsumer _splitCache;
+    private SegmentCacheConsumer _segmentCache;
+
+    @Before
+    public void setUp() {
+        _telemetry = new InMemoryTelemetryStorage();
+        _splitCache = Mockito.mock(SplitCacheConsumer.class);
+        _segmentCache = Mockito.mock(SegmentCacheConsumer.class);
+        Mockito.when(_splitCache.splitNames()).thenReturn(Lists.newArrayList("a", "b"));
+        Mockito.when(_splitCache.getChangeNumber()).thenReturn(-1L);
+        Mockito.when(_segmentCache.getSegmentCount()).thenReturn(3L);
+        Mockito.when(_segmentCache.getKeyCount()).thenReturn(42L);
+    }
+
+    @Test
+    public void testUnknownValuesBeforeTheFirstSync() {
+        SdkMetricsSnapshot snapshot = new SdkMetrics(_telemetry, _splitCache, _segmentCache, null, null).snapshot();
+
+        Assert.assertEquals(-1L, snapshot.get(SdkMetrics.IMPRESSIONS_QUEUE_DEPTH));
+        Assert.assertEquals(-1L, snapshot.get(SdkMetrics.EVENTS_QUEUE_BYTES));
+        Assert.assertEquals(-1L, snapshot.get(SdkMetrics.SPLITS_CHANGE_NUMBER_LAG_MILLIS));
+        Assert.assertEquals(-1L, snapshot.get(SdkMetrics.SPLITS_SYNC_AGE_MILLIS));
+        Assert.assertEquals(-1L, snapshot.get(SdkMetrics.SSE_CONNECTED_AT));
+        Assert.assertEquals(0d, snapshot.get(SdkMetrics.IMPRESSIONS_DEDUPE_RATIO));
+        Assert.assertEquals(2, snapshot.get(SdkMetrics.SPLITS_COUNT));
+        Assert.assertEquals(3L, snapshot.get(SdkMetrics.SEGMENTS_COUNT));
+        Assert.assertEquals(42L, snapshot.get(SdkMetrics.SEGMENTS_KEYS));
+        Assert.assertEquals(0L, snapshot.get("latency.getTreatment.count"));
+    }
+
+    @Test
+    public void testValuesAreReadOnEverySnapshot() {
+        QueueStats impressions = Mockito.mock(QueueStats.class);
+        Mockito.when(impressions.queueDepth()).thenReturn(7L);
+        Mockito.when(impressions.queuedBytes()).thenReturn(700L);
+        SdkMetrics metrics = new SdkMetrics(_telemetry, _splitCache, _segmentCache, impressions, null);
+
+        long now = System.currentTimeMillis();
+        Mockito.when(_splitCache.getChangeNumber()).thenReturn(now - 5000);
+        _telemetry.recordSuccessfulSync(LastSynchronizationRecordsEnum.SPLITS, now - 1000);
+        _telemetry.recordImpressionStats(ImpressionsDataTypeEnum.IMPRESSIONS_QUEUED, 30);
+        _telemetry.recordImpressionStats(ImpressionsDataTypeEnum.IMPRESSIONS_DEDUPED, 10);
+        _telemetry.recordStreamingEvents(new StreamingEvent(StreamEventsEnum.CONNECTION_ESTABLISHED.getType(), 0, now - 2000));
+        _telemetry.recordStreamingEvents(new StreamingEvent(StreamEventsEnum.STREAMING_STATUS.getType(),
+                StreamEventsEnum.StreamingStatusValues.STREAMING_PAUSED.getValue(), now));
+        for (int i = 1; i <= 100; i++) {
+            _telemetry.recordLatency(MethodEnum.TREATMENT, TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        _telemetry.recordSyncLatency(HTTPLatenciesEnum.SPLITS, TimeUnit.MILLISECONDS.toNanos(20));
+
+        SdkMetricsSnapshot snapshot = metrics.snapshot();
+        Assert.assertEquals(7L, snapshot.get(SdkMetrics.IMPRESSIONS_QUEUE_DEPTH));
+        Assert.assertEquals(700L, snapshot.get(SdkMetrics.IMPRESSIONS_QUEUE_BYTES));
+        Assert.assertEquals(0.25d, snapshot.get(SdkMetrics.IMPRESSIONS_DEDUPE_RATIO));
+        Assert.assertTrue(snapshot.get(SdkMetrics.SPLITS_CHANGE_NUMBER_LAG_MILLIS).longValue() >= 5000);
+        Assert.assertTrue(snapshot.get(SdkMetrics.SPLITS_SYNC_AGE_MILLIS).longValue() >= 1000);
+        Assert.assertEquals(now - 2000, snapshot.get(SdkMetrics.SSE_CONNECTED_AT));
+        Assert.assertEquals(2L, snapshot.get(SdkMetrics.SSE_STREAMING_STATUS));
+        Assert.assertEquals(100L, snapshot.get("latency.getTreatment.count"));
+        Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(100), snapshot.get("latency.getTreatment.max_nanos"));
+        Assert.assertEquals(1L, snapshot.get("http.splits.latency.count"));
+
+        // Telemetry pops do not reset what the snapshot reports.
+        _telemetry.popLatencies();
+        Assert.assertEquals(100L, metrics.snapshot().get("latency.getTreatment.count"));
+    }
+
+    @Test
+    public void testRegisteredGaugesAreReadOnEverySnapshot() {
+        SdkMetrics metrics = new SdkMetrics(_telemetry, _splitCache, _segmentCache, null, null);
+        Assert.assertNull(metrics.snapshot().get(SdkMetrics.UNIQUE_KEYS_FILTER_FILL_RATIO));
+
+        AtomicLong fill = new AtomicLong(10);
+        metrics.registerGauge(SdkMetrics.UNIQUE_KEYS_FILTER_FILL_RATIO, () -> fill.get() / 100d);
+        Assert.assertEquals(0.1d, metrics.snapshot().get(SdkMetrics.UNIQUE_KEYS_FILTER_FILL_RATIO));
+        fill.set(25);
+        Assert.assertEquals(0.25d, metrics.snapshot().get(SdkMetrics.UNIQUE_KEYS_FILTER_FILL_RATIO));
+    }
+}
@@ -15,6 +15,7 @@ import io.split.telemetry.domain.enums.LastSynchronizationRecordsEnum;
 import io.split.telemetry.domain.enums.MethodEnum;
 import io.split.telemetry.domain.enums.ResourceEnum;
 import io.split.telemetry.domain.enums.UpdatesFromSSEEnum;
+import io.split.telemetry.utils.LatencyHistogram;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -256,4 +257,21 @@ public class InMemoryTelemetryStorageTest{
         UpdatesFromSSE updatesFromSSE = telemetryStorage.popUpdatesFromSSE();
         Assert.assertEquals(3, updatesFromSSE.getSplits());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLatencyHistogramsAreNotResetByPops() {
+        InMemoryTelemetryStorage telemetryStorage = new InMemoryTelemetryStorage();
+        telemetryStorage.recordLatency(MethodEnum.TREATMENT, 1500L * 1000);
+        telemetryStorage.recordLatency(MethodEnum.TREATMENT, 2500L * 1000);
+        telemetryStorage.recordSyncLatency(HTTPLatenciesEnum.SPLITS, 80L * 1000 * 1000);
+        telemetryStorage.popLatencies();
+        telemetryStorage.popHTTPLatencies();
+
+        LatencyHistogram.Snapshot treatment = telemetryStorage.getLatencyHistogram(MethodEnum.TREATMENT);
+        Assert.assertEquals(2, treatment.count());
+        Assert.assertEquals(2500L * 1000, treatment.maxNanos());
+        Assert.assertTrue(Math.abs(treatment.percentileNanos(50) - 1500L * 1000) <= 1500L * 1000 / 32);
+        Assert.assertEquals(0, telemetryStorage.getLatencyHistogram(MethodEnum.TRACK).count());
+        Assert.assertEquals(1, telemetryStorage.getHTTPLatencyHistogram(HTTPLatenciesEnum.SPLITS).count());
+    }
+}
@@ -48,4 +48,26 @@ public class AtomicLongArrayTest {
         Assert.assertEquals(0, atomicLongArray.fetchAndClearAll().stream().mapToInt(Long::intValue).sum());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testConcurrentIncrementsAreNotLost() throws InterruptedException {
+        AtomicLongArray atomicLongArray = new AtomicLongArray(SIZE);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    atomicLongArray.increment(i % SIZE);
+                }
+            });
+            threads[t].start();
+        }
+        long total = 0;
+        for (int i = 0; i < 20; i++) {
+            total += atomicLongArray.fetchAndClearAll().stream().mapToLong(Long::longValue).sum();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        total += atomicLongArray.fetchAndClearAll().stream().mapToLong(Long::longValue).sum();
+        Assert.assertEquals(40000, total);
+    }
+}
@@ -0,0 +1,83 @@
+package io.split.telemetry.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsCoverTheRangeWithBoundedError() {
+        Assert.assertEquals(0, LatencyHistogram.bucketFor(0));
+        Assert.assertEquals(63, LatencyHistogram.bucketFor(63));
+        Assert.assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketFor(LatencyHistogram.MAX_TRACKABLE_NANOS));
+
+        int previous = -1;
+        for (long value = 1; value < LatencyHistogram.MAX_TRACKABLE_NANOS; value = value * 3 / 2 + 1) {
+            int bucket = LatencyHistogram.bucketFor(value);
+            Assert.assertTrue(bucket >= previous);
+            previous = bucket;
+            long highest = LatencyHistogram.highestValueIn(bucket);
+            Assert.assertTrue(highest >= value);
+            Assert.assertTrue((double) (highest - value) / value <= 1.0 / 32);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram(2);
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(1000, snapshot.count());
+        Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), snapshot.maxNanos());
+        assertClose(TimeUnit.MICROSECONDS.toNanos(500), snapshot.percentileNanos(50));
+        assertClose(TimeUnit.MICROSECONDS.toNanos(990), snapshot.percentileNanos(99));
+        assertClose(TimeUnit.MICROSECONDS.toNanos(999), snapshot.percentileNanos(99.9));
+        Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), snapshot.percentileNanos(100));
+        assertClose(TimeUnit.MICROSECONDS.toNanos(500), snapshot.meanNanos());
+    }
+
+    @Test
+    public void testSnapshotAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram(1);
+        histogram.record(100);
+        histogram.record(-1);
+        Assert.assertEquals(1, histogram.snapshotAndReset().count());
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(0, snapshot.count());
+        Assert.assertEquals(0, snapshot.percentileNanos(99));
+        Assert.assertEquals(0, LatencyHistogram.Snapshot.empty().count());
+    }
+
+    @Test
+    public void testConcurrentRecordsAreNotLost() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        List<Thread> threads = new ArrayList<>();
+        long[] collected = new long[1];
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    histogram.record(i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (int i = 0; i < 10; i++) {
+            collected[0] += histogram.snapshotAndReset().count();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        collected[0] += histogram.snapshotAndReset().count();
+        Assert.assertEquals(40000, collected[0]);
+    }
+
+    private static void assertClose(long expected, long actual) {
+        Assert.assertTrue(String.format("expected ~%d, got %d", expected, actual), Math.abs(actual - expected) <= expected / 32);
+    }
+}
@@ -221,4 +221,9 @@ public class SplitClientForTest implements SplitClient {
     public void blockUntilReady() throws TimeoutException, InterruptedException {
 
     }
+
+    @Override
+    public void blockUntilReady(List<String> featureFlagNames) throws TimeoutException, InterruptedException {
+
+    }
 }